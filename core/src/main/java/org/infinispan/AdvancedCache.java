@@ -497,6 +497,10 @@
     * <p/>
     * To improve performance you may use the {@code flag} {@link org.infinispan.context.Flag#SKIP_CACHE_LOAD} to avoid
     * fetching the key/value from persistence. However, you will get an inconsistent snapshot of the group.
+    * <p/>
+    * The keys in memory are found with the group index of the data container, so without persistence the cost is
+    * proportional to the size of the group. The distributed streams are not aware of groups and iterate over all the
+    * entries in the segments they process, so prefer this method to a stream filtered by group.
     *
     * @param groupName the group name.
     * @return an immutable {@link java.util.Map} with the key/value pairs.
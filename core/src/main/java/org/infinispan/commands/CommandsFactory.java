@@ -1,6 +1,7 @@
 package org.infinispan.commands;
 
 import org.infinispan.atomic.Delta;
+import org.infinispan.commands.control.DeadlockProbeCommand;
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.functional.ReadOnlyKeyCommand;
 import org.infinispan.commands.functional.ReadOnlyManyCommand;
@@ -22,6 +23,7 @@
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
+import org.infinispan.commands.remote.SegmentSizeCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
 import org.infinispan.commands.remote.recovery.CompleteTransactionCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand;
@@ -299,6 +301,22 @@ public interface CommandsFactory {
     */
    ClusteredGetAllCommand buildClusteredGetAllCommand(List<?> keys, long flagsBitSet, GlobalTransaction gtx);
 
+   /**
+    * Builds a SegmentSizeCommand, which reads the number of entries in the given segments from a node's
+    * per-segment counters
+    * @param segments segments to count
+    * @return a SegmentSizeCommand
+    */
+   SegmentSizeCommand buildSegmentSizeCommand(Set<Integer> segments);
+
+   /**
+    * Builds a DeadlockProbeCommand, which continues the search for a deadlock in the wait-for graph of another node
+    * @param path the chain of lock owners followed so far, each one waiting for the next one
+    * @param resolve {@code true} to cancel the lock requests of the first lock owner waiting for the second one
+    * @return a DeadlockProbeCommand
+    */
+   DeadlockProbeCommand buildDeadlockProbeCommand(List<Object> path, boolean resolve);
+
    /**
     * Builds a LockControlCommand to control explicit remote locking
     *
@@ -2,6 +2,7 @@
 
 import org.infinispan.Cache;
 import org.infinispan.atomic.Delta;
+import org.infinispan.commands.control.DeadlockProbeCommand;
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.functional.ReadOnlyKeyCommand;
 import org.infinispan.commands.functional.ReadOnlyManyCommand;
@@ -24,6 +25,7 @@
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
+import org.infinispan.commands.remote.SegmentSizeCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
 import org.infinispan.commands.remote.recovery.CompleteTransactionCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand;
@@ -252,7 +254,9 @@ public ReplaceCommand buildReplaceCommand(Object key, Object oldValue, Object ne
 
    @Override
    public SizeCommand buildSizeCommand(Set<Flag> flags) {
-      return new SizeCommand(cache, flags);
+      SizeCommand command = new SizeCommand(cache, flags);
+      command.init(this, stateTransferManager, configuration);
+      return command;
    }
 
    @Override
@@ -482,6 +486,14 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
             clusteredGetAllCommand.init(icf, this, entryFactory, interceptorChain, txTable,
                   configuration.dataContainer().keyEquivalence());
             break;
+         case SegmentSizeCommand.COMMAND_ID:
+            SegmentSizeCommand segmentSizeCommand = (SegmentSizeCommand) c;
+            segmentSizeCommand.init(dataContainer, stateTransferManager);
+            break;
+         case DeadlockProbeCommand.COMMAND_ID:
+            DeadlockProbeCommand deadlockProbeCommand = (DeadlockProbeCommand) c;
+            deadlockProbeCommand.init(lockManager);
+            break;
          case StreamRequestCommand.COMMAND_ID:
             StreamRequestCommand streamRequestCommand = (StreamRequestCommand) c;
             streamRequestCommand.inject(localStreamManager);
@@ -645,6 +657,16 @@ public ClusteredGetAllCommand buildClusteredGetAllCommand(List<?> keys, long fla
       return new ClusteredGetAllCommand(cacheName, keys, flagsBitSet, gtx, configuration.dataContainer().keyEquivalence());
    }
 
+   @Override
+   public SegmentSizeCommand buildSegmentSizeCommand(Set<Integer> segments) {
+      return new SegmentSizeCommand(cacheName, segments);
+   }
+
+   @Override
+   public DeadlockProbeCommand buildDeadlockProbeCommand(List<Object> path, boolean resolve) {
+      return new DeadlockProbeCommand(cacheName, path, resolve);
+   }
+
    private CommandInvocationId generateUUID() {
       return CommandInvocationId.generateId(clusteringDependentLogic.getAddress());
    }
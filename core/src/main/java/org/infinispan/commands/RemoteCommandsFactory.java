@@ -1,5 +1,6 @@
 package org.infinispan.commands;
 
+import org.infinispan.commands.control.DeadlockProbeCommand;
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.functional.ReadWriteKeyCommand;
 import org.infinispan.commands.functional.ReadWriteKeyValueCommand;
@@ -17,6 +18,7 @@
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
+import org.infinispan.commands.remote.SegmentSizeCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
 import org.infinispan.commands.remote.recovery.CompleteTransactionCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand;
@@ -295,6 +297,12 @@ public CacheRpcCommand fromStream(byte id, byte type, ByteString cacheName) {
             case StreamResponseCommand.COMMAND_ID:
                command = new StreamResponseCommand(cacheName);
                break;
+            case SegmentSizeCommand.COMMAND_ID:
+               command = new SegmentSizeCommand(cacheName);
+               break;
+            case DeadlockProbeCommand.COMMAND_ID:
+               command = new DeadlockProbeCommand(cacheName);
+               break;
             default:
                throw new CacheException("Unknown command id " + id + "!");
          }
@@ -0,0 +1,110 @@
+package org.infinispan.commands.control;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.infinispan.commands.remote.BaseRpcCommand;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.util.ByteString;
+import org.infinispan.util.concurrent.locks.DeadlockDetectingLockManager;
+import org.infinispan.util.concurrent.locks.LockManager;
+
+/**
+ * Follows the wait-for graph of the lock owners in the receiving node, to find deadlocks spanning multiple nodes.
+ * <p/>
+ * The path is a chain of lock owners where each one is waiting for the next one. The receiving node extends it with
+ * the lock owners the last one is waiting for in that node, and reports a deadlock if it gets back to the first one.
+ * When {@code resolve} is set, the path only contains the victim of a deadlock and the lock owner it is waiting for,
+ * and the receiving node cancels the lock requests of the victim waiting for it.
+ *
+ * @since 9.0
+ * @see DeadlockDetectingLockManager
+ */
+public class DeadlockProbeCommand extends BaseRpcCommand {
+   public static final byte COMMAND_ID = 62;
+
+   private List<Object> path;
+   private boolean resolve;
+
+   private LockManager lockManager;
+
+   DeadlockProbeCommand() {
+      super(null);
+   }
+
+   public DeadlockProbeCommand(ByteString cacheName) {
+      super(cacheName);
+   }
+
+   public DeadlockProbeCommand(ByteString cacheName, List<Object> path, boolean resolve) {
+      super(cacheName);
+      this.path = path;
+      this.resolve = resolve;
+   }
+
+   public void init(LockManager lockManager) {
+      this.lockManager = lockManager;
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      if (lockManager instanceof DeadlockDetectingLockManager) {
+         DeadlockDetectingLockManager deadlockDetectingLockManager = (DeadlockDetectingLockManager) lockManager;
+         if (resolve) {
+            deadlockDetectingLockManager.resolveRemoteDeadlock(path.get(0), path.get(1));
+         } else {
+            deadlockDetectingLockManager.probe(path);
+         }
+      }
+      return null;
+   }
+
+   public List<Object> getPath() {
+      return path;
+   }
+
+   public boolean isResolve() {
+      return resolve;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return false;
+   }
+
+   @Override
+   public boolean canBlock() {
+      // canceling a lock request may resume the commands waiting for it, don't run them in the transport thread
+      return true;
+   }
+
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      MarshallUtil.marshallCollection(path, output);
+      output.writeBoolean(resolve);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      path = MarshallUtil.unmarshallCollection(input, ArrayList::new);
+      resolve = input.readBoolean();
+   }
+
+   @Override
+   public String toString() {
+      return "DeadlockProbeCommand{" +
+            "cacheName=" + cacheName +
+            ", path=" + path +
+            ", resolve=" + resolve +
+            '}';
+   }
+}
@@ -1,11 +1,28 @@
 package org.infinispan.commands.read;
 
 import org.infinispan.Cache;
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.commands.VisitableCommand;
 import org.infinispan.commands.Visitor;
+import org.infinispan.commands.remote.SegmentSizeCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.remoting.rpc.ResponseMode;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.topology.CacheTopology;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -18,6 +35,9 @@
  */
 public class SizeCommand extends AbstractLocalCommand implements VisitableCommand {
    private final Cache<Object, ?> cache;
+   private CommandsFactory commandsFactory;
+   private StateTransferManager stateTransferManager;
+   private Configuration configuration;
 
    public SizeCommand(Cache<Object, ?> cache, Set<Flag> flags) {
       setFlags(flags);
@@ -28,6 +48,13 @@ public SizeCommand(Cache<Object, ?> cache, Set<Flag> flags) {
       }
    }
 
+   public void init(CommandsFactory commandsFactory, StateTransferManager stateTransferManager,
+         Configuration configuration) {
+      this.commandsFactory = commandsFactory;
+      this.stateTransferManager = stateTransferManager;
+      this.configuration = configuration;
+   }
+
    @Override
    public Object acceptVisitor(InvocationContext ctx, Visitor visitor) throws Throwable {
       return visitor.visitSizeCommand(ctx, this);
@@ -40,7 +67,14 @@ public boolean readsExistingValues() {
 
    @Override
    public Integer perform(InvocationContext ctx) throws Throwable {
-      long size = cache.keySet().stream().count();
+      long size = -1;
+      if (commandsFactory != null && !ctx.isInTxScope() && !hasFlag(Flag.EXACT_SIZE) &&
+            !hasFlag(Flag.CACHE_MODE_LOCAL)) {
+         size = sizeFromSegmentCounters();
+      }
+      if (size < 0) {
+         size = cache.keySet().stream().count();
+      }
       if (size > Integer.MAX_VALUE) {
          return Integer.MAX_VALUE;
       } else {
@@ -48,6 +82,78 @@ public Integer perform(InvocationContext ctx) throws Throwable {
       }
    }
 
+   /**
+    * Sums the per-segment counters of the primary owners, with a single RPC to each member.
+    *
+    * @return the size of the cache, or {@code -1} if the counters might not be exact and the entries must be iterated
+    */
+   private long sizeFromSegmentCounters() throws Throwable {
+      if (configuration.persistence().usingStores() && !hasFlag(Flag.SKIP_CACHE_LOAD))
+         return -1;
+
+      CacheMode cacheMode = configuration.clustering().cacheMode();
+      if (!cacheMode.isDistributed()) {
+         // Local, invalidation and replicated caches hold all their entries locally
+         return localSize(allSegments());
+      }
+
+      CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
+      if (cacheTopology == null || cacheTopology.getPendingCH() != null)
+         return -1;
+
+      RpcManager rpcManager = cache.getAdvancedCache().getRpcManager();
+      ConsistentHash ch = cacheTopology.getCurrentCH();
+      long size = 0;
+      Map<Address, ReplicableCommand> commands = new HashMap<>();
+      for (Address member : ch.getMembers()) {
+         Set<Integer> segments = ch.getPrimarySegmentsForOwner(member);
+         if (segments.isEmpty())
+            continue;
+
+         if (member.equals(rpcManager.getAddress())) {
+            long localSize = localSize(segments);
+            if (localSize < 0)
+               return -1;
+            size += localSize;
+         } else {
+            commands.put(member, commandsFactory.buildSegmentSizeCommand(segments));
+         }
+      }
+      if (commands.isEmpty())
+         return size;
+
+      int expectedResponses = commands.size();
+      Map<Address, Response> responses = rpcManager.invokeRemotely(commands,
+            rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.NONE).build());
+      if (responses.size() != expectedResponses)
+         return -1;
+
+      for (Response response : responses.values()) {
+         Object value = response instanceof SuccessfulResponse ?
+               ((SuccessfulResponse) response).getResponseValue() : null;
+         if (value == null)
+            return -1;
+         size += (Long) value;
+      }
+      return size;
+   }
+
+   private long localSize(Set<Integer> segments) throws Throwable {
+      SegmentSizeCommand command = commandsFactory.buildSegmentSizeCommand(segments);
+      commandsFactory.initializeReplicableCommand(command, false);
+      Long size = (Long) command.perform(null);
+      return size != null ? size : -1;
+   }
+
+   private Set<Integer> allSegments() {
+      int numSegments = configuration.clustering().hash().numSegments();
+      Set<Integer> segments = new HashSet<>(numSegments);
+      for (int i = 0; i < numSegments; i++) {
+         segments.add(i);
+      }
+      return segments;
+   }
+
    @Override
    public String toString() {
       return "SizeCommand{}";
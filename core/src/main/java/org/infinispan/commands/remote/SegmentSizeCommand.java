@@ -0,0 +1,97 @@
+package org.infinispan.commands.remote;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.container.DataContainer;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.topology.CacheTopology;
+import org.infinispan.util.ByteString;
+
+/**
+ * Returns the number of entries a node holds in the given segments, as reported by the per-segment counters of
+ * its {@link DataContainer}.
+ * <p/>
+ * The result is {@code null} whenever the counters cannot be trusted to be exact: the container does not maintain
+ * them, a rebalance is in progress, or some of the entries can expire.
+ *
+ * @since 9.0
+ */
+public class SegmentSizeCommand extends BaseRpcCommand {
+   public static final byte COMMAND_ID = 61;
+
+   private Set<Integer> segments;
+
+   private DataContainer dataContainer;
+   private StateTransferManager stateTransferManager;
+
+   SegmentSizeCommand() {
+      super(null);
+   }
+
+   public SegmentSizeCommand(ByteString cacheName) {
+      super(cacheName);
+   }
+
+   public SegmentSizeCommand(ByteString cacheName, Set<Integer> segments) {
+      super(cacheName);
+      this.segments = segments;
+   }
+
+   public void init(DataContainer dataContainer, StateTransferManager stateTransferManager) {
+      this.dataContainer = dataContainer;
+      this.stateTransferManager = stateTransferManager;
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      if (stateTransferManager != null) {
+         // During a rebalance the new owners might not have received all the entries yet
+         CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
+         if (cacheTopology == null || cacheTopology.getPendingCH() != null)
+            return null;
+      }
+      long size = dataContainer.sizeIncludingExpired(segments);
+      if (size < 0 || dataContainer.expirableSizeIncludingExpired(segments) != 0)
+         return null;
+
+      return size;
+   }
+
+   public Set<Integer> getSegments() {
+      return segments;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      MarshallUtil.marshallCollection(segments, output);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      segments = MarshallUtil.unmarshallCollectionUnbounded(input, HashSet::new);
+   }
+
+   @Override
+   public String toString() {
+      return "SegmentSizeCommand{" +
+            "cacheName=" + cacheName +
+            ", segments=" + segments +
+            '}';
+   }
+}
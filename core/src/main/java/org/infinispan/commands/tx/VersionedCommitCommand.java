@@ -1,6 +1,5 @@
 package org.infinispan.commands.tx;
 
-import org.infinispan.commons.marshall.MarshallUtil;
 import org.infinispan.container.versioning.EntryVersionsMap;
 import org.infinispan.transaction.xa.GlobalTransaction;
 import org.infinispan.util.ByteString;
@@ -48,13 +47,13 @@ public byte getCommandId() {
    @Override
    public void writeTo(ObjectOutput output) throws IOException {
       super.writeTo(output); //write global tx
-      MarshallUtil.marshallMap(updatedVersions, output);
+      EntryVersionsMap.writeTo(output, updatedVersions);
    }
 
    @Override
    public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
       super.readFrom(input);
-      updatedVersions = MarshallUtil.unmarshallMap(input, EntryVersionsMap::new);
+      updatedVersions = EntryVersionsMap.readFrom(input);
    }
 
    @Override
@@ -1,7 +1,6 @@
 package org.infinispan.commands.tx;
 
 import org.infinispan.commands.write.WriteCommand;
-import org.infinispan.commons.marshall.MarshallUtil;
 import org.infinispan.container.versioning.EntryVersionsMap;
 import org.infinispan.transaction.xa.GlobalTransaction;
 import org.infinispan.util.ByteString;
@@ -52,13 +51,13 @@ public byte getCommandId() {
    @Override
    public void writeTo(ObjectOutput output) throws IOException {
       super.writeTo(output); //writes global tx, one phase, retried and mods.
-      MarshallUtil.marshallMap(versionsSeen, output);
+      EntryVersionsMap.writeTo(output, versionsSeen);
    }
 
    @Override
    public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
       super.readFrom(input);
-      versionsSeen = MarshallUtil.unmarshallMap(input, EntryVersionsMap::new);
+      versionsSeen = EntryVersionsMap.readFrom(input);
    }
 
    @Override
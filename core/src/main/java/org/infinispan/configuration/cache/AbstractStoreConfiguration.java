@@ -13,11 +13,12 @@ public class AbstractStoreConfiguration implements StoreConfiguration {
    public static final AttributeDefinition<Boolean> IGNORE_MODIFICATIONS = AttributeDefinition.builder("ignoreModifications", false).immutable().xmlName("read-only").build();
    public static final AttributeDefinition<Boolean> PRELOAD = AttributeDefinition.builder("preload", false).immutable().build();
    public static final AttributeDefinition<Boolean> SHARED = AttributeDefinition.builder("shared", false).immutable().build();
+   public static final AttributeDefinition<Boolean> NEGATIVE_LOOKUP_FILTER = AttributeDefinition.builder("negativeLookupFilter", false).immutable().build();
    public static final AttributeDefinition<TypedProperties> PROPERTIES = AttributeDefinition.builder("properties", null, TypedProperties.class)
          .initializer(() -> new TypedProperties()).autoPersist(false).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(AbstractStoreConfiguration.class, FETCH_PERSISTENT_STATE, PURGE_ON_STARTUP, IGNORE_MODIFICATIONS, PRELOAD, SHARED, PROPERTIES);
+      return new AttributeSet(AbstractStoreConfiguration.class, FETCH_PERSISTENT_STATE, PURGE_ON_STARTUP, IGNORE_MODIFICATIONS, PRELOAD, SHARED, NEGATIVE_LOOKUP_FILTER, PROPERTIES);
    }
 
    private final Attribute<Boolean> fetchPersistentState;
@@ -25,6 +26,7 @@ public static AttributeSet attributeDefinitionSet() {
    private final Attribute<Boolean> ignoreModifications;
    private final Attribute<Boolean> preload;
    private final Attribute<Boolean> shared;
+   private final Attribute<Boolean> negativeLookupFilter;
    private final Attribute<TypedProperties> properties;
 
    protected final AttributeSet attributes;
@@ -52,6 +54,7 @@ public AbstractStoreConfiguration(boolean purgeOnStartup, boolean fetchPersisten
       this.ignoreModifications = attributes.attribute(IGNORE_MODIFICATIONS);
       this.preload = attributes.attribute(PRELOAD);
       this.shared = attributes.attribute(SHARED);
+      this.negativeLookupFilter = attributes.attribute(NEGATIVE_LOOKUP_FILTER);
       this.properties = attributes.attribute(PROPERTIES);
    }
 
@@ -65,6 +68,7 @@ public AbstractStoreConfiguration(AttributeSet attributes, AsyncStoreConfigurati
       this.ignoreModifications = attributes.attribute(IGNORE_MODIFICATIONS);
       this.preload = attributes.attribute(PRELOAD);
       this.shared = attributes.attribute(SHARED);
+      this.negativeLookupFilter = attributes.attribute(NEGATIVE_LOOKUP_FILTER);
       this.properties = attributes.attribute(PROPERTIES);
    }
 
@@ -101,6 +105,11 @@ public boolean shared() {
       return shared.get();
    }
 
+   @Override
+   public boolean negativeLookupFilter() {
+      return negativeLookupFilter.get();
+   }
+
    /**
     * If true, fetch persistent state when joining a cluster. If multiple cache stores are chained,
     * only one of them can have this property enabled. Persistent state transfer with a shared cache
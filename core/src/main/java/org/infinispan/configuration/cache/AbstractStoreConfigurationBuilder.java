@@ -163,11 +163,24 @@ public S shared(boolean b) {
       return self();
    }
 
+   /**
+    * If true, the keys written to this store are tracked in a Bloom filter, and the loads of the keys that were never
+    * written are answered without querying the store. The filter is built from the keys in the store when the cache
+    * starts, so it can only be used if the store is not modified except through this cache.
+    */
+   public S negativeLookupFilter(boolean b) {
+      attributes.attribute(NEGATIVE_LOOKUP_FILTER).set(b);
+      return self();
+   }
+
    @Override
    public void validate() {
       async.validate();
       singletonStore.validate();
       boolean shared = attributes.attribute(SHARED).get();
+      if (shared && attributes.attribute(NEGATIVE_LOOKUP_FILTER).get()) {
+         throw log.negativeLookupFilterWithSharedStore();
+      }
       boolean fetchPersistentState = attributes.attribute(FETCH_PERSISTENT_STATE).get();
       boolean purgeOnStartup = attributes.attribute(PURGE_ON_STARTUP).get();
       boolean preload = attributes.attribute(PRELOAD).get();
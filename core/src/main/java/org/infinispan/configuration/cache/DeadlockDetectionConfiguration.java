@@ -28,8 +28,8 @@ static AttributeSet attributeDefinitionSet() {
    }
 
    /**
-    * Time period that determines how often is lock acquisition attempted within maximum time
-    * allowed to acquire a particular lock
+    * Time period after which a transaction that is still waiting for a lock starts searching for deadlocks in the
+    * other nodes of the cluster. Deadlocks within a single node are detected as soon as they happen.
     */
    public long spinDuration() {
       return attributes.attribute(SPIN_DURATION).get();
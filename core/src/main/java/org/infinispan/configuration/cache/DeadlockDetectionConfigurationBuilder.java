@@ -21,8 +21,8 @@ public class DeadlockDetectionConfigurationBuilder extends AbstractConfiguration
    }
 
    /**
-    * Time period that determines how often is lock acquisition attempted within maximum time
-    * allowed to acquire a particular lock
+    * Time period after which a transaction that is still waiting for a lock starts searching for deadlocks in the
+    * other nodes of the cluster. Deadlocks within a single node are detected as soon as they happen.
     */
    public DeadlockDetectionConfigurationBuilder spinDuration(long l) {
       attributes.attribute(SPIN_DURATION).set(l);
@@ -30,8 +30,8 @@ public DeadlockDetectionConfigurationBuilder spinDuration(long l) {
    }
 
    /**
-    * Time period that determines how often is lock acquisition attempted within maximum time
-    * allowed to acquire a particular lock
+    * Time period after which a transaction that is still waiting for a lock starts searching for deadlocks in the
+    * other nodes of the cluster. Deadlocks within a single node are detected as soon as they happen.
     */
    public DeadlockDetectionConfigurationBuilder spinDuration(long l, TimeUnit unit) {
       return spinDuration(unit.toMillis(l));
@@ -52,6 +52,10 @@ public LockingConfigurationBuilder isolationLevel(IsolationLevel isolationLevel)
       return this;
    }
 
+   IsolationLevel isolationLevel() {
+      return attributes.attribute(ISOLATION_LEVEL).get();
+   }
+
    /**
     * @see org.infinispan.configuration.cache.LockingConfiguration#supportsConcurrentUpdates()
     * @deprecated
@@ -100,6 +104,10 @@ public LockingConfigurationBuilder writeSkewCheck(boolean b) {
       return this;
    }
 
+   boolean writeSkewCheck() {
+      return attributes.attribute(WRITE_SKEW_CHECK).get();
+   }
+
    @Override
    public void validate() {
       if (attributes.attribute(WRITE_SKEW_CHECK).get()) {
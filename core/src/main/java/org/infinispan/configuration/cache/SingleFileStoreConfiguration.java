@@ -19,13 +19,22 @@ public class SingleFileStoreConfiguration extends AbstractStoreConfiguration {
    public static final AttributeDefinition<String> LOCATION = AttributeDefinition.builder("location", "Infinispan-SingleFileStore").immutable().xmlName("path").build();
    public static final AttributeDefinition<Integer> MAX_ENTRIES = AttributeDefinition.builder("maxEntries", -1).immutable().build();
    public static final AttributeDefinition<Float> FRAGMENTATION_FACTOR = AttributeDefinition.builder("fragmentationFactor", 0.75f).immutable().build();
+   public static final AttributeDefinition<Boolean> OFF_HEAP_INDEX = AttributeDefinition.builder("offHeapIndex", false).immutable().build();
+   public static final AttributeDefinition<Long> COMPACTION_INTERVAL = AttributeDefinition.builder("compactionInterval", 0L).immutable().build();
+   public static final AttributeDefinition<Float> COMPACTION_THRESHOLD = AttributeDefinition.builder("compactionThreshold", 0.5f).immutable().build();
+   public static final AttributeDefinition<Boolean> SYNC_WRITES = AttributeDefinition.builder("syncWrites", false).immutable().build();
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, MAX_ENTRIES, FRAGMENTATION_FACTOR);
+      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, MAX_ENTRIES, FRAGMENTATION_FACTOR, OFF_HEAP_INDEX,
+            COMPACTION_INTERVAL, COMPACTION_THRESHOLD, SYNC_WRITES);
    }
 
    private final Attribute<String> location;
    private final Attribute<Integer> maxEntries;
    private final Attribute<Float> fragmentationFactor;
+   private final Attribute<Boolean> offHeapIndex;
+   private final Attribute<Long> compactionInterval;
+   private final Attribute<Float> compactionThreshold;
+   private final Attribute<Boolean> syncWrites;
 
    public SingleFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async,
                                        SingletonStoreConfiguration singletonStore) {
@@ -33,6 +42,10 @@ public SingleFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfigura
       location = attributes.attribute(LOCATION);
       maxEntries = attributes.attribute(MAX_ENTRIES);
       fragmentationFactor = attributes.attribute(FRAGMENTATION_FACTOR);
+      offHeapIndex = attributes.attribute(OFF_HEAP_INDEX);
+      compactionInterval = attributes.attribute(COMPACTION_INTERVAL);
+      compactionThreshold = attributes.attribute(COMPACTION_THRESHOLD);
+      syncWrites = attributes.attribute(SYNC_WRITES);
    }
 
    public String location() {
@@ -47,6 +60,22 @@ public float fragmentationFactor () {
       return fragmentationFactor.get();
    }
 
+   public boolean offHeapIndex() {
+      return offHeapIndex.get();
+   }
+
+   public long compactionInterval() {
+      return compactionInterval.get();
+   }
+
+   public float compactionThreshold() {
+      return compactionThreshold.get();
+   }
+
+   public boolean syncWrites() {
+      return syncWrites.get();
+   }
+
    @Override
    public AttributeSet attributes() {
       return attributes;
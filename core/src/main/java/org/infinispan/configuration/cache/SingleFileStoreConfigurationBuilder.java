@@ -1,8 +1,12 @@
 package org.infinispan.configuration.cache;
 
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.COMPACTION_INTERVAL;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.COMPACTION_THRESHOLD;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.FRAGMENTATION_FACTOR;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.LOCATION;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.MAX_ENTRIES;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.OFF_HEAP_INDEX;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.SYNC_WRITES;
 
 import org.infinispan.commons.configuration.Builder;
 /**
@@ -67,6 +71,46 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * If true, the index of keys and their positions in the file is kept outside the Java heap, in an open addressing
+    * table that only stores the hash of each key, its position and its length. The keys are read from the file to
+    * verify the matches, so lookups are slower, but the heap used by the store no longer grows with the number of
+    * keys. When a maximum number of entries is also configured, the entries are removed in no particular order
+    * instead of the LRU order.
+    */
+   public SingleFileStoreConfigurationBuilder offHeapIndex(boolean offHeapIndex) {
+      attributes.attribute(OFF_HEAP_INDEX).set(offHeapIndex);
+      return this;
+   }
+
+   /**
+    * The interval, in milliseconds, between the runs of the background compactor. The compactor moves the entries
+    * from the end of the file to the free space closer to its start, and then truncates the file. A value of 0 or less
+    * disables the compactor, which is the default.
+    */
+   public SingleFileStoreConfigurationBuilder compactionInterval(long compactionInterval) {
+      attributes.attribute(COMPACTION_INTERVAL).set(compactionInterval);
+      return this;
+   }
+
+   /**
+    * The fraction of the file that must be free space before the background compactor moves any entry. Defaults to
+    * 0.5.
+    */
+   public SingleFileStoreConfigurationBuilder compactionThreshold(float compactionThreshold) {
+      attributes.attribute(COMPACTION_THRESHOLD).set(compactionThreshold);
+      return this;
+   }
+
+   /**
+    * If true, a write or a removal only completes after it was forced to disk. The concurrent writes are coalesced,
+    * and the file is forced to disk once for each group of writes.
+    */
+   public SingleFileStoreConfigurationBuilder syncWrites(boolean syncWrites) {
+      attributes.attribute(SYNC_WRITES).set(syncWrites);
+      return this;
+   }
+
    @Override
    public SingleFileStoreConfiguration create() {
       return new SingleFileStoreConfiguration(attributes.protect(), async.create(), singletonStore.create());
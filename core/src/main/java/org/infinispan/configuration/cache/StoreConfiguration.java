@@ -52,5 +52,15 @@ public interface StoreConfiguration {
 
    boolean shared();
 
+   /**
+    * If true, the keys written to the store are tracked in a Bloom filter, and the loads of the keys that the filter
+    * rules out are not passed to the store.
+    *
+    * @since 9.0
+    */
+   default boolean negativeLookupFilter() {
+      return false;
+   }
+
    Properties properties();
 }
\ No newline at end of file
@@ -14,10 +14,12 @@
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.transaction.LockingMode;
+import org.infinispan.transaction.ReadOnlyCommitMode;
 import org.infinispan.transaction.TransactionMode;
 import org.infinispan.transaction.TransactionProtocol;
 import org.infinispan.transaction.lookup.TransactionManagerLookup;
 import org.infinispan.transaction.lookup.TransactionSynchronizationRegistryLookup;
+import org.infinispan.util.concurrent.IsolationLevel;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -278,6 +280,17 @@ public TransactionConfigurationBuilder notifications(boolean enabled) {
       return this;
    }
 
+   /**
+    * Configures how transactions that did not write or lock any key are completed. With
+    * {@link ReadOnlyCommitMode#LOCAL} or {@link ReadOnlyCommitMode#VALIDATED} they are completed locally, without
+    * RPCs. {@link ReadOnlyCommitMode#VALIDATED} requires optimistic locking, {@link IsolationLevel#REPEATABLE_READ},
+    * write skew check and versioning. Defaults to {@link ReadOnlyCommitMode#DEFAULT}.
+    */
+   public TransactionConfigurationBuilder readOnlyCommitMode(ReadOnlyCommitMode readOnlyCommitMode) {
+      attributes.attribute(READ_ONLY_COMMIT_MODE).set(readOnlyCommitMode);
+      return this;
+   }
+
    @Override
    public void validate() {
       Attribute<Long> reaperWakeUpInterval = attributes.attribute(REAPER_WAKE_UP_INTERVAL);
@@ -301,6 +314,11 @@ public void validate() {
             throw log.invalidLockingModeForTotalOrder(lockingMode());
          }
       }
+      if (attributes.attribute(READ_ONLY_COMMIT_MODE).get() == ReadOnlyCommitMode.VALIDATED
+            && (lockingMode() != LockingMode.OPTIMISTIC || locking().isolationLevel() != IsolationLevel.REPEATABLE_READ
+            || !locking().writeSkewCheck() || !versioning().enabled())) {
+         throw log.validatedReadOnlyCommitRequiresVersions();
+      }
       if (!attributes.attribute(NOTIFICATIONS).get()) {
          log.transactionNotificationsDisabled();
       }
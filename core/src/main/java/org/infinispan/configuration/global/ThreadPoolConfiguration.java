@@ -11,10 +11,17 @@ public class ThreadPoolConfiguration {
 
    private final ThreadFactory threadFactory;
    private final ThreadPoolExecutorFactory threadPoolFactory;
+   private final boolean adaptive;
 
    protected ThreadPoolConfiguration(ThreadFactory threadFactory, ThreadPoolExecutorFactory threadPoolFactory) {
+      this(threadFactory, threadPoolFactory, false);
+   }
+
+   protected ThreadPoolConfiguration(ThreadFactory threadFactory, ThreadPoolExecutorFactory threadPoolFactory,
+                                     boolean adaptive) {
       this.threadFactory = threadFactory;
       this.threadPoolFactory = threadPoolFactory;
+      this.adaptive = adaptive;
    }
 
    public <T extends ThreadPoolExecutorFactory> T threadPoolFactory() {
@@ -25,11 +32,19 @@ public <T extends ThreadFactory> T threadFactory() {
       return (T) threadFactory;
    }
 
+   /**
+    * @return {@code true} if the size of the pool is adjusted to the load between its core threads and its max threads.
+    */
+   public boolean adaptive() {
+      return adaptive;
+   }
+
    @Override
    public String toString() {
       return "ThreadPoolConfiguration{" +
             "threadFactory=" + threadFactory +
             ", threadPoolFactory=" + threadPoolFactory +
+            ", adaptive=" + adaptive +
             '}';
    }
 
@@ -12,6 +12,7 @@ public class ThreadPoolConfigurationBuilder extends AbstractGlobalConfigurationB
 
    ThreadFactory threadFactory;
    ThreadPoolExecutorFactory threadPoolFactory;
+   boolean adaptive;
 
    public ThreadPoolConfigurationBuilder(GlobalConfigurationBuilder globalConfig) {
       super(globalConfig);
@@ -33,15 +34,26 @@ public ThreadPoolConfigurationBuilder threadPoolFactory(ThreadPoolExecutorFactor
       return this;
    }
 
+   /**
+    * Adjusts the size of the pool to the load, between its core threads and its max threads, instead of keeping the
+    * core threads. A pool with no queue always keeps its max threads, so that it never rejects more tasks than
+    * configured. Defaults to {@code false}.
+    */
+   public ThreadPoolConfigurationBuilder adaptive(boolean adaptive) {
+      this.adaptive = adaptive;
+      return this;
+   }
+
    @Override
    public ThreadPoolConfiguration create() {
-      return new ThreadPoolConfiguration(threadFactory, threadPoolFactory);
+      return new ThreadPoolConfiguration(threadFactory, threadPoolFactory, adaptive);
    }
 
    @Override
    public ThreadPoolConfigurationBuilder read(ThreadPoolConfiguration template) {
       this.threadFactory = template.threadFactory();
       this.threadPoolFactory = template.threadPoolFactory();
+      this.adaptive = template.adaptive();
       return this;
    }
 
@@ -52,6 +64,8 @@ public boolean equals(Object o) {
 
       ThreadPoolConfigurationBuilder that = (ThreadPoolConfigurationBuilder) o;
 
+      if (adaptive != that.adaptive)
+         return false;
       if (threadPoolFactory != null ? !threadPoolFactory.equals(that.threadPoolFactory) : that.threadPoolFactory != null)
          return false;
       if (threadFactory != null ? !threadFactory.equals(that.threadFactory) : that.threadFactory != null)
@@ -64,6 +78,7 @@ public boolean equals(Object o) {
    public int hashCode() {
       int result = threadFactory != null ? threadFactory.hashCode() : 0;
       result = 31 * result + (threadPoolFactory != null ? threadPoolFactory.hashCode() : 0);
+      result = 31 * result + (adaptive ? 1 : 0);
       return result;
    }
 
@@ -15,6 +15,7 @@ public enum Attribute {
     // KEEP THESE IN ALPHABETICAL ORDER!
 
     ACQUIRE_TIMEOUT("acquire-timeout"),
+    ADAPTIVE("adaptive"),
     AFTER("after"),
     ALIASES("aliases"),
     ALLOW_DUPLICATE_DOMAINS("duplicate-domains"),
@@ -31,6 +32,8 @@ public enum Attribute {
     CHUNK_SIZE("chunk-size"),
     CLASS("class"),
     CLUSTER("cluster"),
+    COMPACTION_INTERVAL("compaction-interval"),
+    COMPACTION_THRESHOLD("compaction-threshold"),
     COMPLETED_TX_TIMEOUT("complete-timeout"),
     CONCURRENCY_LEVEL("concurrency-level"),
     CONFIGURATION("configuration"),
@@ -80,7 +83,9 @@ public enum Attribute {
     MODULE("module"),
     NAME("name"),
     NAMES("names"),
+    NEGATIVE_LOOKUP_FILTER("negative-lookup-filter"),
     NOTIFICATIONS("notifications"),
+    OFF_HEAP_INDEX("off-heap-index"),
     ON_REHASH("onRehash"),
     OWNERS("owners"),
     PATH("path"),
@@ -128,6 +133,7 @@ public enum Attribute {
     STRIPING("striping"),
     STACK("stack"),
     STOP_TIMEOUT("stop-timeout"),
+    SYNC_WRITES("sync-writes"),
     TAKE_BACKUP_OFFLINE_AFTER_FAILURES("after-failures"),
     TAKE_BACKUP_OFFLINE_MIN_WAIT("min-wait"),
     THREAD_FACTORY("thread-factory"),
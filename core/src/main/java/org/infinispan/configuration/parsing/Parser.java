@@ -245,6 +245,7 @@ private void parseBlockingBoundedQueueThreadPool(XMLExtendedStreamReader reader,
       int coreThreads = 0;
       int queueLength = 0;
       long keepAlive = 0;
+      boolean adaptive = false;
 
       for (int i = 0; i < reader.getAttributeCount(); i++) {
          ParseUtils.requireNoNamespaceAttribute(reader, i);
@@ -276,6 +277,10 @@ private void parseBlockingBoundedQueueThreadPool(XMLExtendedStreamReader reader,
                keepAlive = Long.valueOf(value);
                break;
             }
+            case ADAPTIVE: {
+               adaptive = Boolean.parseBoolean(value);
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -285,6 +290,7 @@ private void parseBlockingBoundedQueueThreadPool(XMLExtendedStreamReader reader,
       ThreadPoolExecutorFactory factory = new BlockingThreadPoolExecutorFactory(
             maxThreads, coreThreads, queueLength, keepAlive);
       builder.threadPoolFactory(factory);
+      builder.adaptive(adaptive);
 
       // Keep track of the thread pool to thread factory name mapping,
       // and wait until all threads section has been processed to link the
@@ -2119,6 +2125,22 @@ protected void parseFileStore(XMLExtendedStreamReader reader, ConfigurationBuild
                storeBuilder.fragmentationFactor(Float.parseFloat(value));
                break;
             }
+            case OFF_HEAP_INDEX: {
+               storeBuilder.offHeapIndex(Boolean.parseBoolean(value));
+               break;
+            }
+            case COMPACTION_INTERVAL: {
+               storeBuilder.compactionInterval(Long.parseLong(value));
+               break;
+            }
+            case COMPACTION_THRESHOLD: {
+               storeBuilder.compactionThreshold(Float.parseFloat(value));
+               break;
+            }
+            case SYNC_WRITES: {
+               storeBuilder.syncWrites(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                parseStoreAttribute(reader, i, storeBuilder);
             }
@@ -2146,6 +2168,10 @@ public static void parseStoreAttribute(XMLExtendedStreamReader reader, int index
             storeBuilder.preload(Boolean.parseBoolean(value));
             break;
          }
+         case NEGATIVE_LOOKUP_FILTER: {
+            storeBuilder.negativeLookupFilter(Boolean.parseBoolean(value));
+            break;
+         }
          case FETCH_STATE: {
             storeBuilder.fetchPersistentState(Boolean.parseBoolean(value));
             break;
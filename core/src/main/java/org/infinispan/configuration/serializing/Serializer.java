@@ -151,6 +151,9 @@ private void writeThreadPool(XMLExtendedStreamWriter writer, String name, Thread
             writer.writeAttribute(Attribute.CORE_THREADS, Integer.toString(pool.coreThreads()));
             writer.writeAttribute(Attribute.QUEUE_LENGTH, Integer.toString(pool.queueLength()));
             writer.writeAttribute(Attribute.KEEP_ALIVE_TIME, Long.toString(pool.keepAlive()));
+            if (threadPoolConfiguration.adaptive()) {
+               writer.writeAttribute(Attribute.ADAPTIVE, "true");
+            }
          }
          writer.writeEndElement();
       }
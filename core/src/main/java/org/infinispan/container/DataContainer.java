@@ -90,6 +90,46 @@
     */
    int sizeIncludingExpired();
 
+   /**
+    * Returns the number of entries mapped to the given segments, including expired entries that were not purged yet.
+    * <p/>
+    * Unlike {@link #size()}, this method does not iterate over the entries: the container is expected to maintain
+    * per-segment counters, updated on every write, eviction and expiration.
+    *
+    * @param segments the segments to count
+    * @return count of the number of entries in the given segments, or {@code -1} if the container does not maintain
+    * per-segment counters
+    */
+   default long sizeIncludingExpired(Set<Integer> segments) {
+      return -1;
+   }
+
+   /**
+    * Same as {@link #sizeIncludingExpired(Set)}, but only counts the entries that can expire.
+    *
+    * @param segments the segments to count
+    * @return count of the number of entries with a lifespan or max idle in the given segments, or {@code -1} if the
+    * container does not maintain per-segment counters
+    */
+   default long expirableSizeIncludingExpired(Set<Integer> segments) {
+      return -1;
+   }
+
+   /**
+    * Returns the keys of the entries that belong to the given group, including expired entries that were not purged
+    * yet.
+    * <p/>
+    * The container is expected to maintain a group-to-keys index, so that the cost of this method is proportional to
+    * the size of the group and not to the size of the container. The returned set is a read-only view, and it is
+    * weakly consistent in case of concurrent writes.
+    *
+    * @param groupName the name of the group
+    * @return the keys in the group, or {@code null} if the container does not index its entries by group
+    */
+   default Set<K> keysInGroup(String groupName) {
+      return null;
+   }
+
    /**
     * Removes all entries in the container
     */
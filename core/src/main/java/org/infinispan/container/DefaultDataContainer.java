@@ -16,6 +16,9 @@
 import org.infinispan.container.entries.CacheEntrySizeCalculator;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.MarshalledValueEntrySizeCalculator;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.distribution.group.GroupManager;
 import org.infinispan.eviction.ActivationManager;
 import org.infinispan.eviction.EvictionManager;
 import org.infinispan.eviction.EvictionStrategy;
@@ -36,6 +39,7 @@
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.BiConsumer;
 
 import static org.infinispan.commons.util.Util.toStr;
@@ -67,16 +71,26 @@
    private TimeService timeService;
    private CacheNotifier cacheNotifier;
    private ExpirationManager<K, V> expirationManager;
+   private KeyPartitioner keyPartitioner;
+   // Per-segment entry counters, only maintained when the container is wired in a cache
+   private AtomicLongArray segmentSizes;
+   private AtomicLongArray expirableSegmentSizes;
+   // Group name to keys index, only maintained when grouping is enabled
+   private final Equivalence<? super K> keyEquivalence;
+   private GroupManager groupManager;
+   private ConcurrentMap<String, ConcurrentMap<K, Boolean>> groupIndex;
 
    public DefaultDataContainer(int concurrencyLevel) {
       // If no comparing implementations passed, could fallback on JDK CHM
       entries = CollectionFactory.makeConcurrentParallelMap(128, concurrencyLevel);
+      keyEquivalence = AnyEquivalence.getInstance();
    }
 
    public DefaultDataContainer(int concurrencyLevel,
          Equivalence<? super K> keyEq) {
       // If at least one comparing implementation give, use ComparingCHMv8
       entries = CollectionFactory.makeConcurrentParallelMap(128, concurrencyLevel, keyEq, AnyEquivalence.getInstance());
+      keyEquivalence = keyEq;
    }
 
    protected DefaultDataContainer(int concurrencyLevel, long thresholdSize,
@@ -115,6 +129,7 @@ protected DefaultDataContainer(int concurrencyLevel, long thresholdSize,
 
       entries = new BoundedEquivalentConcurrentHashMapV8<>(thresholdSize, eviction, evictionListener, keyEquivalence,
               AnyEquivalence.getInstance(), sizeCalculator);
+      this.keyEquivalence = keyEquivalence;
    }
 
    protected DefaultDataContainer(int concurrencyLevel, long thresholdSize,
@@ -136,6 +151,7 @@ protected DefaultDataContainer(int concurrencyLevel, long thresholdSize,
 
       entries = new BoundedEquivalentConcurrentHashMapV8<>(thresholdSize, Eviction.LRU, evictionListener, keyEquivalence,
               AnyEquivalence.getInstance(), calc);
+      this.keyEquivalence = keyEquivalence;
    }
 
    @Inject
@@ -152,6 +168,22 @@ public void initialize(EvictionManager evictionManager, PassivationManager passi
       this.expirationManager = expirationManager;
    }
 
+   @Inject
+   public void initializeSegmentCounters(KeyPartitioner keyPartitioner, Configuration configuration) {
+      int numSegments = configuration.clustering().hash().numSegments();
+      this.keyPartitioner = keyPartitioner;
+      this.segmentSizes = new AtomicLongArray(numSegments);
+      this.expirableSegmentSizes = new AtomicLongArray(numSegments);
+   }
+
+   @Inject
+   public void initializeGroupIndex(GroupManager groupManager) {
+      this.groupManager = groupManager;
+      if (groupManager != null) {
+         this.groupIndex = CollectionFactory.makeConcurrentMap();
+      }
+   }
+
    public static <K, V> DefaultDataContainer<K, V> boundedDataContainer(int concurrencyLevel, long maxEntries,
             EvictionStrategy strategy, EvictionThreadPolicy thredPolicy,
             Equivalence<? super K> keyEquivalence, EvictionType thresholdPolicy) {
@@ -226,6 +258,7 @@ public void put(K k, V v, Metadata metadata) {
 
       entries.compute(copy.getKey(), (key, entry) -> {
          activator.onUpdate(key, entry == null);
+         updateIndexes(key, entry, copy);
          return copy;
       });
    }
@@ -234,7 +267,14 @@ public void put(K k, V v, Metadata metadata) {
    public boolean containsKey(Object k) {
       InternalCacheEntry<K, V> ice = peek(k);
       if (ice != null && ice.canExpire() && ice.isExpired(timeService.wallClockTime())) {
-         entries.remove(k);
+         InternalCacheEntry<K, V> expired = ice;
+         entries.computeIfPresent((K) k, (key, entry) -> {
+            // Don't remove the entry if it was updated in the meantime
+            if (entry != expired)
+               return entry;
+            updateIndexes(key, entry, null);
+            return null;
+         });
          ice = null;
       }
       return ice != null;
@@ -245,6 +285,7 @@ public InternalCacheEntry<K, V> remove(Object k) {
       final InternalCacheEntry<K,V>[] reference = new InternalCacheEntry[1];
       entries.compute((K) k, (key, entry) -> {
          activator.onRemove(key, entry == null);
+         updateIndexes(key, entry, null);
          reference[0] = entry;
          return null;
       });
@@ -284,10 +325,99 @@ public int sizeIncludingExpired() {
       return entries.size();
    }
 
+   @Override
+   public long sizeIncludingExpired(Set<Integer> segments) {
+      return sumSegmentCounters(segmentSizes, segments);
+   }
+
+   @Override
+   public long expirableSizeIncludingExpired(Set<Integer> segments) {
+      return sumSegmentCounters(expirableSegmentSizes, segments);
+   }
+
+   private static long sumSegmentCounters(AtomicLongArray counters, Set<Integer> segments) {
+      if (counters == null)
+         return -1;
+
+      long size = 0;
+      for (Integer segment : segments) {
+         size += counters.get(segment);
+      }
+      return size;
+   }
+
+   @Override
+   public Set<K> keysInGroup(String groupName) {
+      if (groupIndex == null)
+         return null;
+
+      ConcurrentMap<K, Boolean> groupKeys = groupIndex.get(groupName);
+      return groupKeys != null ? Collections.unmodifiableSet(groupKeys.keySet()) : Collections.emptySet();
+   }
+
+   /**
+    * Updates the per-segment counters and the group index. Must be called while holding the lock on the key, i.e.
+    * from a {@code compute()} lambda or after an atomic removal.
+    */
+   private void updateIndexes(Object key, InternalCacheEntry<K, V> oldEntry, InternalCacheEntry<K, V> newEntry) {
+      if (oldEntry == newEntry)
+         return;
+
+      if (groupIndex != null && (oldEntry == null || newEntry == null)) {
+         updateGroupIndex((K) key, newEntry != null);
+      }
+      if (segmentSizes == null)
+         return;
+
+      int segment = keyPartitioner.getSegment(key);
+      if (oldEntry == null) {
+         segmentSizes.incrementAndGet(segment);
+      } else if (oldEntry.canExpire()) {
+         expirableSegmentSizes.decrementAndGet(segment);
+      }
+      if (newEntry == null) {
+         segmentSizes.decrementAndGet(segment);
+      } else if (newEntry.canExpire()) {
+         expirableSegmentSizes.incrementAndGet(segment);
+      }
+   }
+
+   private void updateGroupIndex(K key, boolean added) {
+      String groupName = groupManager.getGroup(key);
+      if (groupName == null)
+         return;
+
+      if (added) {
+         groupIndex.compute(groupName, (name, groupKeys) -> {
+            if (groupKeys == null) {
+               groupKeys = CollectionFactory.makeConcurrentMap(keyEquivalence, AnyEquivalence.getInstance());
+            }
+            groupKeys.put(key, Boolean.TRUE);
+            return groupKeys;
+         });
+      } else {
+         groupIndex.computeIfPresent(groupName, (name, groupKeys) -> {
+            groupKeys.remove(key);
+            return groupKeys.isEmpty() ? null : groupKeys;
+         });
+      }
+   }
+
    @Override
    public void clear() {
       log.tracef("Clearing data container");
-      entries.clear();
+      if (segmentSizes == null && groupIndex == null) {
+         entries.clear();
+         return;
+      }
+      // Remove the entries one by one, so that a write racing with the clear updates the counters and the group
+      // index either before or after the removal of its key, never in between
+      for (K key : entries.keySet()) {
+         entries.computeIfPresent(key, (k, entry) -> {
+            updateIndexes(k, entry, null);
+            return null;
+         });
+      }
    }
 
    @Override
@@ -315,6 +445,7 @@ public void purgeExpired() {
    public void evict(K key) {
       entries.computeIfPresent(key, (o, entry) -> {
          passivator.passivate(entry);
+         updateIndexes(o, entry, null);
          return null;
       });
    }
@@ -327,9 +458,11 @@ public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
             return oldEntry;
          } else if (newEntry == null) {
             activator.onRemove(k, false);
+            updateIndexes(k, oldEntry, null);
             return null;
          }
          activator.onUpdate(k, oldEntry == null);
+         updateIndexes(k, oldEntry, newEntry);
          if (trace)
             log.tracef("Store %s in container", newEntry);
          return newEntry;
@@ -350,6 +483,9 @@ private final class DefaultEvictionListener implements EvictionListener<K, Inter
 
       @Override
       public void onEntryEviction(Map<K, InternalCacheEntry<K, V>> evicted) {
+         for (Entry<K, InternalCacheEntry<K, V>> entry : evicted.entrySet()) {
+            updateIndexes(entry.getKey(), entry.getValue(), null);
+         }
          evictionManager.onEntryEviction(evicted);
       }
 
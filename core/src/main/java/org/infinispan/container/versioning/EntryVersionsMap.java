@@ -1,9 +1,25 @@
 package org.infinispan.container.versioning;
 
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.marshall.core.Ids;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 public class EntryVersionsMap extends HashMap<Object, IncrementableEntryVersion> {
 
+   private static final byte NULL_VERSION = 0;
+   private static final byte SAME_TOPOLOGY_VERSION = 1;
+   private static final byte NEW_TOPOLOGY_VERSION = 2;
+   private static final byte OTHER_VERSION = 3;
+
    public EntryVersionsMap(int size) {
       super(size);
    }
@@ -12,12 +28,118 @@ public EntryVersionsMap() {
       super();
    }
 
+   /**
+    * Merges the versions of this map with {@code updatedVersions}. The versions of this map take precedence.
+    * <p/>
+    * The smaller map is copied into the larger one, and the larger one is returned, so that merging the responses of
+    * many owners into the transaction does not copy the merged versions again for each response.
+    */
    public EntryVersionsMap merge(EntryVersionsMap updatedVersions) {
-      if (updatedVersions != null && !updatedVersions.isEmpty()) {
+      if (updatedVersions == null || updatedVersions.isEmpty()) {
+         return this;
+      }
+      if (updatedVersions.size() >= size()) {
          updatedVersions.putAll(this);
          return updatedVersions;
-      } else {
-         return this;
+      }
+      for (Map.Entry<Object, IncrementableEntryVersion> entry : updatedVersions.entrySet()) {
+         //a null version is a value too (total order), putIfAbsent() would replace it
+         if (!containsKey(entry.getKey())) {
+            put(entry.getKey(), entry.getValue());
+         }
+      }
+      return this;
+   }
+
+   /**
+    * Writes the {@code map} (which can be {@code null}) in a compact form.
+    * <p/>
+    * The versions of a transaction are usually {@link SimpleClusteredVersion}s created in the same topology, so the
+    * topology id is only written when it differs from the previous version, and the version counter is written in a
+    * variable length encoding.
+    */
+   public static void writeTo(ObjectOutput output, EntryVersionsMap map) throws IOException {
+      int size = map == null ? -1 : map.size();
+      MarshallUtil.marshallInt(output, size);
+      if (size <= 0) {
+         return;
+      }
+      int topologyId = -1;
+      for (Map.Entry<Object, IncrementableEntryVersion> entry : map.entrySet()) {
+         output.writeObject(entry.getKey());
+         IncrementableEntryVersion version = entry.getValue();
+         if (version == null) {
+            output.writeByte(NULL_VERSION);
+         } else if (version.getClass() == SimpleClusteredVersion.class) {
+            SimpleClusteredVersion clusteredVersion = (SimpleClusteredVersion) version;
+            if (clusteredVersion.topologyId == topologyId) {
+               output.writeByte(SAME_TOPOLOGY_VERSION);
+            } else {
+               topologyId = clusteredVersion.topologyId;
+               output.writeByte(NEW_TOPOLOGY_VERSION);
+               output.writeInt(topologyId);
+            }
+            UnsignedNumeric.writeUnsignedLong(output, clusteredVersion.version);
+         } else {
+            output.writeByte(OTHER_VERSION);
+            output.writeObject(version);
+         }
+      }
+   }
+
+   /**
+    * Reads a map written by {@link #writeTo(ObjectOutput, EntryVersionsMap)}.
+    */
+   public static EntryVersionsMap readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      int size = MarshallUtil.unmarshallInt(input);
+      if (size < 0) {
+         return null;
+      }
+      EntryVersionsMap map = new EntryVersionsMap(size);
+      int topologyId = -1;
+      for (int i = 0; i < size; i++) {
+         Object key = input.readObject();
+         byte type = input.readByte();
+         switch (type) {
+            case NULL_VERSION:
+               map.put(key, null);
+               break;
+            case NEW_TOPOLOGY_VERSION:
+               topologyId = input.readInt();
+               //fall through
+            case SAME_TOPOLOGY_VERSION:
+               map.put(key, new SimpleClusteredVersion(topologyId, UnsignedNumeric.readUnsignedLong(input)));
+               break;
+            case OTHER_VERSION:
+               map.put(key, (IncrementableEntryVersion) input.readObject());
+               break;
+            default:
+               throw new IllegalStateException("Unknown version type " + type);
+         }
+      }
+      return map;
+   }
+
+   public static class Externalizer extends AbstractExternalizer<EntryVersionsMap> {
+
+      @Override
+      public void writeObject(ObjectOutput output, EntryVersionsMap map) throws IOException {
+         writeTo(output, map);
+      }
+
+      @Override
+      public EntryVersionsMap readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         return readFrom(input);
+      }
+
+      @Override
+      public Integer getId() {
+         return Ids.ENTRY_VERSIONS_MAP;
+      }
+
+      @Override
+      public Set<Class<? extends EntryVersionsMap>> getTypeClasses() {
+         return Collections.singleton(EntryVersionsMap.class);
       }
    }
 }
@@ -22,7 +22,7 @@ public class SimpleClusteredVersion implements IncrementableEntryVersion {
    /**
     * The cache topology id in which it was first created.
     */
-   private final int topologyId;
+   final int topologyId;
 
    final long version;
 
@@ -267,7 +267,14 @@ public enum Flag {
     * that such a thing happened.  This flag was created purely for internal Infinispan usage, and should not be
     * used by clients calling into Infinispan.
     */
-   COMMAND_RETRY
+   COMMAND_RETRY,
+
+   /**
+    * Forces {@link Cache#size()} to iterate over all the entries in the cluster (and in the cache stores, unless
+    * {@link #SKIP_CACHE_LOAD} is also used). Without this flag, the size is computed from the per-segment entry
+    * counters maintained by each node, whenever those counters are known to be exact.
+    */
+   EXACT_SIZE
 
    ;
 
@@ -0,0 +1,271 @@
+package org.infinispan.distribution.ch.impl;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.infinispan.commons.hash.Hash;
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.marshall.core.Ids;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.topology.NodeLoad;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * A {@link DefaultConsistentHashFactory} that adjusts the configured capacity factors of the members based on
+ * their measured load.
+ * <p/>
+ * Every member periodically reports its heap usage, entry count and request rate to the coordinator (see
+ * {@link #getReportInterval()}). Once all the members have reported, the coordinator computes a load score for each
+ * member, relative to the cluster average, and a target weight that would bring the score to the average. The weights
+ * multiply the configured capacity factors, so a member with a weight of 0.5 gets half the segments it would normally
+ * own.
+ * <p/>
+ * To avoid moving data back and forth because of transient load spikes, a rebalance is only triggered when a target
+ * weight differs from the current weight by more than the hysteresis factor, and each rebalance changes a weight by
+ * at most the max weight change factor. The reports received before the rebalance are then discarded, so the next
+ * adjustment is based on the load measured with the new segment ownership.
+ * <p/>
+ * The weights are only kept in memory on the coordinator, so they are reset when the coordinator changes.
+ *
+ * @since 9.0
+ */
+public class LoadAwareConsistentHashFactory extends DefaultConsistentHashFactory {
+
+   private static final Log log = LogFactory.getLog(LoadAwareConsistentHashFactory.class);
+
+   public static final long DEFAULT_REPORT_INTERVAL = 30000;
+   public static final float DEFAULT_HYSTERESIS = 0.1f;
+   public static final float DEFAULT_MAX_WEIGHT_CHANGE = 0.25f;
+
+   static final float MIN_WEIGHT = 0.25f;
+   static final float MAX_WEIGHT = 4f;
+   // Don't let a member that does nothing get a huge weight
+   private static final float MIN_SCORE = 0.1f;
+
+   private final long reportInterval;
+   private final float hysteresis;
+   private final float maxWeightChange;
+
+   // The load state is only used on the coordinator and it is not marshalled
+   private final Map<Address, NodeLoad> loads = new HashMap<>();
+   private final Map<Address, Float> weights = new HashMap<>();
+   private volatile OwnershipStatistics lastStatistics;
+
+   public LoadAwareConsistentHashFactory() {
+      this(DEFAULT_REPORT_INTERVAL, DEFAULT_HYSTERESIS, DEFAULT_MAX_WEIGHT_CHANGE);
+   }
+
+   /**
+    * @param reportInterval the interval, in milliseconds, between two load reports of the same member
+    * @param hysteresis the minimum relative difference between the current and the target weight of a member that
+    *                   triggers a rebalance
+    * @param maxWeightChange the maximum relative change of a member's weight in one rebalance
+    */
+   public LoadAwareConsistentHashFactory(long reportInterval, float hysteresis, float maxWeightChange) {
+      if (reportInterval <= 0)
+         throw new IllegalArgumentException("The report interval must be greater than 0");
+      if (hysteresis < 0)
+         throw new IllegalArgumentException("The hysteresis factor must not be negative");
+      if (maxWeightChange <= 0)
+         throw new IllegalArgumentException("The max weight change factor must be greater than 0");
+      this.reportInterval = reportInterval;
+      this.hysteresis = hysteresis;
+      this.maxWeightChange = maxWeightChange;
+   }
+
+   public long getReportInterval() {
+      return reportInterval;
+   }
+
+   public float getHysteresis() {
+      return hysteresis;
+   }
+
+   public float getMaxWeightChange() {
+      return maxWeightChange;
+   }
+
+   @Override
+   public DefaultConsistentHash create(Hash hashFunction, int numOwners, int numSegments, List<Address> members,
+                                       Map<Address, Float> capacityFactors) {
+      return super.create(hashFunction, numOwners, numSegments, members, weighCapacityFactors(members, capacityFactors));
+   }
+
+   @Override
+   public DefaultConsistentHash updateMembers(DefaultConsistentHash baseCH, List<Address> actualMembers,
+                                              Map<Address, Float> actualCapacityFactors) {
+      synchronized (this) {
+         loads.keySet().retainAll(actualMembers);
+         weights.keySet().retainAll(actualMembers);
+      }
+      return super.updateMembers(baseCH, actualMembers, weighCapacityFactors(actualMembers, actualCapacityFactors));
+   }
+
+   @Override
+   public DefaultConsistentHash rebalance(DefaultConsistentHash baseCH) {
+      DefaultConsistentHash balancedCH = super.rebalance(baseCH);
+      if (balancedCH != baseCH) {
+         OwnershipStatistics stats = new OwnershipStatistics(balancedCH, balancedCH.getMembers());
+         lastStatistics = stats;
+         log.debugf("Rebalanced with capacity factors %s, new ownership is %s", balancedCH.getCapacityFactors(), stats);
+      }
+      return balancedCH;
+   }
+
+   /**
+    * Records the load reported by a member and decides whether the weights should change.
+    *
+    * @param node the member that reported its load
+    * @param load the reported load
+    * @param members the current members of the cache
+    * @return {@code true} if the weights were changed and a rebalance is needed, {@code false} otherwise
+    */
+   public synchronized boolean updateNodeLoad(Address node, NodeLoad load, List<Address> members) {
+      if (!members.contains(node))
+         return false;
+
+      loads.put(node, load);
+      if (!loads.keySet().containsAll(members))
+         return false;
+
+      float totalHeapUsage = 0;
+      long totalEntryCount = 0;
+      float totalRequestRate = 0;
+      for (Address member : members) {
+         NodeLoad memberLoad = loads.get(member);
+         totalHeapUsage += memberLoad.getHeapUsage();
+         totalEntryCount += memberLoad.getEntryCount();
+         totalRequestRate += memberLoad.getRequestRate();
+      }
+      int numMembers = members.size();
+      float avgHeapUsage = totalHeapUsage / numMembers;
+      float avgEntryCount = (float) totalEntryCount / numMembers;
+      float avgRequestRate = totalRequestRate / numMembers;
+
+      boolean rebalanceNeeded = false;
+      Map<Address, Float> newWeights = new HashMap<>(numMembers);
+      for (Address member : members) {
+         NodeLoad memberLoad = loads.get(member);
+         float score = (relativeLoad(memberLoad.getHeapUsage(), avgHeapUsage) +
+               relativeLoad(memberLoad.getEntryCount(), avgEntryCount) +
+               relativeLoad(memberLoad.getRequestRate(), avgRequestRate)) / 3;
+         float weight = getWeight(member);
+         float targetWeight = clamp(weight / Math.max(score, MIN_SCORE), MIN_WEIGHT, MAX_WEIGHT);
+         if (Math.abs(targetWeight - weight) > hysteresis * weight) {
+            rebalanceNeeded = true;
+         }
+         float maxChange = maxWeightChange * weight;
+         newWeights.put(member, clamp(weight + clamp(targetWeight - weight, -maxChange, maxChange),
+               MIN_WEIGHT, MAX_WEIGHT));
+      }
+
+      if (!rebalanceNeeded) {
+         log.tracef("Load is balanced, keeping weights %s", weights);
+         return false;
+      }
+
+      log.debugf("Changing member weights from %s to %s, member loads are %s", weights, newWeights, loads);
+      weights.putAll(newWeights);
+      // The next decision must be based on the load measured after the rebalance
+      loads.clear();
+      return true;
+   }
+
+   /**
+    * @return The current weight of a member, {@code 1} if its weight was never adjusted.
+    */
+   public synchronized float getWeight(Address member) {
+      Float weight = weights.get(member);
+      return weight != null ? weight : 1f;
+   }
+
+   /**
+    * @return The ownership statistics of the last consistent hash rebalanced by this factory, or {@code null} if
+    * no rebalance happened yet.
+    */
+   public OwnershipStatistics getLastStatistics() {
+      return lastStatistics;
+   }
+
+   private synchronized Map<Address, Float> weighCapacityFactors(List<Address> members,
+                                                                 Map<Address, Float> capacityFactors) {
+      if (weights.isEmpty())
+         return capacityFactors;
+
+      Map<Address, Float> weighted = new HashMap<>(members.size());
+      for (Address member : members) {
+         Float capacityFactor = capacityFactors != null ? capacityFactors.get(member) : Float.valueOf(1f);
+         // Let the parent reject invalid capacity factors
+         weighted.put(member, capacityFactor != null ? capacityFactor * getWeight(member) : null);
+      }
+      return weighted;
+   }
+
+   private static float relativeLoad(float value, float average) {
+      return average > 0 ? value / average : 1f;
+   }
+
+   private static float clamp(float value, float min, float max) {
+      return Math.max(min, Math.min(max, value));
+   }
+
+   @Override
+   public boolean equals(Object other) {
+      if (!super.equals(other))
+         return false;
+
+      LoadAwareConsistentHashFactory that = (LoadAwareConsistentHashFactory) other;
+      return reportInterval == that.reportInterval && hysteresis == that.hysteresis &&
+            maxWeightChange == that.maxWeightChange;
+   }
+
+   @Override
+   public int hashCode() {
+      int result = 4201;
+      result = 31 * result + (int) (reportInterval ^ (reportInterval >>> 32));
+      result = 31 * result + Float.floatToIntBits(hysteresis);
+      result = 31 * result + Float.floatToIntBits(maxWeightChange);
+      return result;
+   }
+
+   @Override
+   public String toString() {
+      return "LoadAwareConsistentHashFactory{" +
+            "reportInterval=" + reportInterval +
+            ", hysteresis=" + hysteresis +
+            ", maxWeightChange=" + maxWeightChange +
+            '}';
+   }
+
+   public static class Externalizer extends AbstractExternalizer<LoadAwareConsistentHashFactory> {
+
+      @Override
+      public void writeObject(ObjectOutput output, LoadAwareConsistentHashFactory chf) throws IOException {
+         output.writeLong(chf.reportInterval);
+         output.writeFloat(chf.hysteresis);
+         output.writeFloat(chf.maxWeightChange);
+      }
+
+      @Override
+      public LoadAwareConsistentHashFactory readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         return new LoadAwareConsistentHashFactory(input.readLong(), input.readFloat(), input.readFloat());
+      }
+
+      @Override
+      public Integer getId() {
+         return Ids.LOAD_AWARE_CONSISTENT_HASH_FACTORY;
+      }
+
+      @Override
+      public Set<Class<? extends LoadAwareConsistentHashFactory>> getTypeClasses() {
+         return Collections.singleton(LoadAwareConsistentHashFactory.class);
+      }
+   }
+}
@@ -128,6 +128,7 @@ public String toString() {
          sb.append(node).append(": ").append(primaryOwned[index]).append('+').append(owned[index] - primaryOwned[index]);
          isFirst = false;
       }
+      sb.append('}');
       return sb.toString();
    }
 }
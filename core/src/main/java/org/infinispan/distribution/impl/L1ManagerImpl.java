@@ -16,7 +16,7 @@
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.interceptors.distribution.L1WriteSynchronizer;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
-import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.rpc.CoalescingInvalidationSender;
 import org.infinispan.remoting.rpc.ResponseMode;
 import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.rpc.RpcOptions;
@@ -41,6 +41,9 @@ public class L1ManagerImpl implements L1Manager, RemoteValueRetrievedListener {
    private static final Log log = LogFactory.getLog(L1ManagerImpl.class);
    private final boolean trace = log.isTraceEnabled();
 
+   // Batch key for the invalidations without an origin, since the batch key can't be null
+   private static final Object NO_ORIGIN = new Object();
+
    private Configuration configuration;
    private RpcManager rpcManager;
    private CommandsFactory commandsFactory;
@@ -55,6 +58,8 @@ public class L1ManagerImpl implements L1Manager, RemoteValueRetrievedListener {
    private TimeService timeService;
 
    private RpcOptions syncIgnoreLeaversRpcOptions;
+   // Invalidations are batched by origin, because the origin is part of the command
+   private CoalescingInvalidationSender<Object> invalidationSender;
 
    public L1ManagerImpl() {
       requestors = CollectionFactory.makeConcurrentMap();
@@ -91,11 +96,13 @@ public void run() {
       // cached any longer
       syncIgnoreLeaversRpcOptions = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.NONE)
             .build();
+      invalidationSender = new CoalescingInvalidationSender<>(this::sendInvalidationBatch, scheduledExecutor);
    }
 
    @Stop (priority = 3)
    public void stop() {
       if (scheduledRequestorsCleanupTask != null) scheduledRequestorsCleanupTask.cancel(true);
+      if (invalidationSender != null) invalidationSender.flushAll();
    }
 
    private void cleanUpRequestors() {
@@ -141,26 +148,32 @@ public Future<?> flushCache(Collection<Object> keys, Address origin, boolean ass
       int nodes = invalidationAddresses.size();
 
       if (nodes > 0) {
-         InvalidateCommand ic = commandsFactory.buildInvalidateFromL1Command(origin, EnumUtil.EMPTY_BIT_SET, keys);
-         final SingleRpcCommand rpcCommand = commandsFactory.buildSingleRpcCommand(ic);
-
-         // No need to invalidate at all if there is no one to invalidate!
-         boolean multicast = isUseMulticast(nodes);
-         if (trace) log.tracef("Invalidating keys %s on nodes %s. Use multicast? %s", keys, invalidationAddresses, multicast);
-
-         CompletableFuture<Map<Address, Response>> future;
-         if (multicast) {
-            future = rpcManager.invokeRemotelyAsync(null, rpcCommand, syncIgnoreLeaversRpcOptions);
-         } else {
-            future = rpcManager.invokeRemotelyAsync(invalidationAddresses, rpcCommand, syncIgnoreLeaversRpcOptions);
-         }
-         return future;
+         if (trace) log.tracef("Invalidating keys %s on nodes %s", keys, invalidationAddresses);
+         // The keys are sent together with the keys of other concurrent writes from the same origin
+         return invalidationSender.invalidate(origin != null ? origin : NO_ORIGIN, invalidationAddresses, keys);
       } else {
          if (trace) log.tracef("No L1 caches to invalidate for keys %s", keys);
          return null;
       }
    }
 
+   private CompletableFuture<?> sendInvalidationBatch(Object batchKey, Collection<Address> invalidationAddresses,
+                                                      Collection<Object> keys) {
+      Address origin = batchKey != NO_ORIGIN ? (Address) batchKey : null;
+      InvalidateCommand ic = commandsFactory.buildInvalidateFromL1Command(origin, EnumUtil.EMPTY_BIT_SET, keys);
+      final SingleRpcCommand rpcCommand = commandsFactory.buildSingleRpcCommand(ic);
+
+      // A node that didn't request some of the keys ignores them
+      boolean multicast = isUseMulticast(invalidationAddresses.size());
+      if (trace) log.tracef("Invalidating keys %s on nodes %s. Use multicast? %s", keys, invalidationAddresses, multicast);
+
+      if (multicast) {
+         return rpcManager.invokeRemotelyAsync(null, rpcCommand, syncIgnoreLeaversRpcOptions);
+      } else {
+         return rpcManager.invokeRemotelyAsync(invalidationAddresses, rpcCommand, syncIgnoreLeaversRpcOptions);
+      }
+   }
+
    private Collection<Address> buildInvalidationAddressList(Collection<Object> keys, Address origin, boolean assumeOriginKeptEntryInL1) {
       Collection<Address> addresses = new HashSet<Address>(2);
       boolean originIsInRequestorsList = false;
@@ -19,6 +19,8 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -28,6 +30,8 @@
 
 public class PassivationManagerImpl implements PassivationManager {
 
+   private static final int PASSIVATION_BATCH_SIZE = 128;
+
    PersistenceManager persistenceManager;
    CacheNotifier notifier;
    Configuration cfg;
@@ -99,10 +103,17 @@ public void passivateAll() throws PersistenceException {
       if (enabled && !skipOnStop) {
          long start = timeService.time();
          log.passivatingAllEntries();
+         List<MarshalledEntry> batch = new ArrayList<>(PASSIVATION_BATCH_SIZE);
          for (InternalCacheEntry e : container) {
             if (trace) log.tracef("Passivating %s", e.getKey());
-            persistenceManager.writeToAllStores(marshalledEntryFactory.newMarshalledEntry(e.getKey(), e.getValue(),
-                                                                        internalMetadata(e)), BOTH);
+            batch.add(marshalledEntryFactory.newMarshalledEntry(e.getKey(), e.getValue(), internalMetadata(e)));
+            if (batch.size() == PASSIVATION_BATCH_SIZE) {
+               persistenceManager.writeBatchToAllStores(batch, BOTH);
+               batch = new ArrayList<>(PASSIVATION_BATCH_SIZE);
+            }
+         }
+         if (!batch.isEmpty()) {
+            persistenceManager.writeBatchToAllStores(batch, BOTH);
          }
          log.passivatedEntries(container.size(),
                                Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
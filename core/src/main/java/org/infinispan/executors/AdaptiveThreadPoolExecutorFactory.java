@@ -0,0 +1,136 @@
+package org.infinispan.executors;
+
+import org.infinispan.commons.executors.ThreadPoolExecutorFactory;
+import org.infinispan.commons.logging.Log;
+import org.infinispan.commons.logging.LogFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates {@link InstrumentedThreadPoolExecutor}s.
+ * <p/>
+ * A fixed pool behaves like the pool created by {@link org.infinispan.commons.executors.BlockingThreadPoolExecutorFactory},
+ * and only records the statistics. An adaptive pool starts with the core threads and is resized between the core
+ * threads and the max threads by the {@link ThreadPoolMonitor}.
+ *
+ * @since 9.0
+ */
+public class AdaptiveThreadPoolExecutorFactory implements ThreadPoolExecutorFactory<ExecutorService> {
+
+   private static final Log log = LogFactory.getLog(AdaptiveThreadPoolExecutorFactory.class);
+
+   public static final long DEFAULT_QUEUE_TIME_TARGET = TimeUnit.MILLISECONDS.toNanos(10);
+
+   private final int maxThreads;
+   private final int coreThreads;
+   private final int queueLength;
+   private final long keepAlive;
+   private final boolean adaptive;
+   private final long queueTimeTarget;
+
+   /**
+    * @param queueTimeTarget the average queue time above which an adaptive pool grows, in nanoseconds.
+    */
+   public AdaptiveThreadPoolExecutorFactory(int maxThreads, int coreThreads, int queueLength, long keepAlive,
+                                            boolean adaptive, long queueTimeTarget) {
+      this.maxThreads = maxThreads;
+      this.coreThreads = coreThreads;
+      this.queueLength = queueLength;
+      this.keepAlive = keepAlive;
+      this.adaptive = adaptive;
+      this.queueTimeTarget = queueTimeTarget;
+   }
+
+   public int maxThreads() {
+      return maxThreads;
+   }
+
+   public int coreThreads() {
+      return coreThreads;
+   }
+
+   public int queueLength() {
+      return queueLength;
+   }
+
+   public long keepAlive() {
+      return keepAlive;
+   }
+
+   public boolean adaptive() {
+      return adaptive;
+   }
+
+   public long queueTimeTarget() {
+      return queueTimeTarget;
+   }
+
+   @Override
+   public ExecutorService createExecutor(ThreadFactory threadFactory) {
+      BlockingQueue<Runnable> queue = queueLength == 0 ?
+            new SynchronousQueue<>() :
+            new LinkedBlockingQueue<>(queueLength);
+
+      return new InstrumentedThreadPoolExecutor(coreThreads, maxThreads, keepAlive, queue, threadFactory,
+            new ThreadPoolExecutor.CallerRunsPolicy(), adaptive, queueTimeTarget);
+   }
+
+   @Override
+   public void validate() {
+      if (coreThreads < 0)
+         throw log.illegalValueThreadPoolParameter("core threads", ">= 0");
+
+      if (maxThreads <= 0)
+         throw log.illegalValueThreadPoolParameter("max threads", "> 0");
+
+      if (maxThreads < coreThreads)
+         throw log.illegalValueThreadPoolParameter(
+               "max threads and core threads", "max threads >= core threads");
+
+      if (keepAlive < 0)
+         throw log.illegalValueThreadPoolParameter("keep alive time", ">= 0");
+
+      if (queueLength < 0)
+         throw log.illegalValueThreadPoolParameter("work queue length", ">= 0");
+
+      if (queueTimeTarget < 0)
+         throw log.illegalValueThreadPoolParameter("queue time target", ">= 0");
+   }
+
+   @Override
+   public String toString() {
+      return "AdaptiveThreadPoolExecutorFactory{" +
+            "maxThreads=" + maxThreads +
+            ", coreThreads=" + coreThreads +
+            ", queueLength=" + queueLength +
+            ", keepAlive=" + keepAlive +
+            ", adaptive=" + adaptive +
+            ", queueTimeTarget=" + queueTimeTarget +
+            '}';
+   }
+
+   /**
+    * Creates a fixed size pool, with the same sizes as
+    * {@link org.infinispan.commons.executors.BlockingThreadPoolExecutorFactory#create(int, int)}.
+    */
+   public static AdaptiveThreadPoolExecutorFactory create(int maxThreads, int queueSize) {
+      int coreThreads = queueSize == 0 ? 1 : maxThreads;
+      return new AdaptiveThreadPoolExecutorFactory(maxThreads, coreThreads, queueSize, 60000, false,
+            DEFAULT_QUEUE_TIME_TARGET);
+   }
+
+   /**
+    * Creates an adaptive pool that starts with {@code minThreads} threads and grows up to {@code maxThreads} threads.
+    */
+   public static AdaptiveThreadPoolExecutorFactory createAdaptive(int minThreads, int maxThreads, int queueSize) {
+      return new AdaptiveThreadPoolExecutorFactory(maxThreads, minThreads, queueSize, 60000, true,
+            DEFAULT_QUEUE_TIME_TARGET);
+   }
+
+}
@@ -0,0 +1,240 @@
+package org.infinispan.executors;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ThreadPoolExecutor} that records how long the tasks wait to start, how much of their execution time is
+ * spent blocked, and how many tasks are rejected and how long the rejection handler takes with them, in a {@link
+ * ThreadPoolStatistics}.
+ * <p/>
+ * The queue time is the time from the submission of a task until a thread starts running it. It is recorded by every
+ * pool, including a pool with a direct handoff queue, where a task waits for an idle thread to take it or for a new
+ * thread to start. The time spent in the rejection handler includes running the task when the handler runs it in the
+ * submitting thread. The blocking ratio is computed from one task out of {@value #CPU_TIME_SAMPLING_INTERVAL} on each
+ * thread, so that most of the tasks only pay for reading the clock.
+ * <p/>
+ * If it is adaptive, {@link #adjustPoolSize()} resizes the pool between the minimum and the maximum number of threads.
+ * The target size is {@code availableProcessors / (1 - blockingRatio)}, the number of threads that keeps the CPUs
+ * busy when each task is blocked for that fraction of its execution time. The pool grows above the target while the
+ * tasks wait in the queue longer than the queue time target with all the threads busy, and shrinks back to the
+ * target when some threads are idle and the queue is empty. A pool with a direct handoff queue also grows when it
+ * rejects tasks. Only the core pool size of a pool with a direct handoff queue is adjusted: it keeps its maximum pool
+ * size, so that a burst of tasks can still use all the threads it is configured with instead of running in the
+ * submitting threads.
+ *
+ * @since 9.0
+ */
+public class InstrumentedThreadPoolExecutor extends ThreadPoolExecutor {
+
+   private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+   private static final boolean CPU_TIME_SUPPORTED = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported();
+   private static final int AVAILABLE_PROCESSORS = Runtime.getRuntime().availableProcessors();
+   //the blocking ratio is capped, otherwise the target size would be infinite for tasks that only block
+   private static final double MAX_BLOCKING_RATIO = 0.95;
+   //must be a power of 2
+   static final int CPU_TIME_SAMPLING_INTERVAL = 16;
+
+   private final ThreadPoolStatistics statistics = new ThreadPoolStatistics();
+   //the start wall time, the start CPU time, and the number of tasks executed by the thread
+   private final ThreadLocal<long[]> executionStart = ThreadLocal.withInitial(() -> new long[3]);
+   private final boolean adaptive;
+   private final boolean directHandoff;
+   private final int minThreads;
+   private final int maxThreads;
+   private final long queueTimeTargetNanos;
+   //the totals at the last adjustment, accessed only by the thread adjusting the pool size
+   private long lastQueued;
+   private long lastQueueTime;
+   private long lastWallTime;
+   private long lastCpuTime;
+   private long lastRejected;
+
+   /**
+    * @param minThreads          the minimum number of threads. It is the core pool size when the pool is not adaptive.
+    * @param maxThreads          the maximum number of threads.
+    * @param keepAlive           the keep alive time of the threads above the core pool size, in milliseconds.
+    * @param queue               the queue of the tasks.
+    * @param threadFactory       the factory of the threads.
+    * @param rejectionHandler    the handler of the tasks rejected when the threads and the queue are full.
+    * @param adaptive            {@code true} to resize the pool in {@link #adjustPoolSize()}.
+    * @param queueTimeTargetNanos the queue time above which an adaptive pool grows, in nanoseconds.
+    */
+   public InstrumentedThreadPoolExecutor(int minThreads, int maxThreads, long keepAlive, BlockingQueue<Runnable> queue,
+                                         ThreadFactory threadFactory, RejectedExecutionHandler rejectionHandler,
+                                         boolean adaptive, long queueTimeTargetNanos) {
+      super(minThreads, maxThreads, keepAlive, TimeUnit.MILLISECONDS, queue, threadFactory, rejectionHandler);
+      this.minThreads = minThreads;
+      this.maxThreads = maxThreads;
+      this.adaptive = adaptive;
+      this.queueTimeTargetNanos = queueTimeTargetNanos;
+      //with a direct handoff, the threads above the core pool size are created on demand
+      this.directHandoff = queue.remainingCapacity() == 0;
+      setRejectedExecutionHandler(new CountingRejectionHandler(rejectionHandler));
+   }
+
+   public ThreadPoolStatistics getStatistics() {
+      return statistics;
+   }
+
+   public boolean isAdaptive() {
+      return adaptive;
+   }
+
+   @Override
+   public void execute(Runnable command) {
+      super.execute(new TimedTask(command));
+   }
+
+   @Override
+   public List<Runnable> shutdownNow() {
+      List<Runnable> tasks = super.shutdownNow();
+      List<Runnable> unwrapped = new ArrayList<>(tasks.size());
+      for (Runnable task : tasks) {
+         unwrapped.add(task instanceof TimedTask ? ((TimedTask) task).task : task);
+      }
+      return unwrapped;
+   }
+
+   @Override
+   protected void beforeExecute(Thread t, Runnable r) {
+      super.beforeExecute(t, r);
+      if (r instanceof TimedTask) {
+         statistics.recordQueueTime(System.nanoTime() - ((TimedTask) r).enqueueTime);
+      }
+      long[] start = executionStart.get();
+      //without CPU time, the tasks are assumed to never block, and there is nothing to sample
+      if (CPU_TIME_SUPPORTED && (start[2]++ & (CPU_TIME_SAMPLING_INTERVAL - 1)) == 0) {
+         start[0] = System.nanoTime();
+         start[1] = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+      } else {
+         start[0] = 0;
+      }
+   }
+
+   @Override
+   protected void afterExecute(Runnable r, Throwable t) {
+      long[] start = executionStart.get();
+      if (start[0] != 0) {
+         statistics.recordExecutionTime(System.nanoTime() - start[0],
+               THREAD_MX_BEAN.getCurrentThreadCpuTime() - start[1]);
+      }
+      statistics.recordExecution();
+      super.afterExecute(r, t);
+   }
+
+   /**
+    * Resizes the pool from the statistics recorded since the previous invocation, if the pool is adaptive.
+    * <p/>
+    * It is invoked periodically by the {@link ThreadPoolMonitor}, and must not be invoked concurrently.
+    *
+    * @return the new pool size.
+    */
+   public int adjustPoolSize() {
+      int currentSize = getCorePoolSize();
+      if (!adaptive || isShutdown()) {
+         return currentSize;
+      }
+      long queued = statistics.getQueuedTasks();
+      long queueTime = statistics.getTotalQueueTime();
+      long wallTime = statistics.getTotalWallTime();
+      long cpuTime = statistics.getTotalCpuTime();
+      long rejected = statistics.getRejectedTasks();
+      long queuedDelta = queued - lastQueued;
+      long queueTimeDelta = queueTime - lastQueueTime;
+      long wallTimeDelta = wallTime - lastWallTime;
+      long cpuTimeDelta = cpuTime - lastCpuTime;
+      long rejectedDelta = rejected - lastRejected;
+      lastQueued = queued;
+      lastQueueTime = queueTime;
+      lastWallTime = wallTime;
+      lastCpuTime = cpuTime;
+      lastRejected = rejected;
+      if (queuedDelta < 0 || queueTimeDelta < 0 || wallTimeDelta < 0 || cpuTimeDelta < 0 || rejectedDelta < 0) {
+         //the statistics were reset
+         return currentSize;
+      }
+
+      double blockingRatio = Math.min(ThreadPoolStatistics.blockingRatio(wallTimeDelta, cpuTimeDelta), MAX_BLOCKING_RATIO);
+      int targetSize = clamp((int) Math.ceil(AVAILABLE_PROCESSORS / (1 - blockingRatio)));
+      boolean saturated = getActiveCount() >= currentSize;
+      //a busy direct handoff pool starts threads above the core pool size, or rejects the tasks once it is full,
+      //instead of queueing them
+      boolean queueing = directHandoff || rejectedDelta > 0 ||
+            (queuedDelta > 0 ? queueTimeDelta / queuedDelta > queueTimeTargetNanos : !getQueue().isEmpty());
+
+      int newSize = currentSize;
+      if (saturated && queueing) {
+         //grow by a quarter, at least up to the target
+         newSize = clamp(Math.max(targetSize, currentSize + Math.max(1, currentSize / 4)));
+      } else if (!saturated && getQueue().isEmpty() && currentSize > targetSize) {
+         newSize = currentSize - 1;
+      }
+      if (newSize != currentSize) {
+         resize(newSize);
+      }
+      return newSize;
+   }
+
+   private int clamp(int size) {
+      return Math.max(minThreads, Math.min(maxThreads, size));
+   }
+
+   private void resize(int newSize) {
+      if (directHandoff) {
+         //the threads above the core pool size are still created on demand, up to the configured maximum
+         setCorePoolSize(newSize);
+      } else if (newSize > getCorePoolSize()) {
+         //the maximum pool size can't be lower than the core pool size
+         setMaximumPoolSize(Math.max(newSize, getMaximumPoolSize()));
+         setCorePoolSize(newSize);
+      } else {
+         setCorePoolSize(newSize);
+      }
+   }
+
+   private class CountingRejectionHandler implements RejectedExecutionHandler {
+      private final RejectedExecutionHandler delegate;
+
+      private CountingRejectionHandler(RejectedExecutionHandler delegate) {
+         this.delegate = delegate;
+      }
+
+      @Override
+      public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+         long start = System.nanoTime();
+         try {
+            delegate.rejectedExecution(r, executor);
+         } finally {
+            statistics.recordRejection(System.nanoTime() - start);
+         }
+      }
+   }
+
+   private static class TimedTask implements Runnable {
+      private final Runnable task;
+      private final long enqueueTime;
+
+      private TimedTask(Runnable task) {
+         this.task = task;
+         this.enqueueTime = System.nanoTime();
+      }
+
+      @Override
+      public void run() {
+         task.run();
+      }
+
+      @Override
+      public String toString() {
+         return task.toString();
+      }
+   }
+}
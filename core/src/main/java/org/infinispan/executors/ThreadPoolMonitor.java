@@ -0,0 +1,245 @@
+package org.infinispan.executors;
+
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.Parameter;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically resizes the adaptive {@link InstrumentedThreadPoolExecutor}s and exposes the statistics of all the
+ * instrumented pools of the cache manager.
+ * <p/>
+ * It also detects the thread pools that are starving: all the threads are busy, tasks are waiting in the queue or are
+ * rejected, and no task has completed for longer than the starvation threshold. When more than one pool is starving
+ * at the same time, e.g. the remote command pool waiting for tasks queued in the async pool, the threads are most
+ * likely deadlocked waiting for each other.
+ *
+ * @since 9.0
+ */
+@Scope(Scopes.GLOBAL)
+@MBean(objectName = "ThreadPoolMonitor", description = "Statistics of the thread pools")
+public class ThreadPoolMonitor {
+
+   private static final Log log = LogFactory.getLog(ThreadPoolMonitor.class);
+
+   private static final long CHECK_INTERVAL_MILLIS = 1000;
+
+   private final Map<String, PoolState> pools = new ConcurrentHashMap<>();
+   private ScheduledExecutorService timeoutExecutor;
+   private TimeService timeService;
+   private ScheduledFuture<?> checkTask;
+   //accessed only by the check task
+   private boolean deadlockReported;
+   private volatile long starvationThreshold = TimeUnit.SECONDS.toMillis(10);
+
+   @Inject
+   public void inject(@ComponentName(KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR) ScheduledExecutorService timeoutExecutor,
+                      TimeService timeService) {
+      this.timeoutExecutor = timeoutExecutor;
+      this.timeService = timeService;
+   }
+
+   @Start
+   public void start() {
+      checkTask = timeoutExecutor.scheduleWithFixedDelay(this::check, CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS,
+            TimeUnit.MILLISECONDS);
+   }
+
+   @Stop
+   public void stop() {
+      if (checkTask != null) {
+         checkTask.cancel(false);
+         checkTask = null;
+      }
+      pools.clear();
+   }
+
+   /**
+    * Registers a pool created by one of the named executor factories.
+    */
+   public void register(String name, InstrumentedThreadPoolExecutor executor) {
+      pools.put(name, new PoolState(executor, timeService.time()));
+   }
+
+   /**
+    * Resizes the adaptive pools and checks for starvation. Invoked periodically, never concurrently.
+    */
+   void check() {
+      try {
+         List<String> starving = null;
+         for (Map.Entry<String, PoolState> entry : pools.entrySet()) {
+            PoolState state = entry.getValue();
+            if (state.executor.isShutdown()) {
+               continue;
+            }
+            state.executor.adjustPoolSize();
+            if (state.checkStarving(entry.getKey())) {
+               if (starving == null) {
+                  starving = new ArrayList<>();
+               }
+               starving.add(entry.getKey());
+            }
+         }
+         if (starving != null && starving.size() > 1) {
+            if (!deadlockReported) {
+               deadlockReported = true;
+               log.threadPoolStarvationDeadlock(starving);
+            }
+         } else {
+            deadlockReported = false;
+         }
+      } catch (Throwable t) {
+         log.debug("Error checking the thread pools", t);
+      }
+   }
+
+   @ManagedAttribute(description = "The names of the monitored thread pools", displayName = "Thread pools", dataType = DataType.TRAIT)
+   public String getThreadPools() {
+      return new ArrayList<>(pools.keySet()).toString();
+   }
+
+   @ManagedAttribute(description = "The names of the thread pools that are starving", displayName = "Starving thread pools")
+   public String getStarvingThreadPools() {
+      List<String> starving = new ArrayList<>();
+      for (Map.Entry<String, PoolState> entry : pools.entrySet()) {
+         if (entry.getValue().starving) {
+            starving.add(entry.getKey());
+         }
+      }
+      return starving.toString();
+   }
+
+   @ManagedAttribute(description = "The time without any task completing after which a busy thread pool is starving, in milliseconds", displayName = "Starvation threshold", dataType = DataType.TRAIT, writable = true)
+   public long getStarvationThreshold() {
+      return starvationThreshold;
+   }
+
+   public void setStarvationThreshold(long starvationThreshold) {
+      this.starvationThreshold = starvationThreshold;
+   }
+
+   @ManagedOperation(description = "Returns the number of threads of a thread pool", displayName = "Pool size")
+   public int getPoolSize(@Parameter(name = "pool", description = "The thread pool name") String pool) {
+      PoolState state = pools.get(pool);
+      return state == null ? -1 : state.executor.getPoolSize();
+   }
+
+   @ManagedOperation(description = "Returns the number of busy threads of a thread pool", displayName = "Active threads")
+   public int getActiveCount(@Parameter(name = "pool", description = "The thread pool name") String pool) {
+      PoolState state = pools.get(pool);
+      return state == null ? -1 : state.executor.getActiveCount();
+   }
+
+   @ManagedOperation(description = "Returns the number of tasks waiting in the queue of a thread pool", displayName = "Queue size")
+   public int getQueueSize(@Parameter(name = "pool", description = "The thread pool name") String pool) {
+      PoolState state = pools.get(pool);
+      return state == null ? -1 : state.executor.getQueue().size();
+   }
+
+   @ManagedOperation(description = "Returns the number of tasks rejected by a thread pool", displayName = "Rejected tasks")
+   public long getRejectedTasks(@Parameter(name = "pool", description = "The thread pool name") String pool) {
+      ThreadPoolStatistics statistics = statistics(pool);
+      return statistics == null ? -1 : statistics.getRejectedTasks();
+   }
+
+   @ManagedOperation(description = "Returns the average time spent handling a task rejected by a thread pool, including running it in the submitting thread, in microseconds", displayName = "Average rejection time")
+   public long getAverageRejectionTime(@Parameter(name = "pool", description = "The thread pool name") String pool) {
+      ThreadPoolStatistics statistics = statistics(pool);
+      return statistics == null ? -1 : statistics.getAverageRejectionTime();
+   }
+
+   @ManagedOperation(description = "Returns the average time the tasks of a thread pool waited from their submission until a thread started running them, in microseconds", displayName = "Average queue time")
+   public long getAverageQueueTime(@Parameter(name = "pool", description = "The thread pool name") String pool) {
+      ThreadPoolStatistics statistics = statistics(pool);
+      return statistics == null ? -1 : statistics.getAverageQueueTime();
+   }
+
+   @ManagedOperation(description = "Returns the fraction of the execution time the tasks of a thread pool were not using the CPU", displayName = "Blocking ratio")
+   public double getBlockingRatio(@Parameter(name = "pool", description = "The thread pool name") String pool) {
+      ThreadPoolStatistics statistics = statistics(pool);
+      return statistics == null ? -1 : statistics.getBlockingRatio();
+   }
+
+   @ManagedOperation(description = "Returns the histogram of the time the tasks waited in the queue of a thread pool", displayName = "Queue time histogram")
+   public Map<String, Long> getQueueTimeHistogram(@Parameter(name = "pool", description = "The thread pool name") String pool) {
+      ThreadPoolStatistics statistics = statistics(pool);
+      return statistics == null ? Collections.emptyMap() : statistics.getQueueTimeHistogram();
+   }
+
+   @ManagedOperation(description = "Resets the statistics of all the thread pools", displayName = "Reset statistics")
+   public void resetStatistics() {
+      for (PoolState state : pools.values()) {
+         state.executor.getStatistics().reset();
+      }
+   }
+
+   /**
+    * @return the statistics of the pool, or {@code null} if there is no such pool.
+    */
+   public ThreadPoolStatistics statistics(String pool) {
+      PoolState state = pools.get(pool);
+      return state == null ? null : state.executor.getStatistics();
+   }
+
+   private class PoolState {
+      private final InstrumentedThreadPoolExecutor executor;
+      //accessed only by the check task
+      private long lastCompleted;
+      private long lastRejected;
+      private long lastProgress;
+      private volatile boolean starving;
+
+      private PoolState(InstrumentedThreadPoolExecutor executor, long now) {
+         this.executor = executor;
+         this.lastProgress = now;
+      }
+
+      private boolean checkStarving(String name) {
+         long now = timeService.time();
+         long completed = executor.getCompletedTaskCount();
+         long rejected = executor.getStatistics().getRejectedTasks();
+         boolean busy = executor.getActiveCount() >= executor.getMaximumPoolSize();
+         boolean waiting = !executor.getQueue().isEmpty() || rejected != lastRejected;
+         lastRejected = rejected;
+         if (completed != lastCompleted || !busy || !waiting) {
+            lastCompleted = completed;
+            lastProgress = now;
+            if (starving) {
+               starving = false;
+               log.debugf("Thread pool %s is no longer starving", name);
+            }
+            return false;
+         }
+         if (timeService.timeDuration(lastProgress, now, TimeUnit.MILLISECONDS) < starvationThreshold) {
+            return false;
+         }
+         if (!starving) {
+            //only log once per episode
+            starving = true;
+            log.threadPoolStarving(name, executor.getActiveCount(), executor.getQueue().size(),
+                  timeService.timeDuration(lastProgress, now, TimeUnit.MILLISECONDS));
+         }
+         return true;
+      }
+   }
+}
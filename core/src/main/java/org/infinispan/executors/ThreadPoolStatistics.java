@@ -0,0 +1,152 @@
+package org.infinispan.executors;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics collected by an {@link InstrumentedThreadPoolExecutor}.
+ * <p/>
+ * The time each task waits from its submission until a thread starts running it is recorded in a histogram, and the
+ * CPU time and wall clock time of a sample of the tasks are added up to compute the fraction of time the threads spend
+ * blocked. The time spent in the rejection handler is added up separately.
+ *
+ * @since 9.0
+ */
+public class ThreadPoolStatistics {
+
+   /**
+    * The number of buckets of the queue time histogram. The bucket {@code i} counts the tasks that waited less than
+    * {@code 2^i} microseconds, and the last one counts all the longer waits.
+    */
+   static final int HISTOGRAM_BUCKETS = 32;
+
+   private final LongAdder executedTasks = new LongAdder();
+   private final LongAdder rejectedTasks = new LongAdder();
+   private final LongAdder totalRejectionTime = new LongAdder();
+   private final LongAdder queuedTasks = new LongAdder();
+   private final LongAdder totalQueueTime = new LongAdder();
+   private final LongAdder totalWallTime = new LongAdder();
+   private final LongAdder totalCpuTime = new LongAdder();
+   private final LongAdder[] queueTimeHistogram = new LongAdder[HISTOGRAM_BUCKETS];
+
+   public ThreadPoolStatistics() {
+      for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+         queueTimeHistogram[i] = new LongAdder();
+      }
+   }
+
+   void recordQueueTime(long queueNanos) {
+      queuedTasks.increment();
+      totalQueueTime.add(queueNanos);
+      queueTimeHistogram[bucket(TimeUnit.NANOSECONDS.toMicros(queueNanos))].increment();
+   }
+
+   void recordExecution() {
+      executedTasks.increment();
+   }
+
+   void recordExecutionTime(long wallNanos, long cpuNanos) {
+      totalWallTime.add(wallNanos);
+      totalCpuTime.add(cpuNanos);
+   }
+
+   void recordRejection(long rejectionNanos) {
+      rejectedTasks.increment();
+      totalRejectionTime.add(rejectionNanos);
+   }
+
+   static int bucket(long micros) {
+      return Math.min(64 - Long.numberOfLeadingZeros(micros), HISTOGRAM_BUCKETS - 1);
+   }
+
+   public long getExecutedTasks() {
+      return executedTasks.sum();
+   }
+
+   /**
+    * @return the number of tasks rejected because the threads and the queue were full.
+    */
+   public long getRejectedTasks() {
+      return rejectedTasks.sum();
+   }
+
+   /**
+    * @return the average time spent in the rejection handler for each rejected task, in microseconds. It includes the
+    * execution of the task if the handler runs it in the submitting thread.
+    */
+   public long getAverageRejectionTime() {
+      long rejected = rejectedTasks.sum();
+      return rejected == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalRejectionTime.sum() / rejected);
+   }
+
+   /**
+    * @return the average time the tasks waited from their submission until a thread started running them, in
+    * microseconds.
+    */
+   public long getAverageQueueTime() {
+      long queued = queuedTasks.sum();
+      return queued == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalQueueTime.sum() / queued);
+   }
+
+   /**
+    * @return the fraction of the execution time the tasks were not using the CPU, between 0 and 1.
+    */
+   public double getBlockingRatio() {
+      return blockingRatio(totalWallTime.sum(), totalCpuTime.sum());
+   }
+
+   static double blockingRatio(long wallNanos, long cpuNanos) {
+      if (wallNanos <= 0) {
+         return 0;
+      }
+      return Math.max(0, Math.min(1, 1 - (double) cpuNanos / wallNanos));
+   }
+
+   long getQueuedTasks() {
+      return queuedTasks.sum();
+   }
+
+   long getTotalQueueTime() {
+      return totalQueueTime.sum();
+   }
+
+   long getTotalWallTime() {
+      return totalWallTime.sum();
+   }
+
+   long getTotalCpuTime() {
+      return totalCpuTime.sum();
+   }
+
+   /**
+    * @return the non-empty buckets of the queue time histogram, in increasing queue time order.
+    */
+   public Map<String, Long> getQueueTimeHistogram() {
+      Map<String, Long> histogram = new LinkedHashMap<>();
+      for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+         long count = queueTimeHistogram[i].sum();
+         if (count != 0) {
+            String label = i == HISTOGRAM_BUCKETS - 1 ?
+                  ">= " + (1L << (i - 1)) + " us" :
+                  "< " + (1L << i) + " us";
+            histogram.put(label, count);
+         }
+      }
+      return histogram;
+   }
+
+   public void reset() {
+      executedTasks.reset();
+      rejectedTasks.reset();
+      totalRejectionTime.reset();
+      queuedTasks.reset();
+      totalQueueTime.reset();
+      totalWallTime.reset();
+      totalCpuTime.reset();
+      for (LongAdder bucket : queueTimeHistogram) {
+         bucket.reset();
+      }
+   }
+}
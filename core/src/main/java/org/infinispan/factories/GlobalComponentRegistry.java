@@ -10,6 +10,7 @@
 import org.infinispan.commons.util.uberjar.UberJarDuplicatedJarsWarner;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.configuration.global.ShutdownHookBehavior;
+import org.infinispan.executors.ThreadPoolMonitor;
 import org.infinispan.factories.annotations.SurvivesRestarts;
 import org.infinispan.factories.components.ComponentMetadataRepo;
 import org.infinispan.factories.scopes.Scope;
@@ -118,6 +119,7 @@ public GlobalComponentRegistry(GlobalConfiguration configuration,
          registerComponent(new InternalCacheRegistryImpl(), InternalCacheRegistry.class);
          registerComponent(new CacheStoreFactoryRegistry(), CacheStoreFactoryRegistry.class);
          registerComponent(new GlobalXSiteAdminOperations(), GlobalXSiteAdminOperations.class);
+         registerComponent(new ThreadPoolMonitor(), ThreadPoolMonitor.class);
 
          moduleProperties.loadModuleCommandHandlers(configuredClassLoader);
          Map<Byte, ModuleCommandFactory> factories = moduleProperties.moduleCommandFactories();
@@ -6,9 +6,12 @@
 import org.infinispan.commons.executors.ThreadPoolExecutorFactory;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.configuration.global.ThreadPoolConfiguration;
+import org.infinispan.executors.AdaptiveThreadPoolExecutorFactory;
+import org.infinispan.executors.InstrumentedThreadPoolExecutor;
 import org.infinispan.executors.LazyInitializingBlockingTaskAwareExecutorService;
 import org.infinispan.executors.LazyInitializingExecutorService;
 import org.infinispan.executors.LazyInitializingScheduledExecutorService;
+import org.infinispan.executors.ThreadPoolMonitor;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.factories.threads.DefaultThreadFactory;
@@ -159,16 +162,21 @@ private <T extends ExecutorService> T createExecutorService(ThreadPoolConfigurat
                                                                String componentName, ExecutorServiceType type) {
       ThreadFactory threadFactory;
       ThreadPoolExecutorFactory executorFactory;
+      boolean adaptive = threadPoolConfiguration != null && threadPoolConfiguration.adaptive();
       if (threadPoolConfiguration != null) {
          threadFactory = threadPoolConfiguration.threadFactory() != null
                ? threadPoolConfiguration.threadFactory()
                : createThreadFactoryWithDefaults(globalConfiguration, componentName);
          executorFactory = threadPoolConfiguration.threadPoolFactory() != null
                ? threadPoolConfiguration.threadPoolFactory()
-               : createThreadPoolFactoryWithDefaults(componentName, type);
+               : createThreadPoolFactoryWithDefaults(componentName, type, adaptive);
       } else {
          threadFactory = createThreadFactoryWithDefaults(globalConfiguration, componentName);
-         executorFactory = createThreadPoolFactoryWithDefaults(componentName, type);
+         executorFactory = createThreadPoolFactoryWithDefaults(componentName, type, adaptive);
+      }
+      if (type != ExecutorServiceType.SCHEDULED) {
+         executorFactory = new MonitoredThreadPoolExecutorFactory(instrumented(executorFactory, adaptive),
+               componentName);
       }
 
       switch (type) {
@@ -192,14 +200,72 @@ private ThreadFactory createThreadFactoryWithDefaults(GlobalConfiguration global
    }
 
    private ThreadPoolExecutorFactory createThreadPoolFactoryWithDefaults(
-         final String componentName, ExecutorServiceType type) {
+         final String componentName, ExecutorServiceType type, boolean adaptive) {
       switch (type) {
          case SCHEDULED:
             return ScheduledThreadPoolExecutorFactory.create();
          default:
             int defaultQueueSize = KnownComponentNames.getDefaultQueueSize(componentName);
             int defaultMaxThreads = KnownComponentNames.getDefaultThreads(componentName);
-            return BlockingThreadPoolExecutorFactory.create(defaultMaxThreads, defaultQueueSize);
+            return adaptive
+                  ? AdaptiveThreadPoolExecutorFactory.createAdaptive(1, defaultMaxThreads, defaultQueueSize)
+                  : AdaptiveThreadPoolExecutorFactory.create(defaultMaxThreads, defaultQueueSize);
+      }
+   }
+
+   /**
+    * Replaces the configured {@link BlockingThreadPoolExecutorFactory}, e.g. from the XML configuration, with an
+    * {@link AdaptiveThreadPoolExecutorFactory} creating a pool of the same size, so that its statistics are recorded
+    * as well.
+    */
+   private static ThreadPoolExecutorFactory instrumented(ThreadPoolExecutorFactory factory, boolean adaptive) {
+      if (factory instanceof BlockingThreadPoolExecutorFactory) {
+         BlockingThreadPoolExecutorFactory pool = (BlockingThreadPoolExecutorFactory) factory;
+         return new AdaptiveThreadPoolExecutorFactory(pool.maxThreads(), pool.coreThreads(), pool.queueLength(),
+               pool.keepAlive(), adaptive, AdaptiveThreadPoolExecutorFactory.DEFAULT_QUEUE_TIME_TARGET);
+      }
+      if (adaptive && factory instanceof AdaptiveThreadPoolExecutorFactory) {
+         AdaptiveThreadPoolExecutorFactory pool = (AdaptiveThreadPoolExecutorFactory) factory;
+         return new AdaptiveThreadPoolExecutorFactory(pool.maxThreads(), pool.coreThreads(), pool.queueLength(),
+               pool.keepAlive(), true, pool.queueTimeTarget());
+      }
+      return factory;
+   }
+
+   /**
+    * Registers the instrumented executors with the {@link ThreadPoolMonitor} when they are created.
+    */
+   private class MonitoredThreadPoolExecutorFactory implements ThreadPoolExecutorFactory<ExecutorService> {
+      private final ThreadPoolExecutorFactory<ExecutorService> delegate;
+      private final String componentName;
+
+      @SuppressWarnings("unchecked")
+      private MonitoredThreadPoolExecutorFactory(ThreadPoolExecutorFactory delegate, String componentName) {
+         this.delegate = delegate;
+         this.componentName = componentName;
+      }
+
+      @Override
+      public ExecutorService createExecutor(ThreadFactory factory) {
+         ExecutorService executor = delegate.createExecutor(factory);
+         if (executor instanceof InstrumentedThreadPoolExecutor) {
+            //the monitor is looked up lazily, because it depends on the timeout executor
+            ThreadPoolMonitor monitor = globalComponentRegistry.getComponent(ThreadPoolMonitor.class);
+            if (monitor != null) {
+               monitor.register(shortened(componentName), (InstrumentedThreadPoolExecutor) executor);
+            }
+         }
+         return executor;
+      }
+
+      @Override
+      public void validate() {
+         delegate.validate();
+      }
+
+      @Override
+      public String toString() {
+         return delegate.toString();
       }
    }
 
@@ -251,6 +251,55 @@ private CompletableFuture<InternalCacheEntry> invokeClusterGetCommandRemotely(Li
 
    protected Map<Object, InternalCacheEntry> retrieveFromRemoteSources(Set<?> requestedKeys, InvocationContext ctx, long flagsBitSet) throws Throwable {
       GlobalTransaction gtx = ctx.isInTxScope() ? ((TxInvocationContext) ctx).getGlobalTransaction() : null;
+      Map<Address, ReplicableCommand> commands = buildClusteredGetAllCommands(requestedKeys, flagsBitSet, gtx);
+
+      RpcOptionsBuilder rpcOptionsBuilder = rpcManager.getRpcOptionsBuilder(
+            ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.NONE);
+      RpcOptions options = rpcOptionsBuilder.build();
+      Map<Address, Response> responses = rpcManager.invokeRemotely(commands, options);
+
+      Map<Object, InternalCacheEntry> entries = new HashMap<>();
+      for (Map.Entry<Address, Response> entry : responses.entrySet()) {
+         updateWithValues(((ClusteredGetAllCommand) commands.get(entry.getKey())).getKeys(),
+               entry.getValue(), entries);
+      }
+
+      return entries;
+   }
+
+   /**
+    * Asynchronous version of {@link #retrieveFromRemoteSources(Set, InvocationContext, long)}.
+    *
+    * <p>One {@link ClusteredGetAllCommand} is sent to each primary owner, all of them in parallel, and the
+    * calling thread is not blocked while waiting for the responses.</p>
+    */
+   protected CompletableFuture<Map<Object, InternalCacheEntry>> retrieveFromRemoteSourcesAsync(
+         Set<?> requestedKeys, InvocationContext ctx, long flagsBitSet) {
+      GlobalTransaction gtx = ctx.isInTxScope() ? ((TxInvocationContext) ctx).getGlobalTransaction() : null;
+      Map<Address, ReplicableCommand> commands = buildClusteredGetAllCommands(requestedKeys, flagsBitSet, gtx);
+
+      RpcOptions options = rpcManager.getRpcOptionsBuilder(
+            ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.NONE).build();
+      List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(commands.size());
+      for (Map.Entry<Address, ReplicableCommand> entry : commands.entrySet()) {
+         futures.add(rpcManager.invokeRemotelyAsync(Collections.singletonList(entry.getKey()), entry.getValue(),
+               options));
+      }
+
+      return CompletableFutures.sequence(futures).thenApply(responsesList -> {
+         Map<Object, InternalCacheEntry> entries = new HashMap<>();
+         for (Map<Address, Response> responses : responsesList) {
+            for (Map.Entry<Address, Response> entry : responses.entrySet()) {
+               updateWithValues(((ClusteredGetAllCommand) commands.get(entry.getKey())).getKeys(),
+                     entry.getValue(), entries);
+            }
+         }
+         return entries;
+      });
+   }
+
+   private Map<Address, ReplicableCommand> buildClusteredGetAllCommands(Set<?> requestedKeys, long flagsBitSet,
+         GlobalTransaction gtx) {
       CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
       ConsistentHash ch = cacheTopology.getReadConsistentHash();
 
@@ -270,19 +319,7 @@ protected Map<Object, InternalCacheEntry> retrieveFromRemoteSources(Set<?> reque
          ClusteredGetAllCommand remoteGetAll = cf.buildClusteredGetAllCommand(keys, flagsBitSet, gtx);
          commands.put(entry.getKey(), remoteGetAll);
       }
-
-      RpcOptionsBuilder rpcOptionsBuilder = rpcManager.getRpcOptionsBuilder(
-            ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.NONE);
-      RpcOptions options = rpcOptionsBuilder.build();
-      Map<Address, Response> responses = rpcManager.invokeRemotely(commands, options);
-
-      Map<Object, InternalCacheEntry> entries = new HashMap<>();
-      for (Map.Entry<Address, Response> entry : responses.entrySet()) {
-         updateWithValues(((ClusteredGetAllCommand) commands.get(entry.getKey())).getKeys(),
-               entry.getValue(), entries);
-      }
-
-      return entries;
+      return commands;
    }
 
    private void updateWithValues(List<?> keys, Response r, Map<Object, InternalCacheEntry> entries) {
@@ -515,35 +552,37 @@ public CompletableFuture<Void> visitGetAllCommand(InvocationContext ctx, GetAllC
             }
          }
 
-         boolean missingRemoteValues = false;
-         if (!requestedKeys.isEmpty()) {
-            if (trace) {
-               log.tracef("Fetching entries for keys %s from remote nodes", requestedKeys);
-            }
-
-            Map<Object, InternalCacheEntry> justRetrieved = retrieveFromRemoteSources(
-                  requestedKeys, ctx, command.getFlagsBitSet());
-            Map<Object, InternalCacheEntry> previouslyFetched = command.getRemotelyFetched();
-            if (previouslyFetched != null) {
-               previouslyFetched.putAll(justRetrieved);
-            } else {
-               command.setRemotelyFetched(justRetrieved);
-            }
-            for (Object key : requestedKeys) {
-               if (!justRetrieved.containsKey(key)) {
-                  missingRemoteValues = true;
-               } else {
-                  InternalCacheEntry remoteEntry = justRetrieved.get(key);
-                  entryFactory.wrapExternalEntry(ctx, key, remoteEntry, EntryFactory.Wrap.WRAP_NON_NULL,
-                                                 false);
-               }
-            }
+         if (requestedKeys.isEmpty()) {
+            return ctx.continueInvocation();
          }
-
-         if (missingRemoteValues) {
-            throw new OutdatedTopologyException("Remote values are missing because of a topology change");
+         if (trace) {
+            log.tracef("Fetching entries for keys %s from remote nodes", requestedKeys);
          }
-         return ctx.continueInvocation();
+
+         return retrieveFromRemoteSourcesAsync(requestedKeys, ctx, command.getFlagsBitSet())
+               .thenCompose(justRetrieved -> {
+                  Map<Object, InternalCacheEntry> previouslyFetched = command.getRemotelyFetched();
+                  if (previouslyFetched != null) {
+                     previouslyFetched.putAll(justRetrieved);
+                  } else {
+                     command.setRemotelyFetched(justRetrieved);
+                  }
+                  boolean missingRemoteValues = false;
+                  for (Object key : requestedKeys) {
+                     if (!justRetrieved.containsKey(key)) {
+                        missingRemoteValues = true;
+                     } else {
+                        InternalCacheEntry remoteEntry = justRetrieved.get(key);
+                        entryFactory.wrapExternalEntry(ctx, key, remoteEntry, EntryFactory.Wrap.WRAP_NON_NULL,
+                              false);
+                     }
+                  }
+
+                  if (missingRemoteValues) {
+                     throw new OutdatedTopologyException("Remote values are missing because of a topology change");
+                  }
+                  return ctx.continueInvocation();
+               });
       } else { // remote
          int currentTopologyId = stateTransferManager.getCacheTopology().getTopologyId();
          boolean topologyChanged = currentTopologyId != commandTopologyId && commandTopologyId != -1;
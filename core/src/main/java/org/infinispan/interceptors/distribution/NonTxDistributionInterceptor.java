@@ -48,6 +48,7 @@
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -127,95 +128,86 @@ public CompletableFuture<Void> visitPutMapCommand(InvocationContext ctx, PutMapC
       Map<Object, Object> originalMap = command.getMap();
       ConsistentHash ch = dm.getConsistentHash();
       Address localAddress = rpcManager.getAddress();
-      if (ctx.isOriginLocal()) {
-         List<CompletableFuture<Map<Address, Response>>> futures =
-               new ArrayList<>(rpcManager.getMembers().size() - 1);
-         // TODO: if async we don't need to do futures...
-         RpcOptions options = rpcManager.getDefaultRpcOptions(isSynchronous(command));
-         for (Address member : rpcManager.getMembers()) {
-            if (member.equals(rpcManager.getAddress())) {
-               continue;
-            }
-            Set<Integer> segments = ch.getPrimarySegmentsForOwner(member);
-            if (!segments.isEmpty()) {
-               Map<Object, Object> segmentEntriesMap =
-                     new ReadOnlySegmentAwareMap<>(originalMap, ch, segments);
-               if (!segmentEntriesMap.isEmpty()) {
-                  PutMapCommand copy = new PutMapCommand(command);
-                  copy.setMap(segmentEntriesMap);
-                  CompletableFuture<Map<Address, Response>> future =
-                        rpcManager.invokeRemotelyAsync(Collections.singletonList(member), copy, options);
-                  futures.add(future);
-               }
+      boolean sendToBackups = !command.isForwarded() && ch.getNumOwners() > 1;
+      boolean sendToPrimaries = ctx.isOriginLocal();
+      if (!sendToPrimaries && !sendToBackups) {
+         return ctx.continueInvocation();
+      }
+
+      // Group the entries by owner in a single pass, instead of filtering the whole map once for every member
+      Map<Address, Map<Object, Object>> primaryEntries = new HashMap<>();
+      Map<Address, Map<Object, Object>> backupEntries = new HashMap<>();
+      for (Entry<Object, Object> entry : originalMap.entrySet()) {
+         Iterator<Address> owners = ch.locateOwners(entry.getKey()).iterator();
+         Address primaryOwner = owners.next();
+         if (!primaryOwner.equals(localAddress)) {
+            if (sendToPrimaries) {
+               addToOwnerMap(primaryEntries, primaryOwner, entry);
             }
-         }
-         if (futures.size() > 0) {
-            CompletableFuture[] futuresArray = new CompletableFuture[futures.size()];
-            CompletableFuture<Void> compFuture = CompletableFuture.allOf(futures.toArray(futuresArray));
-            try {
-               compFuture.get(options.timeout(), TimeUnit.MILLISECONDS);
-            } catch (ExecutionException e) {
-               throw new RemoteException("Exception while processing put on primary owner", e.getCause());
-            } catch (TimeoutException e) {
-               throw new CacheException(e);
+         } else if (sendToBackups) {
+            while (owners.hasNext()) {
+               addToOwnerMap(backupEntries, owners.next(), entry);
             }
          }
       }
 
-      if (!command.isForwarded() && ch.getNumOwners() > 1) {
-         // Now we find all the segments that we own and map our backups to those
-         Map<Address, Set<Integer>> backupOwnerSegments = new HashMap<>();
-         int segmentCount = ch.getNumSegments();
-         for (int i = 0; i < segmentCount; ++i) {
-            Iterator<Address> iter = ch.locateOwnersForSegment(i).iterator();
-
-            if (iter.next().equals(localAddress)) {
-               while (iter.hasNext()) {
-                  Address backupOwner = iter.next();
-                  Set<Integer> segments = backupOwnerSegments.get(backupOwner);
-                  if (segments == null) {
-                     backupOwnerSegments.put(backupOwner, (segments = new HashSet<>()));
-                  }
-                  segments.add(i);
-               }
-            }
+      // The sub-commands are sent to all the owners in parallel, and the local entries are applied while we
+      // wait for the acks. The locks acquired for the local entries are only released after the backups acked.
+      RpcOptions options = rpcManager.getDefaultRpcOptions(isSynchronous(command));
+      List<CompletableFuture<Map<Address, Response>>> primaryFutures = new ArrayList<>(primaryEntries.size());
+      for (Entry<Address, Map<Object, Object>> entry : primaryEntries.entrySet()) {
+         PutMapCommand copy = new PutMapCommand(command);
+         copy.setMap(entry.getValue());
+         primaryFutures.add(rpcManager.invokeRemotelyAsync(Collections.singletonList(entry.getKey()), copy, options));
+      }
+      List<CompletableFuture<Map<Address, Response>>> backupFutures = new ArrayList<>(backupEntries.size());
+      if (!backupEntries.isEmpty()) {
+         command.addFlag(Flag.SKIP_LOCKING);
+         command.setForwarded(true);
+         for (Entry<Address, Map<Object, Object>> entry : backupEntries.entrySet()) {
+            PutMapCommand copy = new PutMapCommand(command);
+            copy.setMap(entry.getValue());
+            backupFutures.add(rpcManager.invokeRemotelyAsync(Collections.singletonList(entry.getKey()), copy, options));
          }
+         command.setForwarded(false);
+      }
+      if (primaryFutures.isEmpty() && backupFutures.isEmpty()) {
+         return ctx.continueInvocation();
+      }
 
-         int backupOwnerSize = backupOwnerSegments.size();
-         if (backupOwnerSize > 0) {
-            List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(backupOwnerSize);
-            RpcOptions options = rpcManager.getDefaultRpcOptions(isSynchronous(command));
-            command.addFlag(Flag.SKIP_LOCKING);
-            command.setForwarded(true);
+      ctx.onReturn((rCtx, rCommand, rv, throwable) -> {
+         if (throwable != null)
+            throw throwable;
 
-            for (Entry<Address, Set<Integer>> entry : backupOwnerSegments.entrySet()) {
-               Set<Integer> segments = entry.getValue();
-               Map<Object, Object> segmentEntriesMap =
-                     new ReadOnlySegmentAwareMap<>(originalMap, ch, segments);
-               if (!segmentEntriesMap.isEmpty()) {
-                  PutMapCommand copy = new PutMapCommand(command);
-                  copy.setMap(segmentEntriesMap);
-                  CompletableFuture<Map<Address, Response>> future = rpcManager
-                        .invokeRemotelyAsync(Collections.singletonList(entry.getKey()), copy, options);
-                  futures.add(future);
-               }
-            }
-            command.setForwarded(false);
-            if (futures.size() > 0) {
-               CompletableFuture[] futuresArray = new CompletableFuture[futures.size()];
-               CompletableFuture<Void> compFuture = CompletableFuture.allOf(futures.toArray(futuresArray));
-               try {
-                  compFuture.get(options.timeout(), TimeUnit.MILLISECONDS);
-               } catch (ExecutionException e) {
-                  throw new RemoteException("Exception while processing put on backup owner", e.getCause());
-               } catch (TimeoutException e) {
-                  throw new CacheException(e);
-               }
-            }
-         }
+         return waitForOwnerAcks(primaryFutures, "primary")
+               .thenCompose(ignored -> waitForOwnerAcks(backupFutures, "backup"))
+               .thenApply(ignored -> rv);
+      });
+      return ctx.continueInvocation();
+   }
+
+   private static void addToOwnerMap(Map<Address, Map<Object, Object>> ownerEntries, Address owner,
+         Entry<Object, Object> entry) {
+      Map<Object, Object> entries = ownerEntries.get(owner);
+      if (entries == null) {
+         ownerEntries.put(owner, (entries = new HashMap<>()));
       }
+      entries.put(entry.getKey(), entry.getValue());
+   }
 
-      return ctx.continueInvocation();
+   private static CompletableFuture<Void> waitForOwnerAcks(List<CompletableFuture<Map<Address, Response>>> futures,
+         String ownerType) {
+      if (futures.isEmpty()) {
+         return CompletableFutures.completedNull();
+      }
+      CompletableFuture[] futuresArray = new CompletableFuture[futures.size()];
+      return CompletableFuture.allOf(futures.toArray(futuresArray)).handle((ignored, t) -> {
+         if (t != null) {
+            Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+            throw new RemoteException("Exception while processing put on " + ownerType + " owner", cause);
+         }
+         return null;
+      });
    }
 
    @Override
@@ -1,6 +1,7 @@
 package org.infinispan.interceptors.distribution;
 
 import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
@@ -25,6 +26,7 @@
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.LocalTxInvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.partitionhandling.impl.PartitionHandlingManager;
@@ -41,13 +43,17 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import static java.lang.String.format;
+import static org.infinispan.util.DeltaCompositeKeyUtil.filterDeltaCompositeKey;
 import static org.infinispan.util.DeltaCompositeKeyUtil.filterDeltaCompositeKeys;
 import static org.infinispan.util.DeltaCompositeKeyUtil.getAffectedKeysFromContext;
 
@@ -167,13 +173,49 @@ public CompletableFuture<Void> visitLockControlCommand(TxInvocationContext ctx,
                .locksAcquired(affectedNodes == null ? dm.getConsistentHash().getMembers() : affectedNodes);
          log.tracef("Registered remote locks acquired %s", affectedNodes);
          RpcOptions rpcOptions = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.NONE).build();
-         Map<Address, Response> responseMap = rpcManager.invokeRemotely(affectedNodes, command, rpcOptions);
+         Map<Address, Response> responseMap;
+         if (affectedNodes == null || !command.multipleKeys()) {
+            responseMap = rpcManager.invokeRemotely(affectedNodes, command, rpcOptions);
+         } else {
+            // Send each owner only the keys it owns, all the requests are sent in parallel
+            responseMap = rpcManager.invokeRemotely(splitLockControlCommand(command), rpcOptions);
+         }
          checkTxCommandResponses(responseMap, command, localTxCtx,
                localTxCtx.getCacheTransaction().getRemoteLocksAcquired());
       }
       return ctx.continueInvocation();
    }
 
+   /**
+    * Splits the keys of a {@link LockControlCommand} by owner. The keys are sorted by segment, so the keys sent to an
+    * owner are always in the same order.
+    */
+   private Map<Address, ReplicableCommand> splitLockControlCommand(LockControlCommand command) {
+      ConsistentHash ch = dm.getWriteConsistentHash();
+      List<Object> keys = new ArrayList<>(command.getKeys());
+      keys.sort(Comparator.comparingInt(key -> ch.getSegment(filterDeltaCompositeKey(key))));
+
+      Address localAddress = rpcManager.getAddress();
+      Map<Address, List<Object>> keysByOwner = new HashMap<>();
+      for (Object key : keys) {
+         for (Address owner : ch.locateOwners(filterDeltaCompositeKey(key))) {
+            if (!owner.equals(localAddress)) {
+               keysByOwner.computeIfAbsent(owner, a -> new ArrayList<>()).add(key);
+            }
+         }
+      }
+
+      Map<Address, ReplicableCommand> commands = new HashMap<>(keysByOwner.size());
+      for (Map.Entry<Address, List<Object>> e : keysByOwner.entrySet()) {
+         LockControlCommand ownerCommand = cf.buildLockControlCommand(e.getValue(), command.getFlagsBitSet(),
+               command.getGlobalTransaction());
+         ownerCommand.setTopologyId(command.getTopologyId());
+         commands.put(e.getKey(), ownerCommand);
+      }
+      if (trace) log.tracef("Lock requests per owner: %s", commands);
+      return commands;
+   }
+
    // ---- TX boundary commands
    @Override
    public CompletableFuture<Void> visitCommitCommand(TxInvocationContext ctx, CommitCommand command) throws Throwable {
@@ -26,11 +26,13 @@
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.commons.equivalence.EquivalentHashSet;
 import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.CloseableSpliterator;
 import org.infinispan.commons.util.Closeables;
+import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.EntryFactory;
 import org.infinispan.container.InternalEntryFactory;
@@ -73,6 +75,8 @@
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -89,6 +93,7 @@
 public class CacheLoaderInterceptor<K, V> extends JmxStatsCommandInterceptor {
    private final AtomicLong cacheLoads = new AtomicLong(0);
    private final AtomicLong cacheMisses = new AtomicLong(0);
+   private final AtomicLong coalescedLoads = new AtomicLong(0);
 
    protected PersistenceManager persistenceManager;
    protected CacheNotifier notifier;
@@ -101,6 +106,10 @@
    private ExecutorService executorService;
    private Cache<K, V> cache;
    private Equivalence<? super K> keyEquivalence;
+   // the loads in progress, separately for local and remote invocations as they don't query the same loaders
+   // a load completes with true if it found the key in a store or in the data container
+   private ConcurrentMap<Object, CompletableFuture<Boolean>> localLoads;
+   private ConcurrentMap<Object, CompletableFuture<Boolean>> remoteLoads;
 
    private static final Log log = LogFactory.getLog(CacheLoaderInterceptor.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -123,7 +132,10 @@ protected void injectDependencies(PersistenceManager clm, EntryFactory entryFact
 
    @Start
    public void start() {
-      this.keyEquivalence = cache.getCacheConfiguration().dataContainer().keyEquivalence();
+      Equivalence<Object> keyEq = cache.getCacheConfiguration().dataContainer().keyEquivalence();
+      this.keyEquivalence = keyEq;
+      this.localLoads = CollectionFactory.makeConcurrentMap(keyEq, AnyEquivalence.getInstance());
+      this.remoteLoads = CollectionFactory.makeConcurrentMap(keyEq, AnyEquivalence.getInstance());
    }
 
    @Override
@@ -349,8 +361,7 @@ protected final Boolean loadIfNeeded(final InvocationContext ctx, Object key, fi
 
    private Boolean loadInContext(InvocationContext ctx, Object key, FlagAffectedCommand cmd) {
       final AtomicReference<Boolean> isLoaded = new AtomicReference<>();
-      InternalCacheEntry<K, V> entry = PersistenceUtil.loadAndStoreInDataContainer(dataContainer, persistenceManager, (K) key,
-                                                                             ctx, timeService, isLoaded);
+      InternalCacheEntry<K, V> entry = loadAndStoreInDataContainer((K) key, ctx, isLoaded);
       Boolean isLoadedValue = isLoaded.get();
       if (trace) {
          log.tracef("Entry was loaded? %s", isLoadedValue);
@@ -380,6 +391,58 @@ private Boolean loadInContext(InvocationContext ctx, Object key, FlagAffectedCom
       return isLoadedValue;
    }
 
+   /**
+    * Same as {@link PersistenceUtil#loadAndStoreInDataContainer(DataContainer, PersistenceManager, Object,
+    * InvocationContext, TimeService, AtomicReference)}, but the concurrent invocations missing the same key share a
+    * single load. One of them queries the stores inside the data container lock, so that a concurrent write or remove
+    * can't commit before the loaded entry is stored, and the others wait for it and then read the entry it stored.
+    */
+   private InternalCacheEntry<K, V> loadAndStoreInDataContainer(K key, InvocationContext ctx,
+                                                                AtomicReference<Boolean> isLoaded) {
+      InternalCacheEntry<K, V> existing = dataContainer.peek(key);
+      if (existing != null && !(existing.canExpire() && existing.isExpired(timeService.wallClockTime()))) {
+         isLoaded.set(null); //not loaded
+         return existing;
+      }
+
+      ConcurrentMap<Object, CompletableFuture<Boolean>> loads = ctx.isOriginLocal() ? localLoads : remoteLoads;
+      CompletableFuture<Boolean> load = new CompletableFuture<>();
+      CompletableFuture<Boolean> inProgress = loads.putIfAbsent(key, load);
+      if (inProgress == null) {
+         try {
+            InternalCacheEntry<K, V> entry = PersistenceUtil.loadAndStoreInDataContainer(dataContainer,
+                  persistenceManager, key, ctx, timeService, isLoaded);
+            load.complete(entry != null);
+            return entry;
+         } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+         } finally {
+            loads.remove(key, load);
+         }
+      }
+
+      if (trace) {
+         log.tracef("Waiting for the load of key %s in progress", key);
+      }
+      if (getStatisticsEnabled()) {
+         coalescedLoads.incrementAndGet();
+      }
+      boolean found;
+      try {
+         found = inProgress.join();
+      } catch (CompletionException e) {
+         throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+      }
+      if (!found) {
+         isLoaded.set(Boolean.FALSE); //not loaded
+         return null;
+      }
+      // the entry may have been removed or evicted since it was stored, in which case it is loaded again
+      return PersistenceUtil.loadAndStoreInDataContainer(dataContainer, persistenceManager, key, ctx, timeService,
+            isLoaded);
+   }
+
    private boolean skipLoad(FlagAffectedCommand cmd, Object key, InvocationContext ctx) {
       if (!shouldAttemptLookup(ctx.lookupEntry(key))) {
          if (trace) {
@@ -467,6 +530,16 @@ public long getCacheLoaderMisses() {
       return cacheMisses.get();
    }
 
+   @ManagedAttribute(
+         description = "Number of loads that waited for a load of the same key already in progress instead of querying the cache store",
+         displayName = "Number of coalesced cache store loads",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   @SuppressWarnings("unused")
+   public long getCacheLoaderCoalescedLoads() {
+      return coalescedLoads.get();
+   }
+
    @Override
    @ManagedOperation(
          description = "Resets statistics gathered by this component",
@@ -475,6 +548,7 @@ public long getCacheLoaderMisses() {
    public void resetStatistics() {
       cacheLoads.set(0);
       cacheMisses.set(0);
+      coalescedLoads.set(0);
    }
 
    @ManagedAttribute(
@@ -35,6 +35,7 @@
 import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.Metadata;
@@ -47,6 +48,8 @@
 import javax.transaction.SystemException;
 import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -229,11 +232,13 @@ public CompletableFuture<Void> visitPutMapCommand(InvocationContext ctx, PutMapC
             return null;
 
          Map<Object, Object> map = putMapCommand.getMap();
+         List<Object> keys = new ArrayList<>(map.size());
          for (Object key : map.keySet()) {
             if (isProperWriter(rCtx, putMapCommand, key)) {
-               storeEntry(rCtx, key, putMapCommand);
+               keys.add(key);
             }
          }
+         storeEntries(rCtx, keys, putMapCommand);
          if (getStatisticsEnabled())
             cacheStores.getAndAdd(map.size());
          return null;
@@ -494,6 +499,28 @@ void storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command)
       if (trace) getLog().tracef("Stored entry %s under key %s", sv, key);
    }
 
+   /**
+    * Writes the entries with a single batch per store, or two if only some of the keys must skip the shared stores.
+    */
+   void storeEntries(InvocationContext ctx, Collection<Object> keys, FlagAffectedCommand command) {
+      List<MarshalledEntry> allStores = new ArrayList<>(keys.size());
+      List<MarshalledEntry> privateStores = new ArrayList<>();
+      for (Object key : keys) {
+         InternalCacheValue sv = getStoredValue(key, ctx);
+         MarshalledEntry me = new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
+         if (skipSharedStores(ctx, key, command)) {
+            privateStores.add(me);
+         } else {
+            allStores.add(me);
+         }
+      }
+      if (!allStores.isEmpty())
+         persistenceManager.writeBatchToAllStores(allStores, BOTH);
+      if (!privateStores.isEmpty())
+         persistenceManager.writeBatchToAllStores(privateStores, PRIVATE);
+      if (trace) getLog().tracef("Stored entries with keys %s", keys);
+   }
+
    protected boolean skipSharedStores(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       return !ctx.isOriginLocal() || command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE);
    }
@@ -14,7 +14,8 @@
 
 /**
  * The same as a regular cache loader interceptor, except that it contains additional logic to force loading from the
- * cache loader if needed on a remote node, in certain conditions.
+ * cache loader if needed on a remote node, in certain conditions. The concurrent remote invocations that load the
+ * same key share a single load, just like the local ones.
  *
  * @author Manik Surtani
  * @since 9.0
@@ -16,6 +16,8 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -101,7 +103,7 @@ public CompletableFuture<Void> visitPutMapCommand(InvocationContext ctx, PutMapC
             return null;
 
          Map<Object, Object> map = putMapCommand.getMap();
-         int count = 0;
+         List<Object> keys = new ArrayList<>(map.size());
          for (Object key : map.keySet()) {
             // In non-tx mode, a node may receive the same forwarded PutMapCommand many times - but each time
             // it must write only the keys locked on the primary owner that forwarded the command
@@ -110,12 +112,12 @@ public CompletableFuture<Void> visitPutMapCommand(InvocationContext ctx, PutMapC
                continue;
 
             if (isProperWriter(rCtx, putMapCommand, key)) {
-               storeEntry(rCtx, key, putMapCommand);
-               count++;
+               keys.add(key);
             }
          }
+         storeEntries(rCtx, keys, putMapCommand);
          if (getStatisticsEnabled())
-            cacheStores.getAndAdd(count);
+            cacheStores.getAndAdd(keys.size());
 
          return null;
       });
@@ -37,6 +37,7 @@
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.EntryFactory;
 import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.NullCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
@@ -391,6 +392,19 @@ public CompletableFuture<Void> visitGetKeysInGroupCommand(final InvocationContex
       if (!command.isGroupOwner()) {
          return ctx.continueInvocation();
       }
+      Set<Object> groupKeys = dataContainer.keysInGroup(groupName);
+      if (groupKeys != null) {
+         // The container has a group index, only visit the keys in the group
+         for (Object key : groupKeys) {
+            if (ctx.lookupEntry(key) != null)
+               continue;
+            InternalCacheEntry<Object, Object> internalCacheEntry = dataContainer.peek(key);
+            if (internalCacheEntry != null) {
+               entryFactory.wrapExternalEntry(ctx, key, internalCacheEntry, EntryFactory.Wrap.STORE, false);
+            }
+         }
+         return ctx.continueInvocation();
+      }
       final KeyFilter<Object> keyFilter = new CompositeKeyFilter<>(new GroupFilter<>(groupName, groupManager),
                                                                    new CollectionKeyFilter<>(ctx.getLookedUpEntries().keySet()));
       dataContainer.executeTask(keyFilter, (o, internalCacheEntry) -> {
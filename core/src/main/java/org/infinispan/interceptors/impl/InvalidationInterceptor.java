@@ -19,8 +19,10 @@
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.LocalTxInvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.jmx.JmxStatisticsExposer;
 import org.infinispan.jmx.annotations.DataType;
 import org.infinispan.jmx.annotations.MBean;
@@ -28,19 +30,24 @@
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.jmx.annotations.Parameter;
+import org.infinispan.remoting.rpc.CoalescingInvalidationSender;
 import org.infinispan.remoting.rpc.ResponseMode;
 import org.infinispan.remoting.rpc.RpcOptions;
+import org.infinispan.remoting.transport.Address;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static org.infinispan.factories.KnownComponentNames.EXPIRATION_SCHEDULED_EXECUTOR;
 
 /**
  * This interceptor acts as a replacement to the replication interceptor when the CacheImpl is configured with
@@ -60,6 +67,9 @@
 public class InvalidationInterceptor extends BaseRpcInterceptor implements JmxStatisticsExposer {
    private final AtomicLong invalidations = new AtomicLong(0);
    private CommandsFactory commandsFactory;
+   private ScheduledExecutorService scheduledExecutor;
+   // Synchronous and asynchronous invalidations are coalesced separately
+   private CoalescingInvalidationSender<Boolean> invalidationSender;
    private boolean statisticsEnabled;
 
    private static final Log log = LogFactory.getLog(InvalidationInterceptor.class);
@@ -70,13 +80,21 @@ protected Log getLog() {
    }
 
    @Inject
-   public void injectDependencies(CommandsFactory commandsFactory) {
+   public void injectDependencies(CommandsFactory commandsFactory,
+                                  @ComponentName(EXPIRATION_SCHEDULED_EXECUTOR) ScheduledExecutorService scheduledExecutor) {
       this.commandsFactory = commandsFactory;
+      this.scheduledExecutor = scheduledExecutor;
    }
 
    @Start
    private void start() {
       this.setStatisticsEnabled(cacheConfiguration.jmxStatistics().enabled());
+      this.invalidationSender = new CoalescingInvalidationSender<>(this::sendInvalidationBatch, scheduledExecutor);
+   }
+
+   @Stop
+   private void stop() {
+      invalidationSender.flushAll();
    }
 
    @Override
@@ -193,13 +211,38 @@ private CompletableFuture<Void> handleInvalidate(InvocationContext ctx, WriteCom
          if (throwable == null && writeCommand.isSuccessful()) {
             if (keys != null && keys.length != 0) {
                if (!isLocalModeForced(writeCommand))
-                  invalidateAcrossCluster(isSynchronous(writeCommand), keys, rCtx);
+                  return invalidateAcrossClusterNonTx(isSynchronous(writeCommand), keys, rv);
             }
          }
          return null;
       });
    }
 
+   private CompletableFuture<Object> invalidateAcrossClusterNonTx(boolean synchronous, Object[] keys, Object rv) {
+      // increment invalidations counter if statistics maintained
+      incrementInvalidations();
+      // The keys are sent together with the keys of other concurrent writes
+      CompletableFuture<Void> future = invalidationSender.invalidate(synchronous, null, Arrays.asList(keys));
+      // Asynchronous writes only wait for errors raised while sending the command, e.g. marshalling errors
+      if (synchronous || future.isCompletedExceptionally()) {
+         return future.thenApply(ignored -> rv);
+      }
+      future.whenComplete((ignored, t) -> {
+         if (t != null) log.debugf(t, "Failed to invalidate keys %s", Arrays.toString(keys));
+      });
+      return null;
+   }
+
+   private CompletableFuture<?> sendInvalidationBatch(Boolean synchronous, Collection<Address> targets,
+                                                      Collection<Object> keys) {
+      InvalidateCommand invalidateCommand = commandsFactory.buildInvalidateCommand(EnumUtil.EMPTY_BIT_SET,
+            keys.toArray());
+      if (log.isDebugEnabled())
+         log.debug("Cache [" + rpcManager.getAddress() + "] replicating " + invalidateCommand);
+
+      return rpcManager.invokeRemotelyAsync(targets, invalidateCommand, getBroadcastRpcOptions(synchronous));
+   }
+
    private void broadcastInvalidateForPrepare(List<WriteCommand> modifications, InvocationContext ctx)
          throws Throwable {
       // A prepare does not carry flags, so skip checking whether is local or not
@@ -72,11 +72,9 @@ public CompletableFuture<Void> visitPrepareCommand(TxInvocationContext ctx, Prep
 
          boolean onePhaseCommit = ((PrepareCommand) rCommand).isOnePhaseCommit();
          if (onePhaseCommit) {
+            // The keys checked for write skew here must be committed with their new versions
             txInvocationContext.getCacheTransaction()
-                  .setUpdatedEntryVersions(versionedPrepareCommand.getVersionsSeen());
-         }
-
-         if (onePhaseCommit) {
+                  .setUpdatedEntryVersions(mergeVersions(versionedPrepareCommand.getVersionsSeen(), newVersionData));
             commitContextEntries(txInvocationContext, null, null);
          }
          if (newVersionData != null)
@@ -86,6 +84,18 @@ public CompletableFuture<Void> visitPrepareCommand(TxInvocationContext ctx, Prep
       });
    }
 
+   private static EntryVersionsMap mergeVersions(EntryVersionsMap versionsSeen, EntryVersionsMap newVersions) {
+      if (newVersions == null || newVersions.isEmpty()) {
+         return versionsSeen;
+      }
+      EntryVersionsMap merged = new EntryVersionsMap();
+      if (versionsSeen != null) {
+         merged.putAll(versionsSeen);
+      }
+      merged.putAll(newVersions);
+      return merged;
+   }
+
    @Override
    public CompletableFuture<Void> visitCommitCommand(TxInvocationContext ctx, CommitCommand command) throws Throwable {
       ctx.onReturn((rCtx, rCommand, rv, throwable) -> {
@@ -12,6 +12,7 @@
 import org.infinispan.partitionhandling.impl.PartitionHandlingManager;
 import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.statetransfer.OutdatedTopologyException;
+import org.infinispan.util.concurrent.locks.KeyAwareLockPromise;
 import org.infinispan.util.concurrent.locks.LockUtil;
 import org.infinispan.util.concurrent.locks.PendingLockManager;
 import org.infinispan.util.logging.Log;
@@ -114,6 +115,37 @@ protected final boolean lockOrRegisterBackupLock(TxInvocationContext<?> ctx, Obj
     */
    protected final Collection<Object> lockAllOrRegisterBackupLock(TxInvocationContext<?> ctx, Collection<?> keys,
                                                                   long lockTimeout) throws InterruptedException {
+      Collection<Object> keysToLock = filterKeysToLock(ctx, keys);
+      if (keysToLock.isEmpty()) {
+         return Collections.emptyList();
+      }
+
+      checkPendingAndLockAllKeys(ctx, keysToLock, lockTimeout);
+      return keysToLock;
+   }
+
+   /**
+    * Same as {@link #lockAllOrRegisterBackupLock(TxInvocationContext, Collection, long)}, but it doesn't wait for the
+    * locks to be acquired. The keys are recorded in the context, so they are released with the other locks if the
+    * caller fails before waiting on the returned promise.
+    *
+    * @return a {@link KeyAwareLockPromise} completed when all the keys are locked.
+    */
+   protected final KeyAwareLockPromise startLockAllOrRegisterBackupLock(TxInvocationContext<?> ctx,
+                                                                        Collection<?> keys, long lockTimeout)
+         throws InterruptedException {
+      Collection<Object> keysToLock = filterKeysToLock(ctx, keys);
+      if (keysToLock.isEmpty()) {
+         return KeyAwareLockPromise.NO_OP;
+      }
+
+      final long remaining = pendingLockManager.awaitPendingTransactionsForAllKeys(ctx, keysToLock, lockTimeout,
+                                                                                   TimeUnit.MILLISECONDS);
+      keysToLock.forEach(ctx::addLockedKey);
+      return lockManager.lockAll(keysToLock, ctx.getLockOwner(), remaining, TimeUnit.MILLISECONDS);
+   }
+
+   private Collection<Object> filterKeysToLock(TxInvocationContext<?> ctx, Collection<?> keys) {
       if (keys.isEmpty()) {
          return Collections.emptyList();
       }
@@ -139,12 +171,6 @@ protected final Collection<Object> lockAllOrRegisterBackupLock(TxInvocationConte
                break;
          }
       }
-
-      if (keysToLock.isEmpty()) {
-         return Collections.emptyList();
-      }
-
-      checkPendingAndLockAllKeys(ctx, keysToLock, lockTimeout);
       return keysToLock;
    }
 
@@ -189,18 +189,18 @@ private EntryVersionsMap totalOrderCreateNewVersionsAndCheckForWriteSkews(Versio
             throw new IllegalStateException("This must not be reached");
          }
 
-         EntryVersionsMap updatedVersionMap = new EntryVersionsMap();
+         EntryVersionsMap updatedVersionMap;
 
          if (!((TotalOrderPrepareCommand) prepareCommand).skipWriteSkewCheck()) {
+            //all the keys owned by this node are checked and added to the map
             updatedVersionMap = performTotalOrderWriteSkewCheckAndReturnNewVersions(prepareCommand, dataContainer,
                                                                                     persistenceManager, versionGenerator,
                                                                                     context, keySpecificLogic, timeService);
-         }
-
-         for (WriteCommand c : prepareCommand.getModifications()) {
-            for (Object k : c.getAffectedKeys()) {
-               if (keySpecificLogic.performCheckOnKey(k)) {
-                  if (!updatedVersionMap.containsKey(k)) {
+         } else {
+            updatedVersionMap = new EntryVersionsMap();
+            for (WriteCommand c : prepareCommand.getModifications()) {
+               for (Object k : c.getAffectedKeys()) {
+                  if (keySpecificLogic.performCheckOnKey(k)) {
                      updatedVersionMap.put(k, null);
                   }
                }
@@ -219,11 +219,7 @@ private EntryVersionsMap clusteredCreateNewVersionsAndCheckForWriteSkews(Version
                                                                          keySpecificLogic, timeService);
 
          CacheTransaction cacheTransaction = context.getCacheTransaction();
-         EntryVersionsMap uvOld = cacheTransaction.getUpdatedEntryVersions();
-         if (uvOld != null && !uvOld.isEmpty()) {
-            uvOld.putAll(uv);
-            uv = uvOld;
-         }
+         uv = uv.merge(cacheTransaction.getUpdatedEntryVersions());
          cacheTransaction.setUpdatedEntryVersions(uv);
          return (uv.isEmpty()) ? null : uv;
       }
@@ -81,7 +81,12 @@ public CompletableFuture<Void> visitPrepareCommand(TxInvocationContext ctx, Prep
          return ctx.continueInvocation();
       }
       return ctx.onReturn((rCtx, rCommand, rv, throwable) -> {
-         releaseLockOnTxCompletion(((TxInvocationContext) rCtx));
+         if (throwable == null && !rCtx.isOriginLocal()) {
+            // The originator does not send a TxCompletionNotificationCommand after a one phase commit
+            lockManager.unlockAll(rCtx);
+         } else {
+            releaseLockOnTxCompletion(((TxInvocationContext) rCtx));
+         }
          return null;
       });
 
@@ -18,6 +18,7 @@
 import org.infinispan.statetransfer.OutdatedTopologyException;
 import org.infinispan.statetransfer.StateTransferManager;
 import org.infinispan.transaction.impl.LocalTransaction;
+import org.infinispan.util.concurrent.locks.KeyAwareLockPromise;
 import org.infinispan.util.concurrent.locks.LockUtil;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -37,9 +38,10 @@
  * there's no such thing as transaction originator node, so this might become a configuration option when HotRod tx are
  * in place.
  *
- * Implementation note: current implementation acquires locks remotely first and then locally. This is required
- * by the deadlock detection logic, but might not be optimal: acquiring locks locally first might help to fail fast the
- * in the case of keys being locked.
+ * Implementation note: on the originator, the local lock acquisition is started before the remote lock requests are
+ * sent, and the originator only waits for the local locks after all the remote owners replied, so the local wait
+ * overlaps with the remote round trip. The keys of a {@link LockControlCommand} are sent in a single request per owner
+ * (see {@link org.infinispan.interceptors.distribution.TxDistributionInterceptor}).
  *
  * @author Mircea Markus
  */
@@ -285,7 +287,6 @@ public CompletableFuture<Void> visitLockControlCommand(TxInvocationContext ctx,
          return ctx.shortCircuit(false);
       }
 
-      // First go through the distribution interceptor to acquire the remote lock - required by DLD.
       // Only acquire remote lock if multiple keys or the single key primary owner is not the local node.
       if (ctx.isOriginLocal()) {
          final boolean isSingleKeyAndLocal =
@@ -303,6 +304,22 @@ public CompletableFuture<Void> visitLockControlCommand(TxInvocationContext ctx,
                log.tracef("Single key %s and local, skipping remote call", command.getSingleKey());
             return ctx.shortCircuit(localLockCommandWork(ctx, command));
          }
+
+         // Start acquiring the local locks, then go through the distribution interceptor to acquire the remote locks
+         // while waiting for the local ones.
+         ctx.addAllAffectedKeys(command.getKeys());
+         KeyAwareLockPromise localLocks = startLockAllOrRegisterBackupLock(ctx, command.getKeys(),
+               getLockTimeoutMillis(command));
+         return ctx.onReturn((rCtx, rCommand, rv, throwable) -> {
+            rethrowAndReleaseLocksIfNeeded(rCtx, throwable);
+
+            try {
+               localLocks.lock();
+            } catch (Throwable t) {
+               rethrowAndReleaseLocksIfNeeded(rCtx, t);
+            }
+            return CompletableFuture.completedFuture(true);
+         });
       }
 
       return ctx.onReturn((rCtx, rCommand, rv, throwable) -> {
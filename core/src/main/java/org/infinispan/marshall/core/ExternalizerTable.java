@@ -38,12 +38,14 @@
 import org.infinispan.container.entries.metadata.MetadataTransientMortalCacheEntry;
 import org.infinispan.container.entries.metadata.MetadataTransientMortalCacheValue;
 import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.container.versioning.EntryVersionsMap;
 import org.infinispan.container.versioning.SimpleClusteredVersion;
 import org.infinispan.context.Flag;
 import org.infinispan.distribution.ch.impl.AffinityPartitioner;
 import org.infinispan.distribution.ch.impl.DefaultConsistentHash;
 import org.infinispan.distribution.ch.impl.DefaultConsistentHashFactory;
 import org.infinispan.distribution.ch.impl.HashFunctionPartitioner;
+import org.infinispan.distribution.ch.impl.LoadAwareConsistentHashFactory;
 import org.infinispan.distribution.ch.impl.ReplicatedConsistentHash;
 import org.infinispan.distribution.ch.impl.ReplicatedConsistentHashFactory;
 import org.infinispan.distribution.ch.impl.SyncConsistentHashFactory;
@@ -292,6 +294,7 @@ private void loadInternalMarshallables() {
       addInternalExternalizer(new TransientMortalCacheValue.Externalizer());
 
       addInternalExternalizer(new SimpleClusteredVersion.Externalizer());
+      addInternalExternalizer(new EntryVersionsMap.Externalizer());
       addInternalExternalizer(new MetadataImmortalCacheEntry.Externalizer());
       addInternalExternalizer(new MetadataMortalCacheEntry.Externalizer());
       addInternalExternalizer(new MetadataTransientCacheEntry.Externalizer());
@@ -324,6 +327,7 @@ private void loadInternalMarshallables() {
       addInternalExternalizer(new SyncReplicatedConsistentHashFactory.Externalizer());
       addInternalExternalizer(new TopologyAwareConsistentHashFactory.Externalizer());
       addInternalExternalizer(new TopologyAwareSyncConsistentHashFactory.Externalizer());
+      addInternalExternalizer(new LoadAwareConsistentHashFactory.Externalizer());
       addInternalExternalizer(new CacheTopology.Externalizer());
       addInternalExternalizer(new CacheJoinInfo.Externalizer());
       addInternalExternalizer(new TransactionInfo.Externalizer());
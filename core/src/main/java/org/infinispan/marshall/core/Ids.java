@@ -174,4 +174,8 @@ public interface Ids extends org.infinispan.commons.marshall.Ids {
    int AFFINITY_FUNCTION_PARTITIONER = 165;
 
    int PERSISTENT_UUID = 166;
+
+   // 167 used by IMMUTABLE_ENTRY in commons
+   int LOAD_AWARE_CONSISTENT_HASH_FACTORY = 168;
+   int ENTRY_VERSIONS_MAP = 169;
 }
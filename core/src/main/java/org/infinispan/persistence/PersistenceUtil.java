@@ -1,10 +1,12 @@
 package org.infinispan.persistence;
 
+import org.infinispan.configuration.cache.HashConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.InternalCacheValue;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.InternalMetadata;
@@ -12,6 +14,7 @@
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
@@ -124,6 +127,21 @@ public static MarshalledEntry loadAndCheckExpiration(PersistenceManager persiste
       return loaded;
    }
 
+   /**
+    * Returns the {@link KeyPartitioner} of the store's cache, so that a store keeps its entries by segment the same way
+    * as the cache does. If the store is not used by a running cache, a partitioner is created from the cache's hash
+    * configuration.
+    */
+   public static KeyPartitioner getKeyPartitioner(InitializationContext ctx) {
+      KeyPartitioner keyPartitioner = ctx.getCache().getAdvancedCache().getComponentRegistry().getComponent(KeyPartitioner.class);
+      if (keyPartitioner == null) {
+         HashConfiguration hashConfiguration = ctx.getCache().getCacheConfiguration().clustering().hash();
+         keyPartitioner = hashConfiguration.keyPartitioner();
+         keyPartitioner.init(hashConfiguration);
+      }
+      return keyPartitioner;
+   }
+
    public static <K, V> InternalCacheEntry<K, V> convert(MarshalledEntry<K, V> loaded, InternalEntryFactory factory) {
       InternalMetadata metadata = loaded.getMetadata();
       if (metadata != null) {
@@ -35,19 +35,25 @@ public AdvancedAsyncCacheLoader(CacheLoader actual, AtomicReference<State> state
    }
 
 
-   private void loadAllKeys(State s, final Set<Object> result, final KeyFilter filter, final Executor executor) {
+   private void loadAllKeys(State s, final Set<Object> result, final Set<Integer> segments, final KeyFilter filter,
+                            final Executor executor) {
       // if not cleared, get keys from next State or the back-end store
       if (!s.clear) {
          State next = s.next;
          if (next != null) {
-            loadAllKeys(next, result, filter, executor);
+            loadAllKeys(next, result, segments, filter, executor);
          } else {
-            advancedLoader().process(filter, new CacheLoaderTask() {
+            CacheLoaderTask task = new CacheLoaderTask() {
                @Override
                public void processEntry(MarshalledEntry marshalledEntry, TaskContext taskContext) throws InterruptedException {
                   result.add(marshalledEntry.getKey());
                }
-            }, executor, false, false);
+            };
+            if (segments != null) {
+               advancedLoader().process(segments, filter, task, executor, false, false);
+            } else {
+               advancedLoader().process(filter, task, executor, false, false);
+            }
          }
       }
 
@@ -67,9 +73,17 @@ public void processEntry(MarshalledEntry marshalledEntry, TaskContext taskContex
    }
 
 
-   @SuppressWarnings("unchecked")
    @Override
    public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Executor executor, boolean loadValues, boolean loadMetadata) {
+      process(null, keyFilter, cacheLoaderTask, executor, loadValues, loadMetadata);
+   }
+
+   /**
+    * The keys of the pending modifications are not filtered by segment, the caller must check them anyway.
+    */
+   @SuppressWarnings("unchecked")
+   @Override
+   public void process(Set segments, KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Executor executor, boolean loadValues, boolean loadMetadata) {
 
       int batchSize = 100;
       ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
@@ -77,7 +91,7 @@ public void process(KeyFilter keyFilter, CacheLoaderTask cacheLoaderTask, Execut
 
       Set<Object> allKeys = new ConcurrentHashSet<>();
       Set<Object> batch = new HashSet<Object>();
-      loadAllKeys(state.get(), allKeys, keyFilter, executor);
+      loadAllKeys(state.get(), allKeys, segments, keyFilter, executor);
       for (Iterator it = allKeys.iterator(); it.hasNext(); ) {
          batch.add(it.next());
          if (batch.size() == batchSize) {
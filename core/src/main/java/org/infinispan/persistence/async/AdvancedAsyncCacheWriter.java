@@ -9,7 +9,7 @@
  * @author Mircea Markus
  * @since 6.0
  */
-public class AdvancedAsyncCacheWriter extends AsyncCacheWriter implements AdvancedCacheWriter {
+public class AdvancedAsyncCacheWriter<K, V> extends AsyncCacheWriter<K, V> implements AdvancedCacheWriter<K, V> {
 
    public AdvancedAsyncCacheWriter(CacheWriter delegate) {
       super(delegate);
@@ -7,6 +7,7 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.modifications.Modification;
+import org.infinispan.persistence.modifications.ModificationsList;
 import org.infinispan.persistence.modifications.Remove;
 import org.infinispan.persistence.modifications.Store;
 import org.infinispan.commons.CacheException;
@@ -57,7 +58,7 @@
  * @author Mircea Markus
  * @since 4.0
  */
-public class AsyncCacheWriter extends DelegatingCacheWriter {
+public class AsyncCacheWriter<K, V> extends DelegatingCacheWriter<K, V> {
    private static final Log log = LogFactory.getLog(AsyncCacheWriter.class);
    private static final boolean trace = log.isTraceEnabled();
    private static final AtomicInteger threadId = new AtomicInteger(0);
@@ -151,19 +152,46 @@ public boolean delete(Object key) {
       return true;
    }
 
+   @Override
+   public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      List<Modification> mods = new ArrayList<>();
+      for (MarshalledEntry<? extends K, ? extends V> entry : entries) {
+         mods.add(new Store(entry.getKey(), entry));
+      }
+      if (!mods.isEmpty())
+         put(new ModificationsList(mods), mods.size());
+   }
+
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      List<Modification> mods = new ArrayList<>();
+      for (Object key : keys) {
+         mods.add(new Remove(key));
+      }
+      if (!mods.isEmpty())
+         put(new ModificationsList(mods), mods.size());
+   }
+
    protected void applyModificationsSync(List<Modification> mods) throws PersistenceException {
+      // the modifications are coalesced by key, so the stores and the removes can be applied in separate batches
+      List<MarshalledEntry> entries = new ArrayList<>(mods.size());
+      List<Object> keys = new ArrayList<>();
       for (Modification m : mods) {
          switch (m.getType()) {
             case STORE:
-               actual.write(((Store) m).getStoredValue());
+               entries.add(((Store) m).getStoredValue());
                break;
             case REMOVE:
-               actual.delete(((Remove) m).getKey());
+               keys.add(((Remove) m).getKey());
                break;
             default:
                throw new IllegalArgumentException("Unknown modification type " + m.getType());
          }
       }
+      if (!entries.isEmpty())
+         actual.writeBatch(entries);
+      if (!keys.isEmpty())
+         actual.deleteBatch(keys);
    }
 
 
@@ -0,0 +1,157 @@
+package org.infinispan.persistence.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the entries of a {@link SingleFileStore} and forces them to disk, coalescing the concurrent writes.
+ * <p/>
+ * The first thread that submits a write while no other thread is writing becomes the leader: it takes all the pending
+ * writes, merges the writes to adjacent positions into a single sequential write, forces the file to disk once for
+ * the whole group, and then wakes up the threads whose writes were part of the group. The threads that submit
+ * writes while the leader is busy wait, and one of them becomes the leader of the next group, so the more threads are
+ * waiting for the disk, the larger the groups are.
+ * <p/>
+ * The pending writes are applied in the order they were submitted, because a write can overwrite the position of a
+ * previous one after the space is freed and allocated again.
+ *
+ * @since 9.0
+ */
+class GroupCommitFileWriter {
+
+   private final FileChannel channel;
+   private final Object lock = new Object();
+   // guarded by lock
+   private List<PendingWrite> pending = new ArrayList<>();
+   private boolean writing;
+
+   GroupCommitFileWriter(FileChannel channel) {
+      this.channel = channel;
+   }
+
+   /**
+    * Writes {@code buf} at {@code position} and returns after it was forced to disk.
+    */
+   void write(ByteBuffer buf, long position) throws IOException {
+      submit(new PendingWrite(buf, position));
+   }
+
+   /**
+    * Returns after all the writes to the file, including those not submitted to this writer, were forced to disk.
+    */
+   void sync() throws IOException {
+      submit(new PendingWrite(null, -1));
+   }
+
+   private void submit(PendingWrite write) throws IOException {
+      List<PendingWrite> group;
+      boolean interrupted = false;
+      synchronized (lock) {
+         pending.add(write);
+         while (writing && !write.done) {
+            try {
+               lock.wait();
+            } catch (InterruptedException e) {
+               // the write can't be abandoned, the caller wouldn't know if it was applied
+               interrupted = true;
+            }
+         }
+         if (write.done) {
+            restoreInterrupt(interrupted);
+            write.rethrow();
+            return;
+         }
+         // become the leader
+         writing = true;
+         group = pending;
+         pending = new ArrayList<>();
+      }
+
+      IOException error = null;
+      try {
+         writeGroup(group);
+         channel.force(false);
+      } catch (IOException e) {
+         error = e;
+      }
+
+      synchronized (lock) {
+         for (PendingWrite w : group) {
+            w.error = error;
+            w.done = true;
+         }
+         writing = false;
+         lock.notifyAll();
+      }
+      // an interrupted thread would close the channel, so the flag is only restored after writing
+      restoreInterrupt(interrupted);
+      write.rethrow();
+   }
+
+   private void writeGroup(List<PendingWrite> group) throws IOException {
+      int i = 0;
+      while (i < group.size()) {
+         PendingWrite first = group.get(i);
+         if (first.buf == null) {
+            i++;
+            continue;
+         }
+         // find the writes that continue the first one
+         long end = first.position + first.buf.remaining();
+         int runLength = first.buf.remaining();
+         int j = i + 1;
+         while (j < group.size()) {
+            PendingWrite next = group.get(j);
+            if (next.buf == null || next.position != end) {
+               break;
+            }
+            end += next.buf.remaining();
+            runLength += next.buf.remaining();
+            j++;
+         }
+
+         ByteBuffer run;
+         if (j == i + 1) {
+            run = first.buf;
+         } else {
+            run = ByteBuffer.allocate(runLength);
+            for (int k = i; k < j; k++) {
+               run.put(group.get(k).buf);
+            }
+            run.flip();
+         }
+         long position = first.position;
+         while (run.hasRemaining()) {
+            position += channel.write(run, position);
+         }
+         i = j;
+      }
+   }
+
+   private static void restoreInterrupt(boolean interrupted) {
+      if (interrupted) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private static class PendingWrite {
+      private final ByteBuffer buf;
+      private final long position;
+      private boolean done;
+      private IOException error;
+
+      private PendingWrite(ByteBuffer buf, long position) {
+         this.buf = buf;
+         this.position = position;
+      }
+
+      private void rethrow() throws IOException {
+         if (error != null) {
+            throw new IOException("Cannot write to the file store", error);
+         }
+      }
+   }
+}
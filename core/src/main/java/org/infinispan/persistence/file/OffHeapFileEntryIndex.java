@@ -0,0 +1,590 @@
+package org.infinispan.persistence.file;
+
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.persistence.file.SingleFileStore.FileEntry;
+import org.infinispan.persistence.spi.PersistenceException;
+import sun.misc.Unsafe;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * The index of a {@link SingleFileStore}, kept outside the Java heap.
+ * <p/>
+ * The index is an open addressing table with linear probing, split in segments that are allocated outside the heap
+ * and freed as soon as they are replaced. Each slot only stores the position of an entry in the file, the hash of its
+ * key and the length of the serialized key, so the keys are read from the file and compared with the
+ * {@link Equivalence} of the cache to verify a match. The {@link FileEntry} instances are created on demand from the
+ * entry header in the file.
+ * <p/>
+ * The keys are read from the file without holding the monitor of the index: a lookup collects the slots with the hash
+ * of the key, reads their keys, and then verifies that the segment was not modified in the meantime, or starts over.
+ * <p/>
+ * The {@link SingleFileStore} uses the instance of a {@link FileEntry} to count its readers, so the entries locked by
+ * readers are {@link #pin(FileEntry) pinned} and returned instead of new instances until they are
+ * {@link #unpin(FileEntry) unpinned}.
+ * <p/>
+ * Like a {@link java.util.Collections#synchronizedMap(Map)}, all the modifications synchronize on the index, and the
+ * callers must synchronize on the index while iterating. The index must be {@link #close() closed} to free its memory.
+ *
+ * @since 9.0
+ */
+class OffHeapFileEntryIndex<K> extends AbstractMap<K, FileEntry> {
+
+   private static final Unsafe UNSAFE = getUnsafe();
+
+   // slot layout: file offset (8 bytes), key hash (4 bytes), serialized key length (4 bytes)
+   private static final int SLOT_SIZE = 16;
+   private static final int HASH_POS = 8;
+   private static final int KEY_LEN_POS = 12;
+   // offset 0 is never used by an entry, because the file starts with the magic header
+   private static final long EMPTY = 0;
+   private static final long REMOVED = -1;
+
+   private static final int SEGMENT_BITS = 6;
+   private static final int SEGMENTS = 1 << SEGMENT_BITS;
+   private static final int INITIAL_SEGMENT_CAPACITY = 1 << 10;
+   // 1GB per segment
+   private static final int MAX_SEGMENT_CAPACITY = 1 << 26;
+   private static final float MAX_LOAD = 0.75f;
+   // a lookup that keeps finding its segment modified reads the keys while holding the monitor
+   private static final int OPTIMISTIC_ATTEMPTS = 4;
+
+   private final FileChannel channel;
+   private final StreamingMarshaller marshaller;
+   private final Equivalence<Object> keyEquivalence;
+   private final Segment[] segments = new Segment[SEGMENTS];
+   private final Map<Long, FileEntry> pinned = new HashMap<>();
+   private int size;
+   private Set<Entry<K, FileEntry>> entrySet;
+
+   OffHeapFileEntryIndex(FileChannel channel, StreamingMarshaller marshaller, Equivalence<Object> keyEquivalence) {
+      this.channel = channel;
+      this.marshaller = marshaller;
+      this.keyEquivalence = keyEquivalence;
+      for (int i = 0; i < SEGMENTS; i++) {
+         segments[i] = new Segment(INITIAL_SEGMENT_CAPACITY);
+      }
+   }
+
+   @Override
+   public synchronized int size() {
+      return size;
+   }
+
+   @Override
+   public boolean containsKey(Object key) {
+      return get(key) != null;
+   }
+
+   @Override
+   public FileEntry get(Object key) {
+      return compute(key, UnaryOperator.identity());
+   }
+
+   @Override
+   public FileEntry put(K key, FileEntry entry) {
+      return compute(key, current -> entry);
+   }
+
+   @Override
+   public FileEntry remove(Object key) {
+      return compute(key, current -> null);
+   }
+
+   /**
+    * Invokes {@code action} with the entry of the key, or with {@code null} if the key is not in the index, and maps
+    * the key to the entry returned by the action, or removes the key if the action returns {@code null}. The action is
+    * invoked while holding the monitor of the index.
+    *
+    * @return the entry of the key before the action.
+    */
+   FileEntry compute(Object key, UnaryOperator<FileEntry> action) {
+      int hash = keyHash(key);
+      for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+         Lookup lookup;
+         synchronized (this) {
+            lookup = new Lookup(segmentFor(hash), hash);
+         }
+         lookup.match(key);
+         synchronized (this) {
+            if (lookup.segment == segmentFor(hash) && lookup.modCount == lookup.segment.modCount) {
+               return apply(lookup, action);
+            }
+         }
+      }
+      synchronized (this) {
+         Lookup lookup = new Lookup(segmentFor(hash), hash);
+         lookup.match(key);
+         return apply(lookup, action);
+      }
+   }
+
+   private FileEntry apply(Lookup lookup, UnaryOperator<FileEntry> action) {
+      if (lookup.failure != null) {
+         throw lookup.failure;
+      }
+      FileEntry current = lookup.found == null ? null : pinnedOr(lookup.found);
+      FileEntry updated = action.apply(current);
+      if (updated == current) {
+         return current;
+      }
+      if (updated == null) {
+         lookup.segment.remove(lookup.slot);
+         size--;
+         return current;
+      }
+      // a new entry can reuse the position of an entry pinned by a reader that released it already
+      pinned.remove(updated.offset);
+      if (current != null) {
+         lookup.segment.set(lookup.slot, updated.offset, lookup.hash, updated.keyLen);
+      } else {
+         insert(lookup.hash, updated.offset, updated.keyLen);
+         size++;
+      }
+      return current;
+   }
+
+   @Override
+   public synchronized void clear() {
+      for (int i = 0; i < SEGMENTS; i++) {
+         segments[i].free();
+         segments[i] = new Segment(INITIAL_SEGMENT_CAPACITY);
+      }
+      pinned.clear();
+      size = 0;
+   }
+
+   /**
+    * Frees the memory of the index, which can't be used afterwards.
+    */
+   synchronized void close() {
+      for (int i = 0; i < SEGMENTS; i++) {
+         if (segments[i] != null) {
+            segments[i].free();
+            segments[i] = null;
+         }
+      }
+      pinned.clear();
+      size = 0;
+   }
+
+   @Override
+   public synchronized Set<Entry<K, FileEntry>> entrySet() {
+      if (entrySet == null) {
+         entrySet = new EntrySet();
+      }
+      return entrySet;
+   }
+
+   /**
+    * Makes the index return {@code entry} for its position, until it is unpinned, so the readers that lock it and the
+    * writers that free it use the same instance.
+    */
+   synchronized void pin(FileEntry entry) {
+      pinned.put(entry.offset, entry);
+   }
+
+   synchronized void unpin(FileEntry entry) {
+      if (!entry.isLocked()) {
+         pinned.remove(entry.offset, entry);
+      }
+   }
+
+   /**
+    * @return the entries that are pinned, which includes all the entries that are locked by readers.
+    */
+   synchronized Collection<FileEntry> pinnedEntries() {
+      return pinned.values();
+   }
+
+   private FileEntry pinnedOr(FileEntry entry) {
+      FileEntry pinnedEntry = pinned.get(entry.offset);
+      return pinnedEntry != null ? pinnedEntry : entry;
+   }
+
+   private int keyHash(Object key) {
+      int h = keyEquivalence.hashCode(key) * 0x9E3779B9;
+      return h ^ (h >>> 16);
+   }
+
+   private Segment segmentFor(int hash) {
+      return segments[hash >>> (32 - SEGMENT_BITS)];
+   }
+
+   private void insert(int hash, long offset, int keyLen) {
+      Segment segment = segmentFor(hash);
+      if (!segment.insert(hash, offset, keyLen)) {
+         Segment rehashed = segment.rehash(size);
+         for (int i = 0; i < SEGMENTS; i++) {
+            if (segments[i] == segment) {
+               segments[i] = rehashed;
+            }
+         }
+         segment.free();
+         rehashed.insert(hash, offset, keyLen);
+      }
+   }
+
+   /**
+    * Reads the header of an entry from the file, and its key if {@code expectedKey} or {@code keyHolder} is not null.
+    *
+    * @return the entry, or {@code null} if its key is not {@code expectedKey}.
+    */
+   private FileEntry readEntry(long offset, int keyLen, Object expectedKey, Object[] keyHolder) {
+      boolean readKey = expectedKey != null || keyHolder != null;
+      ByteBuffer buf = ByteBuffer.allocate(SingleFileStore.KEY_POS + (readKey ? keyLen : 0));
+      try {
+         channel.read(buf, offset);
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      }
+      buf.flip();
+      int entrySize = buf.getInt();
+      int entryKeyLen = buf.getInt();
+      int dataLen = buf.getInt();
+      int metadataLen = buf.getInt();
+      long expiryTime = buf.getLong();
+      if (entryKeyLen != keyLen) {
+         throw new PersistenceException(String.format("Inconsistent index entry at %d, key length %d != %d", offset,
+               keyLen, entryKeyLen));
+      }
+      if (readKey) {
+         Object key;
+         try {
+            key = marshaller.objectFromByteBuffer(buf.array(), SingleFileStore.KEY_POS, keyLen);
+         } catch (Exception e) {
+            throw new PersistenceException(e);
+         }
+         if (expectedKey != null && !keyEquivalence.equals(expectedKey, key)) {
+            return null;
+         }
+         if (keyHolder != null) {
+            keyHolder[0] = key;
+         }
+      }
+      return new FileEntry(offset, entrySize, keyLen, dataLen, metadataLen, expiryTime);
+   }
+
+   private static Unsafe getUnsafe() {
+      try {
+         return AccessController.doPrivileged((PrivilegedExceptionAction<Unsafe>) () -> {
+            Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return (Unsafe) field.get(null);
+         });
+      } catch (PrivilegedActionException e) {
+         throw new IllegalStateException("Cannot access the off-heap memory", e.getCause());
+      }
+   }
+
+   /**
+    * The slots of a segment with the hash of a key, and the one that holds the key once they are {@link #match(Object)
+    * matched}.
+    */
+   private class Lookup {
+      private final Segment segment;
+      private final int modCount;
+      private final int hash;
+      private final long[] offsets;
+      private final int[] slots;
+      private final int[] keyLens;
+      private int slot = -1;
+      private FileEntry found;
+      private PersistenceException failure;
+
+      /**
+       * Must be invoked while holding the monitor of the index.
+       */
+      private Lookup(Segment segment, int hash) {
+         this.segment = segment;
+         this.modCount = segment.modCount;
+         this.hash = hash;
+         int mask = segment.capacity - 1;
+         int count = 0;
+         for (int s = hash & mask; ; s = (s + 1) & mask) {
+            long offset = segment.offset(s);
+            if (offset == EMPTY) {
+               break;
+            }
+            if (offset != REMOVED && segment.hash(s) == hash) {
+               count++;
+            }
+         }
+         offsets = new long[count];
+         slots = new int[count];
+         keyLens = new int[count];
+         int i = 0;
+         for (int s = hash & mask; i < count; s = (s + 1) & mask) {
+            long offset = segment.offset(s);
+            if (offset != REMOVED && segment.hash(s) == hash) {
+               offsets[i] = offset;
+               slots[i] = s;
+               keyLens[i] = segment.keyLen(s);
+               i++;
+            }
+         }
+      }
+
+      /**
+       * Reads the keys of the slots from the file. The entries may be overwritten concurrently, so the failures are
+       * only reported if the segment was not modified in the meantime.
+       */
+      private void match(Object key) {
+         try {
+            for (int i = 0; i < offsets.length; i++) {
+               FileEntry entry = readEntry(offsets[i], keyLens[i], key, null);
+               if (entry != null) {
+                  slot = slots[i];
+                  found = entry;
+                  return;
+               }
+            }
+         } catch (PersistenceException e) {
+            failure = e;
+         }
+      }
+   }
+
+   private static final class Segment {
+      private final long address;
+      private final int capacity;
+      private int live;
+      // live and removed slots, the table is rehashed when they exceed the maximum load
+      private int used;
+      // incremented on every change, so the lookups can verify the slots they read without holding the monitor
+      private int modCount;
+
+      private Segment(int capacity) {
+         this.capacity = capacity;
+         long bytes = (long) capacity * SLOT_SIZE;
+         this.address = UNSAFE.allocateMemory(bytes);
+         UNSAFE.setMemory(address, bytes, (byte) 0);
+      }
+
+      private long offset(int slot) {
+         return UNSAFE.getLong(address + (long) slot * SLOT_SIZE);
+      }
+
+      private int hash(int slot) {
+         return UNSAFE.getInt(address + (long) slot * SLOT_SIZE + HASH_POS);
+      }
+
+      private int keyLen(int slot) {
+         return UNSAFE.getInt(address + (long) slot * SLOT_SIZE + KEY_LEN_POS);
+      }
+
+      private void set(int slot, long offset, int hash, int keyLen) {
+         long pos = address + (long) slot * SLOT_SIZE;
+         UNSAFE.putLong(pos, offset);
+         UNSAFE.putInt(pos + HASH_POS, hash);
+         UNSAFE.putInt(pos + KEY_LEN_POS, keyLen);
+         modCount++;
+      }
+
+      private int maxUsed() {
+         // the largest segments can't grow, so they are filled up as much as possible
+         return capacity == MAX_SEGMENT_CAPACITY ? capacity - 1 : (int) (capacity * MAX_LOAD);
+      }
+
+      /**
+       * @return {@code false} if the segment must be rehashed first.
+       */
+      private boolean insert(int hash, long offset, int keyLen) {
+         if (used + 1 > maxUsed()) {
+            return false;
+         }
+         int mask = capacity - 1;
+         int slot = hash & mask;
+         long current;
+         while ((current = offset(slot)) != EMPTY && current != REMOVED) {
+            slot = (slot + 1) & mask;
+         }
+         if (current == EMPTY) {
+            used++;
+         }
+         set(slot, offset, hash, keyLen);
+         live++;
+         return true;
+      }
+
+      private void remove(int slot) {
+         UNSAFE.putLong(address + (long) slot * SLOT_SIZE, REMOVED);
+         live--;
+         modCount++;
+      }
+
+      /**
+       * @return a new segment, twice as large if more than half of the slots are live, that contains only the live
+       * slots.
+       */
+      private Segment rehash(int indexSize) {
+         int newCapacity = capacity;
+         if (live + 1 > capacity * MAX_LOAD / 2 && capacity < MAX_SEGMENT_CAPACITY) {
+            newCapacity = capacity << 1;
+         } else if (live + 1 >= capacity) {
+            throw new PersistenceException("The off-heap index is full, " + indexSize + " entries");
+         }
+         Segment rehashed = new Segment(newCapacity);
+         for (int slot = 0; slot < capacity; slot++) {
+            long offset = offset(slot);
+            if (offset != EMPTY && offset != REMOVED) {
+               rehashed.insertNew(hash(slot), offset, keyLen(slot));
+            }
+         }
+         return rehashed;
+      }
+
+      private void insertNew(int hash, long offset, int keyLen) {
+         int mask = capacity - 1;
+         int slot = hash & mask;
+         while (offset(slot) != EMPTY) {
+            slot = (slot + 1) & mask;
+         }
+         set(slot, offset, hash, keyLen);
+         used++;
+         live++;
+      }
+
+      private void free() {
+         UNSAFE.freeMemory(address);
+      }
+   }
+
+   private class EntrySet extends AbstractSet<Entry<K, FileEntry>> {
+      @Override
+      public Iterator<Entry<K, FileEntry>> iterator() {
+         return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+         return OffHeapFileEntryIndex.this.size();
+      }
+
+      @Override
+      public void clear() {
+         OffHeapFileEntryIndex.this.clear();
+      }
+   }
+
+   /**
+    * Iterates over the slots of all the segments. The keys are only deserialized when they are requested.
+    */
+   private class EntryIterator implements Iterator<Entry<K, FileEntry>> {
+      private int segmentIndex;
+      private int slot = -1;
+      private int nextSegmentIndex;
+      private int nextSlot = -1;
+      private Segment current;
+
+      @Override
+      public boolean hasNext() {
+         if (nextSlot >= 0) {
+            return true;
+         }
+         int s = segmentIndex;
+         int i = slot + 1;
+         while (s < SEGMENTS) {
+            Segment segment = segments[s];
+            for (; i < segment.capacity; i++) {
+               long offset = segment.offset(i);
+               if (offset != EMPTY && offset != REMOVED) {
+                  nextSegmentIndex = s;
+                  nextSlot = i;
+                  return true;
+               }
+            }
+            s++;
+            i = 0;
+         }
+         return false;
+      }
+
+      @Override
+      public Entry<K, FileEntry> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         segmentIndex = nextSegmentIndex;
+         slot = nextSlot;
+         nextSlot = -1;
+         current = segments[segmentIndex];
+         long offset = current.offset(slot);
+         FileEntry entry = pinnedOr(readEntry(offset, current.keyLen(slot), null, null));
+         return new LazyKeyEntry(offset, current.keyLen(slot), entry);
+      }
+
+      @Override
+      public void remove() {
+         if (current == null) {
+            throw new IllegalStateException();
+         }
+         // the segment was rehashed or freed by a modification outside of the iterator
+         if (current != segments[segmentIndex]) {
+            throw new ConcurrentModificationException();
+         }
+         if (current.offset(slot) == REMOVED) {
+            throw new IllegalStateException();
+         }
+         current.remove(slot);
+         size--;
+      }
+   }
+
+   /**
+    * An entry whose key is read from the file on the first {@link #getKey()} invocation, which must happen while
+    * synchronized on the index, before the entry can be removed.
+    */
+   private class LazyKeyEntry implements Entry<K, FileEntry> {
+      private final long offset;
+      private final int keyLen;
+      private final FileEntry entry;
+      private K key;
+
+      private LazyKeyEntry(long offset, int keyLen, FileEntry entry) {
+         this.offset = offset;
+         this.keyLen = keyLen;
+         this.entry = entry;
+      }
+
+      @SuppressWarnings("unchecked")
+      @Override
+      public K getKey() {
+         if (key == null) {
+            Object[] holder = new Object[1];
+            synchronized (OffHeapFileEntryIndex.this) {
+               readEntry(offset, keyLen, null, holder);
+            }
+            key = (K) holder[0];
+         }
+         return key;
+      }
+
+      @Override
+      public FileEntry getValue() {
+         return entry;
+      }
+
+      @Override
+      public FileEntry setValue(FileEntry value) {
+         throw new UnsupportedOperationException();
+      }
+   }
+}
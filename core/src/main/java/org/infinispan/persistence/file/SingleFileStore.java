@@ -8,6 +8,8 @@
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.configuration.cache.SingleFileStoreConfiguration;
 import org.infinispan.executors.ExecutorAllCompletionService;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.PersistenceUtil;
@@ -36,8 +38,15 @@
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
 
 /**
  * A filesystem-based implementation of a {@link org.infinispan.persistence.spi.CacheLoader}. This file store
@@ -50,6 +59,10 @@
  * <p/>
  * So, the space taken by this cache store is both the space in the file
  * itself plus the in-memory index with the keys and their file positions.
+ * The index can also be kept off-heap, see
+ * {@link org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder#offHeapIndex(boolean)}, in which
+ * case it needs 16 bytes per cache entry (at most 28 bytes before it is resized) and the keys are read from
+ * the file.
  * With this in mind and to avoid the cache store leading to
  * OutOfMemoryExceptions, you can optionally configure the maximum number
  * of entries to maintain in this cache store, which affects both the size
@@ -75,7 +88,7 @@
    private static final byte[] MAGIC = new byte[]{'F', 'C', 'S', '1'};
    private static final byte[] ZERO_INT = {0, 0, 0, 0};
    private static final int KEYLEN_POS = 4;
-   private static final int KEY_POS = 4 + 4 + 4 + 4 + 8;
+   static final int KEY_POS = 4 + 4 + 4 + 4 + 8;
    private static final int SMALLEST_ENTRY_SIZE = 128;
 
    private SingleFileStoreConfiguration configuration;
@@ -84,6 +97,8 @@
 
    private FileChannel channel;
    private Map<K, FileEntry> entries;
+   // the same instance as entries when the index is off-heap, null otherwise
+   private OffHeapFileEntryIndex<K> offHeapIndex;
    private SortedSet<FileEntry> freeList;
    private long filePos = MAGIC.length;
    private File file;
@@ -91,6 +106,12 @@
    // Prevent clear() from truncating the file after a write() allocated the entry but before it wrote the data
    private ReadWriteLock resizeLock = new ReentrantReadWriteLock();
    private TimeService timeService;
+   // null unless the writes are forced to disk
+   private GroupCommitFileWriter groupWriter;
+   // held by the running compaction, so that stop() can wait for it
+   private final Lock compactionLock = new ReentrantLock();
+   private volatile boolean compactionStopped;
+   private ScheduledFuture<?> compactionSchedule;
 
    @Override
    public void init(InitializationContext ctx) {
@@ -115,9 +136,17 @@ public void start() {
             }
          }
          channel = new RandomAccessFile(file, "rw").getChannel();
+         if (configuration.syncWrites())
+            groupWriter = new GroupCommitFileWriter(channel);
 
          // initialize data structures
-         entries = newEntryMap();
+         if (configuration.offHeapIndex()) {
+            offHeapIndex = new OffHeapFileEntryIndex<>(channel, ctx.getMarshaller(),
+                  ctx.getCache().getCacheConfiguration().dataContainer().keyEquivalence());
+            entries = offHeapIndex;
+         } else {
+            entries = newEntryMap();
+         }
          freeList = Collections.synchronizedSortedSet(new TreeSet<FileEntry>());
 
          // check file format and read persistent state if enabled for the cache
@@ -131,6 +160,18 @@ public void start() {
          
          // Initialize the fragmentation factor
          fragmentationFactor = configuration.fragmentationFactor();
+
+         if (configuration.compactionInterval() > 0) {
+            // the timer thread is shared by all the caches, so it only hands the compaction to the persistence executor
+            ComponentRegistry registry = ctx.getCache().getAdvancedCache().getComponentRegistry();
+            ScheduledExecutorService scheduler = registry.getComponent(ScheduledExecutorService.class,
+                  KnownComponentNames.EXPIRATION_SCHEDULED_EXECUTOR);
+            ExecutorService persistenceExecutor = registry.getComponent(ExecutorService.class,
+                  KnownComponentNames.PERSISTENCE_EXECUTOR);
+            compactionStopped = false;
+            compactionSchedule = scheduler.scheduleWithFixedDelay(() -> persistenceExecutor.execute(this::compactIfFragmented),
+                  configuration.compactionInterval(), configuration.compactionInterval(), TimeUnit.MILLISECONDS);
+         }
       } catch (Exception e) {
          throw new PersistenceException(e);
       }
@@ -153,13 +194,27 @@ private <Key> Map<Key, FileEntry> newEntryMap() {
    @Override
    public void stop() {
       try {
+         if (compactionSchedule != null) {
+            compactionSchedule.cancel(false);
+            compactionSchedule = null;
+            compactionStopped = true;
+            // a running compaction holds the resize lock while moving an entry, and stops after the current entry
+            if (compactionLock.tryLock(1, TimeUnit.MINUTES)) {
+               compactionLock.unlock();
+            }
+         }
          if (channel != null) {
             log.tracef("Stopping store %s, size = %d, file size = %d", ctx.getCache().getName(), entries.size(), channel.size());
 
             // reset state
             channel.close();
             channel = null;
+            groupWriter = null;
             entries = null;
+            if (offHeapIndex != null) {
+               offHeapIndex.close();
+               offHeapIndex = null;
+            }
             freeList = null;
             filePos = MAGIC.length;
          }
@@ -350,7 +405,7 @@ public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
             if (metadata != null)
                buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
             buf.flip();
-            channel.write(buf, newEntry.offset);
+            writeEntry(buf, newEntry.offset);
             if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
 
             // add the new entry to in-memory index
@@ -367,11 +422,30 @@ public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
                resizeLock.readLock().unlock();
             }
          }
+         // the old entry must not be found when the index is rebuilt after a crash
+         if (oldEntry != null)
+            syncFree();
       } catch (Exception e) {
          throw new PersistenceException(e);
       }
    }
 
+   private void writeEntry(ByteBuffer buf, long offset) throws IOException {
+      if (groupWriter != null) {
+         groupWriter.write(buf, offset);
+      } else {
+         channel.write(buf, offset);
+      }
+   }
+
+   /**
+    * Forces the freed entries to disk, if the writes are forced to disk.
+    */
+   private void syncFree() throws IOException {
+      if (groupWriter != null)
+         groupWriter.sync();
+   }
+
    /**
     * Try to evict an entry if the capacity of the cache store is reached.
     *
@@ -398,7 +472,8 @@ public void clear() {
          synchronized (entries) {
             synchronized (freeList) {
                // wait until all readers are done reading file entries
-               for (FileEntry fe : entries.values())
+               // the off-heap index pins all the entries that have readers
+               for (FileEntry fe : offHeapIndex != null ? offHeapIndex.pinnedEntries() : entries.values())
                   fe.waitUnlocked();
                for (FileEntry fe : freeList)
                   fe.waitUnlocked();
@@ -412,6 +487,8 @@ public void clear() {
                channel.truncate(0);
                channel.write(ByteBuffer.wrap(MAGIC), 0);
                filePos = MAGIC.length;
+               if (groupWriter != null)
+                  channel.force(false);
             }
          }
       } catch (Exception e) {
@@ -423,41 +500,52 @@ public void clear() {
 
    @Override
    public boolean delete(Object key) {
+      FileEntry fe;
       resizeLock.readLock().lock();
       try {
-         FileEntry fe = entries.remove(key);
+         fe = entries.remove(key);
          free(fe);
-         return fe != null;
       } catch (Exception e) {
          throw new PersistenceException(e);
       } finally {
          resizeLock.readLock().unlock();
       }
+      if (fe == null)
+         return false;
+      try {
+         syncFree();
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      }
+      return true;
    }
 
    @Override
    public MarshalledEntry<K, V> load(Object key) {
-      return _load(key, true, true);
+      return _load(key, true, true, -1);
    }
 
-   private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadMetadata) {
+   /**
+    * @param expectedOffset if non-negative, the entry is only loaded if it is stored at this position in the file
+    */
+   private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadMetadata, long expectedOffset) {
       final FileEntry fe;
+      final long now = timeService.wallClockTime();
       resizeLock.readLock().lock();
       try {
-         synchronized (entries) {
-            // lookup FileEntry of the key
-            fe = entries.get(key);
-            if (fe == null)
-               return null;
-
+         // lookup FileEntry of the key
+         fe = computeEntry(key, current -> {
             // Entries are removed due to expiration from {@link SingleFileStore#purge}
-            if (fe.isExpired(timeService.wallClockTime())) {
-               return null;
-            } else {
+            if (isReadable(current, expectedOffset, now)) {
                // lock entry for reading before releasing entries monitor
-               fe.lock();
+               current.lock();
+               if (offHeapIndex != null)
+                  offHeapIndex.pin(current);
             }
-         }
+            return current;
+         });
+         if (!isReadable(fe, expectedOffset, now))
+            return null;
       } finally {
          resizeLock.readLock().unlock();
       }
@@ -470,7 +558,7 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
          try {
             return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, valueBb, metadataBb);
          } finally {
-            fe.unlock();
+            unlock(fe);
          }
       }
 
@@ -485,7 +573,7 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
       } finally {
          // No need to keep the lock for deserialization.
          // FileEntry is immutable, so its members can't be changed by another thread.
-         fe.unlock();
+         unlock(fe);
       }
 
       if (trace) log.tracef("Read entry %s at %d:%d", key, fe.offset, fe.actualSize());
@@ -500,9 +588,48 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
       return ctx.getMarshalledEntryFactory().newMarshalledEntry(keyBb, valueBb, metadataBb);
    }
 
+   private static boolean isReadable(FileEntry fe, long expectedOffset, long now) {
+      return fe != null && (expectedOffset < 0 || fe.offset == expectedOffset) && !fe.isExpired(now);
+   }
+
+   /**
+    * Maps the key to the entry returned by {@code action}, invoked with the current entry of the key while holding the
+    * monitor of the index, or removes the key if the action returns {@code null}. The off-heap index reads the keys
+    * from the file before acquiring its monitor.
+    *
+    * @return the entry of the key before the action.
+    */
+   private FileEntry computeEntry(Object key, UnaryOperator<FileEntry> action) {
+      if (offHeapIndex != null)
+         return offHeapIndex.compute(key, action);
+      synchronized (entries) {
+         FileEntry current = entries.get(key);
+         FileEntry updated = action.apply(current);
+         if (updated != current) {
+            if (updated == null)
+               entries.remove(key);
+            else
+               entries.put((K) key, updated);
+         }
+         return current;
+      }
+   }
+
+   private void unlock(FileEntry fe) {
+      fe.unlock();
+      if (offHeapIndex != null) {
+         // unpinning must happen after the unlock, because clear() waits for the readers while holding the monitor
+         offHeapIndex.unpin(fe);
+      }
+   }
+
    @Override
    public void process(KeyFilter<? super K> filter, final CacheLoaderTask<K, V> task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
       filter = PersistenceUtil.notNull(filter);
+      if (offHeapIndex != null) {
+         processFile(filter, task, executor, fetchValue, fetchMetadata);
+         return;
+      }
       ArrayList<KeyValuePair<K, FileEntry>> keysToLoad = new ArrayList<>(entries.size());
       synchronized (entries) {
          for (Map.Entry<K, FileEntry> e : entries.entrySet()) {
@@ -532,7 +659,7 @@ public int compare(KeyValuePair<K, FileEntry> o1, KeyValuePair<K, FileEntry> o2)
             @Override
             public Void call() throws Exception {
                try {
-                  final MarshalledEntry marshalledEntry = _load(key, fetchValue, fetchMetadata);
+                  final MarshalledEntry marshalledEntry = _load(key, fetchValue, fetchMetadata, -1);
                   if (marshalledEntry != null) {
                      task.processEntry(marshalledEntry, taskContext);
                   }
@@ -550,6 +677,109 @@ public Void call() throws Exception {
       }
    }
 
+   /**
+    * Processes the entries in file order, reading the keys from the file, so the keys of the off-heap index are not
+    * copied to the heap.
+    */
+   private void processFile(KeyFilter<? super K> filter, final CacheLoaderTask<K, V> task, Executor executor,
+                            final boolean fetchValue, final boolean fetchMetadata) {
+      final ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      final TaskContextImpl taskContext = new TaskContextImpl();
+      scanFile(fe -> {
+         if (taskContext.isStopped())
+            return false;
+
+         final K key = readKey(fe);
+         if (key == null || !filter.accept(key))
+            return true;
+
+         final long offset = fe.offset;
+         eacs.submit(() -> {
+            try {
+               // skip the entries that were replaced or removed after the scan read them
+               final MarshalledEntry<K, V> marshalledEntry = _load(key, fetchValue, fetchMetadata, offset);
+               if (marshalledEntry != null) {
+                  task.processEntry(marshalledEntry, taskContext);
+               }
+               return null;
+            } catch (Exception e) {
+               log.errorExecutingParallelStoreTask(e);
+               throw e;
+            }
+         });
+         return true;
+      });
+      eacs.waitUntilAllCompleted();
+      if (eacs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", eacs.getFirstException());
+      }
+   }
+
+   /**
+    * Reads the headers of the used entries from the file, in file order.
+    * <p/>
+    * The scan stops at the end of the file as it was when the scan started. The entries written concurrently may or
+    * may not be visited, and the entries removed concurrently may still be visited, so the visitor must check the
+    * index.
+    */
+   private void scanFile(FileEntryVisitor visitor) {
+      long end;
+      // wait for the writers that allocated space to write their entries
+      resizeLock.writeLock().lock();
+      try {
+         end = filePos;
+      } finally {
+         resizeLock.writeLock().unlock();
+      }
+
+      ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
+      long pos = MAGIC.length;
+      try {
+         while (pos < end) {
+            buf.clear();
+            if (channel.read(buf, pos) < KEY_POS)
+               return; // the file was truncated by purge() or clear()
+            buf.flip();
+            int entrySize = buf.getInt();
+            int keyLen = buf.getInt();
+            int dataLen = buf.getInt();
+            int metadataLen = buf.getInt();
+            long expiryTime = buf.getLong();
+            if (entrySize < KEY_POS + keyLen + dataLen + metadataLen || entrySize <= 0) {
+               // the space was truncated and allocated again, the rest of the file is newer than the scan
+               if (trace) log.tracef("Stopped scanning at %d:%d", pos, entrySize);
+               return;
+            }
+            if (keyLen > 0 && !visitor.visit(new FileEntry(pos, entrySize, keyLen, dataLen, metadataLen, expiryTime)))
+               return;
+            pos += entrySize;
+         }
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   /**
+    * @return the key of the entry read from the file, or {@code null} if the entry was overwritten in the meantime.
+    */
+   private K readKey(FileEntry fe) {
+      byte[] keyBytes = new byte[fe.keyLen];
+      try {
+         channel.read(ByteBuffer.wrap(keyBytes), fe.offset + KEY_POS);
+         return (K) ctx.getMarshaller().objectFromByteBuffer(keyBytes);
+      } catch (Exception e) {
+         if (trace) log.tracef(e, "Cannot read the key at %d:%d", fe.offset, fe.size);
+         return null;
+      }
+   }
+
+   private interface FileEntryVisitor {
+      /**
+       * @return {@code false} to stop the scan.
+       */
+      boolean visit(FileEntry fe);
+   }
+
    /**
     * Manipulates the free entries for optimizing disk space.
     */
@@ -660,6 +890,10 @@ private void mergeFreeEntries(List<FileEntry> entries) {
    @Override
    public void purge(Executor threadPool, final PurgeListener task) {
       long now = timeService.wallClockTime();
+      if (offHeapIndex != null) {
+         purgeFile(now, task);
+         return;
+      }
       List<KeyValuePair<Object, FileEntry>> entriesToPurge = new ArrayList<KeyValuePair<Object, FileEntry>>();
       synchronized (entries) {
          for (Iterator<Map.Entry<K, FileEntry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
@@ -695,6 +929,213 @@ public void purge(Executor threadPool, final PurgeListener task) {
       } finally {
          resizeLock.readLock().unlock();
       }
+      try {
+         syncFree();
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   /**
+    * Removes the expired entries found by scanning the file, so the keys of the off-heap index are not copied to the
+    * heap.
+    */
+   private void purgeFile(long now, PurgeListener task) {
+      scanFile(fe -> {
+         if (!fe.isExpired(now))
+            return true;
+
+         K key = readKey(fe);
+         if (key == null)
+            return true;
+
+         FileEntry expired = null;
+         resizeLock.readLock().lock();
+         try {
+            FileEntry current = computeEntry(key, c -> isExpired(c, fe.offset, now) ? null : c);
+            if (isExpired(current, fe.offset, now))
+               expired = current;
+            free(expired);
+         } catch (IOException e) {
+            throw new PersistenceException(e);
+         } finally {
+            resizeLock.readLock().unlock();
+         }
+         if (expired != null && task != null) task.entryPurged(key);
+         return true;
+      });
+
+      reclaimFreeSpace();
+   }
+
+   private static boolean isExpired(FileEntry fe, long offset, long now) {
+      return fe != null && fe.offset == offset && fe.isExpired(now);
+   }
+
+   /**
+    * Truncates the free space at the end of the file and merges the adjacent free entries.
+    */
+   private void reclaimFreeSpace() {
+      resizeLock.readLock().lock();
+      try {
+         // Disk space optimizations
+         synchronized (freeList) {
+            processFreeEntries();
+         }
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+      try {
+         syncFree();
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   private void compactIfFragmented() {
+      if (!compactionLock.tryLock()) {
+         // the previous compaction is still running
+         return;
+      }
+      try {
+         if (compactionStopped)
+            return;
+         long fileSize = filePos;
+         long freeSpace = getFreeSpace();
+         if (freeSpace > fileSize * configuration.compactionThreshold()) {
+            compact();
+         }
+      } catch (Throwable t) {
+         if (channel == null || compactionStopped) {
+            // the store was stopped
+            return;
+         }
+         log.debug("Error compacting the file store", t);
+      } finally {
+         compactionLock.unlock();
+      }
+   }
+
+   /**
+    * Moves the entries stored after the first {@code fileSize - freeSpace} bytes of the file to free entries closer
+    * to the start of the file, and then truncates the free space at the end of the file.
+    * <p/>
+    * The entries are moved one at a time, holding the resize lock in shared mode like a write, and they are locked
+    * like a read while they are copied, so that their space can't be reused until the index points to the copy.
+    *
+    * @return the number of bytes the file shrunk.
+    */
+   long compact() {
+      long initialSize = filePos;
+      // merge the free entries first, so that larger entries fit in them
+      reclaimFreeSpace();
+      long boundary = filePos - getFreeSpace();
+      long[] moved = new long[2];
+      scanFile(fe -> {
+         if (compactionStopped)
+            return false;
+         if (fe.offset >= boundary && relocate(fe)) {
+            moved[0]++;
+            moved[1] += fe.size;
+         }
+         return true;
+      });
+      reclaimFreeSpace();
+      long shrunk = initialSize - filePos;
+      if (trace) log.tracef("Compacted store %s, moved %d entries (%d bytes), file size %d -> %d",
+            ctx.getCache().getName(), moved[0], moved[1], initialSize, filePos);
+      return shrunk;
+   }
+
+   /**
+    * Copies an entry to a free entry before it in the file and updates the index.
+    *
+    * @return {@code true} if the entry was moved.
+    */
+   private boolean relocate(FileEntry scanned) {
+      K key = readKey(scanned);
+      if (key == null)
+         return false;
+
+      FileEntry current;
+      FileEntry moved = null;
+      FileEntry replaced = null;
+      resizeLock.readLock().lock();
+      try {
+         current = computeEntry(key, c -> {
+            if (c != null && c.offset == scanned.offset) {
+               c.lock();
+               if (offHeapIndex != null)
+                  offHeapIndex.pin(c);
+            }
+            return c;
+         });
+         // the entry was replaced or removed after it was scanned
+         if (current == null || current.offset != scanned.offset)
+            return false;
+         try {
+            FileEntry target = allocateBefore(current.actualSize(), current.offset);
+            if (target == null)
+               return false;
+
+            moved = new FileEntry(target, current.keyLen, current.dataLen, current.metadataLen, current.expiryTime);
+            ByteBuffer buf = ByteBuffer.allocate(current.actualSize());
+            channel.read(buf, current.offset);
+            buf.putInt(0, moved.size);
+            buf.flip();
+            writeEntry(buf, moved.offset);
+
+            // the current entry can't be reused while it is locked, so the index is unchanged if it still maps
+            // the key to the same position
+            FileEntry copy = moved;
+            FileEntry latest = computeEntry(key, l -> l != null && l.offset == current.offset ? copy : l);
+            if (latest != null && latest.offset == current.offset) {
+               replaced = latest;
+               moved = null;
+            }
+         } finally {
+            unlock(current);
+         }
+         return replaced != null;
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      } finally {
+         try {
+            // free the replaced entry, or the copy if the entry was replaced concurrently
+            free(replaced != null ? replaced : moved);
+         } catch (IOException e) {
+            throw new PersistenceException(e);
+         } finally {
+            resizeLock.readLock().unlock();
+         }
+      }
+   }
+
+   /**
+    * Allocates a free entry that starts before {@code limit}.
+    *
+    * @return the allocated entry, or {@code null} if there is no free entry large enough before {@code limit}.
+    */
+   private FileEntry allocateBefore(int len, long limit) {
+      synchronized (freeList) {
+         for (Iterator<FileEntry> it = freeList.tailSet(new FileEntry(0, len)).iterator(); it.hasNext(); ) {
+            FileEntry free = it.next();
+            if (free.offset < limit && !free.isLocked()) {
+               it.remove();
+               return allocateExistingEntry(free, len);
+            }
+         }
+         return null;
+      }
+   }
+
+   long getFreeSpace() {
+      synchronized (freeList) {
+         long freeSpace = 0;
+         for (FileEntry fe : freeList)
+            freeSpace += fe.size;
+         return freeSpace;
+      }
    }
 
    @Override
@@ -733,11 +1174,11 @@ public SingleFileStoreConfiguration getConfiguration() {
     * <li>{@link #metadataLen} bytes: serialized key</li>
     * </ul>
     */
-   private static class FileEntry implements Comparable<FileEntry> {
+   static class FileEntry implements Comparable<FileEntry> {
       /**
        * File offset of this block.
        */
-      private final long offset;
+      final long offset;
 
       /**
        * Total size of this block.
@@ -747,7 +1188,7 @@ private static class FileEntry implements Comparable<FileEntry> {
       /**
        * Size of serialized key.
        */
-      private final int keyLen;
+      final int keyLen;
 
       /**
        * Size of serialized data.
@@ -0,0 +1,162 @@
+package org.infinispan.persistence.manager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+
+/**
+ * Bloom filter of the keys in a store, used by {@link PersistenceManagerImpl} to skip the loads of the keys that the
+ * store cannot contain.
+ * <p/>
+ * Until the filter is built from the keys in the store, it does not rule out any key. Keys cannot be removed from a
+ * Bloom filter, so the keys deleted from the store stay in the filter, and the filter asks to be rebuilt when the
+ * deletions or the new keys since the last build would raise the false positive rate too much.
+ * <p/>
+ * The filter is rebuilt while the store is being written: a writer adds the key to the current filter before writing
+ * it, so that no load skips the new entry, and to both the current and the new filter after writing it, so that the
+ * new filter contains the key even if the iteration over the store did not see it.
+ *
+ * @since 9.0
+ */
+class NegativeLookupFilter {
+   // 10 bits per key and 7 hash functions give about 1% of false positives
+   private static final int BITS_PER_KEY = 10;
+   private static final int HASH_FUNCTIONS = 7;
+   private static final int MIN_CAPACITY = 1024;
+
+   private final AdvancedCacheLoader<Object, Object> loader;
+   private final Equivalence<Object> keyEquivalence;
+   private final AtomicBoolean building = new AtomicBoolean();
+   private volatile Bits current;
+   private volatile Bits next;
+
+   NegativeLookupFilter(AdvancedCacheLoader<Object, Object> loader, Equivalence<Object> keyEquivalence) {
+      this.loader = loader;
+      this.keyEquivalence = keyEquivalence;
+   }
+
+   AdvancedCacheLoader<Object, Object> getLoader() {
+      return loader;
+   }
+
+   boolean isBuilt() {
+      return current != null;
+   }
+
+   /**
+    * @return false if the store does not contain the key, true if it might contain it
+    */
+   boolean mightContain(Object key) {
+      Bits bits = current;
+      return bits == null || bits.mightContain(hash(key));
+   }
+
+   void beforeWrite(Object key) {
+      Bits bits = current;
+      if (bits != null) {
+         bits.add(hash(key));
+      }
+   }
+
+   void afterWrite(Object key) {
+      long hash = hash(key);
+      Bits bits = next;
+      if (bits != null) {
+         bits.add(hash);
+      }
+      bits = current;
+      if (bits != null) {
+         bits.add(hash);
+      }
+   }
+
+   void deleted() {
+      Bits bits = current;
+      if (bits != null) {
+         bits.deletions.increment();
+      }
+   }
+
+   boolean needsRebuild() {
+      Bits bits = current;
+      return bits != null && !building.get() &&
+            (bits.additions.sum() > bits.capacity || bits.deletions.sum() > bits.capacity / 2);
+   }
+
+   /**
+    * Builds a new filter from the keys in the store, unless another thread is already building it.
+    */
+   void rebuild() {
+      if (!building.compareAndSet(false, true)) {
+         return;
+      }
+      try {
+         Bits bits = new Bits(Math.max(MIN_CAPACITY, 2L * loader.size()));
+         next = bits;
+         loader.process(null, (marshalledEntry, taskContext) -> bits.add(hash(marshalledEntry.getKey())),
+               new WithinThreadExecutor(), false, false);
+         current = bits;
+      } finally {
+         next = null;
+         building.set(false);
+      }
+   }
+
+   private long hash(Object key) {
+      // the 64-bit finalizer of MurmurHash3 spreads the hash code over both halves of the result
+      long h = keyEquivalence.hashCode(key);
+      h ^= h >>> 33;
+      h *= 0xff51afd7ed558ccdL;
+      h ^= h >>> 33;
+      h *= 0xc4ceb9fe1a85ec53L;
+      h ^= h >>> 33;
+      return h;
+   }
+
+   private static final class Bits {
+      private final long capacity;
+      private final long numBits;
+      private final AtomicLongArray words;
+      private final LongAdder additions = new LongAdder();
+      private final LongAdder deletions = new LongAdder();
+
+      private Bits(long capacity) {
+         this.capacity = capacity;
+         int numWords = (int) Math.min(Integer.MAX_VALUE, (capacity * BITS_PER_KEY + 63) / 64);
+         this.numBits = numWords * 64L;
+         this.words = new AtomicLongArray(numWords);
+      }
+
+      boolean mightContain(long hash) {
+         int h1 = (int) hash;
+         int h2 = (int) (hash >>> 32);
+         for (int i = 0; i < HASH_FUNCTIONS; ++i) {
+            long bit = Math.floorMod(h1 + (long) i * h2, numBits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+               return false;
+            }
+         }
+         return true;
+      }
+
+      void add(long hash) {
+         int h1 = (int) hash;
+         int h2 = (int) (hash >>> 32);
+         boolean changed = false;
+         for (int i = 0; i < HASH_FUNCTIONS; ++i) {
+            long bit = Math.floorMod(h1 + (long) i * h2, numBits);
+            long mask = 1L << bit;
+            long word = words.getAndAccumulate((int) (bit >>> 6), mask, (w, m) -> w | m);
+            changed |= (word & mask) == 0;
+         }
+         if (changed) {
+            // a key that did not set any bit is most likely already counted
+            additions.increment();
+         }
+      }
+   }
+}
@@ -58,6 +58,22 @@ public interface PersistenceManager extends Lifecycle {
 
    void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode modes);
 
+   /**
+    * Writes all the entries to the stores allowed by the access mode, using
+    * {@link org.infinispan.persistence.spi.CacheWriter#writeBatch(Iterable)}.
+    *
+    * @since 9.0
+    */
+   void writeBatchToAllStores(Iterable<MarshalledEntry> entries, AccessMode mode);
+
+   /**
+    * Removes all the keys from the stores allowed by the access mode, using
+    * {@link org.infinispan.persistence.spi.CacheWriter#deleteBatch(Iterable)}.
+    *
+    * @since 9.0
+    */
+   void deleteBatchFromAllStores(Iterable<Object> keys, AccessMode mode);
+
    /**
     * Returns the store one configured with fetch persistent state, or null if none exist.
     */
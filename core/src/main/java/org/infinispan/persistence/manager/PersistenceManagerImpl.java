@@ -22,6 +22,9 @@
 import org.infinispan.interceptors.AsyncInterceptorChain;
 import org.infinispan.interceptors.impl.CacheLoaderInterceptor;
 import org.infinispan.interceptors.impl.CacheWriterInterceptor;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
 import org.infinispan.metadata.Metadata;
@@ -58,6 +61,7 @@
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -67,6 +71,7 @@
 import static org.infinispan.factories.KnownComponentNames.PERSISTENCE_EXECUTOR;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.BOTH;
 
+@MBean(objectName = "PersistenceManager", description = "Manages the cache loaders and stores.")
 public class PersistenceManagerImpl implements PersistenceManager {
 
    private static final Log log = LogFactory.getLog(PersistenceManagerImpl.class);
@@ -83,6 +88,10 @@ public class PersistenceManagerImpl implements PersistenceManager {
 
    private final ReadWriteLock storesMutex = new ReentrantReadWriteLock();
    private final Map<Object, StoreConfiguration> configMap = new HashMap<>();
+   // the filter of each loader and writer with the negative lookup filter enabled
+   private final Map<Object, NegativeLookupFilter> negativeLookupFilters = new HashMap<>();
+   private final LongAdder filteredLoads = new LongAdder();
+   private final LongAdder filterFalsePositives = new LongAdder();
 
    private CacheStoreFactoryRegistry cacheStoreFactoryRegistry;
    private ExpirationManager expirationManager;
@@ -209,6 +218,7 @@ public void stop() {
    public void preload() {
       if (!enabled)
          return;
+      buildNegativeLookupFilters();
       AdvancedCacheLoader preloadCl = null;
 
       for (CacheLoader l : loaders) {
@@ -247,6 +257,58 @@ public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext tas
       log.debugf("Preloaded %s keys in %s", loadedEntries, Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
    }
 
+   private void buildNegativeLookupFilters() {
+      for (CacheLoader l : loaders) {
+         NegativeLookupFilter filter = negativeLookupFilters.get(l);
+         if (filter != null) {
+            long start = timeService.time();
+            try {
+               filter.rebuild();
+            } catch (Exception e) {
+               log.failedToBuildNegativeLookupFilter(undelegate(l).getClass().getName(), e);
+               continue;
+            }
+            log.debugf("Built the negative lookup filter of %s in %s", undelegate(l).getClass().getName(),
+                  Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+         }
+      }
+   }
+
+   private void rebuildIfNeeded(NegativeLookupFilter filter) {
+      if (filter.needsRebuild()) {
+         scheduleRebuild(filter);
+      }
+   }
+
+   private void scheduleRebuild(NegativeLookupFilter filter) {
+      persistenceExecutor.execute(() -> {
+         try {
+            filter.rebuild();
+         } catch (Exception e) {
+            log.failedToBuildNegativeLookupFilter(undelegate(filter.getLoader()).getClass().getName(), e);
+         }
+      });
+   }
+
+   @ManagedAttribute(
+         description = "Number of loads that were not passed to the stores because the negative lookup filter ruled the key out",
+         displayName = "Number of loads skipped by the negative lookup filter",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getNegativeLookupFilterSkippedLoads() {
+      return filteredLoads.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Ratio of the loads of absent keys that the negative lookup filter did not rule out",
+         displayName = "False positive rate of the negative lookup filter"
+   )
+   public double getNegativeLookupFilterFalsePositiveRate() {
+      long falsePositives = filterFalsePositives.sum();
+      long negatives = falsePositives + filteredLoads.sum();
+      return negatives == 0 ? 0 : (double) falsePositives / negatives;
+   }
+
    @Override
    public void disableStore(String storeType) {
       if (enabled) {
@@ -255,14 +317,18 @@ public void disableStore(String storeType) {
             Iterator<CacheLoader> clIt = loaders.iterator();
             while (clIt.hasNext()) {
                CacheLoader l = clIt.next();
-               if (undelegate(l).getClass().getName().equals(storeType))
+               if (undelegate(l).getClass().getName().equals(storeType)) {
                   clIt.remove();
+                  negativeLookupFilters.remove(l);
+               }
             }
             Iterator<CacheWriter> cwIt = writers.iterator();
             while (cwIt.hasNext()) {
                CacheWriter w = cwIt.next();
-               if (undelegate(w).getClass().getName().equals(storeType))
+               if (undelegate(w).getClass().getName().equals(storeType)) {
                   cwIt.remove();
+                  negativeLookupFilters.remove(w);
+               }
             }
          } finally {
             storesMutex.writeLock().unlock();
@@ -389,6 +455,11 @@ public void clearAllStores(AccessMode mode) {
             if (w instanceof AdvancedCacheWriter) {
                if (mode.canPerform(configMap.get(w))) {
                   ((AdvancedCacheWriter) w).clear();
+                  NegativeLookupFilter filter = negativeLookupFilters.get(w);
+                  if (filter != null) {
+                     // the filter of an empty store is cheap to build
+                     scheduleRebuild(filter);
+                  }
                }
             }
          }
@@ -404,7 +475,13 @@ public boolean deleteFromAllStores(Object key, AccessMode mode) {
          boolean removed = false;
          for (CacheWriter w : writers) {
             if (mode.canPerform(configMap.get(w))) {
-               removed |= w.delete(key);
+               boolean removedFromStore = w.delete(key);
+               NegativeLookupFilter filter = negativeLookupFilters.get(w);
+               if (filter != null && removedFromStore) {
+                  filter.deleted();
+                  rebuildIfNeeded(filter);
+               }
+               removed |= removedFromStore;
             }
          }
          return removed;
@@ -452,9 +529,17 @@ public MarshalledEntry loadFromAllStores(Object key, InvocationContext context)
             if (!context.isOriginLocal() && isLocalOnlyLoader(l))
                continue;
 
+            NegativeLookupFilter filter = negativeLookupFilters.get(l);
+            if (filter != null && !filter.mightContain(key)) {
+               filteredLoads.increment();
+               continue;
+            }
             MarshalledEntry load = l.load(key);
             if (load != null)
                return load;
+            if (filter != null && filter.isBuilt()) {
+               filterFalsePositives.increment();
+            }
          }
          return null;
       } finally {
@@ -478,7 +563,63 @@ public void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode mode) {
       try {
          for (CacheWriter w : writers) {
             if (mode.canPerform(configMap.get(w))) {
+               NegativeLookupFilter filter = negativeLookupFilters.get(w);
+               if (filter != null) {
+                  filter.beforeWrite(marshalledEntry.getKey());
+               }
                w.write(marshalledEntry);
+               if (filter != null) {
+                  filter.afterWrite(marshalledEntry.getKey());
+                  rebuildIfNeeded(filter);
+               }
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public void writeBatchToAllStores(Iterable<MarshalledEntry> entries, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (mode.canPerform(configMap.get(w))) {
+               NegativeLookupFilter filter = negativeLookupFilters.get(w);
+               if (filter != null) {
+                  for (MarshalledEntry entry : entries) {
+                     filter.beforeWrite(entry.getKey());
+                  }
+               }
+               w.writeBatch(entries);
+               if (filter != null) {
+                  for (MarshalledEntry entry : entries) {
+                     filter.afterWrite(entry.getKey());
+                  }
+                  rebuildIfNeeded(filter);
+               }
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public void deleteBatchFromAllStores(Iterable<Object> keys, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (mode.canPerform(configMap.get(w))) {
+               w.deleteBatch(keys);
+               NegativeLookupFilter filter = negativeLookupFilters.get(w);
+               if (filter != null) {
+                  // the batch does not tell which keys were in the store
+                  for (Object ignored : keys) {
+                     filter.deleted();
+                  }
+                  rebuildIfNeeded(filter);
+               }
             }
          }
       } finally {
@@ -545,6 +686,22 @@ private void createLoadersAndWriters() {
          initializeLoader(processedConfiguration, loader, ctx);
          initializeWriter(processedConfiguration, writer, ctx);
          initializeBareInstance(bareInstance, ctx);
+         initializeNegativeLookupFilter(processedConfiguration, loader, writer);
+      }
+   }
+
+   private void initializeNegativeLookupFilter(StoreConfiguration cfg, CacheLoader loader, CacheWriter writer) {
+      if (!cfg.negativeLookupFilter() || loader == null)
+         return;
+      if (!(loader instanceof AdvancedCacheLoader)) {
+         throw new PersistenceException("Cannot use a negative lookup filter with cache loader '" + loader.getClass().getName()
+                                              + "' as it doesn't implement '" + AdvancedCacheLoader.class.getName() + "'");
+      }
+      NegativeLookupFilter filter = new NegativeLookupFilter((AdvancedCacheLoader<Object, Object>) loader,
+            configuration.dataContainer().keyEquivalence());
+      negativeLookupFilters.put(loader, filter);
+      if (writer != null) {
+         negativeLookupFilters.put(writer, filter);
       }
    }
 
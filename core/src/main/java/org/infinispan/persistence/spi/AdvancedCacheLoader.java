@@ -4,6 +4,7 @@
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 
+import java.util.Set;
 import java.util.concurrent.Executor;
 
 /**
@@ -39,6 +40,23 @@
     */
    void process(KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor, boolean fetchValue, boolean fetchMetadata);
 
+   /**
+    * Same as {@link #process(KeyFilter, CacheLoaderTask, Executor, boolean, boolean)}, but the caller is only
+    * interested in the entries that map to the given <b>segments</b>. Stores that know the segment of each entry
+    * can use it to skip the entries of the other segments without reading them, but they are not required to: the
+    * default implementation iterates over all the entries, so the caller must still check the segment of the entries
+    * passed to the task.
+    *
+    * @param segments the segments of the entries to iterate over, as defined by the cache's {@link
+    *                 org.infinispan.distribution.ch.KeyPartitioner}
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @since 9.0
+    */
+   default void process(Set<Integer> segments, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task,
+                        Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      process(filter, task, executor, fetchValue, fetchMetadata);
+   }
+
    /**
     * Returns the number of elements in the store.
     *
@@ -35,4 +35,31 @@
     * @throws PersistenceException in case of an error, e.g. communicating with the external storage
     */
    boolean delete(Object key);
+
+   /**
+    * Persists all the entries to the storage. The stores that can write many entries in a single operation, e.g. a
+    * JDBC batch, should override this method; the default implementation invokes {@link #write(MarshalledEntry)} for
+    * each entry.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @since 9.0
+    */
+   default void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      for (MarshalledEntry<? extends K, ? extends V> entry : entries) {
+         write(entry);
+      }
+   }
+
+   /**
+    * Removes all the keys from the storage. The stores that can remove many entries in a single operation should
+    * override this method; the default implementation invokes {@link #delete(Object)} for each key.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @since 9.0
+    */
+   default void deleteBatch(Iterable<Object> keys) {
+      for (Object key : keys) {
+         delete(key);
+      }
+   }
 }
@@ -10,7 +10,7 @@
  * @author Mircea Markus
  * @since 6.0
  */
-public class AdvancedSingletonCacheWriter extends SingletonCacheWriter implements AdvancedCacheWriter {
+public class AdvancedSingletonCacheWriter<K, V> extends SingletonCacheWriter<K, V> implements AdvancedCacheWriter<K, V> {
 
    public AdvancedSingletonCacheWriter(CacheWriter actual, SingletonStoreConfiguration singletonConfiguration) {
       super(actual, singletonConfiguration);
@@ -8,7 +8,7 @@
  * @author Mircea Markus
  * @since 6.0
  */
-public abstract class DelegatingCacheWriter implements CacheWriter {
+public abstract class DelegatingCacheWriter<K, V> implements CacheWriter<K, V> {
 
    protected final CacheWriter actual;
    protected InitializationContext ctx;
@@ -48,6 +48,16 @@ public boolean delete(Object key) {
       return actual.delete(key);
    }
 
+   @Override
+   public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      actual.writeBatch(entries);
+   }
+
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      actual.deleteBatch(keys);
+   }
+
    public CacheWriter undelegate() {
       CacheWriter cl = this;
       do {
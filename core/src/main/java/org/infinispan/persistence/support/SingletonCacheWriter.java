@@ -48,7 +48,7 @@
  * @author Mircea Markus
  * @since 6.0
  */
-public class SingletonCacheWriter extends DelegatingCacheWriter {
+public class SingletonCacheWriter<K, V> extends DelegatingCacheWriter<K, V> {
 
    private static final Log log = LogFactory.getLog(SingletonCacheWriter.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -122,6 +122,23 @@ public boolean delete(Object key) {
       return active && super.delete(key);
    }
 
+   @Override
+   public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      if (active) {
+         super.writeBatch(entries);
+      } else {
+         if (trace)
+            log.tracef("Not storing a batch of entries.  Instance: %s", this);
+      }
+   }
+
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      if (active) {
+         super.deleteBatch(keys);
+      }
+   }
+
    protected Callable<?> createPushStateTask() {
       return new Callable<Object>() {
          @Override
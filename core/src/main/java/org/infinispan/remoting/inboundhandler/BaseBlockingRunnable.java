@@ -55,6 +55,17 @@ public void run() {
       }
    }
 
+   /**
+    * Invoked instead of {@link #run()} when the executor service rejects this runnable, because it is shutting down.
+    */
+   final void rejected() {
+      try {
+         reply.reply(handler.interruptedException(command));
+      } finally {
+         onFinally();
+      }
+   }
+
    protected void onFinally() {
       //no-op by default
    }
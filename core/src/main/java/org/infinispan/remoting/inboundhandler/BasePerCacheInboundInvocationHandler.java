@@ -9,6 +9,7 @@
 import org.infinispan.commons.CacheException;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.remoting.inboundhandler.action.ReadyAction;
 import org.infinispan.remoting.responses.ExceptionResponse;
 import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.responses.ResponseGenerator;
@@ -17,8 +18,11 @@
 import org.infinispan.statetransfer.StateTransferManager;
 import org.infinispan.util.concurrent.BlockingRunnable;
 import org.infinispan.util.concurrent.BlockingTaskAwareExecutorService;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.infinispan.factories.KnownComponentNames.REMOTE_COMMAND_EXECUTOR;
 
 /**
@@ -120,6 +124,44 @@ protected final void handleRunnable(BlockingRunnable runnable, boolean onExecuto
       }
    }
 
+   /**
+    * Handles a {@link DefaultTopologyRunnable} without waiting for it in the executor service.
+    * <p/>
+    * If it is not ready, it is submitted to the executor service by the callback of {@link
+    * DefaultTopologyRunnable#readyFuture()}, when the topology is installed and the locks are acquired, so no thread
+    * is used while it waits, however many commands are waiting.
+    */
+   protected final void handleRunnable(DefaultTopologyRunnable runnable, boolean onExecutorService) {
+      if (!onExecutorService) {
+         runnable.run();
+         return;
+      }
+      CompletableFuture<Void> readyFuture = runnable.readyFuture();
+      if (readyFuture.isDone()) {
+         remoteCommandsExecutor.execute(runnable);
+      } else {
+         readyFuture.whenComplete((ignored, throwable) -> {
+            try {
+               remoteCommandsExecutor.execute(runnable);
+            } catch (Throwable t) {
+               runnable.rejected();
+            }
+         });
+      }
+   }
+
+   /**
+    * @return a {@link CompletableFuture} completed when the {@link ReadyAction} is ready.
+    */
+   protected static CompletableFuture<Void> readyActionFuture(ReadyAction readyAction) {
+      if (readyAction.isReady()) {
+         return CompletableFutures.completedNull();
+      }
+      CompletableFuture<Void> future = new CompletableFuture<>();
+      readyAction.addListener(() -> future.complete(null));
+      return future;
+   }
+
    public final boolean isCommandSentBeforeFirstTopology(int commandTopologyId) {
       if (0 <= commandTopologyId && commandTopologyId < stateTransferManager.getFirstTopologyAsMember()) {
          if (isTraceEnabled()) {
@@ -130,7 +172,7 @@ public final boolean isCommandSentBeforeFirstTopology(int commandTopologyId) {
       return false;
    }
 
-   protected final BlockingRunnable createDefaultRunnable(final CacheRpcCommand command, final Reply reply,
+   protected final DefaultTopologyRunnable createDefaultRunnable(final CacheRpcCommand command, final Reply reply,
                                                           final int commandTopologyId, final boolean waitTransactionalData,
                                                           final boolean onExecutorService) {
       return new DefaultTopologyRunnable(this, command, reply, TopologyMode.create(onExecutorService, waitTransactionalData), commandTopologyId);
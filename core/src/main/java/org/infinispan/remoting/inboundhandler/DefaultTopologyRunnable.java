@@ -3,7 +3,9 @@
 import org.infinispan.commands.remote.CacheRpcCommand;
 import org.infinispan.remoting.responses.CacheNotFoundResponse;
 import org.infinispan.remoting.responses.Response;
+import org.infinispan.util.concurrent.CompletableFutures;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -38,6 +40,25 @@ public boolean isReady() {
       }
    }
 
+   /**
+    * Returns a {@link CompletableFuture} completed when {@link #isReady()} is expected to return {@code true}, so the
+    * command can be submitted to the executor service from the callback instead of waiting in its blocked queue.
+    * <p/>
+    * Subclasses that override {@link #isReady()} must override this method too.
+    *
+    * @return the {@link CompletableFuture} completed when this runnable is ready.
+    */
+   public CompletableFuture<Void> readyFuture() {
+      switch (topologyMode) {
+         case READY_TOPOLOGY:
+            return handler.getStateTransferLock().topologyFuture(waitTopology());
+         case READY_TX_DATA:
+            return handler.getStateTransferLock().transactionDataFuture(waitTopology());
+         default:
+            return CompletableFutures.completedNull();
+      }
+   }
+
    @Override
    protected Response beforeInvoke() throws Exception {
       switch (topologyMode) {
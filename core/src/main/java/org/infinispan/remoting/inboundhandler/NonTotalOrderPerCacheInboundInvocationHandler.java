@@ -12,7 +12,6 @@
 import org.infinispan.remoting.inboundhandler.action.LockAction;
 import org.infinispan.remoting.inboundhandler.action.ReadyAction;
 import org.infinispan.statetransfer.StateRequestCommand;
-import org.infinispan.util.concurrent.BlockingRunnable;
 import org.infinispan.util.concurrent.locks.LockListener;
 import org.infinispan.util.concurrent.locks.LockManager;
 import org.infinispan.util.concurrent.locks.LockState;
@@ -21,6 +20,7 @@
 import org.infinispan.util.logging.LogFactory;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A {@link org.infinispan.remoting.inboundhandler.PerCacheInboundInvocationHandler} implementation for non-total order
@@ -59,7 +59,7 @@ public void handle(CacheRpcCommand command, Reply reply, DeliverOrder order) {
       try {
          final int commandTopologyId = extractCommandTopologyId(command);
          final boolean onExecutorService = executeOnExecutorService(order, command);
-         final BlockingRunnable runnable;
+         final DefaultTopologyRunnable runnable;
 
          switch (command.getCommandId()) {
             case SingleRpcCommand.COMMAND_ID:
@@ -91,18 +91,23 @@ protected boolean isTraceEnabled() {
       return trace;
    }
 
-   private BlockingRunnable createReadyActionRunnable(CacheRpcCommand command, Reply reply, int commandTopologyId,
+   private DefaultTopologyRunnable createReadyActionRunnable(CacheRpcCommand command, Reply reply, int commandTopologyId,
                                                               boolean waitTransactionalData, boolean onExecutorService,
                                                               ReadyAction readyAction) {
       final TopologyMode topologyMode = TopologyMode.create(onExecutorService, waitTransactionalData);
       if (onExecutorService && readyAction != null) {
-         readyAction.addListener(remoteCommandsExecutor::checkForReadyTasks);
          return new DefaultTopologyRunnable(this, command, reply, topologyMode, commandTopologyId) {
             @Override
             public boolean isReady() {
                return super.isReady() && readyAction.isReady();
             }
 
+            @Override
+            public CompletableFuture<Void> readyFuture() {
+               //the locks are acquired only after the topology is installed
+               return super.readyFuture().thenCompose(ignored -> readyActionFuture(readyAction));
+            }
+
             @Override
             protected void onFinally() {
                super.onFinally();
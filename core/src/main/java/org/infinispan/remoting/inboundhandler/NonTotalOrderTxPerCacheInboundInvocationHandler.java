@@ -15,7 +15,6 @@
 import org.infinispan.remoting.inboundhandler.action.ReadyAction;
 import org.infinispan.statetransfer.StateRequestCommand;
 import org.infinispan.transaction.LockingMode;
-import org.infinispan.util.concurrent.BlockingRunnable;
 import org.infinispan.util.concurrent.locks.LockManager;
 import org.infinispan.util.concurrent.locks.PendingLockManager;
 import org.infinispan.util.concurrent.locks.TransactionalRemoteLockCommand;
@@ -23,6 +22,7 @@
 import org.infinispan.util.logging.LogFactory;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A {@link PerCacheInboundInvocationHandler} implementation for non-total order caches.
@@ -65,7 +65,7 @@ public void handle(CacheRpcCommand command, Reply reply, DeliverOrder order) {
       try {
          final int commandTopologyId = extractCommandTopologyId(command);
          final boolean onExecutorService = executeOnExecutorService(order, command);
-         final BlockingRunnable runnable;
+         final DefaultTopologyRunnable runnable;
 
          switch (command.getCommandId()) {
             case PrepareCommand.COMMAND_ID:
@@ -101,17 +101,22 @@ protected boolean isTraceEnabled() {
       return trace;
    }
 
-   protected final BlockingRunnable createReadyActionRunnable(CacheRpcCommand command, Reply reply, int commandTopologyId,
+   protected final DefaultTopologyRunnable createReadyActionRunnable(CacheRpcCommand command, Reply reply, int commandTopologyId,
                                                               boolean waitTransactionalData, boolean onExecutorService,
                                                               ReadyAction readyAction) {
       final TopologyMode topologyMode = TopologyMode.create(onExecutorService, waitTransactionalData);
       if (onExecutorService && readyAction != null) {
-         readyAction.addListener(remoteCommandsExecutor::checkForReadyTasks);
          return new DefaultTopologyRunnable(this, command, reply, topologyMode, commandTopologyId) {
             @Override
             public boolean isReady() {
                return super.isReady() && readyAction.isReady();
             }
+
+            @Override
+            public CompletableFuture<Void> readyFuture() {
+               //the locks are acquired only after the topology is installed
+               return super.readyFuture().thenCompose(ignored -> readyActionFuture(readyAction));
+            }
          };
       } else {
          return new DefaultTopologyRunnable(this, command, reply, topologyMode, commandTopologyId);
@@ -0,0 +1,193 @@
+package org.infinispan.remoting.rpc;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Coalesces the keys of concurrent invalidations into multi-key invalidation commands.
+ * <p/>
+ * Invalidations are queued per batch key, e.g. the origin of the write. When there is no invalidation RPC in flight
+ * for a batch key, the keys are sent immediately, so a single writer doesn't see any extra latency. Otherwise the
+ * keys are added to a pending batch, which is sent when the in-flight RPC completes, when it reaches
+ * {@code maxBatchKeys} keys, or after {@code maxDelay}, whichever happens first. The delayed sends are scheduled on
+ * the scheduled executor of the cache.
+ * <p/>
+ * The future returned by {@link #invalidate(Object, Collection, Collection)} completes only after the RPC
+ * carrying the keys completes, so synchronous callers can still wait for the invalidation to be applied before
+ * acknowledging the write.
+ *
+ * @since 9.0
+ */
+public class CoalescingInvalidationSender<B> {
+   private static final Log log = LogFactory.getLog(CoalescingInvalidationSender.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   public static final int DEFAULT_MAX_BATCH_KEYS = 1000;
+   public static final long DEFAULT_MAX_BATCH_DELAY_MILLIS = 10;
+
+   /**
+    * Sends one invalidation command for a batch of keys.
+    */
+   public interface BatchSender<B> {
+      /**
+       * @param batchKey the batch key used when the keys were queued
+       * @param targets the nodes to invalidate, or {@code null} to invalidate on all the nodes
+       * @param keys the keys to invalidate
+       * @return a future that completes when the invalidation was applied on the targets
+       */
+      CompletableFuture<?> send(B batchKey, Collection<Address> targets, Collection<Object> keys);
+   }
+
+   private final BatchSender<B> sender;
+   private final ScheduledExecutorService scheduledExecutor;
+   private final int maxBatchKeys;
+   private final long maxDelayNanos;
+   private final ConcurrentMap<B, Batcher> batchers = new ConcurrentHashMap<>();
+
+   /**
+    * Creates a sender with up to {@link #DEFAULT_MAX_BATCH_KEYS} keys per batch, delayed for up to {@link
+    * #DEFAULT_MAX_BATCH_DELAY_MILLIS} milliseconds.
+    */
+   public CoalescingInvalidationSender(BatchSender<B> sender, ScheduledExecutorService scheduledExecutor) {
+      this(sender, scheduledExecutor, DEFAULT_MAX_BATCH_KEYS, DEFAULT_MAX_BATCH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+   }
+
+   public CoalescingInvalidationSender(BatchSender<B> sender, ScheduledExecutorService scheduledExecutor,
+                                       int maxBatchKeys, long maxDelay, TimeUnit unit) {
+      this.sender = sender;
+      this.scheduledExecutor = scheduledExecutor;
+      this.maxBatchKeys = maxBatchKeys;
+      this.maxDelayNanos = unit.toNanos(maxDelay);
+   }
+
+   /**
+    * Queues the invalidation of some keys.
+    *
+    * @param batchKey only invalidations with the same batch key are sent in the same command, must not be
+    *                 {@code null}
+    * @param targets the nodes to invalidate, or {@code null} to invalidate on all the nodes
+    * @param keys the keys to invalidate
+    * @return a future that completes when the keys were invalidated on the targets
+    */
+   public CompletableFuture<Void> invalidate(B batchKey, Collection<Address> targets, Collection<Object> keys) {
+      return batchers.computeIfAbsent(batchKey, Batcher::new).add(targets, keys);
+   }
+
+   /**
+    * Sends all the pending batches immediately.
+    */
+   public void flushAll() {
+      for (Batcher batcher : batchers.values()) {
+         batcher.flush();
+      }
+   }
+
+   private class Batcher {
+      private final B batchKey;
+      private Set<Object> pendingKeys;
+      // null means broadcast
+      private Set<Address> pendingTargets;
+      private CompletableFuture<Void> pendingFuture;
+      private ScheduledFuture<?> flushTask;
+      private int inFlight;
+
+      Batcher(B batchKey) {
+         this.batchKey = batchKey;
+      }
+
+      CompletableFuture<Void> add(Collection<Address> targets, Collection<Object> keys) {
+         CompletableFuture<Void> future;
+         boolean sendNow;
+         synchronized (this) {
+            if (pendingKeys == null) {
+               pendingKeys = new HashSet<>(keys);
+               pendingTargets = targets != null ? new HashSet<>(targets) : null;
+               pendingFuture = new CompletableFuture<>();
+            } else {
+               pendingKeys.addAll(keys);
+               if (targets == null) {
+                  pendingTargets = null;
+               } else if (pendingTargets != null) {
+                  pendingTargets.addAll(targets);
+               }
+            }
+            future = pendingFuture;
+            sendNow = inFlight == 0 || pendingKeys.size() >= maxBatchKeys;
+            if (!sendNow && flushTask == null) {
+               try {
+                  flushTask = scheduledExecutor.schedule(this::flush, maxDelayNanos, TimeUnit.NANOSECONDS);
+               } catch (RejectedExecutionException e) {
+                  // The executor was shut down, don't hold the keys
+                  sendNow = true;
+               }
+            }
+         }
+         if (sendNow) {
+            flush();
+         }
+         return future;
+      }
+
+      void flush() {
+         Collection<Object> keys;
+         Collection<Address> targets;
+         CompletableFuture<Void> future;
+         synchronized (this) {
+            if (pendingKeys == null)
+               return;
+
+            keys = new ArrayList<>(pendingKeys);
+            targets = pendingTargets;
+            future = pendingFuture;
+            pendingKeys = null;
+            pendingTargets = null;
+            pendingFuture = null;
+            if (flushTask != null) {
+               flushTask.cancel(false);
+               flushTask = null;
+            }
+            inFlight++;
+         }
+
+         if (trace) log.tracef("Sending invalidation batch %s for keys %s to %s", batchKey, keys, targets);
+         CompletableFuture<?> rpcFuture;
+         try {
+            rpcFuture = sender.send(batchKey, targets, keys);
+         } catch (Throwable t) {
+            rpcFuture = new CompletableFuture<>();
+            rpcFuture.completeExceptionally(t);
+         }
+         if (rpcFuture == null) {
+            rpcFuture = CompletableFuture.completedFuture(null);
+         }
+         rpcFuture.whenComplete((ignored, throwable) -> {
+            boolean sendNext;
+            synchronized (this) {
+               inFlight--;
+               sendNext = inFlight == 0 && pendingKeys != null;
+            }
+            if (throwable != null) {
+               future.completeExceptionally(throwable);
+            } else {
+               future.complete(null);
+            }
+            if (sendNext) {
+               flush();
+            }
+         });
+      }
+   }
+}
@@ -0,0 +1,70 @@
+package org.infinispan.statetransfer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.container.DataContainer;
+import org.infinispan.stats.Stats;
+import org.infinispan.topology.LocalTopologyManager;
+import org.infinispan.topology.NodeLoad;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Periodically measures the load of the local cache and sends it to the coordinator.
+ * <p/>
+ * The request rate is only available when statistics are enabled for the cache, otherwise it is always 0.
+ *
+ * @since 9.0
+ */
+class NodeLoadReporter implements Runnable {
+   private static final Log log = LogFactory.getLog(NodeLoadReporter.class);
+
+   private final AdvancedCache<?, ?> cache;
+   private final DataContainer<?, ?> dataContainer;
+   private final LocalTopologyManager localTopologyManager;
+   private final TimeService timeService;
+
+   private long lastOperations = -1;
+   private long lastReportTime;
+
+   NodeLoadReporter(AdvancedCache<?, ?> cache, DataContainer<?, ?> dataContainer,
+                    LocalTopologyManager localTopologyManager, TimeService timeService) {
+      this.cache = cache;
+      this.dataContainer = dataContainer;
+      this.localTopologyManager = localTopologyManager;
+      this.timeService = timeService;
+   }
+
+   @Override
+   public void run() {
+      try {
+         NodeLoad load = new NodeLoad(heapUsage(), dataContainer.sizeIncludingExpired(), requestRate());
+         log.tracef("Reporting load %s for cache %s", load, cache.getName());
+         localTopologyManager.reportLoad(cache.getName(), load);
+      } catch (Throwable t) {
+         log.debugf(t, "Failed to report the load of cache %s", cache.getName());
+      }
+   }
+
+   private float heapUsage() {
+      Runtime runtime = Runtime.getRuntime();
+      return (float) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+   }
+
+   private float requestRate() {
+      Stats stats = cache.getStats();
+      long now = timeService.time();
+      // All the counters are -1 when statistics are disabled
+      long operations = stats.getRetrievals() >= 0 ?
+            stats.getRetrievals() + stats.getStores() + stats.getRemoveHits() + stats.getRemoveMisses() : 0;
+      float rate = 0;
+      if (lastOperations >= 0 && operations >= lastOperations && now > lastReportTime) {
+         rate = (operations - lastOperations) * (float) TimeUnit.SECONDS.toNanos(1) / (now - lastReportTime);
+      }
+      lastOperations = operations;
+      lastReportTime = now;
+      return rate;
+   }
+}
@@ -167,7 +167,8 @@ public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext tas
                         }
                      }
                   };
-               stProvider.process(filter, task, new WithinThreadExecutor(), true, true);
+               // the store may skip the other segments, but the task must still check them
+               stProvider.process(new HashSet<>(segments), filter, task, new WithinThreadExecutor(), true, true);
             } catch (CacheException e) {
                log.failedLoadingKeysFromCacheStore(e);
             }
@@ -24,7 +24,9 @@
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.lifecycle.ComponentStatus;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryFactory;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
@@ -72,12 +74,14 @@
 import static org.infinispan.context.Flag.CACHE_MODE_LOCAL;
 import static org.infinispan.context.Flag.IGNORE_RETURN_VALUES;
 import static org.infinispan.context.Flag.PUT_FOR_STATE_TRANSFER;
+import static org.infinispan.context.Flag.SKIP_CACHE_STORE;
 import static org.infinispan.context.Flag.SKIP_LOCKING;
 import static org.infinispan.context.Flag.SKIP_OWNERSHIP_CHECK;
 import static org.infinispan.context.Flag.SKIP_REMOTE_LOOKUP;
 import static org.infinispan.context.Flag.SKIP_SHARED_CACHE_STORE;
 import static org.infinispan.context.Flag.SKIP_XSITE_BACKUP;
 import static org.infinispan.factories.KnownComponentNames.STATE_TRANSFER_EXECUTOR;
+import static org.infinispan.persistence.PersistenceUtil.internalMetadata;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.PRIVATE;
 
 /**
@@ -95,6 +99,8 @@ public class StateConsumerImpl implements StateConsumer {
                                                                       IGNORE_RETURN_VALUES, SKIP_REMOTE_LOOKUP,
                                                                       SKIP_SHARED_CACHE_STORE, SKIP_OWNERSHIP_CHECK,
                                                                       SKIP_XSITE_BACKUP);
+   // the entries are written to the stores with a single batch per chunk
+   private static final long STATE_TRANSFER_BATCH_FLAGS = EnumUtil.setEnum(STATE_TRANSFER_FLAGS, SKIP_CACHE_STORE);
 
    private Cache cache;
    private StateTransferManager stateTransferManager;
@@ -106,6 +112,7 @@ public class StateConsumerImpl implements StateConsumer {
    private TransactionTable transactionTable;       // optional
    private DataContainer<Object, Object> dataContainer;
    private PersistenceManager persistenceManager;
+   private MarshalledEntryFactory marshalledEntryFactory;
    private InterceptorChain interceptorChain;
    private InvocationContextFactory icf;
    private StateTransferLock stateTransferLock;
@@ -117,6 +124,7 @@ public class StateConsumerImpl implements StateConsumer {
    private boolean isTransactional;
    private boolean isInvalidationMode;
    private boolean isTotalOrder;
+   private boolean isWriteThroughStore;
    private volatile KeyInvalidationListener keyInvalidationListener; //for test purpose only!
    private CommitManager commitManager;
    private ExecutorService stateTransferExecutor;
@@ -218,12 +226,19 @@ public void init(Cache cache,
 
       isTransactional = configuration.transaction().transactionMode().isTransactional();
       isTotalOrder = configuration.transaction().transactionProtocol().isTotalOrder();
+      // with passivation the state is only written to the stores on eviction
+      isWriteThroughStore = configuration.persistence().usingStores() && !configuration.persistence().passivation();
 
       timeout = configuration.clustering().stateTransfer().timeout();
 
       stateRequestCompletionService = new SemaphoreCompletionService<>(stateTransferExecutor, 1);
    }
 
+   @Inject
+   public void injectMarshalledEntryFactory(MarshalledEntryFactory marshalledEntryFactory) {
+      this.marshalledEntryFactory = marshalledEntryFactory;
+   }
+
    public boolean hasActiveTransfers() {
       synchronized (transferMapsLock) {
          return !transfersBySource.isEmpty();
@@ -590,6 +605,9 @@ private void doApplyState(Address sender, int segmentId, Collection<InternalCach
 
       // CACHE_MODE_LOCAL avoids handling by StateTransferInterceptor and any potential locks in StateTransferLock
       boolean transactional = transactionManager != null;
+      // the puts of a transactional cache write the stores on commit, one transaction per entry
+      List<MarshalledEntry> storeBatch = !transactional && isWriteThroughStore ? new ArrayList<>(cacheEntries.size()) : null;
+      long flags = storeBatch != null ? STATE_TRANSFER_BATCH_FLAGS : STATE_TRANSFER_FLAGS;
       for (InternalCacheEntry e : cacheEntries) {
          try {
             InvocationContext ctx;
@@ -603,9 +621,12 @@ private void doApplyState(Address sender, int segmentId, Collection<InternalCach
             }
 
             PutKeyValueCommand put = commandsFactory.buildPutKeyValueCommand(
-                  e.getKey(), e.getValue(), e.getMetadata(), STATE_TRANSFER_FLAGS);
+                  e.getKey(), e.getValue(), e.getMetadata(), flags);
             ctx.setLockOwner(put.getKeyLockOwner());
             interceptorChain.invoke(ctx, put);
+            if (storeBatch != null) {
+               storeBatch.add(marshalledEntryFactory.newMarshalledEntry(e.getKey(), e.getValue(), internalMetadata(e)));
+            }
 
             if (transactionManager != null) {
                transactionManager.commit();
@@ -627,9 +648,39 @@ private void doApplyState(Address sender, int segmentId, Collection<InternalCach
             }
          }
       }
+      if (storeBatch != null && !storeBatch.isEmpty()) {
+         writeStateToStores(segmentId, storeBatch);
+      }
       if (trace) log.tracef("Finished applying chunk of segment %d of cache %s", segmentId, cacheName);
    }
 
+   /**
+    * Writes the entries of a chunk, already applied to the data container, to the stores. If the batch fails, the
+    * entries are written again one by one, so that a single failing entry does not leave the rest of the chunk out of
+    * the stores. An entry that still can't be written is reported like any other entry whose state can't be applied.
+    */
+   private void writeStateToStores(int segmentId, List<MarshalledEntry> entries) {
+      try {
+         persistenceManager.writeBatchToAllStores(entries, PRIVATE);
+         return;
+      } catch (Exception ex) {
+         log.problemWritingStateToStores(ex.getMessage(), segmentId, ex);
+      }
+      for (MarshalledEntry entry : entries) {
+         try {
+            persistenceManager.writeToAllStores(entry, PRIVATE);
+         } catch (Exception ex) {
+            // the joiner applies its initial state before it is running, so only stop if it is going away
+            ComponentStatus status = cache.getStatus();
+            if (status.isStopping() || status.isTerminated()) {
+               log.debugf("Cache %s is shutting down, stopping state transfer", cacheName);
+               return;
+            }
+            log.problemApplyingStateForKey(ex.getMessage(), entry.getKey(), ex);
+         }
+      }
+   }
+
    private void applyTransactions(Address sender, Collection<TransactionInfo> transactions, int topologyId) {
       log.debugf("Applying %d transactions for cache %s transferred from node %s", transactions.size(), cacheName, sender);
       if (isTransactional) {
@@ -3,6 +3,7 @@
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -43,6 +44,12 @@ public interface StateTransferLock {
 
    boolean transactionDataReceived(int expectedTopologyId);
 
+   /**
+    * @return a {@link CompletableFuture} completed when the transaction data for topology {@code expectedTopologyId}
+    * has been received, to wait without blocking a thread.
+    */
+   CompletableFuture<Void> transactionDataFuture(int expectedTopologyId);
+
    // topology installation latch
    // TODO move this to Cluster/LocalTopologyManagerImpl and don't start requesting state until every node has the jgroups view with the local node
    void notifyTopologyInstalled(int topologyId);
@@ -50,4 +57,10 @@ public interface StateTransferLock {
    void waitForTopology(int expectedTopologyId, long timeout, TimeUnit unit) throws InterruptedException;
 
    boolean topologyReceived(int expectedTopologyId);
+
+   /**
+    * @return a {@link CompletableFuture} completed when topology {@code expectedTopologyId} has been installed, to
+    * wait without blocking a thread.
+    */
+   CompletableFuture<Void> topologyFuture(int expectedTopologyId);
 }
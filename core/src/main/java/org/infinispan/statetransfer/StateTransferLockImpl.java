@@ -1,10 +1,12 @@
 package org.infinispan.statetransfer;
 
 import org.infinispan.IllegalLifecycleStateException;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -29,10 +31,14 @@ public class StateTransferLockImpl implements StateTransferLock {
    private volatile int topologyId = -1;
    private final Lock topologyLock = new ReentrantLock();
    private final Condition topologyCondition = topologyLock.newCondition();
+   //completed and replaced every time a new topology is installed
+   private volatile CompletableFuture<Void> topologyFuture = new CompletableFuture<>();
 
    private volatile int transactionDataTopologyId = -1;
    private final Lock transactionDataLock = new ReentrantLock();
    private final Condition transactionDataCondition = transactionDataLock.newCondition();
+   //completed and replaced every time the transaction data of a new topology is received
+   private volatile CompletableFuture<Void> transactionDataFuture = new CompletableFuture<>();
 
    public void stop() {
       notifyTransactionDataReceived(TOPOLOGY_ID_STOPPED);
@@ -71,12 +77,16 @@ public void notifyTransactionDataReceived(int topologyId) {
          log.tracef("Signalling transaction data received for topology %d", topologyId);
       }
       transactionDataTopologyId = topologyId;
+      CompletableFuture<Void> previousFuture;
       transactionDataLock.lock();
       try {
          transactionDataCondition.signalAll();
+         previousFuture = transactionDataFuture;
+         transactionDataFuture = new CompletableFuture<>();
       } finally {
          transactionDataLock.unlock();
       }
+      previousFuture.complete(null);
    }
 
    @Override
@@ -112,6 +122,16 @@ public boolean transactionDataReceived(int expectedTopologyId) {
       return transactionDataTopologyId >= expectedTopologyId;
    }
 
+   @Override
+   public CompletableFuture<Void> transactionDataFuture(int expectedTopologyId) {
+      //read the future before the topology id, the future is replaced after the topology id is updated
+      CompletableFuture<Void> nextFuture = transactionDataFuture;
+      if (transactionDataTopologyId >= expectedTopologyId) {
+         return CompletableFutures.completedNull();
+      }
+      return nextFuture.thenCompose(ignored -> transactionDataFuture(expectedTopologyId));
+   }
+
    @Override
    public void notifyTopologyInstalled(int topologyId) {
       if (topologyId < this.topologyId) {
@@ -123,12 +143,16 @@ public void notifyTopologyInstalled(int topologyId) {
       }
       this.topologyId = topologyId;
 
+      CompletableFuture<Void> previousFuture;
       topologyLock.lock();
       try {
          topologyCondition.signalAll();
+         previousFuture = topologyFuture;
+         topologyFuture = new CompletableFuture<>();
       } finally {
          topologyLock.unlock();
       }
+      previousFuture.complete(null);
    }
 
    @Override
@@ -167,4 +191,14 @@ private void reportErrorAfterWait(int expectedTopologyId, long timeoutNanos) {
    public boolean topologyReceived(int expectedTopologyId) {
       return topologyId >= expectedTopologyId;
    }
+
+   @Override
+   public CompletableFuture<Void> topologyFuture(int expectedTopologyId) {
+      //read the future before the topology id, the future is replaced after the topology id is updated
+      CompletableFuture<Void> nextFuture = topologyFuture;
+      if (topologyId >= expectedTopologyId) {
+         return CompletableFutures.completedNull();
+      }
+      return nextFuture.thenCompose(ignored -> topologyFuture(expectedTopologyId));
+   }
 }
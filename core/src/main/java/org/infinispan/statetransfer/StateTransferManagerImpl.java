@@ -6,13 +6,16 @@
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.container.DataContainer;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.distribution.ch.ConsistentHashFactory;
 import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.distribution.ch.impl.LoadAwareConsistentHashFactory;
 import org.infinispan.distribution.ch.impl.SyncConsistentHashFactory;
 import org.infinispan.distribution.ch.impl.SyncReplicatedConsistentHashFactory;
 import org.infinispan.distribution.ch.impl.TopologyAwareSyncConsistentHashFactory;
 import org.infinispan.distribution.group.PartitionerConsistentHash;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
@@ -28,6 +31,7 @@
 import org.infinispan.topology.CacheTopology;
 import org.infinispan.topology.CacheTopologyHandler;
 import org.infinispan.topology.LocalTopologyManager;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -37,8 +41,12 @@
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
+import static org.infinispan.factories.KnownComponentNames.EXPIRATION_SCHEDULED_EXECUTOR;
+
 /**
  * {@link StateTransferManager} implementation.
  *
@@ -60,6 +68,11 @@ public class StateTransferManagerImpl implements StateTransferManager {
    private RpcManager rpcManager;
    private LocalTopologyManager localTopologyManager;
    private Optional<Integer> persistentStateChecksum;
+   private Cache cache;
+   private DataContainer dataContainer;
+   private ScheduledExecutorService scheduledExecutor;
+   private TimeService timeService;
+   private ScheduledFuture<?> loadReportTask;
 
    private final CountDownLatch initialStateTransferComplete = new CountDownLatch(1);
    // The first topology in which the local node was a member. Any command with a lower
@@ -84,6 +97,7 @@ public void init(StateConsumer stateConsumer,
                     GlobalStateManager globalStateManager) {
       this.stateConsumer = stateConsumer;
       this.stateProvider = stateProvider;
+      this.cache = cache;
       this.cacheName = cache.getName();
       this.cacheNotifier = cacheNotifier;
       this.configuration = configuration;
@@ -99,6 +113,14 @@ public void init(StateConsumer stateConsumer,
       }
    }
 
+   @Inject
+   public void injectLoadReporting(DataContainer dataContainer, TimeService timeService,
+                                   @ComponentName(EXPIRATION_SCHEDULED_EXECUTOR) ScheduledExecutorService scheduledExecutor) {
+      this.dataContainer = dataContainer;
+      this.timeService = timeService;
+      this.scheduledExecutor = scheduledExecutor;
+   }
+
    // needs to be AFTER the DistributionManager and *after* the cache loader manager (if any) inits and preloads
    @Start(priority = 60)
    @Override
@@ -107,7 +129,8 @@ public void start() throws Exception {
          log.tracef("Starting StateTransferManager of cache %s on node %s", cacheName, rpcManager.getAddress());
       }
 
-      CacheJoinInfo joinInfo = new CacheJoinInfo(pickConsistentHashFactory(),
+      ConsistentHashFactory chFactory = pickConsistentHashFactory();
+      CacheJoinInfo joinInfo = new CacheJoinInfo(chFactory,
             configuration.clustering().hash().hash(),
             configuration.clustering().hash().numSegments(),
             configuration.clustering().hash().numOwners(),
@@ -133,6 +156,14 @@ public void rebalance(CacheTopology cacheTopology) {
       if (trace) {
          log.tracef("StateTransferManager of cache %s on node %s received initial topology %s", cacheName, rpcManager.getAddress(), initialTopology);
       }
+
+      if (chFactory instanceof LoadAwareConsistentHashFactory) {
+         long reportInterval = ((LoadAwareConsistentHashFactory) chFactory).getReportInterval();
+         NodeLoadReporter loadReporter = new NodeLoadReporter(cache.getAdvancedCache(), dataContainer,
+               localTopologyManager, timeService);
+         loadReportTask = scheduledExecutor.scheduleWithFixedDelay(loadReporter, reportInterval, reportInterval,
+               TimeUnit.MILLISECONDS);
+      }
    }
 
    /**
@@ -237,6 +268,10 @@ public void stop() {
       if (trace) {
          log.tracef("Shutting down StateTransferManager of cache %s on node %s", cacheName, rpcManager.getAddress());
       }
+      if (loadReportTask != null) {
+         loadReportTask.cancel(false);
+         loadReportTask = null;
+      }
       initialStateTransferComplete.countDown();
       localTopologyManager.leave(cacheName);
    }
@@ -62,7 +62,11 @@ public enum Type {
       // Change the availability
       AVAILABILITY_MODE_CHANGE,
       // Query the rebalancing progress
-      REBALANCING_GET_STATUS;
+      REBALANCING_GET_STATUS,
+
+      // Member to coordinator:
+      // A member is reporting its load, for load-aware consistent hash factories
+      LOAD_REPORT;
 
       private static final Type[] CACHED_VALUES = values();
    }
@@ -90,6 +94,7 @@ public enum Type {
 
    private Throwable throwable;
    private int viewId;
+   private NodeLoad load;
 
    // For CommandIdUniquenessTest only
    public CacheTopologyControlCommand() {
@@ -146,6 +151,14 @@ public CacheTopologyControlCommand(String cacheName, Type type, Address sender,
       this.viewId = viewId;
    }
 
+   public CacheTopologyControlCommand(String cacheName, Type type, Address sender, NodeLoad load, int viewId) {
+      this.cacheName = cacheName;
+      this.type = type;
+      this.sender = sender;
+      this.load = load;
+      this.viewId = viewId;
+   }
+
    @Inject
    public void init(LocalTopologyManager localTopologyManager, ClusterTopologyManager clusterTopologyManager, PersistentUUIDManager persistentUUIDManager) {
       this.localTopologyManager = localTopologyManager;
@@ -186,6 +199,9 @@ private Object doPerform() throws Exception {
          case SHUTDOWN_REQUEST:
             clusterTopologyManager.handleShutdownRequest(cacheName);
             return null;
+         case LOAD_REPORT:
+            clusterTopologyManager.handleLoadReport(cacheName, sender, load, viewId);
+            return null;
 
          // coordinator to member
          case CH_UPDATE:
@@ -323,6 +339,11 @@ public void writeTo(ObjectOutput output) throws IOException {
          case AVAILABILITY_MODE_CHANGE:
             MarshallUtil.marshallEnum(availabilityMode, output);
             return;
+         case LOAD_REPORT:
+            output.writeObject(sender);
+            NodeLoad.writeTo(output, load);
+            output.writeInt(viewId);
+            return;
          case POLICY_GET_STATUS:
          case POLICY_ENABLE:
          case POLICY_DISABLE:
@@ -388,6 +409,11 @@ public void readFrom(ObjectInput input) throws IOException, ClassNotFoundExcepti
          case AVAILABILITY_MODE_CHANGE:
             availabilityMode = MarshallUtil.unmarshallEnum(input, AvailabilityMode::valueOf);
             return;
+         case LOAD_REPORT:
+            sender = (Address) input.readObject();
+            load = NodeLoad.readFrom(input);
+            viewId = input.readInt();
+            return;
          case POLICY_GET_STATUS:
          case POLICY_ENABLE:
          case POLICY_DISABLE:
@@ -410,6 +436,7 @@ public String toString() {
             ", availabilityMode=" + availabilityMode +
             ", actualMembers=" + actualMembers +
             ", throwable=" + throwable +
+            ", load=" + load +
             ", viewId=" + viewId +
             '}';
    }
@@ -4,6 +4,7 @@
 import org.infinispan.commons.util.Immutables;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.distribution.ch.ConsistentHashFactory;
+import org.infinispan.distribution.ch.impl.LoadAwareConsistentHashFactory;
 import org.infinispan.globalstate.ScopedPersistentState;
 import org.infinispan.lifecycle.ComponentStatus;
 import org.infinispan.partitionhandling.AvailabilityMode;
@@ -782,6 +783,28 @@ public void setRebalanceEnabled(boolean enabled) {
       }
    }
 
+   public void doHandleLoadReport(Address member, NodeLoad load) {
+      ConsistentHashFactory chFactory = getJoinInfo().getConsistentHashFactory();
+      if (!(chFactory instanceof LoadAwareConsistentHashFactory))
+         return;
+
+      List<Address> members;
+      synchronized (this) {
+         CacheTopology cacheTopology = getCurrentTopology();
+         if (cacheTopology == null || isRebalanceInProgress() || queuedRebalanceMembers != null) {
+            // The load will change anyway after the rebalance
+            log.tracef("Ignoring load report from %s for cache %s, a rebalance is pending", member, cacheName);
+            return;
+         }
+
+         members = cacheTopology.getMembers();
+         if (!((LoadAwareConsistentHashFactory) chFactory).updateNodeLoad(member, load, members))
+            return;
+      }
+      log.debugf("Rebalancing cache %s because the load of its members changed", cacheName);
+      queueRebalance(members);
+   }
+
    public void forceRebalance() {
       queueRebalance(getCurrentTopology().getMembers());
       startQueuedRebalance();
@@ -32,6 +32,11 @@ public interface ClusterTopologyManager {
     */
    void handleRebalanceCompleted(String cacheName, Address node, int topologyId, Throwable throwable, int viewId) throws Exception;
 
+   /**
+    * Records the load of a cache member, for consistent hash factories that balance segments by load.
+    */
+   void handleLoadReport(String cacheName, Address node, NodeLoad load, int viewId);
+
    /**
     * Install a new cluster view.
     */
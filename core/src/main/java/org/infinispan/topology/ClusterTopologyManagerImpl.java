@@ -247,6 +247,23 @@ public void handleLeave(String cacheName, Address leaver, int viewId) throws Exc
       }
    }
 
+   @Override
+   public void handleLoadReport(String cacheName, Address node, NodeLoad load, int viewId) {
+      if (!clusterManagerStatus.isRunning()) {
+         log.tracef("Ignoring load report from %s for cache %s, the local cache manager is shutting down",
+               node, cacheName);
+         return;
+      }
+
+      ClusterCacheStatus cacheStatus = cacheStatusMap.get(cacheName);
+      if (cacheStatus == null) {
+         log.tracef("Ignoring load report from %s for cache %s because it doesn't have a cache status entry",
+               node, cacheName);
+         return;
+      }
+      cacheStatus.doHandleLoadReport(node, load);
+   }
+
    @Override
    public void handleRebalanceCompleted(String cacheName, Address node, int topologyId, Throwable throwable, int viewId) throws Exception {
       if (throwable != null) {
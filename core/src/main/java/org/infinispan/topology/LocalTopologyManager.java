@@ -39,6 +39,12 @@ public interface LocalTopologyManager {
     */
    void confirmRebalance(String cacheName, int topologyId, int rebalanceId, Throwable throwable);
 
+   /**
+    * Sends the load of the local cache {@code cacheName} to the coordinator, for consistent hash factories that
+    * balance the segments based on the members' load.
+    */
+   void reportLoad(String cacheName, NodeLoad load);
+
    /**
     * Recovers the current topology information for all running caches and returns it to the coordinator.
     * @param viewId
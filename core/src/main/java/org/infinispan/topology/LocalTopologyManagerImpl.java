@@ -188,6 +188,17 @@ public void leave(String cacheName) {
       }
    }
 
+   @Override
+   public void reportLoad(String cacheName, NodeLoad load) {
+      ReplicableCommand command = new CacheTopologyControlCommand(cacheName,
+            CacheTopologyControlCommand.Type.LOAD_REPORT, transport.getAddress(), load, transport.getViewId());
+      try {
+         executeOnCoordinatorAsync(command);
+      } catch (Exception e) {
+         log.debugf(e, "Error sending the load report for cache %s to the coordinator", cacheName);
+      }
+   }
+
    @Override
    public void confirmRebalance(String cacheName, int topologyId, int rebalanceId, Throwable throwable) {
       // Note that if the coordinator changes again after we sent the command, we will get another
@@ -0,0 +1,59 @@
+package org.infinispan.topology;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Resource usage of a cache on one node, periodically reported to the coordinator when the cache uses a
+ * {@link org.infinispan.distribution.ch.impl.LoadAwareConsistentHashFactory}.
+ *
+ * @since 9.0
+ */
+public class NodeLoad {
+   private final float heapUsage;
+   private final long entryCount;
+   private final float requestRate;
+
+   /**
+    * @param heapUsage the fraction of the maximum heap in use, between 0 and 1
+    * @param entryCount the number of entries stored by the cache on the node
+    * @param requestRate the number of read and write operations per second handled by the cache on the node
+    */
+   public NodeLoad(float heapUsage, long entryCount, float requestRate) {
+      this.heapUsage = heapUsage;
+      this.entryCount = entryCount;
+      this.requestRate = requestRate;
+   }
+
+   public float getHeapUsage() {
+      return heapUsage;
+   }
+
+   public long getEntryCount() {
+      return entryCount;
+   }
+
+   public float getRequestRate() {
+      return requestRate;
+   }
+
+   static void writeTo(ObjectOutput output, NodeLoad load) throws IOException {
+      output.writeFloat(load.heapUsage);
+      output.writeLong(load.entryCount);
+      output.writeFloat(load.requestRate);
+   }
+
+   static NodeLoad readFrom(ObjectInput input) throws IOException {
+      return new NodeLoad(input.readFloat(), input.readLong(), input.readFloat());
+   }
+
+   @Override
+   public String toString() {
+      return "NodeLoad{" +
+            "heapUsage=" + heapUsage +
+            ", entryCount=" + entryCount +
+            ", requestRate=" + requestRate +
+            '}';
+   }
+}
@@ -0,0 +1,28 @@
+package org.infinispan.transaction;
+
+/**
+ * Defines how a transaction that did not write or lock any key is completed.
+ *
+ * @since 9.0
+ */
+public enum ReadOnlyCommitMode {
+   /**
+    * Read-only transactions go through the prepare and commit phases like any other transaction.
+    */
+   DEFAULT,
+   /**
+    * Read-only transactions release their resources locally at prepare time, without invoking the interceptor chain
+    * and without any RPC. No {@link org.infinispan.notifications.cachelistener.annotation.TransactionCompleted}
+    * event is fired for them.
+    */
+   LOCAL,
+   /**
+    * Like {@link #LOCAL}, but before completing the transaction the versions of the entries it read are compared with
+    * their current versions, and the transaction is rolled back if any of them changed, so all the reads are
+    * guaranteed to come from a consistent snapshot. Keys owned by the local node are validated locally, and the
+    * others with at most one RPC per primary owner. The versions are only tracked with optimistic locking,
+    * {@link org.infinispan.util.concurrent.IsolationLevel#REPEATABLE_READ}, write skew check and versioning enabled,
+    * so a configuration without them is rejected.
+    */
+   VALIDATED
+}
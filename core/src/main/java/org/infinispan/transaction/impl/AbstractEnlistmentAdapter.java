@@ -77,7 +77,8 @@ protected final void releaseLocksForCompletedTransaction(LocalTransaction localT
       final GlobalTransaction gtx = localTransaction.getGlobalTransaction();
       txTable.removeLocalTransaction(localTransaction);
       log.tracef("Committed in onePhase? %s isOptimistic? %s", committedInOnePhase, isOptimisticCache());
-      if (committedInOnePhase && isOptimisticCache())
+      // A read-only transaction completed in prepare has no locks, even with pessimistic locking
+      if (committedInOnePhase && (isOptimisticCache() || localTransaction.isCommittedInPrepare()))
          return;
       if (isClustered()) {
          removeTransactionInfoRemotely(localTransaction, gtx);
@@ -44,6 +44,7 @@ public abstract class LocalTransaction extends AbstractCacheTransaction {
 
    private boolean prepareSent;
    private boolean commitOrRollbackSent;
+   private boolean committedInPrepare;
 
    public LocalTransaction(Transaction transaction, GlobalTransaction tx,
          boolean implicitTransaction, int topologyId, Equivalence<Object> keyEquivalence, long txCreationTime) {
@@ -239,4 +240,18 @@ public final boolean isCommitOrRollbackSent() {
       return commitOrRollbackSent;
    }
 
+   /**
+    * Sets the transaction as already committed by a one phase prepare
+    */
+   public final void markCommittedInPrepare() {
+      committedInPrepare = true;
+   }
+
+   /**
+    * @return  true if the transaction was committed by a one phase prepare, and the commit must not do anything
+    */
+   public final boolean isCommittedInPrepare() {
+      return committedInPrepare;
+   }
+
 }
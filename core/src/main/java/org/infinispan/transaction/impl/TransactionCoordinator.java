@@ -1,18 +1,41 @@
 package org.infinispan.transaction.impl;
 
 import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.tx.CommitCommand;
 import org.infinispan.commands.tx.PrepareCommand;
 import org.infinispan.commands.tx.RollbackCommand;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.configuration.cache.ClusteringConfiguration;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.Configurations;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.container.versioning.EntryVersion;
+import org.infinispan.container.versioning.EntryVersionsMap;
+import org.infinispan.container.versioning.InequalVersionComparisonResult;
+import org.infinispan.container.versioning.VersionGenerator;
+import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContextFactory;
 import org.infinispan.context.impl.LocalTxInvocationContext;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.interceptors.locking.ClusteringDependentLogic;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.remoting.rpc.ResponseMode;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.transaction.ReadOnlyCommitMode;
+import org.infinispan.transaction.WriteSkewException;
 import org.infinispan.transaction.xa.GlobalTransaction;
 import org.infinispan.transaction.xa.recovery.RecoveryManager;
 import org.infinispan.util.logging.Log;
@@ -20,10 +43,17 @@
 
 import javax.transaction.Transaction;
 import javax.transaction.xa.XAException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static javax.transaction.xa.XAResource.XA_OK;
 import static javax.transaction.xa.XAResource.XA_RDONLY;
+import static org.infinispan.util.DeltaCompositeKeyUtil.filterDeltaCompositeKeys;
 
 /**
  * Coordinates transaction prepare/commits as received from the {@link javax.transaction.TransactionManager}.
@@ -37,6 +67,7 @@
 public class TransactionCoordinator {
 
    private static final Log log = LogFactory.getLog(TransactionCoordinator.class);
+   private static final long VALIDATION_FLAGS = EnumUtil.bitSetOf(Flag.CACHE_MODE_LOCAL, Flag.SKIP_STATISTICS);
    private CommandsFactory commandsFactory;
    private InvocationContextFactory icf;
    private InterceptorChain invoker;
@@ -44,6 +75,11 @@ public class TransactionCoordinator {
    private RecoveryManager recoveryManager;
    private Configuration configuration;
    private CommandCreator commandCreator;
+   private ClusteringDependentLogic clusteringLogic;
+   private boolean singleOwnerOnePhaseCommit;
+   private ReadOnlyCommitMode readOnlyCommitMode;
+   private RpcManager rpcManager;
+   private VersionGenerator versionGenerator;
    private volatile boolean shuttingDown = false;
 
    boolean trace;
@@ -60,6 +96,14 @@ public void init(CommandsFactory commandsFactory, InvocationContextFactory icf,
       trace = log.isTraceEnabled();
    }
 
+   @Inject
+   public void injectClusteringLogic(ClusteringDependentLogic clusteringLogic, RpcManager rpcManager,
+                                     VersionGenerator versionGenerator) {
+      this.clusteringLogic = clusteringLogic;
+      this.rpcManager = rpcManager;
+      this.versionGenerator = versionGenerator;
+   }
+
    @Start(priority = 1)
    private void setStartStatus() {
       shuttingDown = false;
@@ -98,6 +142,13 @@ public PrepareCommand createPrepareCommand(GlobalTransaction gtx, List<WriteComm
             }
          };
       }
+      // Only the primary owner checks for write skew and only the owners acquire locks, so a transaction can be
+      // committed in one phase only when all its keys have a single owner.
+      ClusteringConfiguration clusteringCfg = configuration.clustering();
+      singleOwnerOnePhaseCommit = clusteringCfg.cacheMode().isDistributed() && clusteringCfg.cacheMode().isSynchronous()
+            && configuration.transaction().lockingMode() == LockingMode.OPTIMISTIC
+            && !configuration.transaction().transactionProtocol().isTotalOrder();
+      readOnlyCommitMode = configuration.transaction().readOnlyCommitMode();
    }
 
    public final int prepare(LocalTransaction localTransaction) throws XAException {
@@ -107,12 +158,18 @@ public final int prepare(LocalTransaction localTransaction) throws XAException {
    public final int prepare(LocalTransaction localTransaction, boolean replayEntryWrapping) throws XAException {
       validateNotMarkedForRollback(localTransaction);
 
+      if (isLocalReadOnlyCommit(localTransaction)) {
+         commitReadOnlyLocally(localTransaction);
+         return XA_RDONLY;
+      }
+
       if (isOnePhaseCommit(localTransaction)) {
          if (trace) log.tracef("Received prepare for tx: %s. Skipping call as 1PC will be used.", localTransaction);
          return XA_OK;
       }
 
-      PrepareCommand prepareCommand = commandCreator.createPrepareCommand(localTransaction.getGlobalTransaction(), localTransaction.getModifications(), false);
+      boolean commitInPrepare = isSingleOwnerImplicitTransaction(localTransaction);
+      PrepareCommand prepareCommand = commandCreator.createPrepareCommand(localTransaction.getGlobalTransaction(), localTransaction.getModifications(), commitInPrepare);
       if (trace) log.tracef("Sending prepare command through the chain: %s", prepareCommand);
 
       LocalTxInvocationContext ctx = icf.createTxInvocationContext(localTransaction);
@@ -124,6 +181,10 @@ public final int prepare(LocalTransaction localTransaction, boolean replayEntryW
             // force a cleanup to release any objects held.  Some TMs don't call commit if it is a READ ONLY tx.  See ISPN-845
             commitInternal(ctx);
             return XA_RDONLY;
+         } else if (commitInPrepare) {
+            // The commit only has to release the local resources
+            localTransaction.markCommittedInPrepare();
+            return XA_OK;
          } else {
             txTable.localTransactionPrepared(localTransaction);
             return XA_OK;
@@ -146,10 +207,19 @@ public final int prepare(LocalTransaction localTransaction, boolean replayEntryW
 
    public boolean commit(LocalTransaction localTransaction, boolean isOnePhase) throws XAException {
       if (trace) log.tracef("Committing transaction %s", localTransaction.getGlobalTransaction());
+      if (localTransaction.isCommittedInPrepare()) {
+         if (trace) log.tracef("Transaction %s was already committed in one phase", localTransaction.getGlobalTransaction());
+         return true;
+      }
       LocalTxInvocationContext ctx = icf.createTxInvocationContext(localTransaction);
       if (isOnePhaseCommit(localTransaction) || isOnePhase) {
          validateNotMarkedForRollback(localTransaction);
 
+         if (isLocalReadOnlyCommit(localTransaction)) {
+            commitReadOnlyLocally(localTransaction);
+            return true;
+         }
+
          if (trace) log.trace("Doing an 1PC prepare call on the interceptor chain");
          List<WriteCommand> modifications = localTransaction.getModifications();
          PrepareCommand command = commandCreator.createPrepareCommand(localTransaction.getGlobalTransaction(), modifications, true);
@@ -249,6 +319,121 @@ private static interface CommandCreator {
       PrepareCommand createPrepareCommand(GlobalTransaction gtx, List<WriteCommand> modifications, boolean onePhaseCommit);
    }
 
+   private boolean isLocalReadOnlyCommit(LocalTransaction localTransaction) {
+      // A transaction that acquired locks, even without writing, must release them on the owners
+      return readOnlyCommitMode != ReadOnlyCommitMode.DEFAULT && localTransaction.isReadOnly() &&
+            localTransaction.getAffectedKeys().isEmpty() && localTransaction.getLockedKeys().isEmpty() &&
+            localTransaction.getBackupLockedKeys().isEmpty() && localTransaction.getRemoteLocksAcquired().isEmpty();
+   }
+
+   /**
+    * Completes a read-only transaction without invoking the interceptor chain. Only the versions of the entries read
+    * may need an RPC, and only in {@link ReadOnlyCommitMode#VALIDATED} mode.
+    */
+   private void commitReadOnlyLocally(LocalTransaction localTransaction) throws XAException {
+      if (trace) log.tracef("Completing read-only transaction %s locally", localTransaction.getGlobalTransaction());
+      try {
+         if (readOnlyCommitMode == ReadOnlyCommitMode.VALIDATED) {
+            validateVersionsRead(localTransaction);
+         }
+      } catch (Throwable e) {
+         if (trace) log.tracef(e, "Read-only transaction %s read stale entries", localTransaction.getGlobalTransaction());
+         txTable.removeLocalTransaction(localTransaction);
+         XAException xe = new XAException(XAException.XA_RBROLLBACK);
+         xe.initCause(e);
+         throw xe;
+      }
+      txTable.removeLocalTransaction(localTransaction);
+      localTransaction.markCommittedInPrepare();
+   }
+
+   @SuppressWarnings("unchecked")
+   private void validateVersionsRead(LocalTransaction localTransaction) throws Throwable {
+      GlobalTransaction gtx = localTransaction.getGlobalTransaction();
+      EntryVersionsMap versionsRead = localTransaction.getVersionsRead();
+      if (versionsRead.isEmpty())
+         return;
+
+      List<Object> localKeys = new ArrayList<>();
+      Map<Address, List<Object>> remoteKeys = new HashMap<>();
+      for (Object key : versionsRead.keySet()) {
+         if (clusteringLogic.localNodeIsOwner(key)) {
+            localKeys.add(key);
+         } else {
+            remoteKeys.computeIfAbsent(clusteringLogic.getPrimaryOwner(key), owner -> new ArrayList<>()).add(key);
+         }
+      }
+
+      if (!localKeys.isEmpty()) {
+         GetAllCommand command = commandsFactory.buildGetAllCommand(localKeys, VALIDATION_FLAGS, true);
+         Map<Object, CacheEntry> entries = (Map<Object, CacheEntry>) invoker.invoke(icf.createNonTxInvocationContext(),
+               command);
+         for (Object key : localKeys) {
+            CacheEntry entry = entries.get(key);
+            validateVersion(gtx, key, versionsRead.get(key),
+                  entry != null && entry.getValue() != null ? entry.getMetadata() : null);
+         }
+      }
+
+      if (!remoteKeys.isEmpty()) {
+         Map<Address, ReplicableCommand> commands = new HashMap<>();
+         for (Map.Entry<Address, List<Object>> entry : remoteKeys.entrySet()) {
+            commands.put(entry.getKey(), commandsFactory.buildClusteredGetAllCommand(entry.getValue(), VALIDATION_FLAGS,
+                  null));
+         }
+         Map<Address, Response> responses = rpcManager.invokeRemotely(commands,
+               rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS, DeliverOrder.NONE).build());
+         for (Map.Entry<Address, List<Object>> entry : remoteKeys.entrySet()) {
+            Response response = responses.get(entry.getKey());
+            List<InternalCacheValue> values = response instanceof SuccessfulResponse ?
+                  (List<InternalCacheValue>) ((SuccessfulResponse) response).getResponseValue() : null;
+            if (values == null) {
+               throw new CacheException("Could not validate the versions read by transaction " + gtx + " on node " +
+                     entry.getKey() + ", response was " + response);
+            }
+            List<Object> keys = entry.getValue();
+            for (int i = 0; i < keys.size(); i++) {
+               InternalCacheValue value = values.get(i);
+               validateVersion(gtx, keys.get(i), versionsRead.get(keys.get(i)),
+                     value != null && value.getValue() != null ? value.getMetadata() : null);
+            }
+         }
+      }
+   }
+
+   private void validateVersion(GlobalTransaction gtx, Object key, EntryVersion versionRead, Metadata metadata) {
+      EntryVersion currentVersion = metadata != null && metadata.version() != null ?
+            metadata.version() : versionGenerator.nonExistingVersion();
+      if (versionRead.compareTo(currentVersion) != InequalVersionComparisonResult.EQUAL) {
+         throw new WriteSkewException("Key " + key + " was modified after it was read by read-only transaction " +
+               gtx.globalId(), key);
+      }
+   }
+
+   /**
+    * An implicit transaction has no other participants, so it can be committed during the prepare, and any failure is
+    * still reported as a prepare failure. If all the keys have the same single owner, the write skew check and the
+    * commit then only need one round trip to that owner: the originator sends 1 RPC instead of 3 (prepare, commit and
+    * completion notification).
+    * <p>
+    * Keys with backups are excluded: a backup applies a one phase prepare without knowing whether the lock acquisition
+    * and the write skew check succeeded on the primary owner. Committing them in one phase would need the primary owner
+    * to forward the prepare to the backups, and the originator would still wait for 2 sequential round trips, the same
+    * latency as the prepare and commit sent to all the owners in parallel.
+    */
+   private boolean isSingleOwnerImplicitTransaction(LocalTransaction localTransaction) {
+      if (!singleOwnerOnePhaseCommit || !localTransaction.isImplicitTransaction() || localTransaction.isReadOnly())
+         return false;
+
+      // The affected keys of an optimistic transaction are only registered during the prepare
+      Set<Object> affectedKeys = new HashSet<>();
+      for (WriteCommand modification : localTransaction.getModifications()) {
+         affectedKeys.addAll(modification.getAffectedKeys());
+      }
+      Collection<?> owners = clusteringLogic.getOwners(filterDeltaCompositeKeys(affectedKeys));
+      return owners != null && owners.size() == 1;
+   }
+
    private boolean isOnePhaseCommit(LocalTransaction localTransaction) {
       return Configurations.isOnePhaseCommit(configuration) || is1PcForAutoCommitTransaction(localTransaction) ||
             Configurations.isOnePhaseTotalOrderCommit(configuration);
@@ -46,7 +46,6 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -57,6 +56,7 @@
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
@@ -160,7 +160,7 @@ public void start() {
 
             // Periodically run a task to cleanup the transaction table of completed transactions.
             long interval = configuration.transaction().reaperWakeUpInterval();
-            timeoutExecutor.scheduleAtFixedRate(() -> completedTransactionsInfo.cleanupCompletedTransactions(),
+            timeoutExecutor.scheduleAtFixedRate(this::cleanupCompletedTransactions,
                                                 interval, interval, TimeUnit.MILLISECONDS);
             timeoutExecutor.scheduleAtFixedRate(this::cleanupTimedOutTransactions,
                                                 interval, interval, TimeUnit.MILLISECONDS);
@@ -521,6 +521,8 @@ public void onTopologyChange(TopologyChangedEvent<?, ?> tce) {
    public void onViewChange(final ViewChangedEvent e) {
          timeoutExecutor.submit((Callable<Void>) () -> {
             cleanupLeaverTransactions(e.getNewMembers());
+            // Drop the expired completed transactions of the leavers right away
+            cleanupCompletedTransactions();
             return null;
          });
    }
@@ -650,6 +652,18 @@ public boolean isTransactionCompleted(GlobalTransaction gtx) {
 
    }
 
+   /**
+    * Removes the completed transactions older than the completed transaction timeout, and the completed transactions
+    * of the originators that left the cluster once all of theirs are removed. Invoked periodically and on view changes.
+    *
+    * @see #markTransactionCompleted(org.infinispan.transaction.xa.GlobalTransaction, boolean)
+    */
+   public void cleanupCompletedTransactions() {
+      if (completedTransactionsInfo != null) {
+         completedTransactionsInfo.cleanupCompletedTransactions();
+      }
+   }
+
    /**
     * @see #markTransactionCompleted(org.infinispan.transaction.xa.GlobalTransaction, boolean)
     */
@@ -660,16 +674,23 @@ public CompletedTransactionStatus getCompletedTransactionStatus(GlobalTransactio
       return completedTransactionsInfo.getTransactionStatus(gtx);
    }
 
+   /**
+    * Keeps track of the completed transactions, per originator.
+    * <p>
+    * Transaction ids are allocated in sequence by each originator, so instead of one map entry per transaction, the
+    * completed transactions are stored in {@link CompletedTransactionsBlock}s of 64 consecutive ids, with one bit per
+    * transaction. When all the transactions in a block are older than the completed transaction timeout, the block is
+    * removed and the highest transaction id it contained becomes the originator's watermark: any transaction with a
+    * smaller or equal id is considered completed. The memory used is bounded by the number of transactions started in
+    * the timeout interval divided by 64, and lookups are two map lookups and a bit test.
+    */
    private class CompletedTransactionsInfo {
-      final EquivalentConcurrentHashMapV8<GlobalTransaction, CompletedTransactionInfo> completedTransactions;
-      // The highest transaction id previously cleared, one per originator
-      final EquivalentConcurrentHashMapV8<Address, Long> nodeMaxPrunedTxIds;
+      final EquivalentConcurrentHashMapV8<Address, NodeCompletedTransactions> nodeCompletedTransactions;
       // The highest transaction id previously cleared, with any originator
       volatile long globalMaxPrunedTxId;
 
       public CompletedTransactionsInfo() {
-         nodeMaxPrunedTxIds = new EquivalentConcurrentHashMapV8<>(AnyEquivalence.getInstance(), AnyEquivalence.getInstance());
-         completedTransactions = new EquivalentConcurrentHashMapV8<>(AnyEquivalence.getInstance(), AnyEquivalence.getInstance());
+         nodeCompletedTransactions = new EquivalentConcurrentHashMapV8<>(AnyEquivalence.getInstance(), AnyEquivalence.getInstance());
          globalMaxPrunedTxId = -1;
       }
 
@@ -681,124 +702,178 @@ public CompletedTransactionsInfo() {
        */
       public void markTransactionCompleted(GlobalTransaction globalTx, boolean successful) {
          if (trace) log.tracef("Marking transaction %s as completed", globalTx);
-         completedTransactions.put(globalTx, new CompletedTransactionInfo(timeService.time(), successful));
+         long now = timeService.time();
+         NodeCompletedTransactions node;
+         do {
+            node = nodeCompletedTransactions.computeIfAbsent(globalTx.getAddress(), a -> new NodeCompletedTransactions());
+            node.markCompleted(globalTx.getId(), successful, now);
+            // The originator left the cluster and its transactions were removed concurrently, retry
+         } while (node.removed);
       }
 
       /**
        * @see #markTransactionCompleted(GlobalTransaction, boolean)
        */
       public boolean isTransactionCompleted(GlobalTransaction gtx) {
-         if (completedTransactions.containsKey(gtx))
-            return true;
-
-         // Transaction ids are allocated in sequence, so any transaction with a smaller id must have been started
-         // before a transaction that was already removed from the completed transactions map because it was too old.
-         // We assume that the transaction was either committed, or it was rolled back (e.g. because the prepare
-         // RPC timed out.
-         // Note: We must check the id *after* verifying that the tx doesn't exist in the map.
-         if (gtx.getId() > globalMaxPrunedTxId)
-            return false;
-         Long nodeMaxPrunedTxId = nodeMaxPrunedTxIds.get(gtx.getAddress());
-         return nodeMaxPrunedTxId != null && gtx.getId() <= nodeMaxPrunedTxId;
+         return getTransactionStatus(gtx) != CompletedTransactionStatus.NOT_COMPLETED;
       }
 
       public CompletedTransactionStatus getTransactionStatus(GlobalTransaction gtx) {
-         CompletedTransactionInfo completedTx = completedTransactions.get(gtx);
-         if (completedTx != null) {
-            return completedTx.successful ? CompletedTransactionStatus.COMMITTED : CompletedTransactionStatus.ABORTED;
+         NodeCompletedTransactions node = nodeCompletedTransactions.get(gtx.getAddress());
+         if (node == null) {
+            // We haven't removed any transaction for this node
+            return CompletedTransactionStatus.NOT_COMPLETED;
+         }
+         CompletedTransactionStatus status = node.getStatus(gtx.getId());
+         if (status != null) {
+            return status;
          }
 
          // Transaction ids are allocated in sequence, so any transaction with a smaller id must have been started
-         // before a transaction that was already removed from the completed transactions map because it was too old.
+         // before a transaction that was already removed from the completed transactions because it was too old.
          // We assume that the transaction was either committed, or it was rolled back (e.g. because the prepare
          // RPC timed out.
-         // Note: We must check the id *after* verifying that the tx doesn't exist in the map.
-         if (gtx.getId() > globalMaxPrunedTxId)
-            return CompletedTransactionStatus.NOT_COMPLETED;
-         Long nodeMaxPrunedTxId = nodeMaxPrunedTxIds.get(gtx.getAddress());
-         if (nodeMaxPrunedTxId == null) {
-            // We haven't removed any transaction for this node
-            return CompletedTransactionStatus.NOT_COMPLETED;
-         } else if (gtx.getId() > nodeMaxPrunedTxId) {
+         // Note: We must check the id *after* verifying that the tx is not in its block.
+         if (gtx.getId() > globalMaxPrunedTxId || gtx.getId() > node.maxPrunedTxId) {
             // We haven't removed this particular transaction yet
             return CompletedTransactionStatus.NOT_COMPLETED;
          } else {
-            // We already removed the status of this transaction from the completed transactions map
+            // We already removed the status of this transaction from the completed transactions
             return CompletedTransactionStatus.EXPIRED;
          }
       }
 
-      public void cleanupCompletedTransactions() {
-         if (completedTransactions.isEmpty())
+      // Synchronized because the periodic cleanup and the view change cleanup can overlap
+      public synchronized void cleanupCompletedTransactions() {
+         if (nodeCompletedTransactions.isEmpty())
             return;
 
          try {
-            if (trace) log.tracef("About to cleanup completed transaction. Initial size is %d", completedTransactions.size());
+            if (trace) log.tracef("About to cleanup completed transactions of %d nodes", nodeCompletedTransactions.size());
             long beginning = timeService.time();
             long minCompleteTimestamp = timeService.time() - TimeUnit.MILLISECONDS.toNanos(configuration.transaction().completedTxTimeout());
             int removedEntries = 0;
-
-            // Collect the leavers. They will be removed at the end.
-            Set<Address> leavers = new HashSet<>();
-            for (Map.Entry<Address, Long> e : nodeMaxPrunedTxIds.entrySet()) {
-               if (!rpcManager.getMembers().contains(e.getKey())) {
-                  leavers.add(e.getKey());
+            List<Address> members = rpcManager.getMembers();
+
+            for (Map.Entry<Address, NodeCompletedTransactions> e : nodeCompletedTransactions.entrySet()) {
+               NodeCompletedTransactions node = e.getValue();
+               // Remove stale completed transactions.
+               for (Map.Entry<Long, CompletedTransactionsBlock> blockEntry : node.blocks.entrySet()) {
+                  CompletedTransactionsBlock block = blockEntry.getValue();
+                  if (minCompleteTimestamp - block.lastCompletedTime > 0) {
+                     block.pruned = true;
+                     long completed = block.completed;
+                     if (completed != 0) {
+                        // Need to update maxPrunedTxId *before* removing the block
+                        // Don't need atomic operations, there can't be more than one thread updating it.
+                        long txId = (blockEntry.getKey() << 6) + 63 - Long.numberOfLeadingZeros(completed);
+                        updateLastPrunedTxId(txId, node);
+                        removedEntries += Long.bitCount(completed);
+                     }
+                     node.blocks.remove(blockEntry.getKey(), block);
+                  }
                }
-            }
 
-            // Remove stale completed transactions.
-            Iterator<Map.Entry<GlobalTransaction, CompletedTransactionInfo>> txIterator = completedTransactions.entrySet().iterator();
-            while (txIterator.hasNext()) {
-               Map.Entry<GlobalTransaction, CompletedTransactionInfo> e = txIterator.next();
-               CompletedTransactionInfo completedTx = e.getValue();
-               if (minCompleteTimestamp - completedTx.timestamp > 0) {
-                  // Need to update lastPrunedTxId *before* removing the tx from the map
-                  // Don't need atomic operations, there can't be more than one thread updating lastPrunedTxId.
-                  final long txId = e.getKey().getId();
-                  final Address address = e.getKey().getAddress();
-                  updateLastPrunedTxId(txId, address);
-
-                  txIterator.remove();
-                  removedEntries++;
-               } else {
-                  // Nodes with "active" completed transactions are not removed..
-                  leavers.remove(e.getKey().getAddress());
+               // Finally, remove nodes that are no longer members and don't have any "active" completed transactions.
+               if (node.blocks.isEmpty() && !members.contains(e.getKey())) {
+                  node.removed = true;
+                  if (node.blocks.isEmpty()) {
+                     nodeCompletedTransactions.remove(e.getKey(), node);
+                  } else {
+                     node.removed = false;
+                  }
                }
             }
 
-            // Finally, remove nodes that are no longer members and don't have any "active" completed transactions.
-            leavers.forEach(nodeMaxPrunedTxIds::remove);
-
             long duration = timeService.timeDuration(beginning, TimeUnit.MILLISECONDS);
 
-            if (trace) log.tracef("Finished cleaning up completed transactions in %d millis, %d transactions were removed, " +
-                  "current number of completed transactions is %d",
-                  removedEntries, duration, completedTransactions.size());
-            if (trace) log.tracef("Last pruned transaction ids were updated: %d, %s", globalMaxPrunedTxId, nodeMaxPrunedTxIds);
+            if (trace) log.tracef("Finished cleaning up completed transactions in %d millis, %d transactions were removed",
+                  duration, removedEntries);
+            if (trace) log.tracef("Last pruned transaction id was updated: %d", globalMaxPrunedTxId);
          } catch (Exception e) {
             log.errorf(e, "Failed to cleanup completed transactions: %s", e.getMessage());
          }
       }
 
-      private void updateLastPrunedTxId(final long txId, Address address) {
+      private void updateLastPrunedTxId(final long txId, NodeCompletedTransactions node) {
          if (txId > globalMaxPrunedTxId) {
             globalMaxPrunedTxId = txId;
          }
-         nodeMaxPrunedTxIds.compute(address, (a, nodeMaxPrunedTxId) -> {
-            if (nodeMaxPrunedTxId != null && txId <= nodeMaxPrunedTxId) {
-               return nodeMaxPrunedTxId;
+         if (txId > node.maxPrunedTxId) {
+            node.maxPrunedTxId = txId;
+         }
+      }
+   }
+
+   /**
+    * The completed transactions started by one originator.
+    */
+   private static class NodeCompletedTransactions {
+      final ConcurrentMap<Long, CompletedTransactionsBlock> blocks = CollectionFactory.makeConcurrentMap();
+      // The highest transaction id previously cleared
+      volatile long maxPrunedTxId = Long.MIN_VALUE;
+      // Set when the originator left the cluster and this instance is removed
+      volatile boolean removed;
+
+      void markCompleted(long txId, boolean successful, long now) {
+         long blockIndex = txId >> 6;
+         CompletedTransactionsBlock block;
+         do {
+            block = blocks.computeIfAbsent(blockIndex, i -> new CompletedTransactionsBlock(now));
+            block.mark((int) (txId & 63), successful, now);
+            if (!block.pruned) {
+               return;
             }
-            return txId;
-         });
+            // The block was pruned concurrently, add the transaction to a new block
+            blocks.remove(blockIndex, block);
+         } while (true);
+      }
+
+      /**
+       * @return the status of the transaction, or {@code null} if it is not in its block.
+       */
+      CompletedTransactionStatus getStatus(long txId) {
+         CompletedTransactionsBlock block = blocks.get(txId >> 6);
+         if (block == null) {
+            return null;
+         }
+         long mask = 1L << (txId & 63);
+         if ((block.completed & mask) == 0) {
+            return null;
+         }
+         // The committed bit is updated before the completed bit
+         return (block.committed & mask) != 0 ? CompletedTransactionStatus.COMMITTED : CompletedTransactionStatus.ABORTED;
       }
    }
-   private static class CompletedTransactionInfo {
-      public final long timestamp;
-      public final boolean successful;
 
-      private CompletedTransactionInfo(long timestamp, boolean successful) {
-         this.timestamp = timestamp;
-         this.successful = successful;
+   /**
+    * The completed transactions of 64 consecutive transaction ids, with one bit per transaction.
+    */
+   private static class CompletedTransactionsBlock {
+      private static final AtomicLongFieldUpdater<CompletedTransactionsBlock> COMPLETED_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(CompletedTransactionsBlock.class, "completed");
+      private static final AtomicLongFieldUpdater<CompletedTransactionsBlock> COMMITTED_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(CompletedTransactionsBlock.class, "committed");
+
+      volatile long completed;
+      volatile long committed;
+      volatile long lastCompletedTime;
+      volatile boolean pruned;
+
+      CompletedTransactionsBlock(long now) {
+         this.lastCompletedTime = now;
+      }
+
+      void mark(int bit, boolean successful, long now) {
+         lastCompletedTime = now;
+         long mask = 1L << bit;
+         long value;
+         do {
+            value = committed;
+         } while (!COMMITTED_UPDATER.compareAndSet(this, value, successful ? value | mask : value & ~mask));
+         do {
+            value = completed;
+         } while ((value & mask) == 0 && !COMPLETED_UPDATER.compareAndSet(this, value, value | mask));
       }
    }
 }
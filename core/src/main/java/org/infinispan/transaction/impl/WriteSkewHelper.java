@@ -37,32 +37,12 @@ public static EntryVersionsMap performWriteSkewCheckAndReturnNewVersions(Version
                                                                             VersionGenerator versionGenerator,
                                                                             TxInvocationContext context,
                                                                             KeySpecificLogic ksl, TimeService timeService) {
-      EntryVersionsMap uv = new EntryVersionsMap();
       if (prepareCommand.getVersionsSeen() == null) {
          // Do not perform the write skew check if this prepare command is being replayed for state transfer
-         return uv;
+         return new EntryVersionsMap();
       }
-
-      for (WriteCommand c : prepareCommand.getModifications()) {
-         for (Object k : c.getAffectedKeys()) {
-            if (ksl.performCheckOnKey(k)) {
-               ClusteredRepeatableReadEntry entry = (ClusteredRepeatableReadEntry) context.lookupEntry(k);
-
-               if (entry.performWriteSkewCheck(dataContainer, persistenceManager, context,
-                                               prepareCommand.getVersionsSeen().get(k), versionGenerator, timeService)) {
-                  IncrementableEntryVersion newVersion = entry.isCreated()
-                        ? versionGenerator.generateNew()
-                        : versionGenerator.increment((IncrementableEntryVersion) entry.getMetadata().version());
-                  uv.put(k, newVersion);
-               } else {
-                  // Write skew check detected!
-                  throw new WriteSkewException("Write skew detected on key " + k + " for transaction " +
-                                                     context.getTransaction(), k);
-               }
-            }
-         }
-      }
-      return uv;
+      return checkAllKeys(prepareCommand, dataContainer, persistenceManager, versionGenerator, context, ksl,
+                          timeService, true);
    }
 
    public static EntryVersionsMap performTotalOrderWriteSkewCheckAndReturnNewVersions(VersionedPrepareCommand prepareCommand,
@@ -72,27 +52,59 @@ public static EntryVersionsMap performTotalOrderWriteSkewCheckAndReturnNewVersio
                                                                                       TxInvocationContext context,
                                                                                       KeySpecificLogic ksl,
                                                                                       TimeService timeService) {
-      EntryVersionsMap uv = new EntryVersionsMap();
-      for (WriteCommand c : prepareCommand.getModifications()) {
-         for (Object k : c.getAffectedKeys()) {
-            if (ksl.performCheckOnKey(k)) {
-               ClusteredRepeatableReadEntry entry = (ClusteredRepeatableReadEntry) context.lookupEntry(k);
+      //in total order, it does not care about the version returned. It just need the keys validated
+      return checkAllKeys(prepareCommand, dataContainer, persistenceManager, versionGenerator, context, ksl,
+                          timeService, false);
+   }
 
-               if (entry.performWriteSkewCheck(dataContainer, persistenceManager, context,
-                                               prepareCommand.getVersionsSeen().get(k), versionGenerator, timeService)) {
-                  //in total order, it does not care about the version returned. It just need the keys validated
-                  uv.put(k, null);
-               } else {
-                  // Write skew check detected!
-                  throw new WriteSkewException("Write skew detected on key " + k + " for transaction " +
-                                                     context.getTransaction(), k);
-               }
+   /**
+    * Checks all the keys modified by the transaction and owned by this node in a single pass.
+    * <p/>
+    * A key modified by several commands is checked only once, and the versions map is sized for all the keys upfront,
+    * so large transactions don't pay for the rehashing of the map.
+    */
+   private static EntryVersionsMap checkAllKeys(VersionedPrepareCommand prepareCommand, DataContainer dataContainer,
+                                                PersistenceManager persistenceManager,
+                                                VersionGenerator versionGenerator, TxInvocationContext context,
+                                                KeySpecificLogic ksl, TimeService timeService,
+                                                boolean generateVersions) {
+      WriteCommand[] modifications = prepareCommand.getModifications();
+      EntryVersionsMap versionsSeen = prepareCommand.getVersionsSeen();
+      int numKeys = 0;
+      for (WriteCommand c : modifications) {
+         numKeys += c.getAffectedKeys().size();
+      }
+      EntryVersionsMap uv = new EntryVersionsMap(capacityFor(numKeys));
+      for (WriteCommand c : modifications) {
+         for (Object k : c.getAffectedKeys()) {
+            if (uv.containsKey(k) || !ksl.performCheckOnKey(k)) {
+               continue;
+            }
+            ClusteredRepeatableReadEntry entry = (ClusteredRepeatableReadEntry) context.lookupEntry(k);
+            if (!entry.performWriteSkewCheck(dataContainer, persistenceManager, context,
+                                             versionsSeen == null ? null : versionsSeen.get(k), versionGenerator,
+                                             timeService)) {
+               // Write skew check detected!
+               throw new WriteSkewException("Write skew detected on key " + k + " for transaction " +
+                                                  context.getTransaction(), k);
             }
+            IncrementableEntryVersion newVersion = null;
+            if (generateVersions) {
+               newVersion = entry.isCreated()
+                     ? versionGenerator.generateNew()
+                     : versionGenerator.increment((IncrementableEntryVersion) entry.getMetadata().version());
+            }
+            uv.put(k, newVersion);
          }
       }
       return uv;
    }
-   
+
+   private static int capacityFor(int keys) {
+      //HashMap resizes when it is 75% full
+      return keys < 3 ? keys + 1 : (int) (keys / 0.75f + 1);
+   }
+
    public static interface KeySpecificLogic {
       boolean performCheckOnKey(Object key);
    }
@@ -12,6 +12,7 @@
 import org.infinispan.topology.LocalTopologyManagerImpl;
 import org.infinispan.topology.PersistentUUID;
 import org.infinispan.topology.ManagerStatusResponse;
+import org.infinispan.topology.NodeLoad;
 import org.infinispan.topology.RebalancingStatus;
 
 /**
@@ -46,6 +47,11 @@ public final void confirmRebalance(String cacheName, int topologyId, int rebalan
       delegate.confirmRebalance(cacheName, topologyId, rebalanceId, throwable);
    }
 
+   @Override
+   public final void reportLoad(String cacheName, NodeLoad load) {
+      delegate.reportLoad(cacheName, load);
+   }
+
    @Override
    public final ManagerStatusResponse handleStatusRequest(int viewId) {
       return delegate.handleStatusRequest(viewId);
@@ -1,46 +1,90 @@
 package org.infinispan.util.concurrent.locks;
 
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.control.DeadlockProbeCommand;
+import org.infinispan.commons.util.ByRef;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.transaction.impl.AbstractCacheTransaction;
+import org.infinispan.transaction.impl.TransactionTable;
 import org.infinispan.transaction.xa.DldGlobalTransaction;
+import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.locks.impl.DefaultLockManager;
+import org.infinispan.util.concurrent.locks.impl.DefaultPendingLockManager;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.concurrent.ScheduledFuture;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Lock manager in charge with processing deadlock detections.
  * </p>
- * Implementation notes: if a deadlock is detected, then one of the transactions has to rollback. The transaction that
- * rollbacks is determined by comparing the coin toss from {@link org.infinispan.transaction.xa.DldGlobalTransaction}.
+ * Implementation notes: it keeps a wait-for graph of the lock owners waiting in this node. The graph is updated by
+ * the {@link org.infinispan.util.concurrent.locks.impl.InfinispanLock} and the {@link PendingLockManager} every time
+ * a lock owner has to wait for another one, and it is searched for a cycle back to the waiting lock owner right away.
+ * When a lock is handed to a new owner, the graph is searched once from the new owner for a cycle back to any of the
+ * lock owners still waiting for the lock. A deadlock is broken as soon as it is formed, instead of when the lock
+ * acquisition times out.
  * </p>
- * A thread calling {@link #lock(Object, Object, long, TimeUnit)} or {@link #lockAll(Collection, Object, long, TimeUnit)}
- * would run the deadlock detection algorithm only if all of the following take place:
- * - the call is made in the scope of a transaction (either locally originated or remotely originated)
- * - it cannot acquire lock on the given key and the lock owner is another transaction
- * - when comparing coin toss, this thread would loose against the other one - so it's always the potential loser that runs DLD.
- * If deadlock is detected then a {@link org.infinispan.util.concurrent.locks.DeadlockDetectedException} is thrown.
- * This is subsequently handled in the interceptor chain - locks owned by this tx are released.
+ * In clustered caches a transaction can also wait for locks in other nodes. If a lock owner is still waiting after
+ * {@code deadlockDetection().spinDuration()}, the path followed in the local graph is sent in a
+ * {@link DeadlockProbeCommand} to the nodes where its last lock owner can be waiting: the owners of the keys of its
+ * transaction and its originator, which knows all the keys of the transaction. They continue the search with their
+ * own graph. The probe is repeated, with an exponential back-off, while the lock owner is waiting, and a node drops
+ * the copies of a probe it received less than {@code spinDuration} ago.
+ * </p>
+ * If a deadlock is detected, then one of the transactions has to rollback. The victim is the transaction with the
+ * lowest coin toss from {@link org.infinispan.transaction.xa.DldGlobalTransaction}, so all the nodes that find the
+ * same cycle pick the same victim. Its lock request is canceled and a {@link DeadlockDetectedException} is thrown.
+ * This is subsequently handled in the interceptor chain - locks owned by this tx are released. Lock owners that are
+ * not a {@link DldGlobalTransaction} are not tracked.
  *
  * @author Mircea.Markus@jboss.com
  */
 @MBean(objectName = "DeadlockDetectingLockManager", description = "Information about the number of deadlocks that were detected")
-public class DeadlockDetectingLockManager extends DefaultLockManager implements DeadlockChecker, Runnable {
+public class DeadlockDetectingLockManager extends DefaultLockManager implements LockWaitListener {
 
    private static final Log log = LogFactory.getLog(DeadlockDetectingLockManager.class);
    private static final boolean trace = log.isTraceEnabled();
+   private static final int MAX_PATH_LENGTH = 32;
+   private static final int MAX_PROBE_BACKOFF = 6;
+   //the received probes are purged when there are more than this
+   private static final int MAX_SEEN_PROBES = 1024;
+
+   //waiting lock owner => (lock request or pending transaction future => wait)
+   private final ConcurrentMap<Object, Map<Object, Wait>> waits = new ConcurrentHashMap<>();
+   //path of a received probe => time it was received
+   private final ConcurrentMap<List<Object>, Long> seenProbes = new ConcurrentHashMap<>();
 
-   private ScheduledFuture<?> scheduledFuture;
+   private PendingLockManager pendingLockManager;
+   private RpcManager rpcManager;
+   private CommandsFactory commandsFactory;
+   private TransactionTable transactionTable;
+   private DistributionManager distributionManager;
+   private TimeService probeTimeService;
+   private long probeDelay;
 
    protected volatile boolean exposeJmxStats;
 
@@ -50,120 +94,386 @@ public class DeadlockDetectingLockManager extends DefaultLockManager implements
 
    private AtomicLong cannotRunDld = new AtomicLong(0);
 
+   @Inject
+   public void injectDeadlockDetection(PendingLockManager pendingLockManager, RpcManager rpcManager,
+                                       CommandsFactory commandsFactory, TransactionTable transactionTable,
+                                       DistributionManager distributionManager, TimeService timeService) {
+      this.pendingLockManager = pendingLockManager;
+      this.rpcManager = rpcManager;
+      this.commandsFactory = commandsFactory;
+      this.transactionTable = transactionTable;
+      this.distributionManager = distributionManager;
+      this.probeTimeService = timeService;
+   }
+
    @Start
    public void init() {
-      long spinDuration = configuration.deadlockDetection().spinDuration();
+      probeDelay = configuration.deadlockDetection().spinDuration();
       exposeJmxStats = configuration.jmxStatistics().enabled();
-      scheduledFuture = scheduler.scheduleWithFixedDelay(this, spinDuration, spinDuration, TimeUnit.MILLISECONDS);
+      lockContainer.setLockWaitListener(this);
+      if (pendingLockManager instanceof DefaultPendingLockManager) {
+         ((DefaultPendingLockManager) pendingLockManager).setLockWaitListener(this);
+      }
    }
 
    @Stop
-   public void stopScheduler() {
-      if (scheduledFuture != null) {
-         scheduledFuture.cancel(false);
-         scheduledFuture = null;
+   public void stop() {
+      lockContainer.setLockWaitListener(null);
+      if (pendingLockManager instanceof DefaultPendingLockManager) {
+         ((DefaultPendingLockManager) pendingLockManager).setLockWaitListener(null);
       }
+      waits.clear();
+      seenProbes.clear();
    }
 
    @Override
-   public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit) {
-      if (lockOwner instanceof DldGlobalTransaction) {
-         ((DldGlobalTransaction) lockOwner).setLockIntention(Collections.singleton(key));
-         return super.lock(key, lockOwner, time, unit);
+   public void onLockWait(ExtendedLockPromise request) {
+      if (addLockWait(request)) {
+         //the lock owner changes every time, so the search is repeated even if the request was already known.
+         findDeadlock(request.getRequestor(), false);
       }
-      return super.lock(key, lockOwner, time, unit);
    }
 
    @Override
-   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
-      if (lockOwner instanceof DldGlobalTransaction) {
-         ((DldGlobalTransaction) lockOwner).setLockIntention(new HashSet<>(keys));
-         return super.lockAll(keys, lockOwner, time, unit);
+   public void onLockOwnerChanged(Collection<? extends ExtendedLockPromise> requests) {
+      //a new cycle has to go through the new lock owner, so it is searched once for all the waiting lock owners
+      Map<Object, Set<Object>> waitersByHolder = new HashMap<>();
+      for (ExtendedLockPromise request : requests) {
+         Object holder = request.getOwner();
+         if (addLockWait(request)) {
+            waitersByHolder.computeIfAbsent(holder, ignored -> new HashSet<>()).add(request.getRequestor());
+         }
       }
-      return super.lockAll(keys, lockOwner, time, unit);
+      waitersByHolder.forEach(this::findDeadlockThrough);
    }
 
-   @Override
-   public void run() {
-      lockContainer.deadlockCheck(this);
+   /**
+    * Adds the lock request to the wait-for graph.
+    *
+    * @return {@code true} if the lock request waits for another lock owner and both of them are tracked.
+    */
+   private boolean addLockWait(ExtendedLockPromise request) {
+      Object waiter = request.getRequestor();
+      Object holder = request.getOwner();
+      if (holder == null || holder.equals(waiter)) {
+         return false;
+      }
+      if (!(waiter instanceof DldGlobalTransaction) || !(holder instanceof DldGlobalTransaction)) {
+         if (trace) {
+            log.tracef("Unable to run DLD with %s and %s. One of them are not a DldGlobalTransaction.",
+                       waiter, holder);
+         }
+         cannotRunDld.incrementAndGet();
+         return false;
+      }
+      if (trace) {
+         log.tracef("%s is waiting for lock owned by %s", waiter, holder);
+      }
+      if (addWait(waiter, request, new Wait(waiter, request, null))) {
+         request.addListener(state -> removeWait(waiter, request));
+      }
+      return true;
    }
 
-   private boolean isDeadlockAndIAmLoosing(DldGlobalTransaction lockOwnerTx, DldGlobalTransaction thisTx) {
-      //run the lose check first as it is cheaper
-      boolean wouldWeLoose = thisTx.wouldLose(lockOwnerTx);
-      if (!wouldWeLoose) {
-         if (trace)
-            log.tracef("We (%s) win against the other (%s) transaction, so no point running rest of DLD", thisTx, lockOwnerTx);
-         return false;
+   @Override
+   public void onPendingTransactionWait(Object waiter, Object holder, CompletableFuture<?> waitCompleted) {
+      if (!(waiter instanceof DldGlobalTransaction) || !(holder instanceof DldGlobalTransaction)) {
+         cannotRunDld.incrementAndGet();
+         return;
+      }
+      if (trace) {
+         log.tracef("%s is waiting for pending transaction %s", waiter, holder);
+      }
+      if (addWait(waiter, waitCompleted, new Wait(waiter, null, holder))) {
+         waitCompleted.thenRun(() -> removeWait(waiter, waitCompleted));
+         findDeadlock(waiter, false);
       }
-      //do we have lock on what other tx intends to acquire?
-      return ownsAnyLocalIntention(thisTx, lockOwnerTx) || ownsRemoteIntention(lockOwnerTx, thisTx) || isSameKeyDeadlock(thisTx, lockOwnerTx);
    }
 
-   private boolean isSameKeyDeadlock(DldGlobalTransaction thisTx, DldGlobalTransaction lockOwnerTx) {
-      boolean iHaveRemoteLock = !thisTx.isRemote(); //this relies on the fact that when DLD is enabled a lock is first acquired remotely and then locally
-      boolean otherHasLocalLock = lockOwnerTx.isRemote();
+   /**
+    * Continues the search for a deadlock started in another node, see {@link DeadlockProbeCommand}.
+    *
+    * @param path the chain of lock owners followed so far, each one waiting for the next one.
+    */
+   public void probe(List<Object> path) {
+      if (trace) {
+         log.tracef("Received deadlock probe %s", path);
+      }
+      if (path.isEmpty()) {
+         return;
+      }
+      if (!firstProbe(path)) {
+         if (trace) {
+            log.tracef("Dropping deadlock probe %s, it was already received", path);
+         }
+         return;
+      }
+      Object last = path.get(path.size() - 1);
+      if (!search(new ArrayList<>(path), new HashSet<>(path), Collections.singleton(path.get(0)), true) &&
+            !waits.containsKey(last) && isOriginator(last)) {
+         //the last lock owner is waiting in another node, and only its originator knows all its keys
+         sendProbe(path, false);
+      }
+   }
 
-      //if we are here then 1) the other tx has a lock on this local key AND 2) I have a lock on the same key remotely
-      if (iHaveRemoteLock && otherHasLocalLock) {
-         if (trace) log.tracef("Same key deadlock between %s and %s.", thisTx, lockOwnerTx);
-         return true;
+   /**
+    * Cancels the lock requests of {@code victim} waiting for {@code holder} in this node, or asks the nodes where it can
+    * be waiting to cancel them if this node is its originator. See {@link DeadlockProbeCommand}.
+    */
+   public void resolveRemoteDeadlock(Object victim, Object holder) {
+      if (!resolveDeadlock(victim, holder) && isOriginator(victim)) {
+         sendProbe(Arrays.asList(victim, holder), true);
       }
-      return false;
    }
 
    /**
-    * This happens with two nodes replicating same tx at the same time.
+    * Cancels the lock requests of {@code victim} waiting for {@code holder} in this node.
+    *
+    * @return {@code true} if any lock request was canceled.
     */
-   private boolean ownsRemoteIntention(DldGlobalTransaction lockOwnerTx, DldGlobalTransaction thisTx) {
-      boolean localLockOwner = !lockOwnerTx.isRemote();
-      if (localLockOwner) {
-         // I've already acquired lock on this key before replicating here, so this mean we are in deadlock. This assumes the fact that
-         // if trying to acquire a remote lock, a tx first acquires a local lock.
-         if (thisTx.hasAnyLockAtOrigin(lockOwnerTx)) {
-            if (trace)
-               log.trace("Same key deadlock detected: lock owner tries to acquire a lock remotely but we have it!");
-            return true;
+   public synchronized boolean resolveDeadlock(Object victim, Object holder) {
+      Map<Object, Wait> victimWaits = waits.get(victim);
+      if (victimWaits == null) {
+         return false;
+      }
+      boolean canceled = false;
+      for (Wait wait : victimWaits.values()) {
+         if (holder.equals(wait.getHolder()) && wait.cancel()) {
+            if (trace) {
+               log.tracef("Deadlock found and %s shall not continue. Other tx is %s", victim, holder);
+            }
+            updateStats((DldGlobalTransaction) wait.waiter);
+            canceled = true;
          }
-      } else {
-         if (trace) log.tracef("Lock owner is remote: %s", lockOwnerTx);
       }
-      return false;
+      return canceled;
    }
 
-   private boolean ownsAnyLocalIntention(DldGlobalTransaction thisTx, DldGlobalTransaction otherTx) {
-      for (Object key : otherTx.getLockIntention()) {
-         if (ownsLock(key, thisTx)) {
-            if (trace) log.tracef("Local intention is '%s' and we (%s) own the lock.", key, thisTx);
+   private boolean addWait(Object waiter, Object waitId, Wait wait) {
+      ByRef.Boolean added = new ByRef.Boolean(false);
+      waits.compute(waiter, (ignoredKey, waiterWaits) -> {
+         if (waiterWaits == null) {
+            waiterWaits = new ConcurrentHashMap<>();
+         }
+         added.set(waiterWaits.putIfAbsent(waitId, wait) == null);
+         return waiterWaits;
+      });
+      if (added.get()) {
+         scheduleProbe(waiter, waitId, 0);
+      }
+      return added.get();
+   }
+
+   private void removeWait(Object waiter, Object waitId) {
+      waits.computeIfPresent(waiter, (ignoredKey, waiterWaits) -> {
+         waiterWaits.remove(waitId);
+         return waiterWaits.isEmpty() ? null : waiterWaits;
+      });
+   }
+
+   private void findDeadlock(Object waiter, boolean forward) {
+      List<Object> path = new ArrayList<>();
+      path.add(waiter);
+      Set<Object> visited = new HashSet<>();
+      visited.add(waiter);
+      search(path, visited, Collections.singleton(waiter), forward);
+   }
+
+   /**
+    * Searches for a cycle through a new lock owner and any of the lock owners waiting for it.
+    */
+   private void findDeadlockThrough(Object holder, Set<Object> waiters) {
+      List<Object> path = new ArrayList<>();
+      path.add(holder);
+      Set<Object> visited = new HashSet<>();
+      visited.add(holder);
+      search(path, visited, waiters, false);
+   }
+
+   /**
+    * Depth-first search for a cycle back to one of the {@code waiters}, following the lock owners the last one in
+    * {@code path} is waiting for in this node. The {@code waiters} are either the first lock owner in {@code path}, or
+    * lock owners waiting for it. If {@code forward} is {@code true}, every path found is also sent to the other nodes,
+    * because its last lock owner may be waiting there.
+    */
+   private boolean search(List<Object> path, Set<Object> visited, Set<Object> waiters, boolean forward) {
+      Map<Object, Wait> lastWaits = waits.get(path.get(path.size() - 1));
+      if (lastWaits == null) {
+         return false;
+      }
+      for (Wait wait : lastWaits.values()) {
+         Object holder = wait.getHolder();
+         if (holder == null || !wait.isWaiting()) {
+            continue;
+         }
+         if (waiters.contains(holder)) {
+            List<Object> cycle = new ArrayList<>(path.size() + 1);
+            if (!holder.equals(path.get(0))) {
+               cycle.add(holder);
+            }
+            cycle.addAll(path);
+            onDeadlock(cycle);
             return true;
          }
+         if (path.size() < MAX_PATH_LENGTH && visited.add(holder)) {
+            path.add(holder);
+            if (forward) {
+               sendProbe(new ArrayList<>(path), false);
+            }
+            boolean found = search(path, visited, waiters, forward);
+            path.remove(path.size() - 1);
+            if (found) {
+               return true;
+            }
+         }
       }
       return false;
    }
 
-   @Override
-   public boolean deadlockDetected(Object pendingOwner, Object currentOwner) {
-      if (!(pendingOwner instanceof DldGlobalTransaction) || !(currentOwner instanceof DldGlobalTransaction)) {
-         if (trace) {
-            log.tracef("Unable to run DLD with %s and %s. One of them are not a DldGlobalTransaction.",
-                       pendingOwner, currentOwner);
+   private void onDeadlock(List<Object> cycle) {
+      int victimIndex = -1;
+      for (int i = 0; i < cycle.size(); ++i) {
+         Object owner = cycle.get(i);
+         if (owner instanceof DldGlobalTransaction &&
+               (victimIndex < 0 || loses((DldGlobalTransaction) owner, (DldGlobalTransaction) cycle.get(victimIndex)))) {
+            victimIndex = i;
          }
+      }
+      if (victimIndex < 0) {
          cannotRunDld.incrementAndGet();
-         return false;
+         return;
       }
+      Object victim = cycle.get(victimIndex);
+      Object holder = cycle.get((victimIndex + 1) % cycle.size());
       if (trace) {
-         log.tracef("Could not acquire lock. It is locked by %s (%s)", currentOwner, System.identityHashCode(currentOwner));
+         log.tracef("Deadlock detected: %s. Victim is %s", cycle, victim);
+      }
+      if (scheduler == null) {
+         cancelVictim(victim, holder);
+      } else {
+         //the lock request is canceled outside of the lock, like a timeout
+         scheduler.execute(() -> cancelVictim(victim, holder));
+      }
+   }
+
+   private void cancelVictim(Object victim, Object holder) {
+      //the victim may be waiting in another node
+      if (!resolveDeadlock(victim, holder)) {
+         sendProbe(Arrays.asList(victim, holder), true);
+      }
+   }
+
+   private void scheduleProbe(Object waiter, Object waitId, int attempt) {
+      if (rpcManager == null || scheduler == null || probeDelay <= 0) {
+         return;
+      }
+      long delay = probeDelay << Math.min(attempt, MAX_PROBE_BACKOFF);
+      scheduler.schedule(() -> probeRemote(waiter, waitId, attempt), delay, TimeUnit.MILLISECONDS);
+   }
+
+   private void probeRemote(Object waiter, Object waitId, int attempt) {
+      Map<Object, Wait> waiterWaits = waits.get(waiter);
+      Wait wait = waiterWaits == null ? null : waiterWaits.get(waitId);
+      if (wait == null || !wait.isWaiting()) {
+         return;
+      }
+      findDeadlock(waiter, true);
+      scheduleProbe(waiter, waitId, attempt + 1);
+   }
+
+   /**
+    * Sends the probe to the nodes where the last lock owner in {@code path} can be waiting, or where the victim, the
+    * first lock owner, is waiting if {@code resolve} is {@code true}.
+    */
+   private void sendProbe(List<Object> path, boolean resolve) {
+      if (rpcManager == null) {
+         return;
+      }
+      Collection<Address> targets = probeTargets(resolve ? path.get(0) : path.get(path.size() - 1));
+      if (targets != null && targets.isEmpty()) {
+         return;
+      }
+      if (trace) {
+         log.tracef("Sending deadlock probe %s to %s. Resolve? %s", path, targets == null ? "all" : targets, resolve);
+      }
+      DeadlockProbeCommand command = commandsFactory.buildDeadlockProbeCommand(path, resolve);
+      rpcManager.invokeRemotelyAsync(targets, command, rpcManager.getDefaultRpcOptions(false))
+            .whenComplete((responses, throwable) -> {
+               if (throwable != null && trace) {
+                  log.tracef(throwable, "Unable to send deadlock probe %s", path);
+               }
+            });
+   }
+
+   /**
+    * @return the nodes where {@code owner} can be waiting for a lock: the owners of the keys of its transaction known
+    * in this node and its originator, without this node. {@code null} to send to all the nodes, if its transaction is
+    * not known in this node.
+    */
+   private Collection<Address> probeTargets(Object owner) {
+      if (transactionTable == null || distributionManager == null || !(owner instanceof GlobalTransaction)) {
+         return null;
+      }
+      GlobalTransaction gtx = (GlobalTransaction) owner;
+      AbstractCacheTransaction tx = transactionTable.getLocalTransaction(gtx);
+      if (tx == null) {
+         tx = transactionTable.getRemoteTransaction(gtx);
+      }
+      if (tx == null) {
+         return null;
       }
+      Set<Object> keys = new HashSet<>(tx.getAffectedKeys());
+      keys.addAll(tx.getLockedKeys());
+      keys.addAll(tx.getBackupLockedKeys());
+      Set<Address> targets = keys.isEmpty() ? new HashSet<>() : new HashSet<>(distributionManager.locateAll(keys));
+      if (gtx.getAddress() != null) {
+         targets.add(gtx.getAddress());
+      }
+      targets.remove(rpcManager.getAddress());
+      return targets;
+   }
 
-      final DldGlobalTransaction ownerTx = (DldGlobalTransaction) currentOwner;
-      final DldGlobalTransaction pendingTx = (DldGlobalTransaction) pendingOwner;
+   private boolean isOriginator(Object owner) {
+      return rpcManager != null && owner instanceof GlobalTransaction &&
+            rpcManager.getAddress().equals(((GlobalTransaction) owner).getAddress());
+   }
 
-      if (isDeadlockAndIAmLoosing(ownerTx, pendingTx)) {
-         updateStats(pendingTx);
-         log.tracef("Deadlock found and we (%s) shall not continue. Other tx is %s", pendingOwner, currentOwner);
+   /**
+    * @return {@code false} if the same probe was received less than a probe delay ago.
+    */
+   private boolean firstProbe(List<Object> path) {
+      if (probeTimeService == null) {
          return true;
       }
-      return false;
+      long now = probeTimeService.time();
+      ByRef.Boolean first = new ByRef.Boolean(false);
+      seenProbes.compute(path, (ignoredKey, seen) -> {
+         if (seen == null || probeTimeService.timeDuration(seen, now, TimeUnit.MILLISECONDS) >= probeDelay) {
+            first.set(true);
+            return now;
+         }
+         return seen;
+      });
+      if (first.get() && seenProbes.size() > MAX_SEEN_PROBES) {
+         seenProbes.values().removeIf(seen -> probeTimeService.timeDuration(seen, now, TimeUnit.MILLISECONDS) >= probeDelay);
+      }
+      return first.get();
+   }
+
+   /**
+    * @return {@code true} if {@code tx} must be rolled back instead of {@code other}. The order must be the same in
+    * all the nodes.
+    */
+   private static boolean loses(DldGlobalTransaction tx, DldGlobalTransaction other) {
+      if (tx.getCoinToss() != other.getCoinToss()) {
+         return tx.wouldLose(other);
+      }
+      if (tx.getId() != other.getId()) {
+         return tx.getId() > other.getId();
+      }
+      Address address = tx.getAddress();
+      Address otherAddress = other.getAddress();
+      return address != null && otherAddress != null && address.compareTo(otherAddress) > 0;
    }
 
    public void setExposeJmxStats(boolean exposeJmxStats) {
@@ -175,8 +485,10 @@ public long getTotalNumberOfDetectedDeadlocks() {
       return localTxStopped.get() + remoteTxStopped.get();
    }
 
+   @Override
    @ManagedOperation(description = "Resets statistics gathered by this component", displayName = "Reset statistics")
    public void resetStatistics() {
+      super.resetStatistics();
       localTxStopped.set(0);
       remoteTxStopped.set(0);
       cannotRunDld.set(0);
@@ -197,8 +509,6 @@ public long getOverlapWithNotDeadlockAwareLockOwners() {
       return cannotRunDld.get();
    }
 
-
-
    private void updateStats(DldGlobalTransaction tx) {
       if (exposeJmxStats) {
          if (tx.isRemote())
@@ -207,4 +517,36 @@ private void updateStats(DldGlobalTransaction tx) {
             localTxStopped.incrementAndGet();
       }
    }
+
+   /**
+    * An edge in the wait-for graph. A lock request waits for the current lock owner, while a pending transaction wait
+    * has a fixed holder and cannot be canceled.
+    */
+   private static class Wait {
+      private final Object waiter;
+      private final ExtendedLockPromise request;
+      private final Object holder;
+
+      private Wait(Object waiter, ExtendedLockPromise request, Object holder) {
+         this.waiter = waiter;
+         this.request = request;
+         this.holder = holder;
+      }
+
+      Object getHolder() {
+         return request == null ? holder : request.getOwner();
+      }
+
+      boolean isWaiting() {
+         return request == null || !request.isAvailable();
+      }
+
+      boolean cancel() {
+         if (request == null || request.isAvailable()) {
+            return false;
+         }
+         request.cancel(LockState.DEADLOCKED);
+         return true;
+      }
+   }
 }
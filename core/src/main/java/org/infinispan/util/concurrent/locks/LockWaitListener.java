@@ -0,0 +1,44 @@
+package org.infinispan.util.concurrent.locks;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A listener notified every time a lock owner has to wait for another lock owner.
+ * <p>
+ * It is used to build the wait-for graph between lock owners, see {@link DeadlockDetectingLockManager}.
+ *
+ * @since 9.0
+ */
+public interface LockWaitListener {
+
+   /**
+    * Invoked when a lock request is queued behind another lock owner, and again every time the lock owner it is
+    * waiting for changes.
+    *
+    * @param request the waiting lock request. {@link ExtendedLockPromise#getOwner()} returns the lock owner it is
+    *                waiting for.
+    */
+   void onLockWait(ExtendedLockPromise request);
+
+   /**
+    * Invoked when a lock has a new owner, with the lock requests still queued. They are all waiting for the new lock
+    * owner now. By default it invokes {@link #onLockWait(ExtendedLockPromise)} for each lock request.
+    *
+    * @param requests the waiting lock requests.
+    */
+   default void onLockOwnerChanged(Collection<? extends ExtendedLockPromise> requests) {
+      for (ExtendedLockPromise request : requests) {
+         onLockWait(request);
+      }
+   }
+
+   /**
+    * Invoked when a transaction has to wait for a transaction from an older topology to release a key.
+    *
+    * @param waiter        the waiting transaction.
+    * @param holder        the transaction it is waiting for.
+    * @param waitCompleted a {@link CompletableFuture} completed when {@code waiter} stops waiting for {@code holder}.
+    */
+   void onPendingTransactionWait(Object waiter, Object holder, CompletableFuture<?> waitCompleted);
+}
@@ -6,9 +6,14 @@
 import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
 import org.infinispan.jmx.annotations.DataType;
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Parameter;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.DeadlockDetectedException;
 import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
@@ -23,8 +28,11 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -52,9 +60,14 @@ public class DefaultLockManager implements LockManager {
          newUpdater(CompositeLockPromise.class, LockState.class, "lockState");
 
 
+   private static final int DEFAULT_TOP_KEYS = 10;
+
    protected LockContainer lockContainer;
    protected Configuration configuration;
    protected ScheduledExecutorService scheduler;
+   private TimeService timeService;
+   private LockContentionStatistics contentionStatistics;
+   private volatile boolean statisticsEnabled;
 
    @Inject
    public void inject(LockContainer container, Configuration configuration,
@@ -64,6 +77,18 @@ public void inject(LockContainer container, Configuration configuration,
       this.scheduler = executorService;
    }
 
+   @Inject
+   public void injectTimeService(TimeService timeService) {
+      this.timeService = timeService;
+   }
+
+   @Start
+   public void startStatistics() {
+      statisticsEnabled = configuration.jmxStatistics().enabled();
+      contentionStatistics = new LockContentionStatistics(timeService, configuration.dataContainer().keyEquivalence(),
+                                                          LockContentionStatistics.DEFAULT_CAPACITY);
+   }
+
 
    @Override
    public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit) {
@@ -76,6 +101,7 @@ public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUni
       }
 
       ExtendedLockPromise promise = lockContainer.acquire(key, lockOwner, time, unit);
+      recordContention(key, promise);
       return new KeyAwareExtendedLockPromise(promise, key, unit.toMillis(time)).scheduleLockTimeoutTask(scheduler);
    }
 
@@ -112,7 +138,9 @@ public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long ti
       //ordering will not solve the problem since acquire() is non-blocking and each lock owner can iterate faster/slower than the other.
       synchronized (this) {
          for (Object key : uniqueKeys) {
-            compositeLockPromise.addLock(new KeyAwareExtendedLockPromise(lockContainer.acquire(key, lockOwner, time, unit), key, unit.toMillis(time)));
+            ExtendedLockPromise promise = lockContainer.acquire(key, lockOwner, time, unit);
+            recordContention(key, promise);
+            compositeLockPromise.addLock(new KeyAwareExtendedLockPromise(promise, key, unit.toMillis(time)));
          }
       }
       compositeLockPromise.markListAsFinal();
@@ -198,6 +226,100 @@ public InfinispanLock getLock(Object key) {
       return lockContainer.getLock(key);
    }
 
+   private void recordContention(Object key, ExtendedLockPromise promise) {
+      LockContentionStatistics statistics = contentionStatistics;
+      if (statistics == null || !statisticsEnabled) {
+         return;
+      }
+      if (promise.isAvailable()) {
+         statistics.recordAcquisition();
+         return;
+      }
+      InfinispanLock lock = lockContainer.getLock(key);
+      statistics.recordContention(key, lock == null ? 1 : lock.getQueueDepth(), promise);
+   }
+
+   @ManagedAttribute(description = "Enables or disables the gathering of lock contention statistics by this component", displayName = "Statistics enabled", dataType = DataType.TRAIT, writable = true)
+   public boolean isStatisticsEnabled() {
+      return statisticsEnabled;
+   }
+
+   public void setStatisticsEnabled(boolean statisticsEnabled) {
+      this.statisticsEnabled = statisticsEnabled;
+   }
+
+   @ManagedOperation(description = "Resets statistics gathered by this component", displayName = "Reset statistics")
+   public void resetStatistics() {
+      if (contentionStatistics != null) {
+         contentionStatistics.reset();
+      }
+   }
+
+   @ManagedAttribute(description = "Number of lock requests", displayName = "Number of lock requests", measurementType = MeasurementType.TRENDSUP)
+   public long getLockAcquisitions() {
+      return contentionStatistics == null ? 0 : contentionStatistics.getAcquisitions();
+   }
+
+   @ManagedAttribute(description = "Number of lock requests that had to wait for another lock owner", displayName = "Number of contended lock requests", measurementType = MeasurementType.TRENDSUP)
+   public long getContendedLockAcquisitions() {
+      return contentionStatistics == null ? 0 : contentionStatistics.getContendedAcquisitions();
+   }
+
+   @ManagedAttribute(description = "Number of contended lock requests that timed out or were rolled back because of a deadlock", displayName = "Number of failed lock requests", measurementType = MeasurementType.TRENDSUP)
+   public long getFailedLockAcquisitions() {
+      return contentionStatistics == null ? 0 : contentionStatistics.getFailedAcquisitions();
+   }
+
+   @ManagedAttribute(description = "Average wait time of the contended lock requests, in microseconds", displayName = "Average lock wait time")
+   public long getAverageLockWaitTime() {
+      return contentionStatistics == null ? 0 : contentionStatistics.getAverageWaitTime();
+   }
+
+   @ManagedAttribute(description = "Number of contended lock requests by wait time, in microseconds", displayName = "Lock wait time histogram")
+   public Map<String, Long> getLockWaitTimeHistogram() {
+      return contentionStatistics == null ? Collections.emptyMap() : contentionStatistics.getWaitTimeHistogram();
+   }
+
+   @ManagedAttribute(description = "Average number of lock owners queued for a lock when a lock request has to wait", displayName = "Average lock queue depth")
+   public double getAverageLockQueueDepth() {
+      return contentionStatistics == null ? 0 : contentionStatistics.getAverageQueueDepth();
+   }
+
+   @ManagedAttribute(description = "Maximum number of lock owners queued for a lock", displayName = "Maximum lock queue depth")
+   public long getMaxLockQueueDepth() {
+      return contentionStatistics == null ? 0 : contentionStatistics.getMaxQueueDepth();
+   }
+
+   @ManagedAttribute(description = "Show the top " + DEFAULT_TOP_KEYS + " most contended keys", displayName = "Top contended keys")
+   public Map<String, Long> getTopContendedKeys() {
+      return getNTopContendedKeys(DEFAULT_TOP_KEYS);
+   }
+
+   @ManagedOperation(description = "Show the top n most contended keys, with the number of lock requests that waited for them", displayName = "Nth top contended keys")
+   public Map<String, Long> getNTopContendedKeys(@Parameter(name = "n", description = "the n-th top key to return") int n) {
+      if (contentionStatistics == null) {
+         return Collections.emptyMap();
+      }
+      Map<String, Long> topKeys = new LinkedHashMap<>();
+      for (Map.Entry<Object, Long> entry : contentionStatistics.getTopContendedKeys(n)) {
+         topKeys.put(toStr(entry.getKey()), entry.getValue());
+      }
+      return topKeys;
+   }
+
+   @ManagedOperation(description = "Show the current number of lock owners queued for each of the top n most contended keys", displayName = "Lock queue depth of the nth top contended keys")
+   public Map<String, Integer> getNTopContendedKeysQueueDepth(@Parameter(name = "n", description = "the n-th top key to return") int n) {
+      if (contentionStatistics == null) {
+         return Collections.emptyMap();
+      }
+      Map<String, Integer> queueDepths = new LinkedHashMap<>();
+      for (Map.Entry<Object, Long> entry : contentionStatistics.getTopContendedKeys(n)) {
+         InfinispanLock lock = lockContainer.getLock(entry.getKey());
+         queueDepths.put(toStr(entry.getKey()), lock == null ? 0 : lock.getQueueDepth());
+      }
+      return queueDepths;
+   }
+
    private static class KeyAwareExtendedLockPromise implements KeyAwareLockPromise, ExtendedLockPromise, Callable<Void> {
 
       private final ExtendedLockPromise lockPromise;
@@ -12,6 +12,7 @@
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.concurrent.TimeoutException;
+import org.infinispan.util.concurrent.locks.LockWaitListener;
 import org.infinispan.util.concurrent.locks.PendingLockListener;
 import org.infinispan.util.concurrent.locks.PendingLockManager;
 import org.infinispan.util.concurrent.locks.PendingLockPromise;
@@ -54,6 +55,7 @@ public class DefaultPendingLockManager implements PendingLockManager {
    private TimeService timeService;
    private ScheduledExecutorService timeoutExecutor;
    private StateTransferManager stateTransferManager;
+   private volatile LockWaitListener lockWaitListener;
 
    public DefaultPendingLockManager() {
       pendingLockPromiseMap = new ConcurrentHashMap<>();
@@ -69,6 +71,14 @@ public void inject(TransactionTable transactionTable, TimeService timeService,
       this.stateTransferManager = stateTransferManager;
    }
 
+   /**
+    * Sets the {@link LockWaitListener} notified when a transaction has to wait for a transaction from an older
+    * topology.
+    */
+   public void setLockWaitListener(LockWaitListener lockWaitListener) {
+      this.lockWaitListener = lockWaitListener;
+   }
+
    @Override
    public PendingLockPromise checkPendingTransactionsForKey(TxInvocationContext<?> ctx, Object key, long time, TimeUnit unit) {
       if (trace) {
@@ -176,6 +186,7 @@ private PendingLockPromise createAndStore(Collection<PendingTransaction> transac
          return existing;
       }
       pendingLockPromise.registerListenerInCacheTransactions();
+      notifyWaiting(globalTransaction, transactions, pendingLockPromise.notifier);
       if (!pendingLockPromise.isReady()) {
          timeoutExecutor.schedule(pendingLockPromise, time, unit);
       }
@@ -218,7 +229,7 @@ private long checkForPendingLock(Object key, GlobalTransaction globalTransaction
       final Collection<PendingTransaction> pendingTransactions = getTransactionWithLockedKey(transactionTopologyId, key, globalTransaction);
       if (trace)
          log.tracef("Checking for pending locks: %s", pendingTransactions);
-      final PendingTransaction lockOwner = waitForTransactionsToComplete(pendingTransactions, expectedEndTime);
+      final PendingTransaction lockOwner = waitForTransactionsToComplete(globalTransaction, pendingTransactions, expectedEndTime);
 
       // Then try to acquire a lock
       if (trace) {
@@ -243,7 +254,7 @@ private long checkForAnyPendingLocks(Collection<Object> keys, GlobalTransaction
       if (trace)
          log.tracef("Checking for pending locks: %s", pendingTransactions);
 
-      final PendingTransaction lockOwner = waitForTransactionsToComplete(pendingTransactions, expectedEndTime);
+      final PendingTransaction lockOwner = waitForTransactionsToComplete(globalTransaction, pendingTransactions, expectedEndTime);
 
       // Then try to acquire a lock
       if (trace) {
@@ -263,20 +274,39 @@ private static void timeout(PendingTransaction lockOwner, GlobalTransaction this
                                         lockOwner.cacheTransaction.getGlobalTransaction()));
    }
 
-   private PendingTransaction waitForTransactionsToComplete(Collection<PendingTransaction> transactionsToCheck,
+   private PendingTransaction waitForTransactionsToComplete(GlobalTransaction globalTransaction,
+                                                            Collection<PendingTransaction> transactionsToCheck,
                                                             long expectedEndTime) throws InterruptedException {
       if (transactionsToCheck.isEmpty()) {
          return null;
       }
-      for (PendingTransaction tx : transactionsToCheck) {
-         long remaining;
-         if ((remaining = timeService.remainingTime(expectedEndTime, TimeUnit.MILLISECONDS)) > 0) {
-            if (!CompletableFutures.await(tx.keyReleased, remaining, TimeUnit.MILLISECONDS)) {
-               return tx;
+      final CompletableFuture<Void> waitCompleted = new CompletableFuture<>();
+      notifyWaiting(globalTransaction, transactionsToCheck, waitCompleted);
+      try {
+         for (PendingTransaction tx : transactionsToCheck) {
+            long remaining;
+            if ((remaining = timeService.remainingTime(expectedEndTime, TimeUnit.MILLISECONDS)) > 0) {
+               if (!CompletableFutures.await(tx.keyReleased, remaining, TimeUnit.MILLISECONDS)) {
+                  return tx;
+               }
             }
          }
+         return null;
+      } finally {
+         waitCompleted.complete(null);
+      }
+   }
+
+   private void notifyWaiting(GlobalTransaction globalTransaction, Collection<PendingTransaction> pendingTransactions,
+                              CompletableFuture<Void> waitCompleted) {
+      final LockWaitListener listener = lockWaitListener;
+      if (listener == null) {
+         return;
+      }
+      for (PendingTransaction tx : pendingTransactions) {
+         listener.onPendingTransactionWait(globalTransaction, tx.cacheTransaction.getGlobalTransaction(),
+                                           CompletableFuture.anyOf(tx.keyReleased, waitCompleted));
       }
-      return null;
    }
 
    private Collection<PendingTransaction> getTransactionWithLockedKey(int transactionTopologyId,
@@ -7,9 +7,12 @@
 import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
 import org.infinispan.util.concurrent.locks.LockListener;
 import org.infinispan.util.concurrent.locks.LockState;
+import org.infinispan.util.concurrent.locks.LockWaitListener;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
@@ -17,6 +20,7 @@
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static java.util.concurrent.atomic.AtomicReferenceFieldUpdater.newUpdater;
@@ -44,6 +48,11 @@ public class InfinispanLock {
          newUpdater(InfinispanLock.class, LockPlaceHolder.class, "current");
    private static final AtomicReferenceFieldUpdater<LockPlaceHolder, LockState> STATE_UPDATER =
          newUpdater(LockPlaceHolder.class, LockState.class, "lockState");
+   @SuppressWarnings("rawtypes")
+   private static final AtomicReferenceFieldUpdater<LockPlaceHolder, CompletableFuture> NOTIFIER_UPDATER =
+         newUpdater(LockPlaceHolder.class, CompletableFuture.class, "notifier");
+   private static final AtomicIntegerFieldUpdater<InfinispanLock> QUEUE_DEPTH_UPDATER =
+         AtomicIntegerFieldUpdater.newUpdater(InfinispanLock.class, "queueDepth");
 
 
    private final Queue<LockPlaceHolder> pendingRequest;
@@ -51,6 +60,8 @@ public class InfinispanLock {
    private final Runnable releaseRunnable;
    private TimeService timeService;
    private volatile LockPlaceHolder current;
+   private volatile LockWaitListener lockWaitListener;
+   private volatile int queueDepth;
 
    /**
     * Creates a new instance.
@@ -88,6 +99,15 @@ public void setTimeService(TimeService timeService) {
       }
    }
 
+   /**
+    * Sets the {@link LockWaitListener} notified when a lock owner is queued behind another lock owner.
+    *
+    * @param lockWaitListener the listener or {@code null} to remove it.
+    */
+   public void setLockWaitListener(LockWaitListener lockWaitListener) {
+      this.lockWaitListener = lockWaitListener;
+   }
+
    /**
     * It tries to acquire this lock.
     * <p/>
@@ -132,8 +152,18 @@ public ExtendedLockPromise acquire(Object lockOwner, long time, TimeUnit timeUni
          log.tracef("Created a new one: %s", lockPlaceHolder);
       }
 
+      if (current == null && pendingRequest.isEmpty() && cas(null, lockPlaceHolder)) {
+         //the lock is free and nobody is waiting for it, no need to queue the request
+         if (!lockPlaceHolder.setAcquire()) {
+            tryAcquire(lockPlaceHolder);
+         }
+         return lockPlaceHolder;
+      }
+
       pendingRequest.add(lockPlaceHolder);
+      QUEUE_DEPTH_UPDATER.incrementAndGet(this);
       tryAcquire(null);
+      notifyWaiting(lockPlaceHolder);
       return lockPlaceHolder;
    }
 
@@ -194,6 +224,22 @@ public boolean isLocked() {
       return current != null;
    }
 
+   /**
+    * @return {@code true} if the lock is not acquired and no lock owner is waiting for it or still has to clean up
+    * after a timeout.
+    */
+   boolean isFree() {
+      return current == null && lockOwners.isEmpty();
+   }
+
+   /**
+    * @return the number of lock owners queued for this lock. It includes the lock owners that timed out and are not
+    * removed from the queue yet.
+    */
+   public int getQueueDepth() {
+      return queueDepth;
+   }
+
    /**
     * It forces a deadlock checking.
     */
@@ -272,11 +318,14 @@ private void tryAcquire(LockPlaceHolder release) {
          }
          if (cas(toRelease, toAcquire)) {
             //we set the current lock owner, so we must remove it from the queue
-            pendingRequest.remove(toAcquire);
+            if (pendingRequest.remove(toAcquire)) {
+               QUEUE_DEPTH_UPDATER.decrementAndGet(this);
+            }
             if (toAcquire.setAcquire()) {
                if (trace) {
                   log.tracef("%s successfully acquired the lock.", toAcquire);
                }
+               notifyOwnerChanged();
                return;
             }
             if (trace) {
@@ -294,6 +343,33 @@ private void tryAcquire(LockPlaceHolder release) {
       } while (true);
    }
 
+   private void notifyWaiting(LockPlaceHolder lockPlaceHolder) {
+      LockWaitListener listener = lockWaitListener;
+      if (listener != null && lockPlaceHolder.lockState == LockState.WAITING) {
+         listener.onLockWait(lockPlaceHolder);
+      }
+   }
+
+   private void notifyOwnerChanged() {
+      LockWaitListener listener = lockWaitListener;
+      if (listener == null) {
+         return;
+      }
+      //the pending requests are now waiting for the new lock owner
+      List<LockPlaceHolder> waiting = null;
+      for (LockPlaceHolder pending : pendingRequest) {
+         if (pending.lockState == LockState.WAITING) {
+            if (waiting == null) {
+               waiting = new ArrayList<>();
+            }
+            waiting.add(pending);
+         }
+      }
+      if (waiting != null) {
+         listener.onLockOwnerChanged(waiting);
+      }
+   }
+
    private LockPlaceHolder createLockInfo(Object lockOwner, long time, TimeUnit timeUnit) {
       return new LockPlaceHolder(lockOwner, timeService.expectedEndTime(time, timeUnit));
    }
@@ -302,14 +378,14 @@ private class LockPlaceHolder implements ExtendedLockPromise {
 
       private final Object owner;
       private final long timeout;
-      private final CompletableFuture<Void> notifier;
+      //created only when a thread has to wait or a listener is added before the lock is available
+      volatile CompletableFuture<Void> notifier;
       volatile LockState lockState;
 
       private LockPlaceHolder(Object owner, long timeout) {
          this.owner = owner;
          this.timeout = timeout;
          lockState = LockState.WAITING;
-         notifier = new CompletableFuture<>();
       }
 
       @Override
@@ -325,7 +401,7 @@ public void lock() throws InterruptedException, TimeoutException {
             switch (currentState) {
                case WAITING:
                   checkTimeout();
-                  await(notifier, timeService.remainingTime(timeout, TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                  await(notifier(), timeService.remainingTime(timeout, TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
                   break;
                case ACQUIRED:
                   return; //acquired!
@@ -345,7 +421,11 @@ public void lock() throws InterruptedException, TimeoutException {
 
       @Override
       public void addListener(LockListener listener) {
-         notifier.thenRun(() -> this.invoke(listener));
+         if (lockState != LockState.WAITING) {
+            invoke(listener);
+         } else {
+            notifier().thenRun(() -> this.invoke(listener));
+         }
       }
 
       @Override
@@ -486,9 +566,26 @@ private void checkTimeout() {
       }
 
       private void notifyListeners() {
+         CompletableFuture<Void> existing = notifier;
+         if (existing != null && lockState != LockState.WAITING) {
+            existing.complete(null);
+         }
+      }
+
+      private CompletableFuture<Void> notifier() {
+         CompletableFuture<Void> existing = notifier;
+         if (existing != null) {
+            return existing;
+         }
+         CompletableFuture<Void> created = new CompletableFuture<>();
+         if (!NOTIFIER_UPDATER.compareAndSet(this, null, created)) {
+            return notifier;
+         }
+         //the state may have changed before the notifier was set
          if (lockState != LockState.WAITING) {
-            notifier.complete(null);
+            created.complete(null);
          }
+         return created;
       }
    }
 }
@@ -2,6 +2,7 @@
 
 import org.infinispan.util.concurrent.locks.DeadlockChecker;
 import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
+import org.infinispan.util.concurrent.locks.LockWaitListener;
 
 import java.util.concurrent.TimeUnit;
 
@@ -49,4 +50,10 @@ public interface LockContainer {
     * It forces a deadlock checks in all existing locks.
     */
    void deadlockCheck(DeadlockChecker deadlockChecker);
+
+   /**
+    * Sets the {@link LockWaitListener} notified when a lock owner has to wait for another lock owner, in all the
+    * existing and future locks.
+    */
+   void setLockWaitListener(LockWaitListener lockWaitListener);
 }
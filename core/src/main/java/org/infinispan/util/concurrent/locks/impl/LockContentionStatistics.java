@@ -0,0 +1,227 @@
+package org.infinispan.util.concurrent.locks.impl;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
+import org.infinispan.util.concurrent.locks.LockState;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock contention statistics collected by {@link DefaultLockManager}.
+ * <p/>
+ * An uncontended lock acquisition only increments a counter. The lock requests that have to wait are also recorded
+ * in a wait time histogram, with the queue depth of the lock, and their keys are counted with a space-saving sketch
+ * that keeps at most {@link #DEFAULT_CAPACITY} keys, so the memory used is bounded whatever the number of keys.
+ *
+ * @since 9.0
+ */
+public class LockContentionStatistics {
+
+   /**
+    * The default number of keys tracked by the space-saving sketch.
+    */
+   public static final int DEFAULT_CAPACITY = 128;
+   /**
+    * The number of buckets of the wait time histogram. The bucket {@code i} counts the waits shorter than {@code 2^i}
+    * microseconds, and the last one counts all the longer waits.
+    */
+   static final int HISTOGRAM_BUCKETS = 32;
+
+   private final TimeService timeService;
+   private final SpaceSavingSketch contendedKeys;
+   private final LongAdder acquisitions = new LongAdder();
+   private final LongAdder contendedAcquisitions = new LongAdder();
+   private final LongAdder failedAcquisitions = new LongAdder();
+   private final LongAdder totalWaitTime = new LongAdder();
+   private final LongAdder totalQueueDepth = new LongAdder();
+   private final LongAccumulator maxQueueDepth = new LongAccumulator(Math::max, 0);
+   private final LongAdder[] waitTimeHistogram = new LongAdder[HISTOGRAM_BUCKETS];
+
+   public LockContentionStatistics(TimeService timeService, Equivalence<Object> keyEquivalence, int capacity) {
+      this.timeService = timeService;
+      this.contendedKeys = new SpaceSavingSketch(keyEquivalence, capacity);
+      for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+         waitTimeHistogram[i] = new LongAdder();
+      }
+   }
+
+   /**
+    * Records a lock request that did not have to wait.
+    */
+   public void recordAcquisition() {
+      acquisitions.increment();
+   }
+
+   /**
+    * Records a lock request that has to wait for another lock owner. The wait time is recorded when the {@code
+    * promise} is completed.
+    *
+    * @param key        the key to lock.
+    * @param queueDepth the number of lock owners queued for the lock, including this one.
+    * @param promise    the lock request.
+    */
+   public void recordContention(Object key, int queueDepth, ExtendedLockPromise promise) {
+      acquisitions.increment();
+      contendedAcquisitions.increment();
+      totalQueueDepth.add(queueDepth);
+      maxQueueDepth.accumulate(queueDepth);
+      contendedKeys.offer(key);
+      final long start = timeService.time();
+      promise.addListener(state -> recordWait(state, timeService.timeDuration(start, TimeUnit.NANOSECONDS)));
+   }
+
+   private void recordWait(LockState state, long waitNanos) {
+      if (state == LockState.TIMED_OUT || state == LockState.DEADLOCKED) {
+         failedAcquisitions.increment();
+      }
+      totalWaitTime.add(waitNanos);
+      waitTimeHistogram[bucket(TimeUnit.NANOSECONDS.toMicros(waitNanos))].increment();
+   }
+
+   static int bucket(long micros) {
+      return Math.min(64 - Long.numberOfLeadingZeros(micros), HISTOGRAM_BUCKETS - 1);
+   }
+
+   public long getAcquisitions() {
+      return acquisitions.sum();
+   }
+
+   public long getContendedAcquisitions() {
+      return contendedAcquisitions.sum();
+   }
+
+   public long getFailedAcquisitions() {
+      return failedAcquisitions.sum();
+   }
+
+   /**
+    * @return the average wait time of the contended lock requests, in microseconds.
+    */
+   public long getAverageWaitTime() {
+      long contended = contendedAcquisitions.sum();
+      return contended == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWaitTime.sum() / contended);
+   }
+
+   public double getAverageQueueDepth() {
+      long contended = contendedAcquisitions.sum();
+      return contended == 0 ? 0 : (double) totalQueueDepth.sum() / contended;
+   }
+
+   public long getMaxQueueDepth() {
+      return maxQueueDepth.get();
+   }
+
+   /**
+    * @return the non-empty buckets of the wait time histogram, in increasing wait time order.
+    */
+   public Map<String, Long> getWaitTimeHistogram() {
+      Map<String, Long> histogram = new LinkedHashMap<>();
+      for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+         long count = waitTimeHistogram[i].sum();
+         if (count != 0) {
+            String label = i == HISTOGRAM_BUCKETS - 1 ?
+                  ">= " + (1L << (i - 1)) + " us" :
+                  "< " + (1L << i) + " us";
+            histogram.put(label, count);
+         }
+      }
+      return histogram;
+   }
+
+   /**
+    * @param n the number of keys to return.
+    * @return the {@code n} most contended keys, most contended first, with the number of lock requests that waited
+    * for them. The counts are upper bounds when more than the sketch capacity keys are contended.
+    */
+   public List<Map.Entry<Object, Long>> getTopContendedKeys(int n) {
+      return contendedKeys.top(n);
+   }
+
+   public void reset() {
+      acquisitions.reset();
+      contendedAcquisitions.reset();
+      failedAcquisitions.reset();
+      totalWaitTime.reset();
+      totalQueueDepth.reset();
+      maxQueueDepth.reset();
+      for (LongAdder bucket : waitTimeHistogram) {
+         bucket.reset();
+      }
+      contendedKeys.clear();
+   }
+
+   /**
+    * The space-saving algorithm from "Efficient Computation of Frequent and Top-k Elements in Data Streams" (Metwally
+    * et al.): when a new key is offered and all the counters are used, the counter with the lowest count is given to
+    * the new key, and incremented.
+    * <p/>
+    * The minimum is found with a linear scan, which is fine for a few hundred counters because only the contended lock
+    * requests are offered.
+    */
+   private static class SpaceSavingSketch {
+      private final Map<Object, Counter> counters;
+      private final int capacity;
+
+      SpaceSavingSketch(Equivalence<Object> keyEquivalence, int capacity) {
+         this.counters = CollectionFactory.makeMap(capacity, keyEquivalence, AnyEquivalence.getInstance());
+         this.capacity = capacity;
+      }
+
+      synchronized void offer(Object key) {
+         Counter counter = counters.get(key);
+         if (counter != null) {
+            counter.count++;
+            return;
+         }
+         if (counters.size() < capacity) {
+            counters.put(key, new Counter(key, 1));
+            return;
+         }
+         Counter min = null;
+         for (Counter c : counters.values()) {
+            if (min == null || c.count < min.count) {
+               min = c;
+            }
+         }
+         counters.remove(min.key);
+         counters.put(key, new Counter(key, min.count + 1));
+      }
+
+      synchronized List<Map.Entry<Object, Long>> top(int n) {
+         List<Counter> sorted = new ArrayList<>(counters.values());
+         sorted.sort((c1, c2) -> Long.compare(c2.count, c1.count));
+         List<Map.Entry<Object, Long>> top = new ArrayList<>(Math.min(n, sorted.size()));
+         Iterator<Counter> iterator = sorted.iterator();
+         while (top.size() < n && iterator.hasNext()) {
+            Counter counter = iterator.next();
+            top.add(new AbstractMap.SimpleImmutableEntry<>(counter.key, counter.count));
+         }
+         return top;
+      }
+
+      synchronized void clear() {
+         counters.clear();
+      }
+   }
+
+   private static class Counter {
+      final Object key;
+      long count;
+
+      Counter(Object key, long count) {
+         this.key = key;
+         this.count = count;
+      }
+   }
+}
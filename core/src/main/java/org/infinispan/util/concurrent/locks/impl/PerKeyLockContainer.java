@@ -8,6 +8,7 @@
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.locks.DeadlockChecker;
 import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
+import org.infinispan.util.concurrent.locks.LockWaitListener;
 
 import java.util.concurrent.TimeUnit;
 
@@ -22,6 +23,7 @@ public class PerKeyLockContainer implements LockContainer {
    private static final int INITIAL_CAPACITY = 32;
    private final EquivalentConcurrentHashMapV8<Object, InfinispanLock> lockMap;
    private TimeService timeService;
+   private volatile LockWaitListener lockWaitListener;
 
    public PerKeyLockContainer(int concurrencyLevel, Equivalence<Object> keyEquivalence) {
       lockMap = new EquivalentConcurrentHashMapV8<>(INITIAL_CAPACITY, concurrencyLevel, keyEquivalence, AnyEquivalence.getInstance());
@@ -88,6 +90,12 @@ public void deadlockCheck(DeadlockChecker deadlockChecker) {
       lockMap.values().forEach(lock -> lock.deadlockCheck(deadlockChecker));
    }
 
+   @Override
+   public void setLockWaitListener(LockWaitListener lockWaitListener) {
+      this.lockWaitListener = lockWaitListener;
+      lockMap.values().forEach(lock -> lock.setLockWaitListener(lockWaitListener));
+   }
+
    @Override
    public String toString() {
       return "PerKeyLockContainer{" +
@@ -96,7 +104,9 @@ public String toString() {
    }
 
    private InfinispanLock createInfinispanLock(Object key) {
-      return new InfinispanLock(timeService, () -> lockMap.computeIfPresent(key, (ignoredKey, lock) -> lock.isLocked() ? lock : null));
+      InfinispanLock lock = new InfinispanLock(timeService, () -> lockMap.computeIfPresent(key, (ignoredKey, existing) -> existing.isLocked() ? existing : null));
+      lock.setLockWaitListener(lockWaitListener);
+      return lock;
    }
 
 }
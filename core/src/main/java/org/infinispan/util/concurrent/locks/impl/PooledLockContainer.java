@@ -0,0 +1,291 @@
+package org.infinispan.util.concurrent.locks.impl;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.concurrent.jdk8backported.EquivalentConcurrentHashMapV8;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.locks.DeadlockChecker;
+import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
+import org.infinispan.util.concurrent.locks.LockWaitListener;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+
+/**
+ * A lock container that maintains a lock per entry, like {@link PerKeyLockContainer}, but reuses the {@link
+ * InfinispanLock} instances.
+ * <p/>
+ * When a lock is released and no other lock owner is waiting for it, it is removed from the map and returned to a
+ * pool, and the next key to be locked takes it from the pool instead of creating a new lock. The pool is an array of
+ * slots updated with CAS, spread over different cache lines to avoid false sharing, so taking a lock from the pool and
+ * returning it never allocates. The map functions are created once and their arguments are passed through a thread
+ * local, so an uncontended lock and unlock of a key only allocate the map entry and the lock request itself. The lock
+ * listeners run inside the map functions and may lock or unlock other keys, so a reentrant call uses a new request and
+ * restores the outer one when it returns.
+ * <p/>
+ * A lock returned by {@link #getLock(Object)} is never returned to the pool, because the caller may still use it
+ * after it is released and it must not observe the lock of another key.
+ * <p/>
+ * It is used by non-transactional caches, where a lock is usually held only for the duration of a single write.
+ *
+ * @since 9.0
+ */
+public class PooledLockContainer implements LockContainer {
+
+   private static final int INITIAL_CAPACITY = 32;
+   //16 compressed references (or 8 uncompressed ones) fill a cache line
+   private static final int SLOT_STRIDE = 16;
+   //the number of slots tried before giving up on taking or returning a lock
+   private static final int MAX_PROBES = 8;
+
+   private final EquivalentConcurrentHashMapV8<Object, PooledLock> lockMap;
+   private final AtomicReferenceArray<PooledLock> pool;
+   private final int poolSize;
+   private final ThreadLocal<LockRequest> requests = ThreadLocal.withInitial(LockRequest::new);
+   private final BiFunction<Object, PooledLock, PooledLock> acquireFunction = this::acquireInMap;
+   private final BiFunction<Object, PooledLock, PooledLock> releaseFunction = this::releaseInMap;
+   private final BiFunction<Object, PooledLock, PooledLock> removeIfFreeFunction = this::removeIfFree;
+   private final BiFunction<Object, PooledLock, PooledLock> exposeFunction = PooledLockContainer::expose;
+   private TimeService timeService;
+   private volatile LockWaitListener lockWaitListener;
+
+   public PooledLockContainer(int concurrencyLevel, Equivalence<Object> keyEquivalence) {
+      lockMap = new EquivalentConcurrentHashMapV8<>(INITIAL_CAPACITY, concurrencyLevel, keyEquivalence, AnyEquivalence.getInstance());
+      poolSize = Math.max(concurrencyLevel, MAX_PROBES);
+      pool = new AtomicReferenceArray<>(poolSize * SLOT_STRIDE);
+   }
+
+   @Inject
+   public void inject(TimeService timeService) {
+      this.timeService = timeService;
+      for (PooledLock pooledLock : lockMap.values()) {
+         pooledLock.lock.setTimeService(timeService);
+      }
+   }
+
+   @Override
+   public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit timeUnit) {
+      LockRequest request = startRequest();
+      request.lockOwner = lockOwner;
+      request.time = time;
+      request.timeUnit = timeUnit;
+      try {
+         lockMap.compute(key, acquireFunction);
+         return request.promise;
+      } finally {
+         endRequest(request);
+      }
+   }
+
+   @Override
+   public InfinispanLock getLock(Object key) {
+      PooledLock pooledLock = lockMap.computeIfPresent(key, exposeFunction);
+      return pooledLock == null ? null : pooledLock.lock;
+   }
+
+   @Override
+   public void release(Object key, Object lockOwner) {
+      LockRequest request = startRequest();
+      request.lockOwner = lockOwner;
+      try {
+         lockMap.computeIfPresent(key, releaseFunction);
+         returnToPool(request.toRecycle);
+      } finally {
+         endRequest(request);
+      }
+   }
+
+   @Override
+   public int getNumLocksHeld() {
+      int count = 0;
+      for (PooledLock pooledLock : lockMap.values()) {
+         if (pooledLock.lock.isLocked()) {
+            count++;
+         }
+      }
+      return count;
+   }
+
+   @Override
+   public boolean isLocked(Object key) {
+      PooledLock pooledLock = lockMap.get(key);
+      return pooledLock != null && pooledLock.lock.isLocked();
+   }
+
+   @Override
+   public int size() {
+      return lockMap.size();
+   }
+
+   @Override
+   public void deadlockCheck(DeadlockChecker deadlockChecker) {
+      lockMap.values().forEach(pooledLock -> pooledLock.lock.deadlockCheck(deadlockChecker));
+   }
+
+   @Override
+   public void setLockWaitListener(LockWaitListener lockWaitListener) {
+      this.lockWaitListener = lockWaitListener;
+      lockMap.values().forEach(pooledLock -> pooledLock.lock.setLockWaitListener(lockWaitListener));
+      for (int i = 0; i < pool.length(); i += SLOT_STRIDE) {
+         PooledLock pooledLock = pool.get(i);
+         if (pooledLock != null) {
+            pooledLock.lock.setLockWaitListener(lockWaitListener);
+         }
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "PooledLockContainer{" +
+            "locks=" + lockMap +
+            '}';
+   }
+
+   private LockRequest startRequest() {
+      LockRequest request = requests.get();
+      if (request.inUse) {
+         //invoked by a lock listener, the outer request is restored by endRequest()
+         LockRequest nested = new LockRequest();
+         nested.outer = request;
+         requests.set(nested);
+         request = nested;
+      }
+      request.inUse = true;
+      return request;
+   }
+
+   private void endRequest(LockRequest request) {
+      LockRequest outer = request.outer;
+      request.clear();
+      if (outer != null) {
+         requests.set(outer);
+      }
+   }
+
+   private PooledLock acquireInMap(Object key, PooledLock pooledLock) {
+      if (pooledLock == null) {
+         pooledLock = takeFromPool();
+         if (pooledLock == null) {
+            pooledLock = new PooledLock();
+         }
+         pooledLock.key = key;
+      }
+      LockRequest request = requests.get();
+      request.promise = pooledLock.lock.acquire(request.lockOwner, request.time, request.timeUnit);
+      return pooledLock;
+   }
+
+   private PooledLock releaseInMap(Object key, PooledLock pooledLock) {
+      LockRequest request = requests.get();
+      request.releasing = pooledLock;
+      pooledLock.lock.release(request.lockOwner);
+      return removeIfFree(key, pooledLock);
+   }
+
+   private PooledLock removeIfFree(Object key, PooledLock pooledLock) {
+      if (pooledLock.lock.isLocked()) {
+         return pooledLock;
+      }
+      pooledLock.key = null;
+      if (!pooledLock.exposed && pooledLock.lock.isFree()) {
+         //returned to the pool after it is removed from the map
+         requests.get().toRecycle = pooledLock;
+      }
+      //otherwise getLock() returned it or a lock owner timed out and didn't clean up yet, the lock can't be reused
+      return null;
+   }
+
+   private static PooledLock expose(Object key, PooledLock pooledLock) {
+      pooledLock.exposed = true;
+      return pooledLock;
+   }
+
+   private PooledLock takeFromPool() {
+      int start = ThreadLocalRandom.current().nextInt(poolSize);
+      for (int i = 0; i < MAX_PROBES; i++) {
+         int index = ((start + i) % poolSize) * SLOT_STRIDE;
+         PooledLock pooledLock = pool.get(index);
+         if (pooledLock != null && pool.compareAndSet(index, pooledLock, null)) {
+            return pooledLock;
+         }
+      }
+      return null;
+   }
+
+   private void returnToPool(PooledLock pooledLock) {
+      if (pooledLock == null) {
+         return;
+      }
+      int start = ThreadLocalRandom.current().nextInt(poolSize);
+      for (int i = 0; i < MAX_PROBES; i++) {
+         int index = ((start + i) % poolSize) * SLOT_STRIDE;
+         if (pool.get(index) == null && pool.compareAndSet(index, null, pooledLock)) {
+            return;
+         }
+      }
+      //the pool is full, let the garbage collector have it
+   }
+
+   private class PooledLock implements Runnable {
+      private final InfinispanLock lock;
+      private volatile Object key;
+      //only accessed by the map functions of its key
+      private boolean exposed;
+
+      private PooledLock() {
+         lock = new InfinispanLock(timeService, this);
+         lock.setLockWaitListener(lockWaitListener);
+      }
+
+      /**
+       * Invoked when a lock owner releases the lock or cleans up after a timeout.
+       */
+      @Override
+      public void run() {
+         Object currentKey = key;
+         if (currentKey == null || requests.get().releasing == this) {
+            //not in the map, or release() will remove it
+            return;
+         }
+         LockRequest request = startRequest();
+         try {
+            lockMap.computeIfPresent(currentKey, removeIfFreeFunction);
+            returnToPool(request.toRecycle);
+         } finally {
+            endRequest(request);
+         }
+      }
+
+      @Override
+      public String toString() {
+         return lock.toString();
+      }
+   }
+
+   /**
+    * The arguments and the result of the map functions.
+    */
+   private static class LockRequest {
+      Object lockOwner;
+      long time;
+      TimeUnit timeUnit;
+      ExtendedLockPromise promise;
+      PooledLock releasing;
+      PooledLock toRecycle;
+      boolean inUse;
+      LockRequest outer;
+
+      void clear() {
+         lockOwner = null;
+         timeUnit = null;
+         promise = null;
+         releasing = null;
+         toRecycle = null;
+         inUse = false;
+         outer = null;
+      }
+   }
+}
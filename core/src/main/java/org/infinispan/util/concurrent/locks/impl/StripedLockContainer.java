@@ -6,6 +6,7 @@
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.locks.DeadlockChecker;
 import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
+import org.infinispan.util.concurrent.locks.LockWaitListener;
 
 import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
@@ -22,6 +23,7 @@ public class StripedLockContainer implements LockContainer {
 
    private final InfinispanLock[] sharedLocks;
    private final StripedHashFunction<Object> hashFunction;
+   private volatile LockWaitListener lockWaitListener;
 
    public StripedLockContainer(int concurrencyLevel, Equivalence<Object> keyEquivalence) {
       this.hashFunction = new StripedHashFunction<>(keyEquivalence, concurrencyLevel);
@@ -33,6 +35,7 @@ public void inject(TimeService timeService) {
       for (int i = 0; i < sharedLocks.length; i++) {
          if (sharedLocks[i] == null) {
             sharedLocks[i] = new InfinispanLock(timeService);
+            sharedLocks[i].setLockWaitListener(lockWaitListener);
          } else {
             sharedLocks[i].setTimeService(timeService);
          }
@@ -80,6 +83,16 @@ public void deadlockCheck(DeadlockChecker deadlockChecker) {
       forEach(sharedLocks, lock -> lock.deadlockCheck(deadlockChecker));
    }
 
+   @Override
+   public void setLockWaitListener(LockWaitListener lockWaitListener) {
+      this.lockWaitListener = lockWaitListener;
+      for (InfinispanLock lock : sharedLocks) {
+         if (lock != null) {
+            lock.setLockWaitListener(lockWaitListener);
+         }
+      }
+   }
+
    @Override
    public String toString() {
       return "StripedLockContainer{" +
@@ -1426,4 +1426,26 @@ TimeoutException timeoutWaitingForView(int expectedViewId, int currentViewId,
    @LogMessage(level = WARN)
    @Message(value = "The %s is no longer supported since version %s. Attribute %s on line %d will be ignored.", id = 415)
    void ignoredAttribute(String componentName, String version, String attributeName, int line);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Thread pool %s is starving: %d threads are busy, %d tasks are waiting and no task completed in the last %d milliseconds", id = 416)
+   void threadPoolStarving(String pool, int activeThreads, int queuedTasks, long millis);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Thread pools %s are starving at the same time, their threads are probably waiting for each other's tasks. Consider increasing their sizes", id = 417)
+   void threadPoolStarvationDeadlock(List<String> pools);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Problem %s encountered when writing the state of segment %d to the cache stores, writing the entries one by one", id = 418)
+   void problemWritingStateToStores(String msg, int segmentId, @Cause Throwable t);
+
+   @Message(value = "The negative lookup filter cannot be enabled on a shared store, the other nodes would write keys that the filter does not know", id = 419)
+   CacheConfigurationException negativeLookupFilterWithSharedStore();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Failed to build the negative lookup filter of store %s", id = 420)
+   void failedToBuildNegativeLookupFilter(String store, @Cause Throwable t);
+
+   @Message(value = "Read-only commit mode VALIDATED requires optimistic locking, REPEATABLE_READ isolation level, write skew check and versioning", id = 421)
+   CacheConfigurationException validatedReadOnlyCommitRequiresVersions();
 }
@@ -21,6 +21,7 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.Index;
+import org.infinispan.configuration.cache.VersioningScheme;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.manager.EmbeddedCacheManager;
@@ -31,6 +32,8 @@
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.infinispan.test.fwk.TransportFlags;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.transaction.ReadOnlyCommitMode;
 import org.infinispan.transaction.TransactionMode;
 import org.infinispan.transaction.lookup.DummyTransactionManagerLookup;
 import org.infinispan.util.concurrent.IsolationLevel;
@@ -392,4 +395,32 @@ public void call() {
       });
    }
 
+   @Test(expectedExceptions = CacheConfigurationException.class,
+         expectedExceptionsMessageRegExp = "ISPN(\\d)*: Read-only commit mode VALIDATED requires .*")
+   public void testValidatedReadOnlyCommitWithoutWriteSkewCheck() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.transaction().transactionMode(TransactionMode.TRANSACTIONAL).lockingMode(LockingMode.OPTIMISTIC)
+            .readOnlyCommitMode(ReadOnlyCommitMode.VALIDATED);
+      builder.locking().isolationLevel(IsolationLevel.REPEATABLE_READ);
+      builder.versioning().enable().scheme(VersioningScheme.SIMPLE);
+      builder.build();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class,
+         expectedExceptionsMessageRegExp = "ISPN(\\d)*: Read-only commit mode VALIDATED requires .*")
+   public void testValidatedReadOnlyCommitWithPessimisticLocking() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.transaction().transactionMode(TransactionMode.TRANSACTIONAL).lockingMode(LockingMode.PESSIMISTIC)
+            .readOnlyCommitMode(ReadOnlyCommitMode.VALIDATED);
+      builder.build();
+   }
+
+   public void testValidatedReadOnlyCommit() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.transaction().transactionMode(TransactionMode.TRANSACTIONAL).lockingMode(LockingMode.OPTIMISTIC)
+            .readOnlyCommitMode(ReadOnlyCommitMode.VALIDATED);
+      builder.locking().isolationLevel(IsolationLevel.REPEATABLE_READ).writeSkewCheck(true);
+      builder.versioning().enable().scheme(VersioningScheme.SIMPLE);
+      assertEquals(builder.build().transaction().readOnlyCommitMode(), ReadOnlyCommitMode.VALIDATED);
+   }
 }
@@ -98,6 +98,8 @@ private static void configurationCheck90(EmbeddedCacheManager cm) {
       GlobalConfiguration globalConfiguration = cm.getCacheManagerConfiguration();
       assertEquals(4, globalConfiguration.transport().initialClusterSize());
       assertEquals(30000, globalConfiguration.transport().initialClusterTimeout());
+      assertTrue(globalConfiguration.listenerThreadPool().adaptive());
+      assertFalse(globalConfiguration.asyncThreadPool().adaptive());
    }
 
    private static void configurationCheck82(EmbeddedCacheManager cm) {
@@ -0,0 +1,61 @@
+package org.infinispan.container.versioning;
+
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests {@link EntryVersionsMap#merge(EntryVersionsMap)}.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "container.versioning.EntryVersionsMapTest")
+public class EntryVersionsMapTest {
+
+   private static final IncrementableEntryVersion V1 = new SimpleClusteredVersion(1, 1);
+   private static final IncrementableEntryVersion V2 = new SimpleClusteredVersion(1, 2);
+
+   public void testMergeIntoLargerMap() {
+      EntryVersionsMap versions = new EntryVersionsMap();
+      versions.put("k1", null);
+      versions.put("k2", V1);
+
+      EntryVersionsMap updated = new EntryVersionsMap();
+      updated.put("k1", V2);
+      updated.put("k2", V2);
+      updated.put("k3", V2);
+
+      EntryVersionsMap merged = versions.merge(updated);
+      assertSame(updated, merged);
+      assertMerged(merged);
+   }
+
+   public void testMergeSmallerMap() {
+      EntryVersionsMap versions = new EntryVersionsMap();
+      versions.put("k1", null);
+      versions.put("k2", V1);
+      versions.put("k4", V1);
+      versions.put("k5", V1);
+
+      EntryVersionsMap updated = new EntryVersionsMap();
+      updated.put("k1", V2);
+      updated.put("k2", V2);
+      updated.put("k3", V2);
+
+      EntryVersionsMap merged = versions.merge(updated);
+      assertSame(versions, merged);
+      assertMerged(merged);
+      assertSame(V1, merged.get("k4"));
+   }
+
+   private static void assertMerged(EntryVersionsMap merged) {
+      //the versions of the map merged into take precedence, even when they are null
+      assertTrue(merged.containsKey("k1"));
+      assertNull(merged.get("k1"));
+      assertSame(V1, merged.get("k2"));
+      assertSame(V2, merged.get("k3"));
+   }
+
+}
@@ -0,0 +1,147 @@
+package org.infinispan.distribution;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+
+/**
+ * Tests that {@code size()} computed from the per-segment counters matches the exact size.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "distribution.DistSizeCountersTest")
+public class DistSizeCountersTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_KEYS = 100;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(2).numSegments(20);
+      createCluster(builder, 3);
+      waitForClusterToForm();
+   }
+
+   public void testSizeFromCounters() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(i % 3).put("k" + i, "v" + i);
+      }
+      assertSize(NUM_KEYS);
+      assertPrimarySegmentCounters(NUM_KEYS);
+
+      for (int i = 0; i < NUM_KEYS / 2; i++) {
+         cache(i % 3).remove("k" + i);
+      }
+      assertSize(NUM_KEYS / 2);
+      assertPrimarySegmentCounters(NUM_KEYS / 2);
+
+      cache(0).clear();
+      assertSize(0);
+      assertPrimarySegmentCounters(0);
+   }
+
+   public void testSizeWithExpirableEntries() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+      cache(0).put("mortal", "v", 10, TimeUnit.MINUTES);
+      // The counters cannot tell whether the mortal entry expired, so the exact size is computed
+      assertSize(NUM_KEYS + 1);
+      cache(0).clear();
+   }
+
+   public void testClearRacingWithWrites() throws Exception {
+      DataContainer<Object, Object> dataContainer = TestingUtil.extractComponent(cache(0), DataContainer.class);
+      Metadata metadata = new EmbeddedMetadata.Builder().build();
+      Metadata mortalMetadata = new EmbeddedMetadata.Builder().lifespan(10, TimeUnit.MINUTES).build();
+      AtomicBoolean stop = new AtomicBoolean();
+      Future<Void> writer = fork(() -> {
+         for (int i = 0; !stop.get(); i++) {
+            int k = i % NUM_KEYS;
+            if (i % 3 == 2) {
+               dataContainer.remove("k" + k);
+            } else {
+               dataContainer.put("k" + k, "v" + i, k % 2 == 0 ? metadata : mortalMetadata);
+            }
+         }
+         return null;
+      });
+      try {
+         for (int i = 0; i < 1000; i++) {
+            dataContainer.clear();
+            Thread.yield();
+         }
+      } finally {
+         stop.set(true);
+      }
+      writer.get(10, TimeUnit.SECONDS);
+
+      Set<Integer> allSegments = allSegments();
+      assertEquals(dataContainer.sizeIncludingExpired(), dataContainer.sizeIncludingExpired(allSegments));
+      long mortalEntries = dataContainer.keySet().stream().filter(k -> dataContainer.peek(k).canExpire()).count();
+      assertEquals(mortalEntries, dataContainer.expirableSizeIncludingExpired(allSegments));
+
+      dataContainer.clear();
+      assertEquals(0, dataContainer.sizeIncludingExpired(allSegments));
+      assertEquals(0, dataContainer.expirableSizeIncludingExpired(allSegments));
+   }
+
+   public void testContainsKeyUpdatesCountersOfExpiredEntry() {
+      DataContainer<Object, Object> dataContainer = TestingUtil.extractComponent(cache(0), DataContainer.class);
+      dataContainer.put("k", "v", new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.MILLISECONDS).build());
+      Set<Integer> allSegments = allSegments();
+      assertEquals(1, dataContainer.sizeIncludingExpired(allSegments));
+      assertEquals(1, dataContainer.expirableSizeIncludingExpired(allSegments));
+
+      TestingUtil.sleepThread(10);
+      assertFalse(dataContainer.containsKey("k"));
+      assertEquals(0, dataContainer.sizeIncludingExpired(allSegments));
+      assertEquals(0, dataContainer.expirableSizeIncludingExpired(allSegments));
+   }
+
+   private Set<Integer> allSegments() {
+      Set<Integer> segments = new HashSet<>();
+      for (int i = 0; i < advancedCache(0).getDistributionManager().getConsistentHash().getNumSegments(); i++) {
+         segments.add(i);
+      }
+      return segments;
+   }
+
+   private void assertSize(int expectedSize) {
+      for (Cache<Object, Object> cache : this.<Object, Object>caches()) {
+         assertEquals(expectedSize, cache.size());
+         assertEquals(expectedSize, cache.getAdvancedCache().withFlags(Flag.EXACT_SIZE).size());
+      }
+   }
+
+   private void assertPrimarySegmentCounters(int expectedSize) {
+      ConsistentHash ch = advancedCache(0).getDistributionManager().getConsistentHash();
+      long size = 0;
+      Set<Integer> allSegments = new HashSet<>();
+      for (Cache<Object, Object> cache : this.<Object, Object>caches()) {
+         Set<Integer> segments = ch.getPrimarySegmentsForOwner(address(cache));
+         allSegments.addAll(segments);
+         DataContainer dataContainer = TestingUtil.extractComponent(cache, DataContainer.class);
+         size += dataContainer.sizeIncludingExpired(segments);
+      }
+      assertEquals(ch.getNumSegments(), allSegments.size());
+      assertEquals(expectedSize, size);
+   }
+}
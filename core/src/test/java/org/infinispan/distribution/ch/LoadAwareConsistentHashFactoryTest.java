@@ -0,0 +1,83 @@
+package org.infinispan.distribution.ch;
+
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.distribution.TestAddress;
+import org.infinispan.distribution.ch.impl.DefaultConsistentHash;
+import org.infinispan.distribution.ch.impl.LoadAwareConsistentHashFactory;
+import org.infinispan.distribution.ch.impl.OwnershipStatistics;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.topology.NodeLoad;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test that {@link LoadAwareConsistentHashFactory} moves segments away from overloaded nodes, gradually.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "distribution.ch.LoadAwareConsistentHashFactoryTest")
+public class LoadAwareConsistentHashFactoryTest extends AbstractInfinispanTest {
+
+   private static final int NUM_SEGMENTS = 60;
+
+   private final Address a = new TestAddress(0, "A");
+   private final Address b = new TestAddress(1, "B");
+   private final Address c = new TestAddress(2, "C");
+   private final List<Address> members = Arrays.asList(a, b, c);
+
+   public void testBalancedLoadDoesNotRebalance() {
+      LoadAwareConsistentHashFactory chf = new LoadAwareConsistentHashFactory();
+      assertFalse(chf.updateNodeLoad(a, new NodeLoad(0.5f, 1000, 100), members));
+      assertFalse(chf.updateNodeLoad(b, new NodeLoad(0.52f, 1020, 95), members));
+      assertFalse(chf.updateNodeLoad(c, new NodeLoad(0.48f, 980, 105), members));
+      assertEquals(chf.getWeight(a), 1f);
+   }
+
+   public void testOverloadedNodeLosesSegmentsGradually() {
+      LoadAwareConsistentHashFactory chf = new LoadAwareConsistentHashFactory();
+      DefaultConsistentHash ch = chf.create(MurmurHash3.getInstance(), 2, NUM_SEGMENTS, members, null);
+      OwnershipStatistics initialStats = new OwnershipStatistics(ch, members);
+
+      // No decision until all the members reported their load
+      assertFalse(chf.updateNodeLoad(a, new NodeLoad(0.9f, 3000, 300), members));
+      assertFalse(chf.updateNodeLoad(b, new NodeLoad(0.4f, 1000, 100), members));
+      assertTrue(chf.updateNodeLoad(c, new NodeLoad(0.4f, 1000, 100), members));
+
+      // The weight change is limited by the max weight change factor
+      float weightA = chf.getWeight(a);
+      assertTrue(weightA < 1f);
+      assertTrue(weightA >= 1f - LoadAwareConsistentHashFactory.DEFAULT_MAX_WEIGHT_CHANGE);
+      assertTrue(chf.getWeight(b) > 1f);
+
+      DefaultConsistentHash updatedCH = chf.updateMembers(ch, members, null);
+      DefaultConsistentHash balancedCH = chf.rebalance(updatedCH);
+      OwnershipStatistics stats = chf.getLastStatistics();
+      assertNotNull(stats);
+      assertEquals(stats.getOwned(a), new OwnershipStatistics(balancedCH, members).getOwned(a));
+      assertTrue(stats.getOwned(a) < initialStats.getOwned(a));
+      assertTrue(stats.getPrimaryOwned(a) < initialStats.getPrimaryOwned(a));
+      assertEquals(stats.sumPrimaryOwned(), NUM_SEGMENTS);
+
+      // The old reports are discarded after a decision
+      assertFalse(chf.updateNodeLoad(a, new NodeLoad(0.9f, 3000, 300), members));
+   }
+
+   public void testLeaverWeightIsDiscarded() {
+      LoadAwareConsistentHashFactory chf = new LoadAwareConsistentHashFactory();
+      DefaultConsistentHash ch = chf.create(MurmurHash3.getInstance(), 2, NUM_SEGMENTS, members, null);
+      chf.updateNodeLoad(a, new NodeLoad(0.9f, 3000, 300), members);
+      chf.updateNodeLoad(b, new NodeLoad(0.4f, 1000, 100), members);
+      assertTrue(chf.updateNodeLoad(c, new NodeLoad(0.4f, 1000, 100), members));
+
+      chf.updateMembers(ch, Arrays.asList(b, c), null);
+      assertEquals(chf.getWeight(a), 1f);
+   }
+}
@@ -138,6 +138,22 @@ public void testRemoveGroupKeys() {
       AssertJUnit.assertTrue(testCache.testCache.getGroup(GROUP).isEmpty());
    }
 
+   public void testGroupIndex() {
+      final TestCache testCache = createTestCacheAndReset(GROUP, this.caches());
+      initCache(testCache.primaryOwner);
+      DataContainer dataContainer = TestingUtil.extractComponent(extractTargetCache(testCache), DataContainer.class);
+      AssertJUnit.assertEquals(createMap(0, 10).keySet(), dataContainer.keysInGroup(GROUP));
+
+      testCache.primaryOwner.remove(key(0));
+      AssertJUnit.assertEquals(createMap(1, 10).keySet(), dataContainer.keysInGroup(GROUP));
+
+      testCache.testCache.removeGroup(GROUP);
+      AssertJUnit.assertTrue(dataContainer.keysInGroup(GROUP).isEmpty());
+      if (isGroupOwner(extractTargetCache(testCache), "other-group")) {
+         AssertJUnit.assertEquals(10, dataContainer.keysInGroup("other-group").size());
+      }
+   }
+
    public void testRemoveGroupKeysWithPersistence() {
       final TestCache testCache = createTestCacheAndReset(GROUP, this.caches(PERSISTENCE_CACHE));
       initCache(testCache.primaryOwner);
@@ -0,0 +1,182 @@
+package org.infinispan.executors;
+
+import org.infinispan.commons.executors.BlockingThreadPoolExecutorFactory;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.CacheManagerCallable;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.test.TestingUtil.withCacheManager;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests for {@link InstrumentedThreadPoolExecutor} and {@link ThreadPoolStatistics}.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "executors.InstrumentedThreadPoolExecutorTest")
+public class InstrumentedThreadPoolExecutorTest extends AbstractInfinispanTest {
+
+   public void testStatistics() throws Exception {
+      InstrumentedThreadPoolExecutor executor = new InstrumentedThreadPoolExecutor(2, 2, 60000,
+            new LinkedBlockingQueue<>(), getTestThreadFactory("Test"), new ThreadPoolExecutor.AbortPolicy(), false, 0);
+      try {
+         for (int i = 0; i < 10; i++) {
+            executor.submit(() -> {}).get(10, TimeUnit.SECONDS);
+         }
+         eventually(() -> executor.getStatistics().getExecutedTasks() == 10);
+         ThreadPoolStatistics statistics = executor.getStatistics();
+         assertEquals(0, statistics.getRejectedTasks());
+         assertEquals(10, histogramCount(statistics));
+
+         statistics.reset();
+         assertEquals(0, statistics.getExecutedTasks());
+         assertTrue(statistics.getQueueTimeHistogram().isEmpty());
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+   public void testRejectedTasksAreCounted() throws Exception {
+      InstrumentedThreadPoolExecutor executor = new InstrumentedThreadPoolExecutor(1, 1, 60000,
+            new SynchronousQueue<>(), getTestThreadFactory("Test"), new ThreadPoolExecutor.CallerRunsPolicy(), false, 0);
+      CountDownLatch latch = new CountDownLatch(1);
+      try {
+         Future<?> blocked = executor.submit(() -> {
+            latch.await();
+            return null;
+         });
+         Thread caller = Thread.currentThread();
+         Thread[] runner = new Thread[1];
+         executor.execute(() -> {
+            runner[0] = Thread.currentThread();
+            TestingUtil.sleepThread(10);
+         });
+         assertEquals(caller, runner[0]);
+         assertEquals(1, executor.getStatistics().getRejectedTasks());
+         //the task run by the caller is included in the rejection time
+         assertTrue(executor.getStatistics().getAverageRejectionTime() >= TimeUnit.MILLISECONDS.toMicros(10));
+
+         latch.countDown();
+         blocked.get(10, TimeUnit.SECONDS);
+      } finally {
+         latch.countDown();
+         executor.shutdownNow();
+      }
+   }
+
+   public void testAdaptivePoolGrowsWhenTasksWait() throws Exception {
+      InstrumentedThreadPoolExecutor executor = new InstrumentedThreadPoolExecutor(1, 64, 60000,
+            new LinkedBlockingQueue<>(), getTestThreadFactory("Test"), new ThreadPoolExecutor.AbortPolicy(), true, 0);
+      CountDownLatch latch = new CountDownLatch(1);
+      try {
+         for (int i = 0; i < 4; i++) {
+            executor.submit(() -> {
+               latch.await();
+               return null;
+            });
+         }
+         eventually(() -> executor.getActiveCount() == 1);
+         assertEquals(1, executor.getCorePoolSize());
+
+         int newSize = executor.adjustPoolSize();
+         assertTrue(newSize > 1);
+         assertEquals(newSize, executor.getCorePoolSize());
+         eventually(() -> executor.getActiveCount() == Math.min(4, newSize));
+
+         latch.countDown();
+         eventually(() -> executor.getCompletedTaskCount() == 4);
+      } finally {
+         latch.countDown();
+         executor.shutdownNow();
+      }
+   }
+
+   public void testDirectHandoffPoolKeepsItsMaximumSize() throws Exception {
+      InstrumentedThreadPoolExecutor executor = new InstrumentedThreadPoolExecutor(1, 8, 60000,
+            new SynchronousQueue<>(), getTestThreadFactory("Test"), new ThreadPoolExecutor.CallerRunsPolicy(), true, 0);
+      CountDownLatch latch = new CountDownLatch(1);
+      try {
+         List<Future<?>> tasks = new ArrayList<>();
+         for (int i = 0; i < 4; i++) {
+            tasks.add(executor.submit(() -> {
+               latch.await();
+               return null;
+            }));
+         }
+         eventually(() -> executor.getActiveCount() == 4);
+         int newSize = executor.adjustPoolSize();
+         assertTrue(newSize > 1);
+         assertEquals(newSize, executor.getCorePoolSize());
+         assertEquals(8, executor.getMaximumPoolSize());
+
+         latch.countDown();
+         for (Future<?> task : tasks) {
+            task.get(10, TimeUnit.SECONDS);
+         }
+         eventually(() -> executor.getActiveCount() == 0);
+         //idle, so it shrinks back towards the target size, but never below the maximum pool size it was created with
+         for (int i = 0; i < newSize; i++) {
+            executor.adjustPoolSize();
+            assertEquals(8, executor.getMaximumPoolSize());
+         }
+         assertEquals(0, executor.getStatistics().getRejectedTasks());
+         //the tasks are handed to the threads directly, and the time until they start is still recorded
+         assertEquals(4, histogramCount(executor.getStatistics()));
+      } finally {
+         latch.countDown();
+         executor.shutdownNow();
+      }
+   }
+
+   public void testConfiguredPoolIsInstrumented() {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.listenerThreadPool().threadPoolFactory(new BlockingThreadPoolExecutorFactory(4, 1, 0, 60000)).adaptive(true);
+      withCacheManager(new CacheManagerCallable(TestCacheManagerFactory.createCacheManager(global, new ConfigurationBuilder())) {
+         @Override
+         public void call() throws Exception {
+            ExecutorService executor = TestingUtil.extractGlobalComponentRegistry(cm)
+                  .getComponent(ExecutorService.class, KnownComponentNames.ASYNC_NOTIFICATION_EXECUTOR);
+            executor.submit(() -> {}).get(10, TimeUnit.SECONDS);
+            ThreadPoolMonitor monitor = TestingUtil.extractGlobalComponent(cm, ThreadPoolMonitor.class);
+            ThreadPoolStatistics statistics = monitor.statistics("notification-thread");
+            assertNotNull(statistics);
+            eventually(() -> statistics.getExecutedTasks() == 1);
+            assertTrue(monitor.getThreadPools().contains("notification-thread"));
+         }
+      });
+   }
+
+   public void testHistogramBuckets() {
+      assertEquals(0, ThreadPoolStatistics.bucket(0));
+      assertEquals(1, ThreadPoolStatistics.bucket(1));
+      assertEquals(2, ThreadPoolStatistics.bucket(3));
+      assertEquals(11, ThreadPoolStatistics.bucket(1024));
+      assertEquals(ThreadPoolStatistics.HISTOGRAM_BUCKETS - 1, ThreadPoolStatistics.bucket(Long.MAX_VALUE));
+   }
+
+   private static long histogramCount(ThreadPoolStatistics statistics) {
+      long count = 0;
+      for (Map.Entry<String, Long> bucket : statistics.getQueueTimeHistogram().entrySet()) {
+         count += bucket.getValue();
+      }
+      return count;
+   }
+}
@@ -7,14 +7,21 @@
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.infinispan.transaction.lookup.DummyTransactionManagerLookup;
 import org.infinispan.transaction.tm.DummyTransactionManager;
+import org.infinispan.util.concurrent.TimeoutException;
+import org.infinispan.util.concurrent.locks.LockManager;
 import org.testng.annotations.Test;
 
+import javax.management.Attribute;
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
 import javax.transaction.TransactionManager;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.infinispan.test.TestingUtil.checkMBeanOperationParameterNaming;
 import static org.infinispan.test.TestingUtil.getCacheObjectName;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
 
 /**
  * Test the JMX functionality in {@link org.infinispan.util.concurrent.locks.LockManager}.
@@ -84,6 +91,45 @@ public void testNumberOfLocksAvailable() throws Exception {
       assertAttributeValue("NumberOfLocksHeld", 0);
    }
 
+   public void testContentionStatistics() throws Exception {
+      LockManager lockManager = TestingUtil.extractLockManager(cache);
+      threadMBeanServer.invoke(lockManagerObjName, "resetStatistics", new Object[0], new String[0]);
+
+      lockManager.lock("contended", "owner1", 0, TimeUnit.MILLISECONDS).lock();
+      try {
+         lockManager.lock("contended", "owner2", 10, TimeUnit.MILLISECONDS).lock();
+         fail("TimeoutException expected");
+      } catch (TimeoutException e) {
+         //expected
+      } finally {
+         lockManager.unlock("contended", "owner2");
+         lockManager.unlock("contended", "owner1");
+      }
+
+      assertEquals(threadMBeanServer.getAttribute(lockManagerObjName, "LockAcquisitions"), 2L);
+      assertEquals(threadMBeanServer.getAttribute(lockManagerObjName, "ContendedLockAcquisitions"), 1L);
+      assertEquals(threadMBeanServer.getAttribute(lockManagerObjName, "MaxLockQueueDepth"), 1L);
+      // the wait is recorded by the thread that timed out the lock request
+      eventually(() -> threadMBeanServer.getAttribute(lockManagerObjName, "FailedLockAcquisitions").equals(1L));
+      Map<?, ?> histogram = (Map<?, ?>) threadMBeanServer.getAttribute(lockManagerObjName, "LockWaitTimeHistogram");
+      assertEquals(histogram.size(), 1);
+      Map<?, ?> topKeys = (Map<?, ?>) threadMBeanServer.getAttribute(lockManagerObjName, "TopContendedKeys");
+      assertEquals(topKeys.get("contended"), 1L);
+   }
+
+   public void testContentionStatisticsDisabled() throws Exception {
+      LockManager lockManager = TestingUtil.extractLockManager(cache);
+      threadMBeanServer.invoke(lockManagerObjName, "resetStatistics", new Object[0], new String[0]);
+      threadMBeanServer.setAttribute(lockManagerObjName, new Attribute("StatisticsEnabled", false));
+      try {
+         lockManager.lock("key", "owner", 0, TimeUnit.MILLISECONDS).lock();
+         lockManager.unlock("key", "owner");
+         assertEquals(threadMBeanServer.getAttribute(lockManagerObjName, "LockAcquisitions"), 0L);
+      } finally {
+         threadMBeanServer.setAttribute(lockManagerObjName, new Attribute("StatisticsEnabled", true));
+      }
+   }
+
    private void assertAttributeValue(String attrName, int expectedVal) throws Exception {
       int cl = getAttrValue(attrName);
       assert cl == expectedVal : "expected " + expectedVal + ", but received " + cl;
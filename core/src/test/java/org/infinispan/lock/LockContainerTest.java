@@ -3,10 +3,13 @@
 import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.test.AbstractCacheTest;
 import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.impl.LockContainer;
 import org.infinispan.util.concurrent.locks.LockPromise;
+import org.infinispan.util.concurrent.locks.impl.InfinispanLock;
 import org.infinispan.util.concurrent.locks.impl.PerKeyLockContainer;
+import org.infinispan.util.concurrent.locks.impl.PooledLockContainer;
 import org.infinispan.util.concurrent.locks.impl.StripedLockContainer;
 import org.testng.AssertJUnit;
 import org.testng.annotations.Test;
@@ -21,6 +24,7 @@
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Unit test for {@link LockContainer}.
@@ -55,6 +59,77 @@ public void testSingleCounterWithStriped() throws ExecutionException, Interrupte
       doSingleCounterTest(lockContainer, 16);
    }
 
+   public void testSingleLockWithPooled() throws InterruptedException {
+      PooledLockContainer lockContainer = new PooledLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+      doSingleLockTest(lockContainer, -1);
+   }
+
+   public void testSingleCounterWithPooled() throws ExecutionException, InterruptedException {
+      PooledLockContainer lockContainer = new PooledLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+      doSingleCounterTest(lockContainer, -1);
+   }
+
+   public void testPooledLockIsReused() throws InterruptedException {
+      PooledLockContainer lockContainer = new PooledLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+
+      lockContainer.acquire("key1", "LO1", 0, TimeUnit.MILLISECONDS).lock();
+      lockContainer.release("key1", "LO1");
+      AssertJUnit.assertEquals(0, lockContainer.size());
+      AssertJUnit.assertEquals(1, pooledLocks(lockContainer));
+
+      //only one lock in the pool, the next key must take it
+      lockContainer.acquire("key2", "LO2", 0, TimeUnit.MILLISECONDS).lock();
+      AssertJUnit.assertEquals(0, pooledLocks(lockContainer));
+      AssertJUnit.assertTrue(lockContainer.isLocked("key2"));
+      AssertJUnit.assertFalse(lockContainer.isLocked("key1"));
+      lockContainer.release("key2", "LO2");
+      AssertJUnit.assertEquals(0, lockContainer.getNumLocksHeld());
+      AssertJUnit.assertEquals(0, lockContainer.size());
+      AssertJUnit.assertEquals(1, pooledLocks(lockContainer));
+   }
+
+   public void testPooledLockReturnedByGetLockIsNotReused() throws InterruptedException {
+      PooledLockContainer lockContainer = new PooledLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+
+      lockContainer.acquire("key1", "LO1", 0, TimeUnit.MILLISECONDS).lock();
+      InfinispanLock lock = lockContainer.getLock("key1");
+      lockContainer.release("key1", "LO1");
+      AssertJUnit.assertEquals(0, lockContainer.size());
+      AssertJUnit.assertEquals(0, pooledLocks(lockContainer));
+
+      lockContainer.acquire("key2", "LO2", 0, TimeUnit.MILLISECONDS).lock();
+      AssertJUnit.assertNotSame(lock, lockContainer.getLock("key2"));
+      AssertJUnit.assertNull(lock.getLockOwner());
+      lockContainer.release("key2", "LO2");
+   }
+
+   public void testPooledLockReentrantListener() throws InterruptedException {
+      PooledLockContainer lockContainer = new PooledLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+
+      lockContainer.acquire("key1", "LO1", 0, TimeUnit.MILLISECONDS).lock();
+      LockPromise promise = lockContainer.acquire("key1", "LO2", 1, TimeUnit.DAYS);
+      //invoked when LO1 releases key1, while the container is releasing it
+      promise.addListener(state -> {
+         lockContainer.acquire("key2", "LO2", 0, TimeUnit.MILLISECONDS);
+         lockContainer.release("key2", "LO2");
+      });
+      lockContainer.release("key1", "LO1");
+      promise.lock();
+      AssertJUnit.assertTrue(lockContainer.isLocked("key1"));
+      AssertJUnit.assertFalse(lockContainer.isLocked("key2"));
+      AssertJUnit.assertEquals(1, lockContainer.size());
+
+      lockContainer.release("key1", "LO2");
+      AssertJUnit.assertEquals(0, lockContainer.getNumLocksHeld());
+      AssertJUnit.assertEquals(0, lockContainer.size());
+      AssertJUnit.assertEquals(2, pooledLocks(lockContainer));
+   }
+
    private void doSingleCounterTest(LockContainer lockContainer, int poolSize) throws InterruptedException, ExecutionException {
       final NotThreadSafeCounter counter = new NotThreadSafeCounter();
       final String key = "key";
@@ -156,6 +231,17 @@ private void doSingleLockTest(LockContainer container, int poolSize) throws Inte
       }
    }
 
+   private static int pooledLocks(PooledLockContainer lockContainer) {
+      AtomicReferenceArray<?> pool = TestingUtil.extractField(lockContainer, "pool");
+      int count = 0;
+      for (int i = 0; i < pool.length(); i++) {
+         if (pool.get(i) != null) {
+            count++;
+         }
+      }
+      return count;
+   }
+
    private void acquireLock(LockPromise promise, boolean timeout) throws InterruptedException {
       try {
          promise.lock();
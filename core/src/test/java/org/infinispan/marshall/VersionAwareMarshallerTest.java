@@ -5,6 +5,10 @@
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.versioning.EntryVersionsMap;
+import org.infinispan.container.versioning.IncrementableEntryVersion;
+import org.infinispan.container.versioning.InequalVersionComparisonResult;
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.container.versioning.SimpleClusteredVersion;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.atomic.impl.AtomicHashMap;
 import org.infinispan.commands.ReplicableCommand;
@@ -280,6 +284,28 @@ public void testReplicableCommandsMarshalling() throws Exception {
       marshallAndAssertEquality(c18);
    }
 
+   public void testEntryVersionsMapMarshalling() throws Exception {
+      EntryVersionsMap versions = new EntryVersionsMap();
+      for (int i = 0; i < 10; i++) {
+         versions.put("key" + i, new SimpleClusteredVersion(i % 3, i * 1000L));
+      }
+      versions.put("numeric", new NumericVersion(5));
+      versions.put("null", null);
+
+      byte[] bytes = marshaller.objectToByteBuffer(versions);
+      EntryVersionsMap read = (EntryVersionsMap) marshaller.objectFromByteBuffer(bytes);
+      assert read.size() == versions.size() : "Expected " + versions + " but read " + read;
+      for (Map.Entry<Object, IncrementableEntryVersion> entry : versions.entrySet()) {
+         IncrementableEntryVersion readVersion = read.get(entry.getKey());
+         if (entry.getValue() == null) {
+            assert read.containsKey(entry.getKey()) && readVersion == null;
+         } else {
+            assert entry.getValue().compareTo(readVersion) == InequalVersionComparisonResult.EQUAL :
+                  "Expected " + entry.getValue() + " but read " + readVersion;
+         }
+      }
+   }
+
    public void testStateTransferControlCommand() throws Exception {
       Cache<Object,Object> cache = cm.getCache();
 
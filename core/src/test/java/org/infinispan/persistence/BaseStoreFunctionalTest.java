@@ -229,6 +229,11 @@ public void stop() {
             public void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode modes) {
                passivate.set(true);
             }
+
+            @Override
+            public void writeBatchToAllStores(Iterable<MarshalledEntry> entries, AccessMode mode) {
+               passivate.set(true);
+            }
          };
          cache.getAdvancedCache().getComponentRegistry().registerComponent(stub, PersistenceManager.class);
          cache.getAdvancedCache().getComponentRegistry().rewire();
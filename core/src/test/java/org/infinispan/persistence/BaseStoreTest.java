@@ -406,6 +406,27 @@ public void testStoreAndRemove() throws PersistenceException {
       assertEquals("k4", set.iterator().next().getKey());
    }
 
+   public void testWriteAndDeleteBatch() throws PersistenceException {
+      assertIsEmpty();
+
+      cl.writeBatch(Arrays.<MarshalledEntry<?, ?>>asList(marshalledEntry("k1", "v1", null), marshalledEntry("k2", "v2", null),
+                                                   marshalledEntry("k3", "v3", null), marshalledEntry("k4", "v4", null)));
+
+      Set<MarshalledEntry> set = TestingUtil.allEntries(cl);
+      assertSize(set, 4);
+      for (int i = 1; i <= 4; i++) {
+         MarshalledEntry me = cl.load("k" + i);
+         assertNotNull(me);
+         assertEquals("v" + i, unwrap(me.getValue()));
+      }
+
+      cl.deleteBatch(Arrays.<Object>asList("k1", "k2", "k3"));
+
+      set = TestingUtil.allEntries(cl);
+      assertSize(set, 1);
+      assertEquals("k4", set.iterator().next().getKey());
+   }
+
    public void testPurgeExpired() throws Exception {
       assertIsEmpty();
       // Increased lifespan and idle timeouts to accommodate slower cache stores
@@ -0,0 +1,85 @@
+package org.infinispan.persistence;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.AsyncInterceptorChain;
+import org.infinispan.interceptors.impl.CacheLoaderInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.mockito.AdditionalAnswers;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that the concurrent reads missing the same key share a single load from the cache store.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.LoadCoalescingTest")
+public class LoadCoalescingTest extends SingleCacheManagerTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.jmxStatistics().enable();
+      builder.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testConcurrentLoadsAreCoalesced() throws Exception {
+      cache.put("k", "v");
+      cache.getAdvancedCache().withFlags(Flag.SKIP_CACHE_STORE).clear();
+
+      AtomicInteger loads = new AtomicInteger();
+      CountDownLatch loadStarted = new CountDownLatch(1);
+      CountDownLatch releaseLoad = new CountDownLatch(1);
+      PersistenceManager pm = TestingUtil.extractComponent(cache, PersistenceManager.class);
+      Answer<Object> forwardedAnswer = AdditionalAnswers.delegatesTo(pm);
+      PersistenceManager mockManager = mock(PersistenceManager.class, withSettings().defaultAnswer(forwardedAnswer));
+      doAnswer(invocation -> {
+         loads.incrementAndGet();
+         loadStarted.countDown();
+         assertTrue(releaseLoad.await(10, TimeUnit.SECONDS));
+         return forwardedAnswer.answer(invocation);
+      }).when(mockManager).loadFromAllStores(any(), any(InvocationContext.class));
+      TestingUtil.replaceComponent(cache, PersistenceManager.class, mockManager, true);
+      try {
+         CacheLoaderInterceptor interceptor = TestingUtil.extractComponent(cache, AsyncInterceptorChain.class)
+               .findInterceptorExtending(CacheLoaderInterceptor.class);
+         interceptor.resetStatistics();
+
+         Future<Object> first = fork(() -> cache.get("k"));
+         assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+         Future<Object> second = fork(() -> cache.get("k"));
+         Future<Object> third = fork(() -> cache.get("k"));
+         eventuallyEquals("Coalesced loads", 2, interceptor::getCacheLoaderCoalescedLoads);
+
+         releaseLoad.countDown();
+         assertEquals("v", first.get(10, TimeUnit.SECONDS));
+         assertEquals("v", second.get(10, TimeUnit.SECONDS));
+         assertEquals("v", third.get(10, TimeUnit.SECONDS));
+         assertEquals(1, loads.get());
+         assertEquals(1, interceptor.getCacheLoaderLoads());
+      } finally {
+         releaseLoad.countDown();
+         TestingUtil.replaceComponent(cache, PersistenceManager.class, pm, true);
+      }
+   }
+}
@@ -30,6 +30,7 @@
 import org.infinispan.persistence.spi.AdvancedCacheWriter;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.TimeService;
@@ -89,7 +90,9 @@ public void write(MarshalledEntry entry) {
       }
       if (entry!= null) {
          if (debug) log.tracef("Store %s in dummy map store@%s", entry, Util.hexIdHashCode(store));
-         configuration.failKey();
+         if (entry.getKey().equals(configuration.failKey())) {
+            throw new PersistenceException("Failing to write key " + entry.getKey());
+         }
          store.put(entry.getKey(), serialize(entry));
       }
    }
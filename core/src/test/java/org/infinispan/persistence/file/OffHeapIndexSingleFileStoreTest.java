@@ -0,0 +1,80 @@
+package org.infinispan.persistence.file;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * Low level single-file cache store tests, with the index kept off-heap.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "persistence.file.OffHeapIndexSingleFileStoreTest")
+public class OffHeapIndexSingleFileStoreTest extends SingleFileStoreTest {
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      clearTempDir();
+      SingleFileStore store = new SingleFileStore();
+      ConfigurationBuilder configurationBuilder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      configurationBuilder
+            .persistence()
+               .addStore(SingleFileStoreConfigurationBuilder.class)
+                  .location(this.tmpDirectory)
+                  .offHeapIndex(true);
+      store.init(createContext(configurationBuilder.build()));
+      return store;
+   }
+
+   public void testConcurrentWritesAndReads() throws Exception {
+      int threads = 4;
+      int keys = 2000;
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+         int thread = t;
+         futures.add(fork(() -> {
+            // all the threads overwrite the shared keys, so the lookups keep finding their segment modified
+            for (int i = 0; i < keys; i++) {
+               cl.write(marshalledEntry("shared" + i % 100, "v" + thread, null));
+               cl.write(marshalledEntry("k" + thread + "-" + i, "v" + i, null));
+               int previous = i / 2;
+               MarshalledEntry<Object, Object> entry = cl.load("k" + thread + "-" + previous);
+               if (previous % 3 == 0 && previous < i) {
+                  assertNull(entry);
+               } else {
+                  assertEquals("v" + previous, entry.getValue());
+               }
+               if (i % 3 == 0) {
+                  cl.delete("k" + thread + "-" + i);
+               }
+            }
+            return null;
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get(1, TimeUnit.MINUTES);
+      }
+      for (int t = 0; t < threads; t++) {
+         for (int i = 0; i < keys; i++) {
+            MarshalledEntry<Object, Object> entry = cl.load("k" + t + "-" + i);
+            if (i % 3 == 0) {
+               assertNull(entry);
+            } else {
+               assertEquals("v" + i, entry.getValue());
+            }
+         }
+      }
+      assertEquals(100 + threads * (keys - (keys + 2) / 3), cl.size());
+   }
+}
@@ -0,0 +1,162 @@
+package org.infinispan.persistence.file;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.TestObjectStreamMarshaller;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.PersistenceMockUtil;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that the single-file cache store compaction moves the entries and shrinks the file.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "persistence.file.SingleFileStoreCompactionTest")
+public class SingleFileStoreCompactionTest extends AbstractInfinispanTest {
+
+   private static final int NUM_ENTRIES = 100;
+   private static final int NUM_REMOVED = 80;
+
+   SingleFileStore<Integer, String> store;
+   String tmpDirectory;
+   private TestObjectStreamMarshaller marshaller;
+
+   @BeforeClass
+   protected void setUpTempDir() {
+      tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+   }
+
+   @AfterClass
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   @BeforeMethod
+   public void setUp() throws Exception {
+      clearTempDir();
+      store = new SingleFileStore<>();
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder
+            .persistence()
+               .addStore(SingleFileStoreConfigurationBuilder.class)
+                  .location(this.tmpDirectory);
+
+      marshaller = new TestObjectStreamMarshaller();
+      store.init(PersistenceMockUtil.createContext(getClass().getSimpleName(), builder.build(), marshaller));
+      store.start();
+   }
+
+   @AfterMethod
+   public void tearDown() throws PersistenceException {
+      try {
+         if (store != null) {
+            store.clear();
+            store.stop();
+         }
+         marshaller.stop();
+      } finally {
+         store = null;
+      }
+   }
+
+   public void testCompactionMovesEntriesFromTheEnd() throws Exception {
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         store.write(new MarshalledEntryImpl<>(i, value(i), null, marshaller));
+      }
+      // free the start of the file
+      for (int i = 0; i < NUM_REMOVED; i++) {
+         store.delete(i);
+      }
+      long fileSize = store.getFileSize();
+
+      long shrunk = store.compact();
+
+      assertTrue("The file did not shrink", shrunk > 0);
+      assertEquals(fileSize - shrunk, store.getFileSize());
+      assertEquals(NUM_ENTRIES - NUM_REMOVED, store.size());
+      for (int i = 0; i < NUM_REMOVED; i++) {
+         assertNull(store.load(i));
+      }
+      for (int i = NUM_REMOVED; i < NUM_ENTRIES; i++) {
+         MarshalledEntry<Integer, String> entry = store.load(i);
+         assertEquals(value(i), entry.getValue());
+      }
+   }
+
+   public void testCompactionKeepsEntriesAfterRestart() throws Exception {
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         store.write(new MarshalledEntryImpl<>(i, value(i), null, marshaller));
+      }
+      for (int i = 0; i < NUM_REMOVED; i++) {
+         store.delete(i);
+      }
+      store.compact();
+      long fileSize = store.getFileSize();
+
+      store.stop();
+      store.start();
+
+      assertEquals(fileSize, store.getFileSize());
+      assertEquals(NUM_ENTRIES - NUM_REMOVED, store.size());
+      for (int i = NUM_REMOVED; i < NUM_ENTRIES; i++) {
+         MarshalledEntry<Integer, String> entry = store.load(i);
+         assertEquals(value(i), entry.getValue());
+      }
+   }
+
+   public void testBackgroundCompaction() throws Exception {
+      String location = tmpDirectory + "/background";
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder
+            .persistence()
+               .addStore(SingleFileStoreConfigurationBuilder.class)
+                  .location(location)
+                  .compactionInterval(10)
+                  .compactionThreshold(0.5f);
+      // the compaction is scheduled on the executors of the cache manager
+      EmbeddedCacheManager cacheManager = TestCacheManagerFactory.createCacheManager(builder);
+      try {
+         Cache<Integer, String> cache = cacheManager.getCache();
+         SingleFileStore<Integer, String> backgroundStore = TestingUtil.getFirstWriter(cache);
+         for (int i = 0; i < NUM_ENTRIES; i++) {
+            cache.put(i, value(i));
+         }
+         long fileSize = backgroundStore.getFileSize();
+         for (int i = 0; i < NUM_REMOVED; i++) {
+            cache.remove(i);
+         }
+
+         eventually(() -> backgroundStore.getFileSize() < fileSize);
+         for (int i = NUM_REMOVED; i < NUM_ENTRIES; i++) {
+            assertEquals(value(i), backgroundStore.load(i).getValue());
+         }
+      } finally {
+         TestingUtil.killCacheManagers(cacheManager);
+      }
+   }
+
+   private static String value(int i) {
+      StringBuilder sb = new StringBuilder("value-").append(i);
+      while (sb.length() < 200) {
+         sb.append('.');
+      }
+      return sb.toString();
+   }
+}
@@ -0,0 +1,133 @@
+package org.infinispan.persistence.file;
+
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+
+/**
+ * Overwrites the entries of a {@link SingleFileStore} with values of random sizes from several threads, with and
+ * without the background compaction and the synchronous writes, and logs the write time and the file size. Every
+ * value is filled with its key, so an entry that is moved or freed while it is still in use shows up as a value with
+ * the wrong content.
+ *
+ * @since 9.0
+ */
+@Test(groups = "stress", testName = "persistence.file.SingleFileStoreFragmentationStressTest")
+public class SingleFileStoreFragmentationStressTest extends AbstractInfinispanTest {
+
+   private static final int NUM_THREADS = 16;
+   private static final int NUM_KEYS = 10000;
+   private static final int MAX_VALUE_SIZE = 4096;
+   private static final int NUM_WRITES = Integer.getInteger("writes", 20000);
+
+   private String tmpDirectory;
+
+   @BeforeClass
+   protected void setUpTempDir() {
+      tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+   }
+
+   @AfterClass
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   public void testDefault() throws Exception {
+      runTest("Default", builder -> {});
+   }
+
+   public void testCompaction() throws Exception {
+      runTest("Compaction", builder -> builder.compactionInterval(1000).compactionThreshold(0.3f));
+   }
+
+   public void testSyncWrites() throws Exception {
+      runTest("Sync writes", builder -> builder.syncWrites(true));
+   }
+
+   public void testSyncWritesAndCompaction() throws Exception {
+      runTest("Sync writes and compaction", builder -> builder.syncWrites(true).compactionInterval(1000).compactionThreshold(0.3f));
+   }
+
+   private void runTest(String name, StoreConfigurer configurer) throws Exception {
+      Util.recursiveFileRemove(tmpDirectory);
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      SingleFileStoreConfigurationBuilder storeBuilder = builder.persistence()
+            .addStore(SingleFileStoreConfigurationBuilder.class)
+            .location(tmpDirectory);
+      configurer.configure(storeBuilder);
+
+      // the compaction runs on the executors of the cache manager
+      EmbeddedCacheManager cacheManager = TestCacheManagerFactory.createCacheManager(builder);
+      try {
+         SingleFileStore<Integer, byte[]> store = TestingUtil.getFirstWriter(cacheManager.<Integer, byte[]>getCache());
+         StreamingMarshaller marshaller = TestingUtil.extractGlobalMarshaller(cacheManager);
+         for (int i = 0; i < NUM_KEYS; i++) {
+            store.write(new MarshalledEntryImpl<>(i, value(i, MAX_VALUE_SIZE / 2), null, marshaller));
+         }
+         long initialSize = store.getFileSize();
+
+         List<Future<Long>> futures = new ArrayList<>(NUM_THREADS);
+         for (int i = 0; i < NUM_THREADS; i++) {
+            futures.add(fork(() -> {
+               ThreadLocalRandom random = ThreadLocalRandom.current();
+               long start = System.nanoTime();
+               for (int j = 0; j < NUM_WRITES; j++) {
+                  int key = random.nextInt(NUM_KEYS);
+                  store.write(new MarshalledEntryImpl<>(key, value(key, random.nextInt(MAX_VALUE_SIZE)), null, marshaller));
+               }
+               return System.nanoTime() - start;
+            }));
+         }
+         long writeNanos = 0;
+         for (Future<Long> future : futures) {
+            writeNanos += future.get();
+         }
+
+         long fileSize = store.getFileSize();
+         log.infof("%s: %d writes, %.1f us per write in each thread, file size %d -> %d bytes, %.1f%% free", name,
+               NUM_WRITES * NUM_THREADS, writeNanos / (double) (NUM_WRITES * NUM_THREADS) / 1000, initialSize, fileSize,
+               100.0 * store.getFreeSpace() / fileSize);
+
+         assertEquals(NUM_KEYS, store.size());
+         for (int i = 0; i < NUM_KEYS; i++) {
+            MarshalledEntry<Integer, byte[]> entry = store.load(i);
+            assertNotNull("Key " + i, entry);
+            byte[] value = entry.getValue();
+            for (byte b : value) {
+               assertEquals("Key " + i, (byte) i, b);
+            }
+         }
+      } finally {
+         TestingUtil.killCacheManagers(cacheManager);
+      }
+   }
+
+   private static byte[] value(int key, int size) {
+      byte[] value = new byte[size];
+      Arrays.fill(value, (byte) key);
+      return value;
+   }
+
+   private interface StoreConfigurer {
+      void configure(SingleFileStoreConfigurationBuilder builder);
+   }
+}
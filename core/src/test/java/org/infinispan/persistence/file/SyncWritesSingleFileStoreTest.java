@@ -0,0 +1,30 @@
+package org.infinispan.persistence.file;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Low level single-file cache store tests, with the writes forced to disk.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "persistence.file.SyncWritesSingleFileStoreTest")
+public class SyncWritesSingleFileStoreTest extends SingleFileStoreTest {
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      clearTempDir();
+      SingleFileStore store = new SingleFileStore();
+      ConfigurationBuilder configurationBuilder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      configurationBuilder
+            .persistence()
+               .addStore(SingleFileStoreConfigurationBuilder.class)
+                  .location(this.tmpDirectory)
+                  .syncWrites(true);
+      store.init(createContext(configurationBuilder.build()));
+      return store;
+   }
+}
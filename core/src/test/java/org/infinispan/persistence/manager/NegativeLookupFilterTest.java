@@ -0,0 +1,98 @@
+package org.infinispan.persistence.manager;
+
+import static org.infinispan.test.TestingUtil.marshaller;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the loads of the keys that were never written skip the store when the negative lookup filter is enabled.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.manager.NegativeLookupFilterTest")
+@CleanupAfterMethod
+public class NegativeLookupFilterTest extends SingleCacheManagerTest {
+
+   private PersistenceManagerImpl persistenceManager;
+   private DummyInMemoryStore store;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder cfg = getDefaultStandaloneCacheConfig(false);
+      cfg.persistence()
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .negativeLookupFilter(true);
+      return TestCacheManagerFactory.createCacheManager(cfg);
+   }
+
+   @Override
+   protected void setup() throws Exception {
+      super.setup();
+      persistenceManager = (PersistenceManagerImpl) TestingUtil.extractComponent(cache, PersistenceManager.class);
+      store = (DummyInMemoryStore) persistenceManager.getAllLoaders().get(0);
+   }
+
+   public void testLoadsOfAbsentKeysSkipTheStore() {
+      cache.getAdvancedCache().withFlags(Flag.SKIP_CACHE_LOAD).put("k1", "v1");
+      cache.evict("k1");
+      store.clearStats();
+
+      assertEquals("v1", cache.get("k1"));
+      assertEquals(1, (int) store.stats().get("load"));
+
+      assertNull(cache.get("absent"));
+      assertEquals(1, (int) store.stats().get("load"));
+      assertEquals(1, persistenceManager.getNegativeLookupFilterSkippedLoads());
+      assertEquals(0.0, persistenceManager.getNegativeLookupFilterFalsePositiveRate());
+   }
+
+   public void testRemovedKeysAreFalsePositives() {
+      cache.getAdvancedCache().withFlags(Flag.SKIP_CACHE_LOAD).put("k1", "v1");
+      cache.remove("k1");
+      store.clearStats();
+
+      // the filter can't forget the key, so the store is asked
+      assertNull(cache.get("k1"));
+      assertEquals(1, (int) store.stats().get("load"));
+      assertEquals(1.0, persistenceManager.getNegativeLookupFilterFalsePositiveRate());
+   }
+
+   public void testRebuildFromStore() {
+      int numKeys = 1000;
+      for (int i = 0; i < numKeys; i++) {
+         store.write(new MarshalledEntryImpl("key" + i, "value" + i, null, marshaller(cache)));
+      }
+      NegativeLookupFilter filter = new NegativeLookupFilter((AdvancedCacheLoader<Object, Object>) (AdvancedCacheLoader) store,
+            cache.getCacheConfiguration().dataContainer().keyEquivalence());
+      assertFalse(filter.isBuilt());
+      assertTrue(filter.mightContain("absent"));
+
+      filter.rebuild();
+      assertTrue(filter.isBuilt());
+      for (int i = 0; i < numKeys; i++) {
+         assertTrue(filter.mightContain("key" + i));
+      }
+      int falsePositives = 0;
+      for (int i = 0; i < numKeys; i++) {
+         if (filter.mightContain("absent" + i)) {
+            falsePositives++;
+         }
+      }
+      assertTrue("False positives: " + falsePositives, falsePositives < numKeys / 20);
+   }
+}
@@ -66,7 +66,7 @@ public void call() {
 
             Cache<Integer, String> cache = cm.getCache();
 
-            MockAsyncCacheWriter cacheStore = TestingUtil.getFirstWriter(cache);
+            MockAsyncCacheWriter<Integer, String> cacheStore = TestingUtil.getFirstWriter(cache);
             CountDownLatch modApplyLatch = cacheStore.modApplyLatch;
             CountDownLatch lockedWaitLatch = cacheStore.lockedWaitLatch;
 
@@ -111,7 +111,7 @@ public void call() {
 
             Cache<Integer, String> cache = cm.getCache();
 
-            MockAsyncCacheWriter cacheStore = TestingUtil.getFirstWriter(cache);
+            MockAsyncCacheWriter<Integer, String> cacheStore = TestingUtil.getFirstWriter(cache);
             CountDownLatch modApplyLatch = cacheStore.modApplyLatch;
             CountDownLatch lockedWaitLatch = cacheStore.lockedWaitLatch;
 
@@ -159,7 +159,7 @@ public void call() {
 
             Cache<Integer, String> cache = cm.getCache();
 
-            MockAsyncCacheWriter cacheStore = TestingUtil.getFirstWriter(cache);
+            MockAsyncCacheWriter<Integer, String> cacheStore = TestingUtil.getFirstWriter(cache);
             CountDownLatch modApplyLatch = cacheStore.modApplyLatch;
             CountDownLatch lockedWaitLatch = cacheStore.lockedWaitLatch;
 
@@ -213,7 +213,7 @@ public void testClear() {
          @Override
          public void call() {
             Cache<Integer, String> cache = cm.getCache();
-            AdvancedAsyncCacheWriter asyncStore = TestingUtil.getFirstWriter(cache);
+            AdvancedAsyncCacheWriter<Integer, String> asyncStore = TestingUtil.getFirstWriter(cache);
             DummyInMemoryStore dummyStore = TestingUtil.extractField(asyncStore, "actual");
             cache.put(1, "uno");
             cache.put(2, "dos");
@@ -245,7 +245,7 @@ private ConfigurationBuilder asyncStoreWithEvictionBuilder() {
       return builder;
    }
 
-   public static class MockAsyncCacheWriter extends AsyncCacheWriter {
+   public static class MockAsyncCacheWriter<K, V> extends AsyncCacheWriter<K, V> {
 
       private static final Log log = LogFactory.getLog(MockAsyncCacheWriter.class);
 
@@ -326,7 +326,7 @@ public static class CustomPersistenceManager extends PersistenceManagerImpl {
       protected AsyncCacheWriter createAsyncWriter(CacheWriter tmpStore) {
          CountDownLatch modApplyLatch = new CountDownLatch(1);
          CountDownLatch lockedWaitLatch = new CountDownLatch(1);
-         return new MockAsyncCacheWriter(modApplyLatch, lockedWaitLatch, tmpStore);
+         return new MockAsyncCacheWriter<>(modApplyLatch, lockedWaitLatch, tmpStore);
       }
    }
 
@@ -74,7 +74,7 @@ private void createStore() throws PersistenceException {
     * really in sync with changes. This gives the coordinator thread a better chance to execute
     * while AsyncCacheLoader.load() is iterating states.
     */
-   static class SlowAdvancedAsyncCacheWriter extends AdvancedAsyncCacheWriter {
+   static class SlowAdvancedAsyncCacheWriter extends AdvancedAsyncCacheWriter<Object, Object> {
       public SlowAdvancedAsyncCacheWriter(CacheWriter delegate) {
          super(delegate);
       }
@@ -377,7 +377,7 @@ private void doTestClear(int number, String key) throws Exception {
       }
    }
 
-   static class MockAsyncCacheWriter extends AdvancedAsyncCacheWriter {
+   static class MockAsyncCacheWriter extends AdvancedAsyncCacheWriter<Object, Object> {
       volatile boolean block = true;
       final CountDownLatch v1Latch;
       final CountDownLatch v2Latch;
@@ -258,7 +258,7 @@ private Callable<?> createActiveStatusChanger(SingletonCacheWriter mscl) {
       return new ActiveStatusModifier(mscl);
    }
 
-   static class TestingSingletonStore extends SingletonCacheWriter {
+   static class TestingSingletonStore extends SingletonCacheWriter<Object, Object> {
       private int numberCreatedTasks = 0;
       private CountDownLatch pushStateCanFinish;
       private CountDownLatch secondActiveStatusChangerCanStart;
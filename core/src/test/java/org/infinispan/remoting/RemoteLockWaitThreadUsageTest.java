@@ -0,0 +1,63 @@
+package org.infinispan.remoting;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+/**
+ * Tests that the remote commands waiting for a lock don't use the remote executor threads, so the commands for other
+ * keys are not delayed even when more commands are waiting than there are threads.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "remoting.RemoteLockWaitThreadUsageTest")
+public class RemoteLockWaitThreadUsageTest extends MultipleCacheManagersTest {
+
+   private static final int WAITING_COMMANDS = TestCacheManagerFactory.REMOTE_EXEC_MAX_THREADS * 4;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1);
+      builder.locking().lockAcquisitionTimeout(30, TimeUnit.SECONDS);
+      createCluster(builder, 2);
+      waitForClusterToForm();
+   }
+
+   public void testWaitingCommandsDoNotBlockOtherKeys() throws Exception {
+      MagicKey lockedKey = new MagicKey("locked", cache(1));
+      MagicKey otherKey = new MagicKey("other", cache(1));
+
+      lockManager(1).lock(lockedKey, "blocker", 10, TimeUnit.SECONDS).lock();
+      List<Future<Object>> waiting = new ArrayList<>(WAITING_COMMANDS);
+      try {
+         for (int i = 0; i < WAITING_COMMANDS; i++) {
+            waiting.add(cache(0).putAsync(lockedKey, "v" + i));
+         }
+         //all the remote executor threads would be waiting for the lock if the commands were parked on them
+         cache(0).putAsync(otherKey, "value").get(10, TimeUnit.SECONDS);
+         assertEquals(cache(1).get(otherKey), "value");
+         for (Future<Object> future : waiting) {
+            assertFalse(future.isDone());
+         }
+      } finally {
+         lockManager(1).unlock(lockedKey, "blocker");
+      }
+
+      for (Future<Object> future : waiting) {
+         future.get(30, TimeUnit.SECONDS);
+      }
+      assertNotLocked(lockedKey);
+   }
+}
@@ -0,0 +1,253 @@
+package org.infinispan.remoting.rpc;
+
+import org.infinispan.distribution.TestAddress;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests the batching of the invalidations in {@link CoalescingInvalidationSender}.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "remoting.rpc.CoalescingInvalidationSenderTest")
+public class CoalescingInvalidationSenderTest extends AbstractInfinispanTest {
+
+   private static final String BATCH = "batch";
+   private static final Address A = new TestAddress(1);
+   private static final Address B = new TestAddress(2);
+
+   private final List<Batch> batches = Collections.synchronizedList(new ArrayList<>());
+   private ScheduledExecutorService scheduledExecutor;
+   private CoalescingInvalidationSender<String> sender;
+
+   @BeforeClass
+   public void createExecutor() {
+      scheduledExecutor = Executors.newSingleThreadScheduledExecutor(getTestThreadFactory("Timer"));
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void shutDownExecutor() {
+      scheduledExecutor.shutdownNow();
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void clearBatches() {
+      sender = null;
+      batches.clear();
+   }
+
+   public void testSendsImmediatelyWithoutBatchInFlight() {
+      sender = createSender(100, 1, TimeUnit.HOURS);
+      CompletableFuture<Void> future = sender.invalidate(BATCH, null, keys("k1"));
+      assertEquals(1, batches.size());
+      assertBatch(0, null, "k1");
+      assertFalse(future.isDone());
+
+      batches.get(0).rpcFuture.complete(null);
+      assertTrue(future.isDone());
+
+      // The RPC completed, so the next invalidation doesn't wait either
+      sender.invalidate(BATCH, null, keys("k2"));
+      assertEquals(2, batches.size());
+      assertBatch(1, null, "k2");
+   }
+
+   public void testBatchesWhileRpcInFlight() {
+      sender = createSender(100, 1, TimeUnit.HOURS);
+      CompletableFuture<Void> first = sender.invalidate(BATCH, Collections.singleton(A), keys("k1"));
+      CompletableFuture<Void> second = sender.invalidate(BATCH, Collections.singleton(A), keys("k2"));
+      CompletableFuture<Void> third = sender.invalidate(BATCH, Collections.singleton(B), keys("k2", "k3"));
+      assertEquals(1, batches.size());
+      assertSame(second, third);
+
+      batches.get(0).rpcFuture.complete(null);
+      assertTrue(first.isDone());
+      assertEquals(2, batches.size());
+      assertBatch(1, Arrays.asList(A, B), "k2", "k3");
+      assertFalse(second.isDone());
+
+      batches.get(1).rpcFuture.complete(null);
+      assertTrue(second.isDone());
+   }
+
+   public void testBroadcastWinsOverTargets() {
+      sender = createSender(100, 1, TimeUnit.HOURS);
+      sender.invalidate(BATCH, Collections.singleton(A), keys("k1"));
+      sender.invalidate(BATCH, Collections.singleton(A), keys("k2"));
+      sender.invalidate(BATCH, null, keys("k3"));
+      sender.invalidate(BATCH, Collections.singleton(B), keys("k4"));
+
+      batches.get(0).rpcFuture.complete(null);
+      assertEquals(2, batches.size());
+      assertBatch(1, null, "k2", "k3", "k4");
+   }
+
+   public void testBatchKeysAreSentSeparately() {
+      sender = createSender(100, 1, TimeUnit.HOURS);
+      sender.invalidate(BATCH, null, keys("k1"));
+      sender.invalidate("other", null, keys("k2"));
+      assertEquals(2, batches.size());
+      assertEquals(BATCH, batches.get(0).batchKey);
+      assertEquals("other", batches.get(1).batchKey);
+   }
+
+   public void testFlushAtMaxBatchKeys() {
+      sender = createSender(3, 1, TimeUnit.HOURS);
+      sender.invalidate(BATCH, null, keys("k0"));
+      CompletableFuture<Void> first = sender.invalidate(BATCH, null, keys("k1", "k2"));
+      assertEquals(1, batches.size());
+
+      // The third key fills the batch, so it is sent even though the first RPC is still in flight
+      CompletableFuture<Void> second = sender.invalidate(BATCH, null, keys("k3"));
+      assertSame(first, second);
+      assertEquals(2, batches.size());
+      assertBatch(1, null, "k1", "k2", "k3");
+
+      // The next keys start a new batch
+      CompletableFuture<Void> third = sender.invalidate(BATCH, null, keys("k4"));
+      assertFalse(third == first);
+      assertEquals(2, batches.size());
+   }
+
+   public void testTimerFlushesWhileRpcInFlight() {
+      sender = createSender(100, 10, TimeUnit.MILLISECONDS);
+      CompletableFuture<Void> first = sender.invalidate(BATCH, null, keys("k1"));
+      CompletableFuture<Void> second = sender.invalidate(BATCH, null, keys("k2"));
+      eventuallyEquals(2, batches::size);
+      assertBatch(1, null, "k2");
+
+      // The futures complete after their own RPC, whatever the completion order
+      batches.get(1).rpcFuture.complete(null);
+      assertTrue(second.isDone());
+      assertFalse(first.isDone());
+      batches.get(0).rpcFuture.complete(null);
+      assertTrue(first.isDone());
+      assertEquals(2, batches.size());
+   }
+
+   public void testNextBatchWaitsForAllInFlightBatches() {
+      sender = createSender(2, 1, TimeUnit.HOURS);
+      sender.invalidate(BATCH, null, keys("k1"));
+      sender.invalidate(BATCH, null, keys("k2", "k3"));
+      assertEquals(2, batches.size());
+
+      CompletableFuture<Void> pending = sender.invalidate(BATCH, null, keys("k4"));
+      batches.get(0).rpcFuture.complete(null);
+      // The second batch is still in flight
+      assertEquals(2, batches.size());
+
+      batches.get(1).rpcFuture.complete(null);
+      assertEquals(3, batches.size());
+      assertBatch(2, null, "k4");
+      assertFalse(pending.isDone());
+   }
+
+   public void testFailedRpcCompletesExceptionally() throws Exception {
+      sender = createSender(100, 1, TimeUnit.HOURS);
+      CompletableFuture<Void> first = sender.invalidate(BATCH, null, keys("k1"));
+      CompletableFuture<Void> second = sender.invalidate(BATCH, null, keys("k2"));
+
+      RuntimeException exception = new RuntimeException("Induced");
+      batches.get(0).rpcFuture.completeExceptionally(exception);
+      assertFailed(first, exception);
+
+      // The failure doesn't block the pending keys
+      assertEquals(2, batches.size());
+      batches.get(1).rpcFuture.complete(null);
+      assertNull(second.get(10, TimeUnit.SECONDS));
+   }
+
+   public void testFlushAllSendsPendingKeys() {
+      sender = createSender(100, 1, TimeUnit.HOURS);
+      sender.invalidate(BATCH, null, keys("k1"));
+      CompletableFuture<Void> pending = sender.invalidate(BATCH, null, keys("k2"));
+      assertEquals(1, batches.size());
+
+      sender.flushAll();
+      assertEquals(2, batches.size());
+      assertBatch(1, null, "k2");
+      batches.get(1).rpcFuture.complete(null);
+      assertTrue(pending.isDone());
+
+      // Nothing left to send
+      sender.flushAll();
+      assertEquals(2, batches.size());
+   }
+
+   public void testSendsImmediatelyIfExecutorShutDown() {
+      ScheduledExecutorService shutDownExecutor = Executors.newSingleThreadScheduledExecutor();
+      shutDownExecutor.shutdown();
+      sender = new CoalescingInvalidationSender<>(this::send, shutDownExecutor, 100, 1, TimeUnit.HOURS);
+      sender.invalidate(BATCH, null, keys("k1"));
+      sender.invalidate(BATCH, null, keys("k2"));
+      assertEquals(2, batches.size());
+      assertBatch(1, null, "k2");
+   }
+
+   private CoalescingInvalidationSender<String> createSender(int maxBatchKeys, long maxDelay, TimeUnit unit) {
+      return new CoalescingInvalidationSender<>(this::send, scheduledExecutor, maxBatchKeys, maxDelay, unit);
+   }
+
+   private CompletableFuture<Void> send(String batchKey, Collection<Address> targets, Collection<Object> keys) {
+      Batch batch = new Batch(batchKey, targets, keys);
+      batches.add(batch);
+      return batch.rpcFuture;
+   }
+
+   private void assertBatch(int index, Collection<Address> targets, Object... keys) {
+      Batch batch = batches.get(index);
+      assertEquals(targets == null ? null : new HashSet<>(targets),
+            batch.targets == null ? null : new HashSet<>(batch.targets));
+      assertEquals(new HashSet<>(Arrays.asList(keys)), new HashSet<>(batch.keys));
+      assertEquals(keys.length, batch.keys.size());
+   }
+
+   private static void assertFailed(CompletableFuture<Void> future, Throwable expected) throws Exception {
+      try {
+         future.get(10, TimeUnit.SECONDS);
+         fail("Expected " + expected);
+      } catch (ExecutionException e) {
+         assertSame(expected, e.getCause());
+      }
+   }
+
+   private static Collection<Object> keys(Object... keys) {
+      return Arrays.asList(keys);
+   }
+
+   private static class Batch {
+      final String batchKey;
+      final Collection<Address> targets;
+      final Collection<Object> keys;
+      final CompletableFuture<Void> rpcFuture = new CompletableFuture<>();
+
+      Batch(String batchKey, Collection<Address> targets, Collection<Object> keys) {
+         this.batchKey = batchKey;
+         this.targets = targets;
+         this.keys = keys;
+      }
+   }
+}
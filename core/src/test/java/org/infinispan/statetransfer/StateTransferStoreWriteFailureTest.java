@@ -0,0 +1,60 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that an entry the stores fail to write does not keep the other entries of its state chunk out of the stores.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "statetransfer.StateTransferStoreWriteFailureTest")
+public class StateTransferStoreWriteFailureTest extends MultipleCacheManagersTest {
+   private static final int NUM_KEYS = 20;
+   private static final String FAIL_KEY = "k3";
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      addClusterEnabledCacheManager(configuration(0));
+      waitForClusterToForm();
+   }
+
+   private ConfigurationBuilder configuration(int node) {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.REPL_SYNC, false);
+      // a single segment, so that all the keys are sent in the same chunk
+      builder.clustering().hash().numSegments(1);
+      builder.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .storeName(getClass().getSimpleName() + node).failKey(FAIL_KEY);
+      return builder;
+   }
+
+   public void testFailingEntryDoesNotFailTheChunk() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String key = "k" + i;
+         if (key.equals(FAIL_KEY)) {
+            cache(0).getAdvancedCache().withFlags(Flag.SKIP_CACHE_STORE).put(key, "v" + i);
+         } else {
+            cache(0).put(key, "v" + i);
+         }
+      }
+
+      addClusterEnabledCacheManager(configuration(1));
+      waitForClusterToForm();
+
+      DummyInMemoryStore store = TestingUtil.getFirstWriter(cache(1));
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String key = "k" + i;
+         assertNotNull(key, cache(1).getAdvancedCache().getDataContainer().get(key));
+         assertEquals(key, !key.equals(FAIL_KEY), store.contains(key));
+      }
+   }
+}
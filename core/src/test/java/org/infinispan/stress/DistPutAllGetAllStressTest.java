@@ -0,0 +1,90 @@
+package org.infinispan.stress;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+
+/**
+ * Writes and reads batches of 1k to 100k keys with putAll and getAll in a non-transactional distributed cache,
+ * logging the time spent in each operation. Every round overwrites all the keys, so a sub-command that is lost or
+ * applied out of order leaves a stale value on one of the owners.
+ *
+ * @since 9.0
+ */
+@Test(groups = "stress", testName = "stress.DistPutAllGetAllStressTest")
+public class DistPutAllGetAllStressTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_NODES = 4;
+   private static final int NUM_ROUNDS = Integer.getInteger("rounds", 50);
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      // a sub-command with tens of thousands of keys takes longer than the default timeout of the tests
+      builder.clustering().remoteTimeout(2, TimeUnit.MINUTES);
+      createCluster(builder, NUM_NODES);
+      waitForClusterToForm();
+   }
+
+   public void testBatch1k() {
+      runTest(1000);
+   }
+
+   public void testBatch10k() {
+      runTest(10000);
+   }
+
+   public void testBatch100k() {
+      runTest(100000);
+   }
+
+   private void runTest(int batchSize) {
+      Cache<Integer, Integer> cache = cache(0);
+      Map<Integer, Integer> batch = new HashMap<>(batchSize * 4 / 3 + 1);
+      long putAllNanos = 0;
+      long getAllNanos = 0;
+      for (int round = 0; round < NUM_ROUNDS; round++) {
+         for (int i = 0; i < batchSize; i++) {
+            batch.put(i, round);
+         }
+         long start = System.nanoTime();
+         cache.putAll(batch);
+         long putAllEnd = System.nanoTime();
+         Map<Integer, Integer> values = cache.getAdvancedCache().getAll(batch.keySet());
+         putAllNanos += putAllEnd - start;
+         getAllNanos += System.nanoTime() - putAllEnd;
+         assertEquals(batch, values);
+      }
+      log.infof("%d keys: putAll %.1f ms, getAll %.1f ms on average over %d rounds", batchSize,
+            putAllNanos / (double) NUM_ROUNDS / TimeUnit.MILLISECONDS.toNanos(1),
+            getAllNanos / (double) NUM_ROUNDS / TimeUnit.MILLISECONDS.toNanos(1), NUM_ROUNDS);
+
+      assertOwnersHaveLastRound(batchSize);
+      cache.clear();
+   }
+
+   private void assertOwnersHaveLastRound(int batchSize) {
+      ConsistentHash ch = advancedCache(0).getDistributionManager().getReadConsistentHash();
+      for (int i = 0; i < NUM_NODES; i++) {
+         Cache<Integer, Integer> cache = cache(i);
+         for (int key = 0; key < batchSize; key++) {
+            if (ch.isKeyLocalToNode(address(i), key)) {
+               InternalCacheEntry entry = cache.getAdvancedCache().getDataContainer().peek(key);
+               assertNotNull("Key " + key + " on " + address(i), entry);
+               assertEquals("Key " + key + " on " + address(i), NUM_ROUNDS - 1, entry.getValue());
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,81 @@
+package org.infinispan.stress;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.VersioningScheme;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.util.concurrent.IsolationLevel;
+import org.testng.annotations.Test;
+
+import javax.transaction.TransactionManager;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+/**
+ * Runs optimistic transactions that read and increment hundreds of keys, with write skew check enabled, in a
+ * distributed cache, and logs the time spent in each commit. Every key must be incremented once per transaction on
+ * all its owners.
+ *
+ * @since 9.0
+ */
+@Test(groups = "stress", testName = "stress.LargeOptimisticTxStressTest")
+public class LargeOptimisticTxStressTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_NODES = 4;
+   private static final int NUM_TRANSACTIONS = Integer.getInteger("transactions", 200);
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      builder.versioning().enable().scheme(VersioningScheme.SIMPLE)
+            .locking().isolationLevel(IsolationLevel.REPEATABLE_READ).writeSkewCheck(true)
+            .transaction().lockingMode(LockingMode.OPTIMISTIC);
+      createCluster(builder, NUM_NODES);
+      waitForClusterToForm();
+   }
+
+   public void testTx100Keys() throws Exception {
+      runTest(100);
+   }
+
+   public void testTx500Keys() throws Exception {
+      runTest(500);
+   }
+
+   public void testTx1000Keys() throws Exception {
+      runTest(1000);
+   }
+
+   private void runTest(int keys) throws Exception {
+      Cache<Integer, Integer> cache = cache(0);
+      TransactionManager tm = tm(0);
+      for (int i = 0; i < keys; i++) {
+         cache.put(i, 0);
+      }
+
+      long commitNanos = 0;
+      for (int tx = 0; tx < NUM_TRANSACTIONS; tx++) {
+         tm.begin();
+         for (int i = 0; i < keys; i++) {
+            //read before writing, so every key is checked for write skew
+            cache.put(i, cache.get(i) + 1);
+         }
+         long start = System.nanoTime();
+         tm.commit();
+         commitNanos += System.nanoTime() - start;
+      }
+      log.infof("Transactions with %d keys: commit %.1f ms on average over %d transactions", keys,
+            commitNanos / (double) NUM_TRANSACTIONS / TimeUnit.MILLISECONDS.toNanos(1), NUM_TRANSACTIONS);
+
+      for (int node = 0; node < NUM_NODES; node++) {
+         Cache<Integer, Integer> nodeCache = cache(node);
+         for (int i = 0; i < keys; i++) {
+            assertEquals("Key " + i + " on " + address(node), NUM_TRANSACTIONS, (int) nodeCache.get(i));
+         }
+      }
+      cache.clear();
+   }
+}
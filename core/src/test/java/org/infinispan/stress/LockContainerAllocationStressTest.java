@@ -0,0 +1,136 @@
+package org.infinispan.stress;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.concurrent.locks.impl.LockContainer;
+import org.infinispan.util.concurrent.locks.impl.PerKeyLockContainer;
+import org.infinispan.util.concurrent.locks.impl.PooledLockContainer;
+import org.infinispan.util.concurrent.locks.impl.StripedLockContainer;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+/**
+ * Locks and unlocks random keys from several threads, for each lock container and with puts on a local
+ * non-transactional cache, and logs the bytes allocated per operation. It checks that only one thread holds the lock
+ * of a key at a time and that no lock is left behind.
+ * <p/>
+ * The allocation is measured per thread with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)},
+ * so it requires a HotSpot JVM.
+ *
+ * @since 9.0
+ */
+@Test(groups = "stress", testName = "stress.LockContainerAllocationStressTest")
+public class LockContainerAllocationStressTest extends AbstractInfinispanTest {
+
+   private static final int NUM_THREADS = 8;
+   private static final int NUM_KEYS = 1024;
+   private static final int NUM_OPERATIONS = Integer.getInteger("operations", 1000000);
+   private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+         (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+   public void testPerKeyLockContainer() throws Exception {
+      PerKeyLockContainer lockContainer = new PerKeyLockContainer(32, AnyEquivalence.getInstance());
+      lockContainer.inject(TIME_SERVICE);
+      runLockTest("PerKeyLockContainer", lockContainer);
+      assertEquals(0, lockContainer.size());
+   }
+
+   public void testStripedLockContainer() throws Exception {
+      StripedLockContainer lockContainer = new StripedLockContainer(32, AnyEquivalence.getInstance());
+      lockContainer.inject(TIME_SERVICE);
+      runLockTest("StripedLockContainer", lockContainer);
+   }
+
+   public void testPooledLockContainer() throws Exception {
+      PooledLockContainer lockContainer = new PooledLockContainer(32, AnyEquivalence.getInstance());
+      lockContainer.inject(TIME_SERVICE);
+      runLockTest("PooledLockContainer", lockContainer);
+      assertEquals(0, lockContainer.size());
+   }
+
+   public void testLocalNonTxPut() throws Exception {
+      EmbeddedCacheManager cacheManager = TestCacheManagerFactory.createCacheManager(new ConfigurationBuilder());
+      try {
+         Cache<Integer, Integer> cache = cacheManager.getCache();
+         report("Local non-tx put", run(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            cache.put(random.nextInt(NUM_KEYS), random.nextInt());
+         }));
+         assertEquals(0, TestingUtil.extractLockManager(cache).getNumberOfLocksHeld());
+      } finally {
+         TestingUtil.killCacheManagers(cacheManager);
+      }
+   }
+
+   private void runLockTest(String name, LockContainer lockContainer) throws Exception {
+      AtomicIntegerArray holders = new AtomicIntegerArray(NUM_KEYS);
+      report(name, run(() -> {
+         int key = ThreadLocalRandom.current().nextInt(NUM_KEYS);
+         Thread owner = Thread.currentThread();
+         try {
+            lockContainer.acquire(key, owner, 10, TimeUnit.SECONDS).lock();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+         }
+         try {
+            assertEquals("Key " + key + " locked twice", 1, holders.incrementAndGet(key));
+            holders.decrementAndGet(key);
+         } finally {
+            lockContainer.release(key, owner);
+         }
+      }));
+      assertEquals(0, lockContainer.getNumLocksHeld());
+   }
+
+   /**
+    * @return the time spent and the bytes allocated by all the threads.
+    */
+   private long[] run(Runnable operation) throws Exception {
+      //warm up, so the JIT compiled code is measured
+      for (int i = 0; i < NUM_OPERATIONS / 10; i++) {
+         operation.run();
+      }
+
+      List<Future<long[]>> futures = new ArrayList<>(NUM_THREADS);
+      for (int i = 0; i < NUM_THREADS; i++) {
+         futures.add(fork(() -> {
+            long threadId = Thread.currentThread().getId();
+            long start = System.nanoTime();
+            long allocatedBefore = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+            for (int j = 0; j < NUM_OPERATIONS; j++) {
+               operation.run();
+            }
+            long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            return new long[]{System.nanoTime() - start, allocated};
+         }));
+      }
+      long[] total = new long[2];
+      for (Future<long[]> future : futures) {
+         long[] result = future.get();
+         total[0] += result[0];
+         total[1] += result[1];
+      }
+      return total;
+   }
+
+   private void report(String name, long[] result) {
+      long operations = (long) NUM_OPERATIONS * NUM_THREADS;
+      log.infof("%s: %d operations, %.0f ns per operation in each thread, %.1f bytes allocated per operation", name,
+            operations, result[0] / (double) operations, result[1] / (double) operations);
+   }
+}
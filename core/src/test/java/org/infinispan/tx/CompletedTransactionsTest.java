@@ -0,0 +1,164 @@
+package org.infinispan.tx;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.TestAddress;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.transaction.impl.TransactionTable;
+import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.transaction.xa.TransactionFactory;
+import org.infinispan.util.ControlledTimeService;
+import org.infinispan.util.TimeService;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.transaction.impl.TransactionTable.CompletedTransactionStatus.ABORTED;
+import static org.infinispan.transaction.impl.TransactionTable.CompletedTransactionStatus.COMMITTED;
+import static org.infinispan.transaction.impl.TransactionTable.CompletedTransactionStatus.EXPIRED;
+import static org.infinispan.transaction.impl.TransactionTable.CompletedTransactionStatus.NOT_COMPLETED;
+import static org.testng.AssertJUnit.assertEquals;
+
+/**
+ * Tests the tracking of the completed transactions in the {@link TransactionTable}.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "tx.CompletedTransactionsTest")
+public class CompletedTransactionsTest extends MultipleCacheManagersTest {
+
+   private static final long COMPLETED_TX_TIMEOUT = 10000;
+
+   private final ControlledTimeService timeService = new ControlledTimeService(0);
+   private int nextLeaverAddress = 100;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      for (int i = 0; i < 2; i++) {
+         addClusterMember();
+      }
+      waitForClusterToForm();
+   }
+
+   private void addClusterMember() {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      // Only clean up the completed transactions when the test asks for it, or on view changes
+      builder.transaction().completedTxTimeout(COMPLETED_TX_TIMEOUT).reaperWakeUpInterval(TimeUnit.HOURS.toMillis(1));
+      EmbeddedCacheManager cm = addClusterEnabledCacheManager(builder);
+      TestingUtil.replaceComponent(cm, TimeService.class, timeService, true);
+      cm.getCache();
+   }
+
+   public void testOutOfOrderCompletion() {
+      TransactionTable txTable = txTable();
+      Address originator = new TestAddress(nextLeaverAddress++);
+      txTable.markTransactionCompleted(gtx(originator, 5), true);
+      txTable.markTransactionCompleted(gtx(originator, 3), false);
+      txTable.markTransactionCompleted(gtx(originator, 4), true);
+      txTable.markTransactionCompleted(gtx(originator, 1), true);
+
+      assertStatus(txTable, originator, 1, COMMITTED);
+      assertStatus(txTable, originator, 2, NOT_COMPLETED);
+      assertStatus(txTable, originator, 3, ABORTED);
+      assertStatus(txTable, originator, 4, COMMITTED);
+      assertStatus(txTable, originator, 5, COMMITTED);
+      assertStatus(txTable, originator, 6, NOT_COMPLETED);
+
+      txTable.markTransactionCompleted(gtx(originator, 2), false);
+      assertStatus(txTable, originator, 2, ABORTED);
+      // Marking a transaction twice keeps the last outcome
+      txTable.markTransactionCompleted(gtx(originator, 3), true);
+      assertStatus(txTable, originator, 3, COMMITTED);
+   }
+
+   public void testWindowSlidesAcrossBlocks() {
+      TransactionTable txTable = txTable();
+      Address originator = address(1);
+      long base = 1000000;
+      // Transactions 1000060 to 1000070 span two blocks of 64 ids
+      for (long id = base + 60; id <= base + 70; id++) {
+         txTable.markTransactionCompleted(gtx(originator, id), id != base + 64);
+      }
+      assertStatus(txTable, originator, base + 63, COMMITTED);
+      assertStatus(txTable, originator, base + 64, ABORTED);
+      assertStatus(txTable, originator, base + 65, COMMITTED);
+
+      timeService.advance(COMPLETED_TX_TIMEOUT + 1);
+      txTable.markTransactionCompleted(gtx(originator, base + 200), true);
+      txTable.cleanupCompletedTransactions();
+
+      // The expired blocks are removed, and the highest id they contained becomes the watermark
+      assertStatus(txTable, originator, base + 10, EXPIRED);
+      assertStatus(txTable, originator, base + 63, EXPIRED);
+      assertStatus(txTable, originator, base + 64, EXPIRED);
+      assertStatus(txTable, originator, base + 70, EXPIRED);
+      assertStatus(txTable, originator, base + 71, NOT_COMPLETED);
+      assertStatus(txTable, originator, base + 200, COMMITTED);
+      assertStatus(txTable, originator, base + 199, NOT_COMPLETED);
+
+      // The member's watermark is kept after all its blocks expire
+      timeService.advance(COMPLETED_TX_TIMEOUT + 1);
+      txTable.cleanupCompletedTransactions();
+      assertStatus(txTable, originator, base + 200, EXPIRED);
+      assertStatus(txTable, originator, base + 201, NOT_COMPLETED);
+   }
+
+   public void testLeaverTransactionsAreDropped() {
+      TransactionTable txTable = txTable();
+      Address leaver = new TestAddress(nextLeaverAddress++);
+      txTable.markTransactionCompleted(gtx(leaver, 1), true);
+
+      // The leaver's transactions are kept until they expire
+      txTable.cleanupCompletedTransactions();
+      assertStatus(txTable, leaver, 1, COMMITTED);
+
+      timeService.advance(COMPLETED_TX_TIMEOUT + 1);
+      txTable.cleanupCompletedTransactions();
+      assertStatus(txTable, leaver, 1, NOT_COMPLETED);
+
+      // A late completion of a leaver transaction is tracked again
+      txTable.markTransactionCompleted(gtx(leaver, 2), true);
+      assertStatus(txTable, leaver, 2, COMMITTED);
+   }
+
+   public void testLeaverTransactionsArePurgedOnViewChange() {
+      addClusterMember();
+      waitForClusterToForm();
+      TransactionTable txTable = txTable();
+      Address leaver = address(2);
+      txTable.markTransactionCompleted(gtx(leaver, 1), true);
+      timeService.advance(COMPLETED_TX_TIMEOUT + 1);
+      txTable.markTransactionCompleted(gtx(leaver, 200), true);
+      assertStatus(txTable, leaver, 1, COMMITTED);
+
+      killMember(2);
+      // The view change removes the expired block, but the leaver may still have prepares in flight
+      eventuallyEquals(EXPIRED, () -> txTable.getCompletedTransactionStatus(gtx(leaver, 1)));
+      assertStatus(txTable, leaver, 200, COMMITTED);
+
+      timeService.advance(COMPLETED_TX_TIMEOUT + 1);
+      txTable.cleanupCompletedTransactions();
+      assertStatus(txTable, leaver, 1, NOT_COMPLETED);
+      assertStatus(txTable, leaver, 200, NOT_COMPLETED);
+   }
+
+   private TransactionTable txTable() {
+      return TestingUtil.extractComponent(cache(0), TransactionTable.class);
+   }
+
+   private static GlobalTransaction gtx(Address originator, long id) {
+      GlobalTransaction gtx = TransactionFactory.TxFactoryEnum.NODLD_NORECOVERY_XA.newGlobalTransaction();
+      gtx.setAddress(originator);
+      gtx.setId(id);
+      return gtx;
+   }
+
+   private static void assertStatus(TransactionTable txTable, Address originator, long id,
+                                    TransactionTable.CompletedTransactionStatus expected) {
+      assertEquals("Transaction " + id + " of " + originator, expected,
+            txTable.getCompletedTransactionStatus(gtx(originator, id)));
+   }
+}
@@ -0,0 +1,126 @@
+package org.infinispan.tx;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.VersioningScheme;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.transaction.ReadOnlyCommitMode;
+import org.infinispan.tx.Use1PcForInducedTransactionTest.InvocationCountInterceptor;
+import org.infinispan.util.concurrent.IsolationLevel;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.transaction.RollbackException;
+import javax.transaction.Transaction;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+/**
+ * Test that read-only transactions are completed locally with {@link ReadOnlyCommitMode#VALIDATED}, and that they
+ * roll back if an entry they read was modified.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "tx.ReadOnlyTxLocalCommitTest")
+public class ReadOnlyTxLocalCommitTest extends MultipleCacheManagersTest {
+
+   private InvocationCountInterceptor ic0;
+   private InvocationCountInterceptor ic1;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder c = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      c.clustering().hash().numOwners(1);
+      c.transaction().lockingMode(LockingMode.OPTIMISTIC).readOnlyCommitMode(ReadOnlyCommitMode.VALIDATED);
+      c.locking().isolationLevel(IsolationLevel.REPEATABLE_READ).writeSkewCheck(true);
+      c.versioning().enable().scheme(VersioningScheme.SIMPLE);
+
+      createCluster(c, 2);
+      waitForClusterToForm();
+
+      ic0 = new InvocationCountInterceptor();
+      advancedCache(0).addInterceptor(ic0, 1);
+      ic1 = new InvocationCountInterceptor();
+      advancedCache(1).addInterceptor(ic1, 1);
+   }
+
+   @BeforeMethod
+   public void resetCounters() {
+      ic0.prepareInvocations = 0;
+      ic0.commitInvocations = 0;
+      ic1.prepareInvocations = 0;
+      ic1.commitInvocations = 0;
+   }
+
+   public void testReadOnlyTransactionCommitsLocally() throws Exception {
+      MagicKey localKey = new MagicKey("local", cache(0));
+      MagicKey remoteKey = new MagicKey("remote", cache(1));
+      cache(0).put(localKey, "v0");
+      cache(0).put(remoteKey, "v1");
+      resetCounters();
+
+      tm(0).begin();
+      assertEquals(cache(0).get(localKey), "v0");
+      assertEquals(cache(0).get(remoteKey), "v1");
+      assertEquals(cache(0).get("missing"), null);
+      tm(0).commit();
+
+      assertEquals(ic0.prepareInvocations, 0);
+      assertEquals(ic0.commitInvocations, 0);
+      assertEquals(ic1.prepareInvocations, 0);
+      assertEquals(ic1.commitInvocations, 0);
+      assertEquals(TestingUtil.getTransactionTable(cache(0)).getLocalTxCount(), 0);
+      assertEquals(TestingUtil.getTransactionTable(cache(1)).getRemoteTxCount(), 0);
+   }
+
+   public void testStaleReadRollsBack() throws Exception {
+      MagicKey key = new MagicKey("stale", cache(1));
+      cache(0).put(key, "v1");
+
+      tm(0).begin();
+      assertEquals(cache(0).get(key), "v1");
+      Transaction tx = tm(0).suspend();
+
+      cache(1).put(key, "v2");
+
+      tm(0).resume(tx);
+      try {
+         tm(0).commit();
+         fail("Transaction should roll back");
+      } catch (RollbackException expected) {
+      }
+      assertEquals(TestingUtil.getTransactionTable(cache(0)).getLocalTxCount(), 0);
+   }
+
+   public void testMissingEntryCreatedRollsBack() throws Exception {
+      MagicKey key = new MagicKey("created", cache(0));
+
+      tm(0).begin();
+      assertEquals(cache(0).get(key), null);
+      Transaction tx = tm(0).suspend();
+
+      cache(1).put(key, "v");
+
+      tm(0).resume(tx);
+      try {
+         tm(0).commit();
+         fail("Transaction should roll back");
+      } catch (RollbackException expected) {
+      }
+   }
+
+   public void testWriteTransactionUsesTwoPhases() throws Exception {
+      MagicKey key = new MagicKey("write", cache(1));
+
+      tm(0).begin();
+      cache(0).put(key, "v");
+      tm(0).commit();
+
+      assertEquals(ic1.prepareInvocations, 1);
+      assertEquals(ic1.commitInvocations, 1);
+   }
+}
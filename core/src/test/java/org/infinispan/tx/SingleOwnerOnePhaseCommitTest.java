@@ -0,0 +1,187 @@
+package org.infinispan.tx;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.VersioningScheme;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.versioning.EntryVersion;
+import org.infinispan.container.versioning.InequalVersionComparisonResult;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.tx.Use1PcForInducedTransactionTest.InvocationCountInterceptor;
+import org.infinispan.util.CountingRpcManager;
+import org.infinispan.util.concurrent.IsolationLevel;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.transaction.RollbackException;
+import javax.transaction.Transaction;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.fail;
+
+/**
+ * Test that auto-commit transactions on keys with a single owner are committed in one phase, and that the write skew
+ * check still works.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "tx.SingleOwnerOnePhaseCommitTest")
+public class SingleOwnerOnePhaseCommitTest extends MultipleCacheManagersTest {
+
+   private static final String BACKUPS_CACHE = "backups";
+
+   private InvocationCountInterceptor ic0;
+   private InvocationCountInterceptor ic1;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder c = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      c.clustering().hash().numOwners(1);
+      c.transaction().lockingMode(LockingMode.OPTIMISTIC);
+      c.locking().isolationLevel(IsolationLevel.REPEATABLE_READ).writeSkewCheck(true);
+      c.versioning().enable().scheme(VersioningScheme.SIMPLE);
+
+      createCluster(c, 2);
+      ConfigurationBuilder backups = new ConfigurationBuilder().read(c.build());
+      backups.clustering().hash().numOwners(2);
+      defineConfigurationOnAllManagers(BACKUPS_CACHE, backups);
+      waitForClusterToForm(null, BACKUPS_CACHE);
+
+      ic0 = new InvocationCountInterceptor();
+      advancedCache(0).addInterceptor(ic0, 1);
+      ic1 = new InvocationCountInterceptor();
+      advancedCache(1).addInterceptor(ic1, 1);
+   }
+
+   @BeforeMethod
+   public void resetCounters() {
+      ic0.prepareInvocations = 0;
+      ic0.commitInvocations = 0;
+      ic1.prepareInvocations = 0;
+      ic1.commitInvocations = 0;
+   }
+
+   public void testImplicitTransactionOnRemoteOwner() {
+      MagicKey key = new MagicKey("remote", cache(1));
+      cache(0).put(key, "v");
+      assertEquals(cache(0).get(key), "v");
+      assertEquals(cache(1).get(key), "v");
+
+      assertNotLocked(key);
+
+      assertEquals(ic0.prepareInvocations, 1);
+      assertEquals(ic1.prepareInvocations, 1);
+      assertEquals(ic0.commitInvocations, 0);
+      assertEquals(ic1.commitInvocations, 0);
+   }
+
+   public void testImplicitTransactionOnLocalOwner() {
+      MagicKey key = new MagicKey("local", cache(0));
+      cache(0).put(key, "v");
+      assertEquals(cache(1).get(key), "v");
+
+      assertNotLocked(key);
+
+      assertEquals(ic0.prepareInvocations, 1);
+      assertEquals(ic1.prepareInvocations, 0);
+      assertEquals(ic0.commitInvocations, 0);
+      assertEquals(ic1.commitInvocations, 0);
+   }
+
+   public void testExplicitTransactionUsesTwoPhases() throws Exception {
+      MagicKey key = new MagicKey("explicit", cache(1));
+      tm(0).begin();
+      cache(0).put(key, "v");
+      tm(0).commit();
+      assertEquals(cache(1).get(key), "v");
+
+      assertEquals(ic1.prepareInvocations, 1);
+      assertEquals(ic1.commitInvocations, 1);
+   }
+
+   public void testImplicitTransactionOnMultipleOwners() {
+      MagicKey key0 = new MagicKey("multi0", cache(0));
+      MagicKey key1 = new MagicKey("multi1", cache(1));
+      Map<Object, Object> values = new HashMap<>();
+      values.put(key0, "v0");
+      values.put(key1, "v1");
+      cache(0).putAll(values);
+
+      assertEquals(ic1.prepareInvocations, 1);
+      assertEquals(ic1.commitInvocations, 1);
+   }
+
+   public void testWriteSkewAfterOnePhaseCommit() throws Exception {
+      MagicKey key = new MagicKey("skew", cache(1));
+      cache(0).put(key, "v1");
+
+      tm(0).begin();
+      assertEquals(cache(0).get(key), "v1");
+      Transaction tx = tm(0).suspend();
+
+      // Committed in one phase, it must still increment the version
+      cache(1).put(key, "v2");
+
+      tm(0).resume(tx);
+      cache(0).put(key, "v3");
+      try {
+         tm(0).commit();
+         fail("Transaction should roll back");
+      } catch (RollbackException expected) {
+      }
+
+      assertEquals(cache(0).get(key), "v2");
+      assertEquals(cache(1).get(key), "v2");
+      assertNotLocked(key);
+   }
+
+   public void testOnePhaseCommitUsesTheNewVersions() throws Exception {
+      MagicKey key = new MagicKey("versions", cache(1));
+      cache(0).put(key, "v1");
+      EntryVersion v1 = ownerVersion(key);
+
+      // A conditional write reads the key, so both the version seen and the new version are in the prepare
+      cache(0).replace(key, "v1", "v2");
+      EntryVersion v2 = ownerVersion(key);
+      assertEquals(v2.compareTo(v1), InequalVersionComparisonResult.AFTER);
+      assertEquals(ic1.commitInvocations, 0);
+
+      // A transaction that read the committed version must pass the write skew check
+      tm(0).begin();
+      assertEquals(cache(0).get(key), "v2");
+      cache(0).put(key, "v3");
+      tm(0).commit();
+      EntryVersion v3 = ownerVersion(key);
+      assertEquals(v3.compareTo(v2), InequalVersionComparisonResult.AFTER);
+      assertEquals(cache(1).get(key), "v3");
+   }
+
+   public void testKeysWithBackupsUseTwoPhases() {
+      MagicKey key = new MagicKey("backups", cache(1, BACKUPS_CACHE));
+      CountingRpcManager rpcManager = CountingRpcManager.replaceRpcManager(cache(0, BACKUPS_CACHE));
+      rpcManager.resetStats();
+      cache(0, BACKUPS_CACHE).put(key, "v");
+      assertEquals(cache(1, BACKUPS_CACHE).get(key), "v");
+      // The prepare, the commit and the completion notification
+      assertEquals(rpcManager.otherCount, 3);
+
+      CountingRpcManager singleOwnerRpcManager = CountingRpcManager.replaceRpcManager(cache(0));
+      singleOwnerRpcManager.resetStats();
+      cache(0).put(new MagicKey("single", cache(1)), "v");
+      // Only the one phase prepare
+      assertEquals(singleOwnerRpcManager.otherCount, 1);
+   }
+
+   private EntryVersion ownerVersion(Object key) {
+      DataContainer<Object, Object> dataContainer = TestingUtil.extractComponent(cache(1), DataContainer.class);
+      EntryVersion version = dataContainer.peek(key).getMetadata().version();
+      assertNotNull(version);
+      return version;
+   }
+}
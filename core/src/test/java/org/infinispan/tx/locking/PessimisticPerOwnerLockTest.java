@@ -0,0 +1,121 @@
+package org.infinispan.tx.locking;
+
+import org.infinispan.commands.control.LockControlCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.transaction.LockingMode;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test that the keys locked with a single {@link LockControlCommand} are sent in one request per owner, and that each
+ * owner only receives its own keys.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "tx.locking.PessimisticPerOwnerLockTest")
+public class PessimisticPerOwnerLockTest extends MultipleCacheManagersTest {
+
+   private LockControlCountInterceptor[] interceptors;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder c = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      c.clustering().hash().numOwners(1);
+      c.transaction().lockingMode(LockingMode.PESSIMISTIC);
+
+      createCluster(c, 3);
+      waitForClusterToForm();
+
+      interceptors = new LockControlCountInterceptor[3];
+      for (int i = 0; i < 3; i++) {
+         interceptors[i] = new LockControlCountInterceptor();
+         advancedCache(i).addInterceptor(interceptors[i], 1);
+      }
+   }
+
+   @BeforeMethod
+   public void resetCounters() {
+      for (LockControlCountInterceptor interceptor : interceptors) {
+         interceptor.receivedKeys.clear();
+      }
+   }
+
+   public void testLockKeysOnMultipleOwners() throws Exception {
+      List<Object> localKeys = createKeys("local", 0, 5);
+      List<Object> keys1 = createKeys("k1", 1, 10);
+      List<Object> keys2 = createKeys("k2", 2, 10);
+      List<Object> allKeys = new ArrayList<>();
+      allKeys.addAll(localKeys);
+      allKeys.addAll(keys1);
+      allKeys.addAll(keys2);
+
+      tm(0).begin();
+      assertTrue(advancedCache(0).lock(allKeys));
+      for (Object key : localKeys) {
+         assertTrue(lockManager(0).isLocked(key));
+      }
+      for (Object key : keys1) {
+         assertTrue(lockManager(1).isLocked(key));
+      }
+      for (Object key : keys2) {
+         assertTrue(lockManager(2).isLocked(key));
+      }
+      tm(0).commit();
+
+      assertEquals(interceptors[1].receivedKeys.size(), 1);
+      assertEquals(new HashSet<>(interceptors[1].receivedKeys.get(0)), new HashSet<>(keys1));
+      assertEquals(interceptors[2].receivedKeys.size(), 1);
+      assertEquals(new HashSet<>(interceptors[2].receivedKeys.get(0)), new HashSet<>(keys2));
+      for (Object key : allKeys) {
+         assertNotLocked(key);
+      }
+   }
+
+   public void testLockKeysOnSingleRemoteOwner() throws Exception {
+      List<Object> keys1 = createKeys("single", 1, 3);
+
+      tm(0).begin();
+      assertTrue(advancedCache(0).lock(keys1));
+      tm(0).rollback();
+
+      assertEquals(interceptors[1].receivedKeys.size(), 1);
+      assertEquals(new HashSet<>(interceptors[1].receivedKeys.get(0)), new HashSet<>(keys1));
+      assertEquals(interceptors[2].receivedKeys.size(), 0);
+      for (Object key : keys1) {
+         assertNotLocked(key);
+      }
+   }
+
+   private List<Object> createKeys(String name, int owner, int count) {
+      List<Object> keys = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+         keys.add(new MagicKey(name + i, cache(owner)));
+      }
+      return keys;
+   }
+
+   static class LockControlCountInterceptor extends CommandInterceptor {
+      final List<List<Object>> receivedKeys = new CopyOnWriteArrayList<>();
+
+      @Override
+      public Object visitLockControlCommand(TxInvocationContext ctx, LockControlCommand command) throws Throwable {
+         if (!ctx.isOriginLocal()) {
+            receivedKeys.add(new ArrayList<>(command.getKeys()));
+         }
+         return super.visitLockControlCommand(ctx, command);
+      }
+   }
+}
@@ -1,7 +1,15 @@
 package org.infinispan.util;
 
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.control.DeadlockProbeCommand;
 import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
 import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.transaction.impl.LocalTransaction;
+import org.infinispan.transaction.impl.TransactionTable;
 import org.infinispan.transaction.xa.DldGlobalTransaction;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.DeadlockDetectedException;
@@ -13,9 +21,23 @@
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.testng.Assert.fail;
 
 /**
@@ -26,11 +48,17 @@
 @Test(groups = "unit", testName = "util.DeadlockDetectingLockManagerTest")
 public class DeadlockDetectingLockManagerTest extends AbstractInfinispanTest {
 
-   private DeadlockDetectingLockManagerMock lockManager;
+   private DeadlockDetectingLockManager lockManager;
 
    @BeforeMethod
    public void setUp() {
-      lockManager = new DeadlockDetectingLockManagerMock(createLockContainer());
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.deadlockDetection().enable();
+      lockManager = new DeadlockDetectingLockManager();
+      lockManager.inject(createLockContainer(), builder.build(), null);
+      lockManager.injectDeadlockDetection(null, null, null, null, null, null);
+      lockManager.init();
+      lockManager.setExposeJmxStats(true);
    }
 
    public void testNoTransaction() throws Exception {
@@ -46,8 +74,7 @@ public void testNoTransaction() throws Exception {
    public void testLockHeldByThread() throws Exception {
       lockManager.lock("k", "aThread", 0, TimeUnit.MILLISECONDS).lock();
       try {
-         LockPromise promise = lockManager.lock("k", new DldGlobalTransaction(), 1000, TimeUnit.MILLISECONDS);
-         lockManager.run(); //runs the deadlock check
+         LockPromise promise = lockManager.lock("k", createTransaction(0), 100, TimeUnit.MILLISECONDS);
          promise.lock();
          fail("TimeoutException expected!");
       } catch (TimeoutException e) {
@@ -58,63 +85,178 @@ public void testLockHeldByThread() throws Exception {
    }
 
    public void testLocalDeadlock() throws Exception {
-      final DldGlobalTransaction ddgt = new DldGlobalTransaction();
-      final DldGlobalTransaction lockOwner = new DldGlobalTransaction();
+      final DldGlobalTransaction victim = createTransaction(0);
+      final DldGlobalTransaction winner = createTransaction(1);
+      AssertJUnit.assertTrue(victim.wouldLose(winner));
 
-      ddgt.setCoinToss(0);
-      lockOwner.setCoinToss(1);
-      lockOwner.setRemote(false);
-      lockOwner.setLockIntention(Collections.singleton("k"));
-      AssertJUnit.assertTrue(ddgt.wouldLose(lockOwner));
+      lockManager.lock("k1", victim, 0, TimeUnit.MILLISECONDS).lock();
+      lockManager.lock("k2", winner, 0, TimeUnit.MILLISECONDS).lock();
 
-      lockManager.setOwner(lockOwner);
-      lockManager.setOwnsLock(true);
-
-      lockManager.lock("k", lockOwner, 0, TimeUnit.MILLISECONDS).lock();
+      //the victim waits first, the deadlock is detected when the winner closes the cycle
+      LockPromise victimPromise = lockManager.lock("k2", victim, 10, TimeUnit.SECONDS);
+      AssertJUnit.assertFalse(victimPromise.isAvailable());
+      LockPromise winnerPromise = lockManager.lock("k1", winner, 10, TimeUnit.SECONDS);
 
+      AssertJUnit.assertTrue(victimPromise.isAvailable());
       try {
-         LockPromise lockPromise = lockManager.lock("k", ddgt, 1500, TimeUnit.MILLISECONDS);
-         lockManager.run(); //runs the deadlock checker
-         lockPromise.lock();
-         assert false;
+         victimPromise.lock();
+         fail("DeadlockDetectedException expected!");
       } catch (DeadlockDetectedException e) {
          //expected
       }
       AssertJUnit.assertEquals(1, lockManager.getDetectedLocalDeadlocks());
-   }
 
-   private LockContainer createLockContainer() {
-      PerKeyLockContainer lockContainer = new PerKeyLockContainer(32, AnyEquivalence.getInstance());
-      lockContainer.inject(TIME_SERVICE);
-      return lockContainer;
+      //the winner acquires the lock when the victim rolls back
+      AssertJUnit.assertFalse(winnerPromise.isAvailable());
+      lockManager.unlock("k1", victim);
+      winnerPromise.lock();
+      AssertJUnit.assertTrue(lockManager.ownsLock("k1", winner));
    }
 
-   public static class DeadlockDetectingLockManagerMock extends DeadlockDetectingLockManager {
+   public void testDeadlockWithThreeTransactions() throws Exception {
+      final DldGlobalTransaction tx1 = createTransaction(2);
+      final DldGlobalTransaction tx2 = createTransaction(0);
+      final DldGlobalTransaction tx3 = createTransaction(1);
 
-      private Object owner;
-      private boolean ownsLock;
+      lockManager.lock("k1", tx1, 0, TimeUnit.MILLISECONDS).lock();
+      lockManager.lock("k2", tx2, 0, TimeUnit.MILLISECONDS).lock();
+      lockManager.lock("k3", tx3, 0, TimeUnit.MILLISECONDS).lock();
 
-      public DeadlockDetectingLockManagerMock(LockContainer lockContainer) {
-         super.lockContainer = lockContainer;
-         this.exposeJmxStats = true;
-      }
+      LockPromise promise1 = lockManager.lock("k2", tx1, 10, TimeUnit.SECONDS);
+      LockPromise promise2 = lockManager.lock("k3", tx2, 10, TimeUnit.SECONDS);
+      AssertJUnit.assertFalse(promise1.isAvailable());
+      AssertJUnit.assertFalse(promise2.isAvailable());
+      LockPromise promise3 = lockManager.lock("k1", tx3, 10, TimeUnit.SECONDS);
 
-      public void setOwner(Object owner) {
-         this.owner = owner;
+      //tx2 has the lowest coin toss
+      try {
+         promise2.lock();
+         fail("DeadlockDetectedException expected!");
+      } catch (DeadlockDetectedException e) {
+         //expected
       }
+      AssertJUnit.assertFalse(promise1.isAvailable());
+      AssertJUnit.assertFalse(promise3.isAvailable());
+      AssertJUnit.assertEquals(1, lockManager.getTotalNumberOfDetectedDeadlocks());
+   }
 
-      public void setOwnsLock(boolean ownsLock) {
-         this.ownsLock = ownsLock;
-      }
+   public void testWaitWithoutCycle() throws Exception {
+      final DldGlobalTransaction tx1 = createTransaction(0);
+      final DldGlobalTransaction tx2 = createTransaction(1);
 
-      @Override
-      public Object getOwner(Object key) {
-         return owner;
-      }
+      lockManager.lock("k1", tx1, 0, TimeUnit.MILLISECONDS).lock();
+      lockManager.lock("k2", tx2, 0, TimeUnit.MILLISECONDS).lock();
+
+      LockPromise promise = lockManager.lock("k2", tx1, 10, TimeUnit.SECONDS);
+      AssertJUnit.assertFalse(promise.isAvailable());
+
+      lockManager.unlock("k2", tx2);
+      promise.lock();
+      AssertJUnit.assertEquals(0, lockManager.getTotalNumberOfDetectedDeadlocks());
+   }
 
-      @Override
-      public boolean ownsLock(Object key, Object owner) {
-         return ownsLock;
+   public void testDeadlockFormedByLockHandoff() throws Exception {
+      final DldGlobalTransaction holder = createTransaction(2);
+      final DldGlobalTransaction tx1 = createTransaction(1);
+      final DldGlobalTransaction tx2 = createTransaction(0);
+
+      lockManager.lock("k1", holder, 0, TimeUnit.MILLISECONDS).lock();
+      lockManager.lock("k2", tx2, 0, TimeUnit.MILLISECONDS).lock();
+
+      //tx1 and tx2 both wait for holder, and tx1 waits for tx2: no cycle yet
+      LockPromise promise1 = lockManager.lock("k1", tx1, 10, TimeUnit.SECONDS);
+      LockPromise promise2 = lockManager.lock("k1", tx2, 10, TimeUnit.SECONDS);
+      LockPromise promise3 = lockManager.lock("k2", tx1, 10, TimeUnit.SECONDS);
+      AssertJUnit.assertEquals(0, lockManager.getTotalNumberOfDetectedDeadlocks());
+
+      //tx1 acquires k1, and tx2 now waits for it
+      lockManager.unlock("k1", holder);
+      promise1.lock();
+      AssertJUnit.assertEquals(1, lockManager.getTotalNumberOfDetectedDeadlocks());
+      try {
+         promise2.lock();
+         fail("DeadlockDetectedException expected!");
+      } catch (DeadlockDetectedException e) {
+         //expected
       }
+      AssertJUnit.assertFalse(promise3.isAvailable());
+   }
+
+   public void testDuplicateProbesAreDropped() throws Exception {
+      RpcManager rpcManager = mockRpcManager(mock(Address.class));
+      DeadlockDetectingLockManager manager = createClusteredLockManager(rpcManager, null, null);
+      final DldGlobalTransaction tx1 = createTransaction(0);
+      final DldGlobalTransaction tx2 = createTransaction(1);
+      final DldGlobalTransaction remote = createTransaction(2);
+      manager.lock("k1", tx1, 0, TimeUnit.MILLISECONDS).lock();
+      manager.lock("k1", tx2, 10, TimeUnit.SECONDS);
+
+      //tx2 waits for tx1, so the probe is sent again with tx1
+      List<Object> path = Arrays.asList(remote, tx2);
+      manager.probe(path);
+      manager.probe(path);
+      verify(rpcManager, times(1)).invokeRemotelyAsync(isNull(Collection.class), any(DeadlockProbeCommand.class), any());
+
+      manager.probe(Collections.singletonList(tx2));
+      verify(rpcManager, times(2)).invokeRemotelyAsync(isNull(Collection.class), any(DeadlockProbeCommand.class), any());
+   }
+
+   public void testProbesAreSentToTheKeyOwners() throws Exception {
+      Address self = mock(Address.class);
+      Address keyOwner = mock(Address.class);
+      RpcManager rpcManager = mockRpcManager(self);
+      final DldGlobalTransaction tx1 = createTransaction(0);
+      final DldGlobalTransaction tx2 = createTransaction(1);
+      final DldGlobalTransaction remote = createTransaction(2);
+      LocalTransaction localTransaction = mock(LocalTransaction.class);
+      when(localTransaction.getAffectedKeys()).thenReturn(Collections.singleton("k2"));
+      when(localTransaction.getLockedKeys()).thenReturn(Collections.singleton("k1"));
+      when(localTransaction.getBackupLockedKeys()).thenReturn(Collections.emptySet());
+      TransactionTable transactionTable = mock(TransactionTable.class);
+      when(transactionTable.getLocalTransaction(tx1)).thenReturn(localTransaction);
+      DistributionManager distributionManager = mock(DistributionManager.class);
+      when(distributionManager.locateAll(anyCollectionOf(Object.class))).thenReturn(
+            new HashSet<>(Arrays.asList(self, keyOwner)));
+      DeadlockDetectingLockManager manager = createClusteredLockManager(rpcManager, transactionTable, distributionManager);
+
+      manager.lock("k1", tx1, 0, TimeUnit.MILLISECONDS).lock();
+      manager.lock("k1", tx2, 10, TimeUnit.SECONDS);
+      manager.probe(Arrays.asList(remote, tx2));
+      verify(rpcManager).invokeRemotelyAsync(eq(Collections.singleton(keyOwner)), any(DeadlockProbeCommand.class),
+            any());
+   }
+
+   private DeadlockDetectingLockManager createClusteredLockManager(RpcManager rpcManager,
+                                                                   TransactionTable transactionTable,
+                                                                   DistributionManager distributionManager) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.deadlockDetection().enable().spinDuration(1, TimeUnit.MINUTES);
+      CommandsFactory commandsFactory = mock(CommandsFactory.class);
+      when(commandsFactory.buildDeadlockProbeCommand(any(), anyBoolean())).thenReturn(mock(DeadlockProbeCommand.class));
+      DeadlockDetectingLockManager manager = new DeadlockDetectingLockManager();
+      manager.inject(createLockContainer(), builder.build(), null);
+      manager.injectDeadlockDetection(null, rpcManager, commandsFactory, transactionTable, distributionManager,
+            TIME_SERVICE);
+      manager.init();
+      return manager;
+   }
+
+   private static RpcManager mockRpcManager(Address self) {
+      RpcManager rpcManager = mock(RpcManager.class);
+      when(rpcManager.getAddress()).thenReturn(self);
+      when(rpcManager.invokeRemotelyAsync(any(), any(), any())).thenReturn(new CompletableFuture<>());
+      return rpcManager;
+   }
+
+   private static DldGlobalTransaction createTransaction(long coinToss) {
+      DldGlobalTransaction tx = new DldGlobalTransaction(null, false);
+      tx.setCoinToss(coinToss);
+      return tx;
+   }
+
+   private LockContainer createLockContainer() {
+      PerKeyLockContainer lockContainer = new PerKeyLockContainer(32, AnyEquivalence.getInstance());
+      lockContainer.inject(TIME_SERVICE);
+      return lockContainer;
    }
 }
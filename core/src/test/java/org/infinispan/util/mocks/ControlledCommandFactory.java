@@ -7,6 +7,7 @@
 import org.infinispan.commands.CreateCacheCommand;
 import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commands.control.DeadlockProbeCommand;
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.functional.ReadOnlyKeyCommand;
 import org.infinispan.commands.functional.ReadOnlyManyCommand;
@@ -28,6 +29,7 @@
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
+import org.infinispan.commands.remote.SegmentSizeCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
 import org.infinispan.commands.remote.recovery.CompleteTransactionCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand;
@@ -265,6 +267,16 @@ public ClusteredGetAllCommand buildClusteredGetAllCommand(List<?> keys, long fla
       return actual.buildClusteredGetAllCommand(keys, flagsBitSet, gtx);
    }
 
+   @Override
+   public SegmentSizeCommand buildSegmentSizeCommand(Set<Integer> segments) {
+      return actual.buildSegmentSizeCommand(segments);
+   }
+
+   @Override
+   public DeadlockProbeCommand buildDeadlockProbeCommand(List<Object> path, boolean resolve) {
+      return actual.buildDeadlockProbeCommand(path, resolve);
+   }
+
    @Override
    public LockControlCommand buildLockControlCommand(Collection<?> keys, long flagsBitSet, GlobalTransaction gtx) {
       return actual.buildLockControlCommand(keys, flagsBitSet, gtx);
@@ -49,6 +49,12 @@ public JdbcBinaryStoreConfigurationBuilder concurrencyLevel(int concurrencyLevel
       return self();
    }
 
+   @Override
+   public void validate() {
+      super.validate();
+      table.validateNoSegmentColumn();
+   }
+
    @Override
    public JdbcBinaryStoreConfiguration create() {
       return new JdbcBinaryStoreConfiguration(attributes.protect(), async.create(), singletonStore.create(), connectionFactory != null ? connectionFactory.create() : null, table.create());
@@ -111,6 +111,7 @@ public void validate() {
       if (binaryTable.tableNamePrefix().equals(stringTable.tableNamePrefix()))
          throw new CacheConfigurationException("There cannot be the same tableNamePrefix on both the binary and " +
                "String tables.");
+      binaryTable.validateNoSegmentColumn();
 
    }
 
@@ -121,9 +121,41 @@ public S timestampColumnType(String timestampColumnType) {
       return self();
    }
 
+   /**
+    * The name of the database column used to store the segment of each entry. This is an optional parameter: with a
+    * segment column, state transfer only reads the rows of the segments it needs, and the iteration over the whole
+    * table is split by segment and runs in parallel. Only the string keyed table uses it. The number of segments and
+    * the key partitioner the segments were computed with are kept in a second table, named after the data table with
+    * a {@code _META} suffix, and the segments of the rows are only updated on start when they change.
+    */
+   public S segmentColumnName(String segmentColumnName) {
+      attributes.attribute(SEGMENT_COLUMN_NAME).set(segmentColumnName);
+      return self();
+   }
+
+   /**
+    * The type of the database column used to store the segment of each entry, e.g. {@code INTEGER}.
+    */
+   public S segmentColumnType(String segmentColumnType) {
+      attributes.attribute(SEGMENT_COLUMN_TYPE).set(segmentColumnType);
+      return self();
+   }
+
    @Override
    public void validate() {
       validateIfSet(ID_COLUMN_NAME, ID_COLUMN_TYPE, DATA_COLUMN_NAME, DATA_COLUMN_TYPE, TIMESTAMP_COLUMN_NAME, TIMESTAMP_COLUMN_TYPE, TABLE_NAME_PREFIX);
+      if (attributes.attribute(SEGMENT_COLUMN_NAME).get() != null) {
+         validateIfSet(SEGMENT_COLUMN_TYPE);
+      }
+   }
+
+   /**
+    * Invoked by the stores whose tables can't have a segment column.
+    */
+   void validateNoSegmentColumn() {
+      if (attributes.attribute(SEGMENT_COLUMN_NAME).get() != null) {
+         throw log.segmentColumnNotSupported();
+      }
    }
 
    private void validateIfSet(AttributeDefinition<?>... definitions) {
@@ -13,6 +13,7 @@
 import java.sql.SQLException;
 
 import static org.jboss.logging.Logger.Level.ERROR;
+import static org.jboss.logging.Logger.Level.INFO;
 import static org.jboss.logging.Logger.Level.WARN;
 
 /**
@@ -144,4 +145,15 @@ public interface Log extends org.infinispan.util.logging.Log {
 
    @Message(value = "Cannot specify a ConnectionFactory and manageConnectionFactory at the same time", id = 8030)
    CacheConfigurationException unmanagedConnectionFactory();
+
+   @Message(value = "The segment column is only supported by the string keyed table", id = 8031)
+   CacheConfigurationException segmentColumnNotSupported();
+
+   @LogMessage(level = INFO)
+   @Message(value = "Updated the segment of %d rows in table %s, which were written without a segment or with a different number of segments or key partitioner", id = 8032)
+   void updatedRowSegments(int rows, Object tableName);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Table %s does not exist, so the segment of every row is checked on each start. Create it, or enable create-on-start", id = 8033)
+   void missingSegmentLayoutTable(Object tableName);
 }
@@ -19,6 +19,7 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.Set;
 import java.util.concurrent.Executor;
 
 /**
@@ -119,6 +120,12 @@ public void process(KeyFilter filter, CacheLoaderTask task, Executor executor, b
       stringStore.process(filter, task, executor, fetchValue, fetchMetadata);
    }
 
+   @Override
+   public void process(Set segments, KeyFilter filter, CacheLoaderTask task, Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      binaryStore.process(filter, task, executor, fetchValue, fetchMetadata);
+      stringStore.process(segments, filter, task, executor, fetchValue, fetchMetadata);
+   }
+
    @Override
    public void write(MarshalledEntry ed)  {
       getStore(ed.getKey()).write(ed);
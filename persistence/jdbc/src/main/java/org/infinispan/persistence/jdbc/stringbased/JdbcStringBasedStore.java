@@ -8,6 +8,12 @@
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -18,8 +24,11 @@
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.TaskContextImpl;
 import org.infinispan.persistence.jdbc.JdbcUtil;
 import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfiguration;
@@ -66,16 +75,26 @@
  * <b>Rehashing</b>. When a node leaves/joins, Infinispan moves around persistent state as part of rehashing process.
  * For this it needs access to the underlaying key objects, so if distribution is used, the mapper needs to be an
  * {@link org.infinispan.persistence.keymappers.TwoWayKey2StringMapper} otherwise the cache won't start (same constraint as with preloading).
+ * <p/>
+ * <b>Segments</b>. With a segment column, the store keeps the segment of each key and reads only the requested segments
+ * when iterating. On start, the rows written without a segment, or with a different number of segments or key
+ * partitioner, get the segment of the current configuration. This also needs an
+ * {@link org.infinispan.persistence.keymappers.TwoWayKey2StringMapper}.
  *
  * @author Mircea.Markus@jboss.com
  * @see org.infinispan.persistence.keymappers.Key2StringMapper
  * @see org.infinispan.persistence.keymappers.DefaultTwoWayKey2StringMapper
  */
 @ConfiguredBy(JdbcStringBasedStoreConfiguration.class)
-public class JdbcStringBasedStore implements AdvancedLoadWriteStore {
+public class JdbcStringBasedStore<K, V> implements AdvancedLoadWriteStore<K, V> {
 
    private static final Log log = LogFactory.getLog(JdbcStringBasedStore.class, Log.class);
    private static final boolean trace = log.isTraceEnabled();
+   /**
+    * The store property setting the number of partitions, each read on its own connection, in which a table with a
+    * segment column is split when iterating over it. Defaults to the number of processors.
+    */
+   public static final String PROCESS_PARTITIONS = "jdbc.process.partitions";
 
    private JdbcStringBasedStoreConfiguration configuration;
 
@@ -85,6 +104,9 @@ public class JdbcStringBasedStore implements AdvancedLoadWriteStore {
    private InitializationContext ctx;
    private String cacheName;
    private GlobalConfiguration globalConfiguration;
+   private KeyPartitioner keyPartitioner;
+   private int numSegments;
+   private int partitionCount;
 
 
    @Override
@@ -120,6 +142,136 @@ public void start() {
       if (isDistributed()) {
          enforceTwoWayMapper("distribution/rehashing");
       }
+      if (configuration.table().segmentColumnName() != null) {
+         enforceTwoWayMapper("the segment column");
+         initializeSegments();
+         if (tableManager != null) {
+            updateSegmentsIfLayoutChanged();
+         }
+      }
+   }
+
+   private void initializeSegments() {
+      numSegments = ctx.getCache().getCacheConfiguration().clustering().hash().numSegments();
+      keyPartitioner = PersistenceUtil.getKeyPartitioner(ctx);
+      String partitions = configuration.properties().getProperty(PROCESS_PARTITIONS);
+      partitionCount = partitions != null ? Integer.parseInt(partitions) : Runtime.getRuntime().availableProcessors();
+      partitionCount = Math.max(1, Math.min(partitionCount, numSegments));
+   }
+
+   /**
+    * Updates the segments of the rows only if the segment layout stored in the meta table is missing, or has a
+    * different number of segments or key partitioner than the cache, and then stores the layout of the cache. Without
+    * the meta table, the rows are checked on every start.
+    */
+   private void updateSegmentsIfLayoutChanged() {
+      String partitioner = keyPartitioner.getClass().getName();
+      Connection conn = null;
+      PreparedStatement ps = null;
+      ResultSet rs = null;
+      try {
+         conn = connectionFactory.getConnection();
+         if (!tableManager.tableExists(conn, tableManager.getMetaTableName())) {
+            log.missingSegmentLayoutTable(tableManager.getMetaTableName());
+            updateSegments();
+            return;
+         }
+         ps = conn.prepareStatement(tableManager.getSelectSegmentLayoutSql());
+         rs = ps.executeQuery();
+         boolean sameLayout = rs.next() && partitioner.equals(rs.getString(1)) && rs.getInt(2) == numSegments &&
+               !rs.next();
+         JdbcUtil.safeClose(rs);
+         rs = null;
+         JdbcUtil.safeClose(ps);
+         ps = null;
+         if (sameLayout) {
+            return;
+         }
+         updateSegments();
+
+         ps = conn.prepareStatement(tableManager.getDeleteSegmentLayoutSql());
+         ps.executeUpdate();
+         JdbcUtil.safeClose(ps);
+         ps = conn.prepareStatement(tableManager.getInsertSegmentLayoutSql());
+         ps.setString(1, partitioner);
+         ps.setInt(2, numSegments);
+         ps.executeUpdate();
+      } catch (SQLException e) {
+         throw new PersistenceException("SQL error while updating the segment layout of table " + tableManager.getTableName(), e);
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(conn);
+      }
+   }
+
+   /**
+    * Sets the segment of the rows written without one, or with a different number of segments or key partitioner,
+    * so that reading the rows of some segments finds all of them. The ids are read in pages ordered by id, and the
+    * rows of a page are updated before the next page is read, on the same connection.
+    */
+   private void updateSegments() {
+      TwoWayKey2StringMapper mapper = (TwoWayKey2StringMapper) key2StringMapper;
+      int batchSize = tableManager.getBatchSize();
+      Connection conn = null;
+      PreparedStatement firstPagePs = null;
+      PreparedStatement nextPagePs = null;
+      PreparedStatement updatePs = null;
+      ResultSet rs = null;
+      try {
+         conn = connectionFactory.getConnection();
+         firstPagePs = conn.prepareStatement(tableManager.getSelectIdsAndSegmentsSql(false));
+         firstPagePs.setMaxRows(batchSize);
+         nextPagePs = conn.prepareStatement(tableManager.getSelectIdsAndSegmentsSql(true));
+         nextPagePs.setMaxRows(batchSize);
+         updatePs = conn.prepareStatement(tableManager.getUpdateSegmentSql());
+         List<KeyValuePair<String, Integer>> outdated = new ArrayList<>();
+         String lastId = null;
+         int rows;
+         int updated = 0;
+         do {
+            PreparedStatement pagePs = firstPagePs;
+            if (lastId != null) {
+               nextPagePs.setString(1, lastId);
+               pagePs = nextPagePs;
+            }
+            rs = pagePs.executeQuery();
+            rows = 0;
+            while (rs.next()) {
+               rows++;
+               lastId = rs.getString(1);
+               int segment = rs.getInt(2);
+               boolean noSegment = rs.wasNull();
+               int expected = keyPartitioner.getSegment(mapper.getKeyMapping(lastId));
+               if (noSegment || segment != expected) {
+                  outdated.add(new KeyValuePair<>(lastId, expected));
+               }
+            }
+            JdbcUtil.safeClose(rs);
+            rs = null;
+            if (!outdated.isEmpty()) {
+               for (KeyValuePair<String, Integer> row : outdated) {
+                  updatePs.setInt(1, row.getValue());
+                  updatePs.setString(2, row.getKey());
+                  updatePs.addBatch();
+               }
+               updatePs.executeBatch();
+               updated += outdated.size();
+               outdated.clear();
+            }
+         } while (rows == batchSize);
+         if (updated > 0) {
+            log.updatedRowSegments(updated, tableManager.getTableName());
+         }
+      } catch (SQLException e) {
+         throw new PersistenceException("SQL error while updating the segments of table " + tableManager.getTableName(), e);
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(firstPagePs);
+         JdbcUtil.safeClose(nextPagePs);
+         JdbcUtil.safeClose(updatePs);
+         connectionFactory.releaseConnection(conn);
+      }
    }
 
    @Override
@@ -171,6 +323,108 @@ public void write(MarshalledEntry entry) {
       }
    }
 
+   @Override
+   public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      Connection connection = null;
+      try {
+         connection = connectionFactory.getConnection();
+         if (tableManager.isUpsertSupported()) {
+            executeUpsertBatch(connection, entries);
+         } else {
+            executeLegacyUpdateBatch(connection, entries);
+         }
+      } catch (SQLException ex) {
+         log.sqlFailureStoringKeys(ex);
+         throw new PersistenceException("Error while storing string keys to database", ex);
+      } catch (InterruptedException e) {
+         if (trace) {
+            log.trace("Interrupted while marshalling to store");
+         }
+         Thread.currentThread().interrupt();
+      } finally {
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
+   private void executeUpsertBatch(Connection connection, Iterable<MarshalledEntry<? extends K, ? extends V>> entries) throws InterruptedException, SQLException {
+      PreparedStatement ps = null;
+      String sql = tableManager.getUpsertRowSql();
+      if (trace) {
+         log.tracef("Running sql '%s' in batches of %d", sql, tableManager.getBatchSize());
+      }
+      try {
+         ps = connection.prepareStatement(sql);
+         int batched = 0;
+         for (MarshalledEntry<? extends K, ? extends V> entry : entries) {
+            prepareInsertStatement(entry, key2Str(entry.getKey()), ps);
+            ps.addBatch();
+            if (++batched == tableManager.getBatchSize()) {
+               ps.executeBatch();
+               batched = 0;
+            }
+         }
+         if (batched > 0) {
+            ps.executeBatch();
+         }
+      } finally {
+         JdbcUtil.safeClose(ps);
+      }
+   }
+
+   /**
+    * Without an upsert statement each row must still be selected to know if it exists, but the inserts and the updates
+    * are sent in batches.
+    */
+   private void executeLegacyUpdateBatch(Connection connection, Iterable<MarshalledEntry<? extends K, ? extends V>> entries)
+         throws InterruptedException, SQLException {
+      PreparedStatement selectPs = null;
+      PreparedStatement insertPs = null;
+      PreparedStatement updatePs = null;
+      try {
+         selectPs = connection.prepareStatement(tableManager.getSelectIdRowSql());
+         insertPs = connection.prepareStatement(tableManager.getInsertRowSql());
+         updatePs = connection.prepareStatement(tableManager.getUpdateRowSql());
+         Set<String> inserted = new HashSet<>();
+         int batched = 0;
+         for (MarshalledEntry<? extends K, ? extends V> entry : entries) {
+            String keyStr = key2Str(entry.getKey());
+            boolean exists = inserted.contains(keyStr);
+            if (!exists) {
+               selectPs.setString(1, keyStr);
+               ResultSet rs = selectPs.executeQuery();
+               try {
+                  exists = rs.next();
+               } finally {
+                  JdbcUtil.safeClose(rs);
+               }
+            }
+            if (exists) {
+               prepareUpdateStatement(entry, keyStr, updatePs);
+               updatePs.addBatch();
+            } else {
+               prepareInsertStatement(entry, keyStr, insertPs);
+               insertPs.addBatch();
+               inserted.add(keyStr);
+            }
+            if (++batched == tableManager.getBatchSize()) {
+               // the inserts first, a key can be inserted and then updated in the same batch
+               insertPs.executeBatch();
+               updatePs.executeBatch();
+               inserted.clear();
+               batched = 0;
+            }
+         }
+         if (batched > 0) {
+            insertPs.executeBatch();
+            updatePs.executeBatch();
+         }
+      } finally {
+         JdbcUtil.safeClose(selectPs);
+         JdbcUtil.safeClose(insertPs);
+         JdbcUtil.safeClose(updatePs);
+      }
+   }
+
    private void executeUpsert(Connection connection, MarshalledEntry entry, String keyStr)
          throws InterruptedException, SQLException {
       PreparedStatement ps = null;
@@ -179,7 +433,7 @@ private void executeUpsert(Connection connection, MarshalledEntry entry, String
          log.tracef("Running sql '%s'. Key string is '%s'", sql, keyStr);
       } try {
          ps = connection.prepareStatement(sql);
-         prepareUpdateStatement(entry, keyStr, ps);
+         prepareInsertStatement(entry, keyStr, ps);
          ps.executeUpdate();
       } finally {
          JdbcUtil.safeClose(ps);
@@ -197,7 +451,8 @@ private void executeLegacyUpdate(Connection connection, MarshalledEntry entry, S
          ps = connection.prepareStatement(sql);
          ps.setString(1, keyStr);
          ResultSet rs = ps.executeQuery();
-         if (rs.next()) {
+         boolean exists = rs.next();
+         if (exists) {
             sql = tableManager.getUpdateRowSql();
          } else {
             sql = tableManager.getInsertRowSql();
@@ -208,7 +463,11 @@ private void executeLegacyUpdate(Connection connection, MarshalledEntry entry, S
             log.tracef("Running sql '%s'. Key string is '%s'", sql, keyStr);
          }
          ps = connection.prepareStatement(sql);
-         prepareUpdateStatement(entry, keyStr, ps);
+         if (exists) {
+            prepareUpdateStatement(entry, keyStr, ps);
+         } else {
+            prepareInsertStatement(entry, keyStr, ps);
+         }
          ps.executeUpdate();
       } finally {
          JdbcUtil.safeClose(ps);
@@ -273,6 +532,38 @@ public boolean delete(Object key) {
       }
    }
 
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      Connection connection = null;
+      PreparedStatement ps = null;
+      try {
+         String sql = tableManager.getDeleteRowSql();
+         if (trace) {
+            log.tracef("Running sql '%s' in batches of %d", sql, tableManager.getBatchSize());
+         }
+         connection = connectionFactory.getConnection();
+         ps = connection.prepareStatement(sql);
+         int batched = 0;
+         for (Object key : keys) {
+            ps.setString(1, key2Str(key));
+            ps.addBatch();
+            if (++batched == tableManager.getBatchSize()) {
+               ps.executeBatch();
+               batched = 0;
+            }
+         }
+         if (batched > 0) {
+            ps.executeBatch();
+         }
+      } catch (SQLException ex) {
+         log.sqlFailureRemovingKeys(ex);
+         throw new PersistenceException("Error while removing string keys from database", ex);
+      } finally {
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
    @Override
    public void clear() throws PersistenceException {
       Connection conn = null;
@@ -296,18 +587,23 @@ public void clear() throws PersistenceException {
 
    @Override
    public void purge(Executor executor, PurgeListener task) {
-      //todo we should make the notification to the purge listener here
       ExecutorCompletionService<Void> ecs = new ExecutorCompletionService<Void>(executor);
       Future<Void> future = ecs.submit(new Callable<Void>() {
          @Override
          public Void call() throws Exception {
+            long now = ctx.getTimeService().wallClockTime();
+            if (task != null && key2StringMapper instanceof TwoWayKey2StringMapper) {
+               purgeAndNotify(now, task);
+               return null;
+            }
+            // the purged keys can't be notified, so they are deleted with a single statement
             Connection conn = null;
             PreparedStatement ps = null;
             try {
                String sql = tableManager.getDeleteExpiredRowsSql();
                conn = connectionFactory.getConnection();
                ps = conn.prepareStatement(sql);
-               ps.setLong(1, ctx.getTimeService().wallClockTime());
+               ps.setLong(1, now);
                int result = ps.executeUpdate();
                if (trace) {
                   log.tracef("Successfully purged %d rows.", result);
@@ -332,6 +628,77 @@ public Void call() throws Exception {
       }
    }
 
+   /**
+    * Selects the ids of the expired rows and deletes them in batches, notifying the listener about the rows that were
+    * still expired when deleted. Each batch of ids is read and its result set closed before the batch is deleted, so
+    * the purge holds a single connection and works with drivers that can't execute other statements on a connection
+    * while streaming a result set.
+    */
+   private void purgeAndNotify(long now, PurgeListener task) {
+      TwoWayKey2StringMapper mapper = (TwoWayKey2StringMapper) key2StringMapper;
+      int batchSize = tableManager.getBatchSize();
+      Connection conn = null;
+      PreparedStatement selectPs = null;
+      PreparedStatement deletePs = null;
+      ResultSet rs = null;
+      try {
+         conn = connectionFactory.getConnection();
+         selectPs = conn.prepareStatement(tableManager.getSelectOnlyExpiredRowsSql());
+         selectPs.setMaxRows(batchSize);
+         selectPs.setLong(1, now);
+         deletePs = conn.prepareStatement(tableManager.getDeleteRowIfExpiredSql());
+         List<String> batch = new ArrayList<>(batchSize);
+         int purged = 0;
+         do {
+            batch.clear();
+            rs = selectPs.executeQuery();
+            while (rs.next()) {
+               batch.add(rs.getString(1));
+            }
+            JdbcUtil.safeClose(rs);
+            rs = null;
+            if (batch.isEmpty()) {
+               break;
+            }
+            for (String keyStr : batch) {
+               deletePs.setString(1, keyStr);
+               deletePs.setLong(2, now);
+               deletePs.addBatch();
+            }
+            int batchPurged = executePurgeBatch(deletePs, batch, mapper, task);
+            purged += batchPurged;
+            // the deleted rows are not selected again, but rows that could not be deleted would be
+            if (batchPurged == 0) {
+               break;
+            }
+         } while (batch.size() == batchSize);
+         if (trace) {
+            log.tracef("Successfully purged %d rows.", purged);
+         }
+      } catch (SQLException ex) {
+         log.failedClearingJdbcCacheStore(ex);
+         throw new PersistenceException("Failed clearing string based JDBC store", ex);
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(selectPs);
+         JdbcUtil.safeClose(deletePs);
+         connectionFactory.releaseConnection(conn);
+      }
+   }
+
+   private int executePurgeBatch(PreparedStatement deletePs, List<String> batch, TwoWayKey2StringMapper mapper,
+                                 PurgeListener task) throws SQLException {
+      int[] results = deletePs.executeBatch();
+      int purged = 0;
+      for (int i = 0; i < results.length; i++) {
+         if (results[i] > 0 || results[i] == Statement.SUCCESS_NO_INFO) {
+            task.entryPurged(mapper.getKeyMapping(batch.get(i)));
+            purged++;
+         }
+      }
+      return purged;
+   }
+
    @Override
    public boolean contains(Object key) {
       //we can do better if needed...
@@ -341,6 +708,12 @@ public boolean contains(Object key) {
 
    @Override
    public void process(final KeyFilter filter, final CacheLoaderTask task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
+      if (tableManager.isSegmented()) {
+         // every row has a segment of the current configuration, see updateSegments()
+         List<List<int[]>> partitions = partitionSegments(allSegments(), partitionCount);
+         processPartitions(partitions, filter, task, executor, fetchValue, fetchMetadata);
+         return;
+      }
 
       ExecutorCompletionService<Void> ecs = new ExecutorCompletionService<Void>(executor);
       Future<Void> future = ecs.submit(new Callable<Void>() {
@@ -361,23 +734,7 @@ public Void call() throws Exception {
                rs = ps.executeQuery();
 
                TaskContext taskContext = new TaskContextImpl();
-               while (rs.next()) {
-                  String keyStr = rs.getString(2);
-                  Object key = ((TwoWayKey2StringMapper) key2StringMapper).getKeyMapping(keyStr);
-                  if (taskContext.isStopped()) break;
-                  if (filter != null && !filter.accept(key))
-                     continue;
-                  InputStream inputStream = rs.getBinaryStream(1);
-                  MarshalledEntry entry;
-                  if (fetchValue || fetchMetadata) {
-                     KeyValuePair<ByteBuffer, ByteBuffer> kvp = JdbcUtil.unmarshall(ctx.getMarshaller(), inputStream);
-                     entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(
-                           key, fetchValue ? kvp.getKey() : null, fetchMetadata ? kvp.getValue() : null);
-                  } else {
-                     entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(key, (Object)null, null);
-                  }
-                  task.processEntry(entry, taskContext);
-               }
+               processRows(rs, filter, task, taskContext, fetchValue, fetchMetadata);
                return null;
             } catch (SQLException e) {
                log.sqlFailureFetchingAllStoredEntries(e);
@@ -399,6 +756,143 @@ public Void call() throws Exception {
       }
    }
 
+   /**
+    * If the table has a segment column, only the rows of the requested segments are read. Otherwise all the rows are
+    * read, and the caller filters them.
+    */
+   @Override
+   public void process(Set segments, KeyFilter filter, CacheLoaderTask task, Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      if (!tableManager.isSegmented()) {
+         process(filter, task, executor, fetchValue, fetchMetadata);
+         return;
+      }
+      List<List<int[]>> partitions = partitionSegments((Set<Integer>) segments, partitionCount);
+      if (!partitions.isEmpty()) {
+         processPartitions(partitions, filter, task, executor, fetchValue, fetchMetadata);
+      }
+   }
+
+   /**
+    * Reads each partition on its own connection, in parallel.
+    */
+   private void processPartitions(List<List<int[]>> partitions, final KeyFilter filter, final CacheLoaderTask task,
+                                  Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
+      final long now = ctx.getTimeService().wallClockTime();
+      final TaskContext taskContext = new TaskContextImpl();
+      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      for (final List<int[]> ranges : partitions) {
+         if (taskContext.isStopped())
+            break;
+         eacs.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+               processSegmentRanges(ranges, now, filter, task, taskContext, fetchValue, fetchMetadata);
+               return null;
+            }
+         });
+      }
+      eacs.waitUntilAllCompleted();
+      if (eacs.isExceptionThrown()) {
+         log.errorExecutingParallelStoreTask(eacs.getFirstException());
+         throw new PersistenceException(eacs.getFirstException());
+      }
+   }
+
+   private void processSegmentRanges(List<int[]> ranges, long now, KeyFilter filter, CacheLoaderTask task,
+                                     TaskContext taskContext, boolean fetchValue, boolean fetchMetadata)
+         throws InterruptedException {
+      Connection conn = null;
+      PreparedStatement ps = null;
+      try {
+         String sql = tableManager.getLoadNonExpiredSegmentRangeRowsSql();
+         conn = connectionFactory.getConnection();
+         ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+         ps.setFetchSize(tableManager.getFetchSize());
+         for (int[] range : ranges) {
+            if (taskContext.isStopped())
+               break;
+            if (trace) {
+               log.tracef("Running sql %s for segments %d to %d", sql, range[0], range[1]);
+            }
+            ps.setLong(1, now);
+            ps.setInt(2, range[0]);
+            ps.setInt(3, range[1]);
+            ResultSet rs = ps.executeQuery();
+            try {
+               processRows(rs, filter, task, taskContext, fetchValue, fetchMetadata);
+            } finally {
+               JdbcUtil.safeClose(rs);
+            }
+         }
+      } catch (SQLException e) {
+         log.sqlFailureFetchingAllStoredEntries(e);
+         throw new PersistenceException("SQL error while fetching all StoredEntries", e);
+      } finally {
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(conn);
+      }
+   }
+
+   private void processRows(ResultSet rs, KeyFilter filter, CacheLoaderTask task, TaskContext taskContext,
+                            boolean fetchValue, boolean fetchMetadata) throws SQLException, InterruptedException {
+      while (rs.next()) {
+         String keyStr = rs.getString(2);
+         Object key = ((TwoWayKey2StringMapper) key2StringMapper).getKeyMapping(keyStr);
+         if (taskContext.isStopped()) break;
+         if (filter != null && !filter.accept(key))
+            continue;
+         InputStream inputStream = rs.getBinaryStream(1);
+         MarshalledEntry entry;
+         if (fetchValue || fetchMetadata) {
+            KeyValuePair<ByteBuffer, ByteBuffer> kvp = JdbcUtil.unmarshall(ctx.getMarshaller(), inputStream);
+            entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(
+                  key, fetchValue ? kvp.getKey() : null, fetchMetadata ? kvp.getValue() : null);
+         } else {
+            entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(key, (Object)null, null);
+         }
+         task.processEntry(entry, taskContext);
+      }
+   }
+
+   private Set<Integer> allSegments() {
+      Set<Integer> segments = new HashSet<>(numSegments);
+      for (int i = 0; i < numSegments; i++) {
+         segments.add(i);
+      }
+      return segments;
+   }
+
+   /**
+    * Splits the segments in at most {@code partitions} partitions with about the same number of segments. Each
+    * partition is a list of ranges of consecutive segments, {@code [first, last]}.
+    */
+   static List<List<int[]>> partitionSegments(Set<Integer> segments, int partitions) {
+      int[] sorted = new int[segments.size()];
+      int n = 0;
+      for (int segment : segments) {
+         sorted[n++] = segment;
+      }
+      Arrays.sort(sorted);
+      List<List<int[]>> result = new ArrayList<>(partitions);
+      int partitionSize = (sorted.length + partitions - 1) / partitions;
+      for (int i = 0; i < sorted.length; i += partitionSize) {
+         int end = Math.min(i + partitionSize, sorted.length);
+         List<int[]> ranges = new ArrayList<>();
+         int first = sorted[i];
+         int last = first;
+         for (int j = i + 1; j < end; j++) {
+            if (sorted[j] != last + 1) {
+               ranges.add(new int[]{first, last});
+               first = sorted[j];
+            }
+            last = sorted[j];
+         }
+         ranges.add(new int[]{first, last});
+         result.add(ranges);
+      }
+      return result;
+   }
+
    @Override
    public int size() {
       Connection conn = null;
@@ -428,6 +922,17 @@ private void prepareUpdateStatement(MarshalledEntry entry, String key, PreparedS
       ps.setString(3, key);
    }
 
+   /**
+    * Sets the parameters of the insert and the upsert statements, which also set the segment if the table has a
+    * segment column.
+    */
+   private void prepareInsertStatement(MarshalledEntry entry, String key, PreparedStatement ps) throws InterruptedException, SQLException {
+      prepareUpdateStatement(entry, key, ps);
+      if (tableManager.isSegmented()) {
+         ps.setInt(4, keyPartitioner.getSegment(entry.getKey()));
+      }
+   }
+
    private String key2Str(Object key) throws PersistenceException {
       if (!key2StringMapper.isSupportedType(key.getClass())) {
          throw new UnsupportedKeyTypeException(key);
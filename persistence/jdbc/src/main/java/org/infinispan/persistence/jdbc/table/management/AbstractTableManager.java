@@ -26,6 +26,7 @@ public abstract class AbstractTableManager implements TableManager {
    protected String cacheName;
    protected DbMetaData metaData;
    protected TableName tableName;
+   protected TableName metaTableName;
 
    protected String insertRowSql;
    protected String updateRowSql;
@@ -39,6 +40,15 @@ public abstract class AbstractTableManager implements TableManager {
    protected String deleteAllRows;
    protected String selectExpiredRowsSql;
    protected String deleteExpiredRowsSql;
+   protected String selectOnlyExpiredRowsSql;
+   protected String deleteRowIfExpiredSql;
+   protected String loadNonExpiredSegmentRangeRowsSql;
+   protected String selectIdsAndSegmentsSql;
+   protected String selectIdsAndSegmentsAfterIdSql;
+   protected String updateSegmentSql;
+   protected String selectSegmentLayoutSql;
+   protected String insertSegmentLayoutSql;
+   protected String deleteSegmentLayoutSql;
 
    AbstractTableManager(ConnectionFactory connectionFactory, TableManipulationConfiguration config, DbMetaData metaData, Log log) {
       this.connectionFactory = connectionFactory;
@@ -56,6 +66,9 @@ public void start() throws PersistenceException {
             if (!tableExists(conn)) {
                createTable(conn);
             }
+            if (isSegmented() && !tableExists(conn, getMetaTableName())) {
+               createMetaTable(conn);
+            }
          } finally {
             connectionFactory.releaseConnection(conn);
          }
@@ -79,6 +92,7 @@ public void stop() throws PersistenceException {
    public void setCacheName(String cacheName) {
       this.cacheName = cacheName;
       tableName = null;
+      metaTableName = null;
    }
 
    public boolean tableExists(Connection connection) throws PersistenceException {
@@ -108,10 +122,39 @@ public void createTable(Connection conn) throws PersistenceException {
       if (cacheName == null || cacheName.trim().length() == 0)
          throw new PersistenceException("cacheName needed in order to create table");
 
-      String ddl = String.format("CREATE TABLE %1$s (%2$s %3$s NOT NULL, %4$s %5$s, %6$s %7$s, PRIMARY KEY (%2$s))",
+      String segmentColumn = isSegmented() ?
+            String.format(", %s %s", config.segmentColumnName(), config.segmentColumnType()) : "";
+      String ddl = String.format("CREATE TABLE %1$s (%2$s %3$s NOT NULL, %4$s %5$s, %6$s %7$s%8$s, PRIMARY KEY (%2$s))",
                                  getTableName(), config.idColumnName(), config.idColumnType(), config.dataColumnName(),
-                                 config.dataColumnType(), config.timestampColumnName(), config.timestampColumnType());
+                                 config.dataColumnType(), config.timestampColumnName(), config.timestampColumnType(),
+                                 segmentColumn);
+
+      if (log.isTraceEnabled()) {
+         log.tracef("Creating table with following DDL: '%s'.", ddl);
+      }
+      executeUpdateSql(conn, ddl);
+      if (isSegmented()) {
+         createSegmentIndex(conn);
+      }
+   }
 
+   protected void createSegmentIndex(Connection conn) throws PersistenceException {
+      String indexName = identifierQuoteString + getTableName().getName() + "_" + config.segmentColumnName() + "_idx" +
+            identifierQuoteString;
+      String ddl = String.format("CREATE INDEX %s ON %s (%s)", indexName, getTableName(), config.segmentColumnName());
+      if (log.isTraceEnabled()) {
+         log.tracef("Creating index with following DDL: '%s'.", ddl);
+      }
+      executeUpdateSql(conn, ddl);
+   }
+
+   /**
+    * Creates the table holding the segment layout, with the id and the segment columns of the data table.
+    */
+   protected void createMetaTable(Connection conn) throws PersistenceException {
+      String ddl = String.format("CREATE TABLE %1$s (%2$s %3$s NOT NULL, %4$s %5$s, PRIMARY KEY (%2$s))",
+                                 getMetaTableName(), config.idColumnName(), config.idColumnType(),
+                                 config.segmentColumnName(), config.segmentColumnType());
       if (log.isTraceEnabled()) {
          log.tracef("Creating table with following DDL: '%s'.", ddl);
       }
@@ -139,6 +182,9 @@ public void dropTable(Connection conn) throws PersistenceException {
          log.tracef("Dropping table with following DDL '%s'", dropTableDdl);
       }
       executeUpdateSql(conn, dropTableDdl);
+      if (isSegmented() && tableExists(conn, getMetaTableName())) {
+         executeUpdateSql(conn, "DROP TABLE " + getMetaTableName());
+      }
    }
 
    public int getFetchSize() {
@@ -154,6 +200,11 @@ public boolean isUpsertSupported() {
       return !metaData.isUpsertDisabled();
    }
 
+   @Override
+   public boolean isSegmented() {
+      return config.segmentColumnName() != null;
+   }
+
    public String getIdentifierQuoteString() {
       return identifierQuoteString;
    }
@@ -165,11 +216,19 @@ public TableName getTableName() {
       return tableName;
    }
 
+   @Override
+   public TableName getMetaTableName() {
+      if (metaTableName == null) {
+         metaTableName = new TableName(identifierQuoteString, config.tableNamePrefix(), cacheName + "_META");
+      }
+      return metaTableName;
+   }
+
    @Override
    public String getInsertRowSql() {
       if (insertRowSql == null) {
-         insertRowSql = String.format("INSERT INTO %s (%s,%s,%s) VALUES (?,?,?)", getTableName(),
-                                      config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+         insertRowSql = String.format("INSERT INTO %s (%s) VALUES (%s)", getTableName(), getInsertColumns(""),
+                                      getInsertParameters());
       }
       return insertRowSql;
    }
@@ -259,17 +318,120 @@ public String getDeleteExpiredRowsSql() {
       return deleteExpiredRowsSql;
    }
 
+   @Override
+   public String getSelectOnlyExpiredRowsSql() {
+      if (selectOnlyExpiredRowsSql == null) {
+         selectOnlyExpiredRowsSql = String.format("SELECT %1$s FROM %2$s WHERE %3$s < ? AND %3$s > 0",
+                                                  config.idColumnName(), getTableName(), config.timestampColumnName());
+      }
+      return selectOnlyExpiredRowsSql;
+   }
+
+   @Override
+   public String getDeleteRowIfExpiredSql() {
+      if (deleteRowIfExpiredSql == null) {
+         // a row updated after it was selected for purging is no longer expired and must be kept
+         deleteRowIfExpiredSql = String.format("%1$s AND %2$s < ? AND %2$s > 0", getDeleteRowSql(),
+                                               config.timestampColumnName());
+      }
+      return deleteRowIfExpiredSql;
+   }
+
+   @Override
+   public String getLoadNonExpiredSegmentRangeRowsSql() {
+      if (loadNonExpiredSegmentRangeRowsSql == null) {
+         loadNonExpiredSegmentRangeRowsSql = String.format("SELECT %1$s, %2$s, %3$s FROM %4$s " +
+                                                           "WHERE (%3$s > ? OR %3$s < 0) AND %5$s >= ? AND %5$s <= ?",
+                                                           config.dataColumnName(), config.idColumnName(),
+                                                           config.timestampColumnName(), getTableName(),
+                                                           config.segmentColumnName());
+      }
+      return loadNonExpiredSegmentRangeRowsSql;
+   }
+
+   @Override
+   public String getSelectIdsAndSegmentsSql(boolean afterId) {
+      if (afterId) {
+         if (selectIdsAndSegmentsAfterIdSql == null) {
+            selectIdsAndSegmentsAfterIdSql = String.format("SELECT %1$s, %2$s FROM %3$s WHERE %1$s > ? ORDER BY %1$s",
+                                                           config.idColumnName(), config.segmentColumnName(),
+                                                           getTableName());
+         }
+         return selectIdsAndSegmentsAfterIdSql;
+      }
+      if (selectIdsAndSegmentsSql == null) {
+         selectIdsAndSegmentsSql = String.format("SELECT %1$s, %2$s FROM %3$s ORDER BY %1$s", config.idColumnName(),
+                                                 config.segmentColumnName(), getTableName());
+      }
+      return selectIdsAndSegmentsSql;
+   }
+
+   @Override
+   public String getUpdateSegmentSql() {
+      if (updateSegmentSql == null) {
+         updateSegmentSql = String.format("UPDATE %s SET %s = ? WHERE %s = ?", getTableName(),
+                                          config.segmentColumnName(), config.idColumnName());
+      }
+      return updateSegmentSql;
+   }
+
+   @Override
+   public String getSelectSegmentLayoutSql() {
+      if (selectSegmentLayoutSql == null) {
+         selectSegmentLayoutSql = String.format("SELECT %s, %s FROM %s", config.idColumnName(),
+                                                config.segmentColumnName(), getMetaTableName());
+      }
+      return selectSegmentLayoutSql;
+   }
+
+   @Override
+   public String getInsertSegmentLayoutSql() {
+      if (insertSegmentLayoutSql == null) {
+         insertSegmentLayoutSql = String.format("INSERT INTO %s (%s, %s) VALUES (?, ?)", getMetaTableName(),
+                                                config.idColumnName(), config.segmentColumnName());
+      }
+      return insertSegmentLayoutSql;
+   }
+
+   @Override
+   public String getDeleteSegmentLayoutSql() {
+      if (deleteSegmentLayoutSql == null) {
+         deleteSegmentLayoutSql = "DELETE FROM " + getMetaTableName();
+      }
+      return deleteSegmentLayoutSql;
+   }
+
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
          upsertRowSql = String.format("MERGE INTO %1$s " +
-                              "USING (VALUES (?, ?, ?)) AS tmp (%2$s, %3$s, %4$s) " +
-                              "ON (%2$s = tmp.%2$s) " +
-                              "WHEN MATCHED THEN UPDATE SET %3$s = tmp.%3$s, %4$s = tmp.%4$s " +
-                              "WHEN NOT MATCHED THEN INSERT (%2$s, %3$s, %4$s) VALUES (tmp.%2$s, tmp.%3$s, tmp.%4$s)",
-                              getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+                              "USING (VALUES (%2$s)) AS tmp (%3$s) " +
+                              "ON (%1$s.%4$s = tmp.%4$s) " +
+                              "WHEN MATCHED THEN UPDATE SET %5$s = tmp.%5$s, %6$s = tmp.%6$s " +
+                              "WHEN NOT MATCHED THEN INSERT (%3$s) VALUES (%7$s)",
+                              getTableName(), getInsertParameters(), getInsertColumns(""), config.idColumnName(),
+                              config.dataColumnName(), config.timestampColumnName(), getInsertColumns("tmp."));
 
       }
       return upsertRowSql;
    }
+
+   /**
+    * @return the columns set by the insert and the upsert statements, in the order of their parameters: the data,
+    * the timestamp, the id and, if the table has one, the segment.
+    */
+   protected String getInsertColumns(String prefix) {
+      StringBuilder sb = new StringBuilder();
+      sb.append(prefix).append(config.dataColumnName()).append(", ");
+      sb.append(prefix).append(config.timestampColumnName()).append(", ");
+      sb.append(prefix).append(config.idColumnName());
+      if (isSegmented()) {
+         sb.append(", ").append(prefix).append(config.segmentColumnName());
+      }
+      return sb.toString();
+   }
+
+   protected String getInsertParameters() {
+      return isSegmented() ? "?, ?, ?, ?" : "?, ?, ?";
+   }
 }
@@ -1,18 +1,30 @@
 package org.infinispan.persistence.jdbc.table.management;
 
+import org.infinispan.persistence.jdbc.DatabaseType;
 import org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration;
 import org.infinispan.persistence.jdbc.connectionfactory.ConnectionFactory;
 import org.infinispan.persistence.jdbc.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * @author Ryan Emerson
  */
 class GenericTableManager extends AbstractTableManager {
 
    private static final Log LOG = LogFactory.getLog(GenericTableManager.class, Log.class);
+   private static final Set<DatabaseType> UPSERT_TYPES = EnumSet.of(DatabaseType.DB2, DatabaseType.DB2_390,
+                                                                    DatabaseType.HSQL);
 
    GenericTableManager(ConnectionFactory connectionFactory, TableManipulationConfiguration config, DbMetaData metaData) {
       super(connectionFactory, config, metaData, LOG);
    }
+
+   @Override
+   public boolean isUpsertSupported() {
+      // the other databases do not support a VALUES clause as the source of a MERGE
+      return super.isUpsertSupported() && UPSERT_TYPES.contains(metaData.getType());
+   }
 }
\ No newline at end of file
@@ -41,4 +41,20 @@ public boolean tableExists(Connection connection, TableName tableName) throws Pe
          JdbcUtil.safeClose(rs);
       }
    }
+
+   @Override
+   public String getUpsertRowSql() {
+      if (upsertRowSql == null) {
+         // Oracle does not support a VALUES clause as the source of a MERGE
+         String segment = isSegmented() ? ", ? " + config.segmentColumnName() : "";
+         upsertRowSql = String.format("MERGE INTO %1$s t " +
+                                      "USING (SELECT ? %2$s, ? %3$s, ? %4$s%5$s FROM dual) tmp " +
+                                      "ON (t.%4$s = tmp.%4$s) " +
+                                      "WHEN MATCHED THEN UPDATE SET t.%2$s = tmp.%2$s, t.%3$s = tmp.%3$s " +
+                                      "WHEN NOT MATCHED THEN INSERT (%6$s) VALUES (%7$s)",
+                                      getTableName(), config.dataColumnName(), config.timestampColumnName(),
+                                      config.idColumnName(), segment, getInsertColumns(""), getInsertColumns("tmp."));
+      }
+      return upsertRowSql;
+   }
 }
\ No newline at end of file
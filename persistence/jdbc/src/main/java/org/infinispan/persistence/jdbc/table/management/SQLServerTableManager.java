@@ -0,0 +1,27 @@
+package org.infinispan.persistence.jdbc.table.management;
+
+import org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration;
+import org.infinispan.persistence.jdbc.connectionfactory.ConnectionFactory;
+import org.infinispan.persistence.jdbc.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * @since 9.0
+ */
+class SQLServerTableManager extends AbstractTableManager {
+
+   private static final Log LOG = LogFactory.getLog(SQLServerTableManager.class, Log.class);
+
+   SQLServerTableManager(ConnectionFactory connectionFactory, TableManipulationConfiguration config, DbMetaData metaData) {
+      super(connectionFactory, config, metaData, LOG);
+   }
+
+   @Override
+   public String getUpsertRowSql() {
+      if (upsertRowSql == null) {
+         // SQL Server requires the MERGE statement to be terminated by a semicolon
+         upsertRowSql = super.getUpsertRowSql() + ";";
+      }
+      return upsertRowSql;
+   }
+}
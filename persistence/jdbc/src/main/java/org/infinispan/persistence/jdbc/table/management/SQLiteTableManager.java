@@ -26,9 +26,8 @@ public boolean isUpsertSupported() {
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
-         upsertRowSql = String.format("INSERT OR REPLACE INTO %s (%s, %s, %s) VALUES (?, ?, ?)",
-                                      getTableName(), config.dataColumnName(), config.timestampColumnName(),
-                                      config.idColumnName());
+         upsertRowSql = String.format("INSERT OR REPLACE INTO %s (%s) VALUES (%s)",
+                                      getTableName(), getInsertColumns(""), getInsertParameters());
       }
       return upsertRowSql;
    }
@@ -31,6 +31,12 @@ public interface TableManager {
 
    boolean isUpsertSupported();
 
+   /**
+    * @return {@code true} if the table has a column storing the segment of each entry. The insert and the upsert
+    * statements then have a fourth parameter, the segment.
+    */
+   boolean isSegmented();
+
    TableName getTableName();
 
    String getIdentifierQuoteString();
@@ -58,4 +64,59 @@ public interface TableManager {
    String getSelectExpiredRowsSql();
 
    String getDeleteExpiredRowsSql();
+
+   /**
+    * @return the statement selecting the ids of the rows that expired before the time set as its only parameter. The
+    * rows that never expire are not selected.
+    */
+   String getSelectOnlyExpiredRowsSql();
+
+   /**
+    * @return the statement deleting the row with the id set as its first parameter, only if it expired before the time
+    * set as its second parameter.
+    */
+   String getDeleteRowIfExpiredSql();
+
+   /**
+    * @return the statement selecting the data, the id and the timestamp of the rows that are not expired at the time
+    * set as its first parameter and whose segment is between its second and third parameters, inclusive. Only valid
+    * if the table {@link #isSegmented() is segmented}.
+    */
+   String getLoadNonExpiredSegmentRangeRowsSql();
+
+   /**
+    * @return the statement selecting the id and the segment of the rows, ordered by id. If {@code afterId} is true,
+    * only the rows whose id is greater than its first parameter are selected. Only valid if the table
+    * {@link #isSegmented() is segmented}.
+    */
+   String getSelectIdsAndSegmentsSql(boolean afterId);
+
+   /**
+    * @return the statement setting the segment, its first parameter, of the row with the id set as its second
+    * parameter. Only valid if the table {@link #isSegmented() is segmented}.
+    */
+   String getUpdateSegmentSql();
+
+   /**
+    * @return the name of the table holding the segment layout the segment column was computed with: a single row with
+    * the key partitioner class in the id column and the number of segments in the segment column. It is created on
+    * start with the data table. Only valid if the table {@link #isSegmented() is segmented}.
+    */
+   TableName getMetaTableName();
+
+   /**
+    * @return the statement selecting the key partitioner class and the number of segments of the segment layout.
+    */
+   String getSelectSegmentLayoutSql();
+
+   /**
+    * @return the statement inserting the segment layout, with the key partitioner class as its first parameter and the
+    * number of segments as its second.
+    */
+   String getInsertSegmentLayoutSql();
+
+   /**
+    * @return the statement deleting the segment layout.
+    */
+   String getDeleteSegmentLayoutSql();
 }
\ No newline at end of file
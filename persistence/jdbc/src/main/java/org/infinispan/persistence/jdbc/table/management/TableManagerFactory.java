@@ -34,7 +34,7 @@ public static TableManager getManager(ConnectionFactory connectionFactory, JdbcB
    private static TableManager getManager(ConnectionFactory connectionFactory, TableManipulationConfiguration tableConfig,
                                           AbstractJdbcStoreConfiguration storeConfig) {
       DbMetaData metaData = getDbMetaData(connectionFactory, storeConfig.dialect(), storeConfig.dbMajorVersion(),
-                                          storeConfig.dbMajorVersion(), isUpsertDisabled(storeConfig));
+                                          storeConfig.dbMinorVersion(), isUpsertDisabled(storeConfig));
 
       switch (metaData.getType()) {
          case H2:
@@ -47,6 +47,8 @@ private static TableManager getManager(ConnectionFactory connectionFactory, Tabl
             return new PostgresTableManager(connectionFactory, tableConfig, metaData);
          case SQLITE:
             return new SQLiteTableManager(connectionFactory, tableConfig, metaData);
+         case SQL_SERVER:
+            return new SQLServerTableManager(connectionFactory, tableConfig, metaData);
          case SYBASE:
             return new SybaseTableManager(connectionFactory, tableConfig, metaData);
          default:
@@ -6,6 +6,8 @@
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import static org.testng.AssertJUnit.assertTrue;
+
 import org.infinispan.persistence.jdbc.connectionfactory.ConnectionFactory;
 import org.infinispan.persistence.jdbc.connectionfactory.SimpleConnectionFactory;
 import org.infinispan.persistence.jdbc.table.management.TableManager;
@@ -13,6 +15,7 @@
 import org.infinispan.persistence.jdbc.table.management.TableName;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.jdbc.configuration.ConnectionFactoryConfiguration;
+import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfiguration;
 import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
 import org.infinispan.persistence.jdbc.configuration.PooledConnectionFactoryConfiguration;
 import org.infinispan.persistence.jdbc.configuration.SimpleConnectionFactoryConfiguration;
@@ -128,6 +131,26 @@ public void testTableQuoting() throws Exception {
       assert existsTable(connection, tableManager.getTableName());
    }
 
+   public void testGenericUpsertUpdatesDataColumn() {
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder = TestCacheManagerFactory
+            .getDefaultCacheConfiguration(false)
+            .persistence()
+            .addStore(JdbcStringBasedStoreConfigurationBuilder.class)
+            .dialect(DatabaseType.HSQL).dbMajorVersion(2).dbMinorVersion(3);
+      UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table(), false);
+      JdbcStringBasedStoreConfiguration config = storeBuilder.create();
+
+      // the dialect and the version are known, so no connection is needed
+      TableManager genericManager = TableManagerFactory.getManager(null, config);
+      genericManager.setCacheName("upsert");
+      String data = config.table().dataColumnName();
+      String timestamp = config.table().timestampColumnName();
+      String upsert = genericManager.getUpsertRowSql();
+      assertTrue(upsert, genericManager.isUpsertSupported());
+      assertTrue(upsert, upsert.contains(String.format("WHEN MATCHED THEN UPDATE SET %1$s = tmp.%1$s, %2$s = tmp.%2$s ",
+                                                       data, timestamp)));
+   }
+
    static boolean existsTable(Connection connection, TableName tableName) throws Exception {
       Statement st = connection.createStatement();
       ResultSet rs = null;
@@ -38,6 +38,7 @@ public void testStringKeyedJdbcStore() throws Exception {
             "           <id-column name=\"id\" type=\"VARCHAR\" />\n" +
             "           <data-column name=\"datum\" type=\"BINARY\" />\n" +
             "           <timestamp-column name=\"version\" type=\"BIGINT\" />\n" +
+            "           <segment-column name=\"segment\" type=\"INTEGER\" />\n" +
             "         </string-keyed-table>\n" +
             "         <write-behind />\n" +
             "       </string-keyed-jdbc-store>\n" +
@@ -50,6 +51,8 @@ public void testStringKeyedJdbcStore() throws Exception {
       assertEquals(34, store.table().fetchSize());
       assertEquals("BINARY", store.table().dataColumnType());
       assertEquals("version", store.table().timestampColumnName());
+      assertEquals("segment", store.table().segmentColumnName());
+      assertEquals("INTEGER", store.table().segmentColumnType());
       assertTrue(store.async().enabled());
       assertEquals("DummyKey2StringMapper", store.key2StringMapper());
       assertTrue(store.shared());
@@ -0,0 +1,108 @@
+package org.infinispan.persistence.jdbc.stringbased;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.marshall.TestObjectStreamMarshaller;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.test.fwk.UnitTestDatabaseManager;
+import org.infinispan.util.PersistenceMockUtil;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Compares the write throughput of {@link JdbcStringBasedStore} with and without the upsert statement, writing the
+ * entries one by one and in batches. The database is the one used by the other tests, by default an embedded H2.
+ * After each run, every key must be read back with the value it was written last.
+ *
+ * @since 9.0
+ */
+@Test(groups = "stress", testName = "persistence.jdbc.stringbased.JdbcStringBasedStoreBatchStressTest")
+public class JdbcStringBasedStoreBatchStressTest extends AbstractInfinispanTest {
+
+   private static final int NUM_KEYS = 10000;
+   private static final int BATCH_SIZE = 128;
+   private static final long DURATION_MILLIS = TimeUnit.SECONDS.toMillis(Long.getLong("durationSeconds", 30));
+
+   public void testLegacyUpdate() throws Exception {
+      runTest("Select and insert/update", false, false);
+   }
+
+   public void testUpsert() throws Exception {
+      runTest("Upsert", true, false);
+   }
+
+   public void testLegacyUpdateBatch() throws Exception {
+      runTest("Select and insert/update, batched", false, true);
+   }
+
+   public void testUpsertBatch() throws Exception {
+      runTest("Upsert, batched", true, true);
+   }
+
+   private void runTest(String name, boolean upsert, boolean batch) throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder = builder
+            .persistence()
+               .addStore(JdbcStringBasedStoreConfigurationBuilder.class)
+                  .addProperty("jdbc.upsert.disabled", String.valueOf(!upsert));
+      UnitTestDatabaseManager.configureUniqueConnectionFactory(storeBuilder);
+      UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table(), false);
+      storeBuilder.table().batchSize(BATCH_SIZE);
+
+      TestObjectStreamMarshaller marshaller = new TestObjectStreamMarshaller();
+      JdbcStringBasedStore store = new JdbcStringBasedStore();
+      store.init(PersistenceMockUtil.createContext(getClass().getSimpleName(), builder.build(), marshaller));
+      store.start();
+      try {
+         long writes = 0;
+         String[] expected = new String[NUM_KEYS];
+         long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS);
+         // the keys are reused, so the writes are a mix of inserts and updates
+         int nextKey = 0;
+         while (System.nanoTime() < end) {
+            List<MarshalledEntry> entries = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+               int keyIndex = nextKey++ % NUM_KEYS;
+               expected[keyIndex] = "value" + writes;
+               entries.add(new MarshalledEntryImpl<>("key" + keyIndex, expected[keyIndex], null, marshaller));
+            }
+            if (batch) {
+               store.writeBatch(entries);
+            } else {
+               for (MarshalledEntry entry : entries) {
+                  store.write(entry);
+               }
+            }
+            writes += entries.size();
+         }
+         double seconds = DURATION_MILLIS / 1000.0;
+         log.infof("%s: %d writes in %.1f s, %.0f writes/s", name, writes, seconds, writes / seconds);
+
+         assertTrue(writes > 0);
+         for (int i = 0; i < NUM_KEYS; i++) {
+            MarshalledEntry entry = store.load("key" + i);
+            if (expected[i] == null) {
+               assertNull(entry);
+            } else {
+               assertNotNull("key" + i, entry);
+               assertEquals("key" + i, expected[i], entry.getValue());
+            }
+         }
+      } finally {
+         store.clear();
+         store.stop();
+         marshaller.stop();
+      }
+   }
+}
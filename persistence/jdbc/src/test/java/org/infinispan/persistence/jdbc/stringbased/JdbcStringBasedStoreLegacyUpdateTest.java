@@ -0,0 +1,31 @@
+package org.infinispan.persistence.jdbc.stringbased;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.test.fwk.UnitTestDatabaseManager;
+import org.testng.annotations.Test;
+
+/**
+ * Tester class for {@link JdbcStringBasedStore}, with the upsert statements disabled.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.jdbc.stringbased.JdbcStringBasedStoreLegacyUpdateTest")
+public class JdbcStringBasedStoreLegacyUpdateTest extends JdbcStringBasedStoreTest {
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder = builder
+            .persistence()
+               .addStore(JdbcStringBasedStoreConfigurationBuilder.class)
+                  .addProperty("jdbc.upsert.disabled", "true");
+      UnitTestDatabaseManager.configureUniqueConnectionFactory(storeBuilder);
+      UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table(), false);
+      JdbcStringBasedStore stringBasedCacheStore = new JdbcStringBasedStore();
+      stringBasedCacheStore.init(createContext(builder.build()));
+      return stringBasedCacheStore;
+   }
+}
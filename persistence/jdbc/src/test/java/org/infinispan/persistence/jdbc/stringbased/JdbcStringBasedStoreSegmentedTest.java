@@ -0,0 +1,174 @@
+package org.infinispan.persistence.jdbc.stringbased;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.HashConfiguration;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.distribution.ch.impl.HashFunctionPartitioner;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.infinispan.persistence.jdbc.table.management.TableManager;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.test.fwk.UnitTestDatabaseManager;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tester class for {@link JdbcStringBasedStore}, with a segment column.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.jdbc.stringbased.JdbcStringBasedStoreSegmentedTest")
+public class JdbcStringBasedStoreSegmentedTest extends JdbcStringBasedStoreTest {
+
+   private HashConfiguration hashConfiguration;
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder = builder
+            .persistence()
+               .addStore(JdbcStringBasedStoreConfigurationBuilder.class)
+                  .addProperty(JdbcStringBasedStore.PROCESS_PARTITIONS, "4");
+      UnitTestDatabaseManager.configureUniqueConnectionFactory(storeBuilder);
+      UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table(), false);
+      storeBuilder.table().segmentColumnName("SEGMENT_COLUMN").segmentColumnType("INT");
+      hashConfiguration = builder.build().clustering().hash();
+      JdbcStringBasedStore stringBasedCacheStore = new JdbcStringBasedStore();
+      stringBasedCacheStore.init(createContext(builder.build()));
+      return stringBasedCacheStore;
+   }
+
+   public void testProcessSegments() {
+      KeyPartitioner partitioner = new HashFunctionPartitioner();
+      partitioner.init(hashConfiguration);
+      List<MarshalledEntry<?, ?>> entries = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+         entries.add(marshalledEntry("k" + i, "v" + i, null));
+      }
+      cl.writeBatch(entries);
+
+      Set<Integer> segments = new HashSet<>();
+      for (int i = 0; i < 10; i++) {
+         segments.add(partitioner.getSegment("k" + i));
+      }
+      Set<Object> expected = new HashSet<>();
+      for (int i = 0; i < 100; i++) {
+         if (segments.contains(partitioner.getSegment("k" + i))) {
+            expected.add("k" + i);
+         }
+      }
+
+      Set<Object> keys = ConcurrentHashMap.newKeySet();
+      cl.process(segments, null, (me, taskContext) -> keys.add(me.getKey()), new WithinThreadExecutor(), false, false);
+      assertEquals(expected, keys);
+      assertTrue(keys.size() < 100);
+   }
+
+   public void testStartUpdatesOutdatedSegments() throws Exception {
+      KeyPartitioner partitioner = new HashFunctionPartitioner();
+      partitioner.init(hashConfiguration);
+      int numKeys = 300;
+      List<MarshalledEntry<?, ?>> entries = new ArrayList<>();
+      for (int i = 0; i < numKeys; i++) {
+         entries.add(marshalledEntry("k" + i, "v" + i, null));
+      }
+      cl.writeBatch(entries);
+
+      // as if the rows were written before the column was added, or with a different number of segments
+      JdbcStringBasedStore store = (JdbcStringBasedStore) cl;
+      TableManager tableManager = store.getTableManager();
+      Connection conn = store.getConnectionFactory().getConnection();
+      try (Statement st = conn.createStatement()) {
+         assertTrue(st.executeUpdate("UPDATE " + tableManager.getTableName() + " SET SEGMENT_COLUMN = NULL WHERE "
+               + "ID_COLUMN LIKE 'k1%'") > 0);
+         assertTrue(st.executeUpdate("UPDATE " + tableManager.getTableName() + " SET SEGMENT_COLUMN = "
+               + "MOD(SEGMENT_COLUMN + 1, " + hashConfiguration.numSegments() + ") WHERE ID_COLUMN LIKE 'k2%'") > 0);
+         assertEquals(1, st.executeUpdate("UPDATE " + tableManager.getMetaTableName() + " SET SEGMENT_COLUMN = "
+               + (hashConfiguration.numSegments() + 1)));
+      } finally {
+         store.getConnectionFactory().releaseConnection(conn);
+      }
+
+      cl.stop();
+      cl.start();
+
+      Set<Integer> segments = new HashSet<>();
+      for (int i = 10; i < 30; i++) {
+         segments.add(partitioner.getSegment("k" + i));
+      }
+      Set<Object> expected = new HashSet<>();
+      for (int i = 0; i < numKeys; i++) {
+         if (segments.contains(partitioner.getSegment("k" + i))) {
+            expected.add("k" + i);
+         }
+      }
+      Set<Object> keys = ConcurrentHashMap.newKeySet();
+      cl.process(segments, null, (me, taskContext) -> keys.add(me.getKey()), new WithinThreadExecutor(), false, false);
+      assertEquals(expected, keys);
+   }
+
+   public void testStartKeepsSegmentsWithSameLayout() throws Exception {
+      cl.write(marshalledEntry("k", "v", null));
+
+      // the segment layout didn't change, so the rows are not read again on start
+      JdbcStringBasedStore store = (JdbcStringBasedStore) cl;
+      TableManager tableManager = store.getTableManager();
+      Connection conn = store.getConnectionFactory().getConnection();
+      try (Statement st = conn.createStatement()) {
+         assertEquals(1, st.executeUpdate("UPDATE " + tableManager.getTableName() + " SET SEGMENT_COLUMN = NULL"));
+
+         cl.stop();
+         cl.start();
+
+         try (ResultSet rs = st.executeQuery("SELECT SEGMENT_COLUMN FROM " + tableManager.getTableName())) {
+            assertTrue(rs.next());
+            rs.getInt(1);
+            assertTrue(rs.wasNull());
+         }
+         try (ResultSet rs = st.executeQuery("SELECT ID_COLUMN, SEGMENT_COLUMN FROM " + tableManager.getMetaTableName())) {
+            assertTrue(rs.next());
+            assertEquals(HashFunctionPartitioner.class.getName(), rs.getString(1));
+            assertEquals(hashConfiguration.numSegments(), rs.getInt(2));
+            assertFalse(rs.next());
+         }
+      } finally {
+         store.getConnectionFactory().releaseConnection(conn);
+      }
+   }
+
+   public void testPartitionSegments() {
+      Set<Integer> segments = new HashSet<>(Arrays.asList(9, 0, 1, 2, 5, 6));
+      List<List<int[]>> partitions = JdbcStringBasedStore.partitionSegments(segments, 2);
+      assertEquals(2, partitions.size());
+      assertRanges(partitions.get(0), 0, 2);
+      assertRanges(partitions.get(1), 5, 6, 9, 9);
+
+      partitions = JdbcStringBasedStore.partitionSegments(segments, 10);
+      assertEquals(6, partitions.size());
+
+      assertTrue(JdbcStringBasedStore.partitionSegments(new HashSet<>(), 4).isEmpty());
+   }
+
+   private void assertRanges(List<int[]> ranges, int... bounds) {
+      assertEquals(bounds.length / 2, ranges.size());
+      for (int i = 0; i < ranges.size(); i++) {
+         assertEquals(bounds[2 * i], ranges.get(i)[0]);
+         assertEquals(bounds[2 * i + 1], ranges.get(i)[1]);
+      }
+   }
+}
@@ -1,9 +1,15 @@
 package org.infinispan.persistence.jdbc.stringbased;
 
+import java.sql.Connection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.persistence.BaseStoreTest;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.jdbc.DatabaseType;
+import org.infinispan.persistence.jdbc.configuration.ConnectionFactoryConfiguration;
 import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
 import org.infinispan.persistence.jdbc.connectionfactory.ConnectionFactory;
 import org.infinispan.persistence.jdbc.table.management.TableManager;
@@ -11,10 +17,12 @@
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.infinispan.test.fwk.UnitTestDatabaseManager;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.testng.annotations.Test;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertNull;
 
 /**
@@ -72,15 +80,56 @@ public void testNotCreateConnectionFactory() throws Exception {
       stringBasedCacheStore.stop();
    }
 
+   public void testPurgeWithListenerHoldsOneConnection() throws Exception {
+      JdbcStringBasedStore store = (JdbcStringBasedStore) cl;
+      int expired = store.getTableManager().getBatchSize() * 2 + 1;
+      for (int i = 0; i < expired; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("expired" + i, "value", 1000)));
+      }
+      cl.write(marshalledEntry(internalCacheEntry("immortal", "value", -1)));
+      timeService.advance(1001);
+
+      ConnectionFactory original = store.getConnectionFactory();
+      AtomicInteger open = new AtomicInteger();
+      AtomicInteger maxOpen = new AtomicInteger();
+      // a pool of a single connection would block on a second concurrent getConnection()
+      store.initializeConnectionFactory(new ConnectionFactory() {
+         @Override
+         public void start(ConnectionFactoryConfiguration factoryConfiguration, ClassLoader classLoader) {
+         }
+
+         @Override
+         public void stop() {
+         }
+
+         @Override
+         public Connection getConnection() throws PersistenceException {
+            int current = open.incrementAndGet();
+            maxOpen.accumulateAndGet(current, Math::max);
+            return original.getConnection();
+         }
+
+         @Override
+         public void releaseConnection(Connection conn) {
+            open.decrementAndGet();
+            original.releaseConnection(conn);
+         }
+      });
+      try {
+         Set<Object> purged = new HashSet<>();
+         cl.purge(new WithinThreadExecutor(), purged::add);
+         assertEquals(expired, purged.size());
+         assertEquals(1, maxOpen.get());
+         assertEquals(0, open.get());
+         assertContains("immortal", true);
+      } finally {
+         store.initializeConnectionFactory(original);
+      }
+   }
+
    @Override
    @Test(expectedExceptions = UnsupportedKeyTypeException.class)
    public void testLoadAndStoreMarshalledValues() throws PersistenceException {
       super.testLoadAndStoreMarshalledValues();
    }
-
-   @Override
-   protected boolean storePurgesAllExpired() {
-      // expiration listener is not called for the entries
-      return false;
-   }
 }
@@ -0,0 +1,27 @@
+package org.infinispan.persistence.jdbc.stringbased;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.persistence.ParallelIterationTest;
+import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.infinispan.test.fwk.UnitTestDatabaseManager;
+import org.testng.annotations.Test;
+
+/**
+ * Parallel iteration over a table with a segment column, split in several partitions.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.jdbc.stringbased.JdbcStringSegmentedParallelIterationTest")
+public class JdbcStringSegmentedParallelIterationTest extends ParallelIterationTest {
+
+   @Override
+   protected void configurePersistence(ConfigurationBuilder cb) {
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder =
+            cb.persistence().addStore(JdbcStringBasedStoreConfigurationBuilder.class)
+                  .addProperty(JdbcStringBasedStore.PROCESS_PARTITIONS, "8");
+      UnitTestDatabaseManager.configureUniqueConnectionFactory(storeBuilder);
+      UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table(), false);
+      storeBuilder.table().segmentColumnName("SEGMENT_COLUMN").segmentColumnType("INT");
+   }
+
+}
@@ -24,6 +24,7 @@
 import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.WriteBatch;
 
 import java.io.File;
 import java.io.IOException;
@@ -40,7 +41,7 @@
 import java.util.concurrent.Semaphore;
 
 @ConfiguredBy(LevelDBStoreConfiguration.class)
-public class LevelDBStore implements AdvancedLoadWriteStore {
+public class LevelDBStore<K, V> implements AdvancedLoadWriteStore<K, V> {
     private static final Log log = LogFactory.getLog(LevelDBStore.class, Log.class);
 
     private static final String JNI_DB_FACTORY_CLASS_NAME = "org.fusesource.leveldbjni.JniDBFactory";
@@ -445,6 +446,64 @@ public void write(MarshalledEntry me) {
         }
     }
 
+    @Override
+    public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+        try {
+            List<MarshalledEntry> expiring = new ArrayList<MarshalledEntry>();
+            WriteBatch batch = db.createWriteBatch();
+            try {
+                for (MarshalledEntry<? extends K, ? extends V> me : entries) {
+                    batch.put(marshall(me.getKey()), marshall(me));
+                    InternalMetadata meta = me.getMetadata();
+                    if (meta != null && meta.expiryTime() > -1) {
+                        expiring.add(me);
+                    }
+                }
+                semaphore.acquire();
+                try {
+                    if (stopped) {
+                        throw new PersistenceException("LevelDB is stopped");
+                    }
+                    db.write(batch);
+                } finally {
+                    semaphore.release();
+                }
+            } finally {
+                batch.close();
+            }
+            for (MarshalledEntry me : expiring) {
+                addNewExpiry(me);
+            }
+        } catch (Exception e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    @Override
+    public void deleteBatch(Iterable<Object> keys) {
+        try {
+            WriteBatch batch = db.createWriteBatch();
+            try {
+                for (Object key : keys) {
+                    batch.delete(marshall(key));
+                }
+                semaphore.acquire();
+                try {
+                    if (stopped) {
+                        throw new PersistenceException("LevelDB is stopped");
+                    }
+                    db.write(batch);
+                } finally {
+                    semaphore.release();
+                }
+            } finally {
+                batch.close();
+            }
+        } catch (Exception e) {
+            throw new PersistenceException(e);
+        }
+    }
+
     @Override
     public MarshalledEntry load(Object key) {
         try {
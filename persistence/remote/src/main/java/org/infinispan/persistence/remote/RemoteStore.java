@@ -33,6 +33,12 @@
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
@@ -53,7 +59,7 @@
  */
 @ThreadSafe
 @ConfiguredBy(RemoteStoreConfiguration.class)
-public class RemoteStore implements AdvancedLoadWriteStore {
+public class RemoteStore<K, V> implements AdvancedLoadWriteStore<K, V> {
 
    private static final Log log = LogFactory.getLog(RemoteStore.class, Log.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -170,6 +176,50 @@ public void write(MarshalledEntry entry) throws PersistenceException {
       remoteCache.put(entry.getKey(), configuration.rawValues() ? entry.getValue() : entry, toSeconds(lifespan, entry.getKey(), LIFESPAN), TimeUnit.SECONDS, toSeconds(maxIdle, entry.getKey(), MAXIDLE), TimeUnit.SECONDS);
    }
 
+   @Override
+   public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      // the entries with the same expiration are written with a single putAll
+      Map<Object, Object> batch = new HashMap<>();
+      long batchLifespan = -1;
+      long batchMaxIdle = -1;
+      for (MarshalledEntry<? extends K, ? extends V> entry : entries) {
+         InternalMetadata metadata = entry.getMetadata();
+         long lifespan = toSeconds(metadata != null ? metadata.lifespan() : -1, entry.getKey(), LIFESPAN);
+         long maxIdle = toSeconds(metadata != null ? metadata.maxIdle() : -1, entry.getKey(), MAXIDLE);
+         if (!batch.isEmpty() && (lifespan != batchLifespan || maxIdle != batchMaxIdle)) {
+            putAll(batch, batchLifespan, batchMaxIdle);
+            batch = new HashMap<>();
+         }
+         batchLifespan = lifespan;
+         batchMaxIdle = maxIdle;
+         batch.put(entry.getKey(), configuration.rawValues() ? entry.getValue() : entry);
+      }
+      if (!batch.isEmpty()) {
+         putAll(batch, batchLifespan, batchMaxIdle);
+      }
+   }
+
+   private void putAll(Map<Object, Object> batch, long lifespan, long maxIdle) {
+      if (trace) {
+         log.tracef("Adding %d entries", batch.size());
+      }
+      remoteCache.putAll(batch, lifespan, TimeUnit.SECONDS, maxIdle, TimeUnit.SECONDS);
+   }
+
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      // Hot Rod has no bulk remove, but the removes can be sent without waiting for each other
+      List<CompletableFuture<Object>> futures = new ArrayList<>();
+      for (Object key : keys) {
+         futures.add(remoteCache.removeAsync(key));
+      }
+      try {
+         CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+      } catch (CompletionException e) {
+         throw new PersistenceException(e.getCause());
+      }
+   }
+
    @Override
    public void clear() throws PersistenceException {
       remoteCache.clear();
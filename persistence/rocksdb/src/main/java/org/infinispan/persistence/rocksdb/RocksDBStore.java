@@ -0,0 +1,605 @@
+package org.infinispan.persistence.rocksdb;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.infinispan.commons.configuration.ConfiguredBy;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.executors.ExecutorAllCompletionService;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.metadata.InternalMetadata;
+import org.infinispan.persistence.PersistenceUtil;
+import org.infinispan.persistence.TaskContextImpl;
+import org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration;
+import org.infinispan.persistence.rocksdb.logging.Log;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.util.logging.LogFactory;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.Options;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+/**
+ * A persistent store backed by <a href="http://rocksdb.org">RocksDB</a>.
+ * <p/>
+ * When the cache is replicated or distributed, the entries of each segment are kept in their own column family, so
+ * iterating over some segments only reads their column families. Otherwise, or if
+ * {@link RocksDBStoreConfiguration#segmented()} is disabled, all the entries are kept in a single column family.
+ * <p/>
+ * The keys of the expiring entries are also written to a column family ordered by expiration time, in the same
+ * {@link WriteBatch} as the entry, so {@link #purge(Executor, PurgeListener)} only reads the records that have
+ * already expired. Records that are left behind when an entry is removed or written again are dropped by the next
+ * purge that reaches them. The purge checks the expiration of the entries again while holding the write lock
+ * exclusively, so an entry written after the purge read it is not removed.
+ *
+ * @since 9.0
+ */
+@ConfiguredBy(RocksDBStoreConfiguration.class)
+public class RocksDBStore<K, V> implements AdvancedLoadWriteStore<K, V> {
+   private static final Log log = LogFactory.getLog(RocksDBStore.class, Log.class);
+
+   private static final String EXPIRY_COLUMN_FAMILY = "expiry";
+   private static final String DATA_COLUMN_FAMILY = "data";
+   private static final String SEGMENT_COLUMN_FAMILY_PREFIX = "segment-";
+   private static final byte[] EMPTY = new byte[0];
+   private static final int BATCH_SIZE = 100;
+   // each column family has its own memtables, keep them small when there is one per segment
+   private static final long SEGMENT_WRITE_BUFFER_SIZE = 4 * 1024 * 1024;
+
+   private RocksDBStoreConfiguration configuration;
+   private InitializationContext ctx;
+   private Semaphore semaphore;
+   // held in shared mode by the writes, and exclusively by the purge while it checks and removes expired entries
+   private final ReadWriteLock writeLock = new ReentrantReadWriteLock();
+   private volatile boolean stopped = true;
+
+   private KeyPartitioner keyPartitioner;
+   private boolean segmented;
+   private int numSegments;
+
+   private DBOptions dbOptions;
+   private ColumnFamilyOptions dataOptions;
+   private ColumnFamilyOptions expiryOptions;
+   private WriteOptions writeOptions;
+   private ReadOptions iterationOptions;
+   private RocksDB db;
+   private ColumnFamilyHandle defaultHandle;
+   private ColumnFamilyHandle expiryHandle;
+   private ColumnFamilyHandle[] dataHandles;
+
+   @Override
+   public void init(InitializationContext ctx) {
+      RocksDB.loadLibrary();
+      this.configuration = ctx.getConfiguration();
+      this.ctx = ctx;
+      this.semaphore = new Semaphore(Integer.MAX_VALUE, true);
+   }
+
+   @Override
+   public void start() {
+      initializeSegments();
+      String location = getQualifiedLocation();
+      new File(location).mkdirs();
+
+      dbOptions = new DBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true);
+      dataOptions = dataColumnFamilyOptions();
+      expiryOptions = new ColumnFamilyOptions();
+      writeOptions = new WriteOptions();
+      iterationOptions = new ReadOptions().setFillCache(false);
+      try {
+         List<ColumnFamilyDescriptor> descriptors = new ArrayList<>(numSegments + 2);
+         // the default column family must always be opened, but it is not used
+         descriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, expiryOptions));
+         descriptors.add(new ColumnFamilyDescriptor(bytes(EXPIRY_COLUMN_FAMILY), expiryOptions));
+         for (int i = 0; i < numSegments; i++) {
+            descriptors.add(new ColumnFamilyDescriptor(dataColumnFamilyName(i), dataOptions));
+         }
+         checkColumnFamilies(location, descriptors);
+
+         List<ColumnFamilyHandle> handles = new ArrayList<>(descriptors.size());
+         db = RocksDB.open(dbOptions, location, descriptors, handles);
+         defaultHandle = handles.get(0);
+         expiryHandle = handles.get(1);
+         dataHandles = handles.subList(2, handles.size()).toArray(new ColumnFamilyHandle[numSegments]);
+         stopped = false;
+      } catch (RocksDBException e) {
+         closeOptions();
+         throw log.unableToOpenRocksDB(location, e);
+      } catch (RuntimeException e) {
+         closeOptions();
+         throw e;
+      }
+   }
+
+   private void initializeSegments() {
+      Configuration cacheConfiguration = ctx.getCache().getCacheConfiguration();
+      keyPartitioner = PersistenceUtil.getKeyPartitioner(ctx);
+      segmented = configuration.segmented() && cacheConfiguration.clustering().cacheMode().needsStateTransfer();
+      numSegments = segmented ? cacheConfiguration.clustering().hash().numSegments() : 1;
+   }
+
+   /**
+    * The column families are created on the first start, an existing store must have exactly the column families
+    * of the current configuration or the entries would be looked up in the wrong segment.
+    */
+   private void checkColumnFamilies(String location, List<ColumnFamilyDescriptor> descriptors) throws RocksDBException {
+      if (!new File(location, "CURRENT").exists()) {
+         return;
+      }
+      List<byte[]> existing;
+      try (Options options = new Options()) {
+         existing = RocksDB.listColumnFamilies(options, location);
+      }
+      Set<String> existingNames = new TreeSet<>();
+      for (byte[] name : existing) {
+         existingNames.add(new String(name, StandardCharsets.UTF_8));
+      }
+      Set<String> expectedNames = new HashSet<>();
+      for (ColumnFamilyDescriptor descriptor : descriptors) {
+         expectedNames.add(new String(descriptor.columnFamilyName(), StandardCharsets.UTF_8));
+      }
+      // a new store only has the default column family
+      if (existingNames.size() > 1 && !existingNames.equals(expectedNames)) {
+         throw log.incompatibleColumnFamilies(location, existingNames.toString(), numSegments, segmented);
+      }
+   }
+
+   private ColumnFamilyOptions dataColumnFamilyOptions() {
+      ColumnFamilyOptions options = new ColumnFamilyOptions();
+      options.setCompressionType(configuration.compressionType().getValue());
+
+      BlockBasedTableConfig tableConfig = new BlockBasedTableConfig();
+      if (configuration.blockSize() > 0) {
+         tableConfig.setBlockSize(configuration.blockSize());
+      }
+      if (configuration.cacheSize() > 0) {
+         // the options are shared by all the column families, and so is the block cache
+         tableConfig.setBlockCacheSize(configuration.cacheSize());
+      }
+      options.setTableFormatConfig(tableConfig);
+
+      if (segmented) {
+         options.setWriteBufferSize(SEGMENT_WRITE_BUFFER_SIZE);
+      }
+      return options;
+   }
+
+   private String sanitizedCacheName() {
+      return ctx.getCache().getName().replaceAll("[^a-zA-Z0-9-_\\.]", "_");
+   }
+
+   private String getQualifiedLocation() {
+      return configuration.location() + sanitizedCacheName();
+   }
+
+   private byte[] dataColumnFamilyName(int segment) {
+      return bytes(segmented ? SEGMENT_COLUMN_FAMILY_PREFIX + segment : DATA_COLUMN_FAMILY);
+   }
+
+   private static byte[] bytes(String name) {
+      return name.getBytes(StandardCharsets.UTF_8);
+   }
+
+   @Override
+   public void stop() {
+      acquireExclusive();
+      try {
+         if (stopped) {
+            return;
+         }
+         for (ColumnFamilyHandle handle : dataHandles) {
+            handle.close();
+         }
+         expiryHandle.close();
+         defaultHandle.close();
+         try {
+            db.close();
+         } catch (Exception e) {
+            log.warnUnableToCloseDb(e);
+         }
+         closeOptions();
+      } finally {
+         stopped = true;
+         semaphore.release(Integer.MAX_VALUE);
+      }
+   }
+
+   private void closeOptions() {
+      iterationOptions.close();
+      writeOptions.close();
+      expiryOptions.close();
+      dataOptions.close();
+      dbOptions.close();
+   }
+
+   /**
+    * Drops and recreates the column families, which is much cheaper than deleting the entries one by one.
+    */
+   @Override
+   public void clear() {
+      acquireExclusive();
+      try {
+         checkStarted();
+         for (int i = 0; i < numSegments; i++) {
+            dataHandles[i] = recreateColumnFamily(dataHandles[i], dataColumnFamilyName(i), dataOptions);
+         }
+         expiryHandle = recreateColumnFamily(expiryHandle, bytes(EXPIRY_COLUMN_FAMILY), expiryOptions);
+      } catch (RocksDBException e) {
+         throw new PersistenceException(e);
+      } finally {
+         semaphore.release(Integer.MAX_VALUE);
+      }
+   }
+
+   private ColumnFamilyHandle recreateColumnFamily(ColumnFamilyHandle handle, byte[] name, ColumnFamilyOptions options)
+         throws RocksDBException {
+      db.dropColumnFamily(handle);
+      handle.close();
+      return db.createColumnFamily(new ColumnFamilyDescriptor(name, options));
+   }
+
+   @Override
+   public int size() {
+      return PersistenceUtil.count(this, null);
+   }
+
+   @Override
+   public boolean contains(Object key) {
+      return load(key) != null;
+   }
+
+   @Override
+   public void process(KeyFilter filter, CacheLoaderTask task, Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      process(null, filter, task, executor, fetchValue, fetchMetadata);
+   }
+
+   /**
+    * Only reads the column families of the given <b>segments</b> when the store is segmented.
+    */
+   @SuppressWarnings("unchecked")
+   @Override
+   public void process(Set segments, KeyFilter filter, CacheLoaderTask task, Executor executor, boolean fetchValue,
+                       boolean fetchMetadata) {
+      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      TaskContext taskContext = new TaskContextImpl();
+      boolean fetchEntry = fetchValue || fetchMetadata;
+      acquire();
+      try {
+         for (ColumnFamilyHandle handle : dataHandles((Set<Integer>) segments)) {
+            List<Map.Entry<byte[], byte[]>> batch = new ArrayList<>(BATCH_SIZE);
+            try (RocksIterator it = db.newIterator(handle, iterationOptions)) {
+               for (it.seekToFirst(); it.isValid() && !taskContext.isStopped(); it.next()) {
+                  batch.add(new AbstractMap.SimpleImmutableEntry<>(it.key(), fetchEntry ? it.value() : null));
+                  if (batch.size() == BATCH_SIZE) {
+                     submitProcessTask(task, filter, eacs, taskContext, batch, fetchValue, fetchMetadata);
+                     batch = new ArrayList<>(BATCH_SIZE);
+                  }
+               }
+            }
+            if (!batch.isEmpty()) {
+               submitProcessTask(task, filter, eacs, taskContext, batch, fetchValue, fetchMetadata);
+            }
+         }
+         eacs.waitUntilAllCompleted();
+         if (eacs.isExceptionThrown()) {
+            throw new PersistenceException("Execution exception!", eacs.getFirstException());
+         }
+      } finally {
+         semaphore.release();
+      }
+   }
+
+   private List<ColumnFamilyHandle> dataHandles(Set<Integer> segments) {
+      if (segments == null || !segmented) {
+         return Arrays.asList(dataHandles);
+      }
+      List<ColumnFamilyHandle> handles = new ArrayList<>(segments.size());
+      for (int segment : new TreeSet<>(segments)) {
+         if (segment >= 0 && segment < numSegments) {
+            handles.add(dataHandles[segment]);
+         }
+      }
+      return handles;
+   }
+
+   @SuppressWarnings("unchecked")
+   private void submitProcessTask(CacheLoaderTask task, KeyFilter filter, ExecutorAllCompletionService eacs,
+                                  TaskContext taskContext, List<Map.Entry<byte[], byte[]>> batch,
+                                  boolean fetchValue, boolean fetchMetadata) {
+      eacs.submit(() -> {
+         try {
+            long now = ctx.getTimeService().wallClockTime();
+            for (Map.Entry<byte[], byte[]> pair : batch) {
+               if (taskContext.isStopped()) {
+                  break;
+               }
+               Object key = unmarshall(pair.getKey());
+               if (filter == null || filter.accept(key)) {
+                  MarshalledEntry entry = pair.getValue() != null ? (MarshalledEntry) unmarshall(pair.getValue()) : null;
+                  boolean isExpired = entry != null && entry.getMetadata() != null && entry.getMetadata().isExpired(now);
+                  if (!isExpired) {
+                     if (!fetchValue || !fetchMetadata) {
+                        entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(
+                              key, fetchValue ? entry.getValue() : null, fetchMetadata ? entry.getMetadata() : null);
+                     }
+                     task.processEntry(entry, taskContext);
+                  }
+               }
+            }
+         } catch (Exception e) {
+            log.errorExecutingParallelStoreTask(e);
+            throw e;
+         }
+         return null;
+      });
+   }
+
+   @Override
+   public boolean delete(Object key) {
+      try {
+         byte[] keyBytes = marshall(key);
+         acquire();
+         writeLock.readLock().lock();
+         try {
+            ColumnFamilyHandle handle = dataHandle(key);
+            if (db.get(handle, keyBytes) == null) {
+               return false;
+            }
+            db.delete(handle, writeOptions, keyBytes);
+            return true;
+         } finally {
+            writeLock.readLock().unlock();
+            semaphore.release();
+         }
+      } catch (PersistenceException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   @Override
+   public void write(MarshalledEntry me) {
+      try {
+         byte[] keyBytes = marshall(me.getKey());
+         byte[] entryBytes = marshall(me);
+         long expiry = expiryTime(me);
+         acquire();
+         writeLock.readLock().lock();
+         try {
+            ColumnFamilyHandle handle = dataHandle(me.getKey());
+            if (expiry < 0) {
+               db.put(handle, writeOptions, keyBytes, entryBytes);
+            } else {
+               try (WriteBatch batch = new WriteBatch()) {
+                  batch.put(handle, keyBytes, entryBytes);
+                  batch.put(expiryHandle, expiryKey(expiry, keyBytes), EMPTY);
+                  db.write(writeOptions, batch);
+               }
+            }
+         } finally {
+            writeLock.readLock().unlock();
+            semaphore.release();
+         }
+      } catch (PersistenceException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   @Override
+   public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      acquire();
+      writeLock.readLock().lock();
+      try (WriteBatch batch = new WriteBatch()) {
+         for (MarshalledEntry<? extends K, ? extends V> me : entries) {
+            byte[] keyBytes = marshall(me.getKey());
+            batch.put(dataHandle(me.getKey()), keyBytes, marshall(me));
+            long expiry = expiryTime(me);
+            if (expiry >= 0) {
+               batch.put(expiryHandle, expiryKey(expiry, keyBytes), EMPTY);
+            }
+         }
+         db.write(writeOptions, batch);
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         writeLock.readLock().unlock();
+         semaphore.release();
+      }
+   }
+
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      acquire();
+      writeLock.readLock().lock();
+      try (WriteBatch batch = new WriteBatch()) {
+         for (Object key : keys) {
+            batch.remove(dataHandle(key), marshall(key));
+         }
+         db.write(writeOptions, batch);
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         writeLock.readLock().unlock();
+         semaphore.release();
+      }
+   }
+
+   @Override
+   public MarshalledEntry load(Object key) {
+      try {
+         byte[] keyBytes = marshall(key);
+         byte[] entryBytes;
+         acquire();
+         try {
+            entryBytes = db.get(dataHandle(key), keyBytes);
+         } finally {
+            semaphore.release();
+         }
+         MarshalledEntry me = (MarshalledEntry) unmarshall(entryBytes);
+         if (me == null) return null;
+
+         InternalMetadata meta = me.getMetadata();
+         if (meta != null && meta.isExpired(ctx.getTimeService().wallClockTime())) {
+            return null;
+         }
+         return me;
+      } catch (PersistenceException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   @Override
+   public void purge(Executor executor, PurgeListener purgeListener) {
+      acquire();
+      try (RocksIterator it = db.newIterator(expiryHandle, iterationOptions)) {
+         long now = ctx.getTimeService().wallClockTime();
+         List<byte[]> expiryKeys = new ArrayList<>(BATCH_SIZE);
+         int count = 0;
+         for (it.seekToFirst(); it.isValid(); it.next()) {
+            byte[] expiryKey = it.key();
+            if (ByteBuffer.wrap(expiryKey).getLong() > now) {
+               break;
+            }
+            expiryKeys.add(expiryKey);
+            if (expiryKeys.size() == BATCH_SIZE) {
+               count += purgeExpired(expiryKeys, now, purgeListener);
+               expiryKeys.clear();
+            }
+         }
+         count += purgeExpired(expiryKeys, now, purgeListener);
+         if (count != 0)
+            log.debugf("purged %d entries", count);
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         semaphore.release();
+      }
+   }
+
+   /**
+    * Removes the expiry records and the entries they refer to that are still expired. The entries are read again
+    * while holding the write lock exclusively, so an entry written again since its expiry record was read is kept.
+    *
+    * @return the number of entries removed.
+    */
+   private int purgeExpired(List<byte[]> expiryKeys, long now, PurgeListener purgeListener) throws Exception {
+      if (expiryKeys.isEmpty()) {
+         return 0;
+      }
+      List<Object> purged = new ArrayList<>(expiryKeys.size());
+      writeLock.writeLock().lock();
+      try (WriteBatch batch = new WriteBatch()) {
+         for (byte[] expiryKey : expiryKeys) {
+            batch.remove(expiryHandle, expiryKey);
+            byte[] keyBytes = Arrays.copyOfRange(expiryKey, 8, expiryKey.length);
+            Object key = unmarshall(keyBytes);
+            ColumnFamilyHandle handle = dataHandle(key);
+            MarshalledEntry me = (MarshalledEntry) unmarshall(db.get(handle, keyBytes));
+            if (me != null && me.getMetadata() != null && me.getMetadata().isExpired(now)) {
+               batch.remove(handle, keyBytes);
+               purged.add(key);
+            }
+         }
+         db.write(writeOptions, batch);
+      } finally {
+         writeLock.writeLock().unlock();
+      }
+      for (Object key : purged) {
+         purgeListener.entryPurged(key);
+      }
+      return purged.size();
+   }
+
+   private ColumnFamilyHandle dataHandle(Object key) {
+      return segmented ? dataHandles[keyPartitioner.getSegment(key)] : dataHandles[0];
+   }
+
+   private long expiryTime(MarshalledEntry me) {
+      InternalMetadata meta = me.getMetadata();
+      if (meta == null || meta.expiryTime() < 0) {
+         return -1;
+      }
+      if (meta.maxIdle() > 0) {
+         // the last access time of a transient entry is not stored, so it can only expire after maxIdle
+         return meta.maxIdle() + ctx.getTimeService().wallClockTime();
+      }
+      return meta.expiryTime();
+   }
+
+   /**
+    * The expiry records are ordered by the big-endian expiry time, followed by the key to keep them unique.
+    */
+   private static byte[] expiryKey(long expiry, byte[] keyBytes) {
+      return ByteBuffer.allocate(8 + keyBytes.length).putLong(expiry).put(keyBytes).array();
+   }
+
+   private void acquire() {
+      try {
+         semaphore.acquire();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException("Cannot acquire semaphore: CacheStore is likely stopped.", e);
+      }
+      if (stopped) {
+         semaphore.release();
+         throw new PersistenceException("RocksDB is stopped");
+      }
+   }
+
+   private void acquireExclusive() {
+      try {
+         semaphore.acquire(Integer.MAX_VALUE);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException("Cannot acquire semaphore", e);
+      }
+   }
+
+   private void checkStarted() {
+      if (stopped) {
+         throw new PersistenceException("RocksDB is stopped");
+      }
+   }
+
+   private byte[] marshall(Object entry) throws IOException, InterruptedException {
+      return ctx.getMarshaller().objectToByteBuffer(entry);
+   }
+
+   private Object unmarshall(byte[] bytes) throws IOException, ClassNotFoundException {
+      if (bytes == null)
+         return null;
+
+      return ctx.getMarshaller().objectFromByteBuffer(bytes);
+   }
+}
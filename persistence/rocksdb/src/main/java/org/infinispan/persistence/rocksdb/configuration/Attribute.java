@@ -0,0 +1,60 @@
+package org.infinispan.persistence.rocksdb.configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enumerates the attributes used by the RocksDB cache store configuration
+ *
+ * @since 9.0
+ */
+public enum Attribute {
+   // must be first
+   UNKNOWN(null),
+
+   BLOCK_SIZE("block-size"),
+   CACHE_SIZE("cache-size"),
+   PATH("path"),
+   RELATIVE_TO("relative-to"),
+   SEGMENTED("segmented"),
+   TYPE("type"),
+   ;
+
+   private final String name;
+
+   Attribute(final String name) {
+      this.name = name;
+   }
+
+   /**
+    * Get the local name of this element.
+    *
+    * @return the local name
+    */
+   public String getLocalName() {
+      return name;
+   }
+
+   private static final Map<String, Attribute> attributes;
+
+   static {
+      final Map<String, Attribute> map = new HashMap<>(16);
+      for (Attribute attribute : values()) {
+         final String name = attribute.getLocalName();
+         if (name != null) {
+            map.put(name, attribute);
+         }
+      }
+      attributes = map;
+   }
+
+   public static Attribute forName(final String localName) {
+      final Attribute attribute = attributes.get(localName);
+      return attribute == null ? UNKNOWN : attribute;
+   }
+
+   @Override
+   public String toString() {
+      return name;
+   }
+}
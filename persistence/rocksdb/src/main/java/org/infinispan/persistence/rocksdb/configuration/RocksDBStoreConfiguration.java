@@ -0,0 +1,71 @@
+package org.infinispan.persistence.rocksdb.configuration;
+
+import org.infinispan.commons.configuration.BuiltBy;
+import org.infinispan.commons.configuration.ConfigurationFor;
+import org.infinispan.commons.configuration.attributes.Attribute;
+import org.infinispan.commons.configuration.attributes.AttributeDefinition;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.configuration.cache.AbstractStoreConfiguration;
+import org.infinispan.configuration.cache.AsyncStoreConfiguration;
+import org.infinispan.configuration.cache.SingletonStoreConfiguration;
+import org.infinispan.configuration.serializing.SerializedWith;
+import org.infinispan.persistence.rocksdb.RocksDBStore;
+
+/**
+ * Configuration for {@link RocksDBStore}.
+ *
+ * @since 9.0
+ */
+@ConfigurationFor(RocksDBStore.class)
+@BuiltBy(RocksDBStoreConfigurationBuilder.class)
+@SerializedWith(RocksDBStoreConfigurationSerializer.class)
+public class RocksDBStoreConfiguration extends AbstractStoreConfiguration {
+   final static AttributeDefinition<String> LOCATION = AttributeDefinition.builder("location", "Infinispan-RocksDBStore/data").immutable().xmlName("path").build();
+   final static AttributeDefinition<CompressionType> COMPRESSION_TYPE = AttributeDefinition.builder("compressionType", CompressionType.NONE).immutable().autoPersist(false).build();
+   final static AttributeDefinition<Integer> BLOCK_SIZE = AttributeDefinition.builder("blockSize", 0).immutable().build();
+   final static AttributeDefinition<Long> CACHE_SIZE = AttributeDefinition.builder("cacheSize", 0l).immutable().build();
+   final static AttributeDefinition<Boolean> SEGMENTED = AttributeDefinition.builder("segmented", true).immutable().build();
+
+   public static AttributeSet attributeDefinitionSet() {
+      return new AttributeSet(RocksDBStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, COMPRESSION_TYPE,
+            BLOCK_SIZE, CACHE_SIZE, SEGMENTED);
+   }
+
+   private final Attribute<String> location;
+   private final Attribute<CompressionType> compressionType;
+   private final Attribute<Integer> blockSize;
+   private final Attribute<Long> cacheSize;
+   private final Attribute<Boolean> segmented;
+
+   public RocksDBStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async, SingletonStoreConfiguration singletonStore) {
+      super(attributes, async, singletonStore);
+      location = attributes.attribute(LOCATION);
+      compressionType = attributes.attribute(COMPRESSION_TYPE);
+      blockSize = attributes.attribute(BLOCK_SIZE);
+      cacheSize = attributes.attribute(CACHE_SIZE);
+      segmented = attributes.attribute(SEGMENTED);
+   }
+
+   public String location() {
+      return location.get();
+   }
+
+   public CompressionType compressionType() {
+      return compressionType.get();
+   }
+
+   public int blockSize() {
+      return blockSize.get();
+   }
+
+   public long cacheSize() {
+      return cacheSize.get();
+   }
+
+   /**
+    * Whether the entries of each segment are kept in their own column family.
+    */
+   public boolean segmented() {
+      return segmented.get();
+   }
+}
@@ -0,0 +1,70 @@
+package org.infinispan.persistence.rocksdb.configuration;
+
+import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.BLOCK_SIZE;
+import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.CACHE_SIZE;
+import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.COMPRESSION_TYPE;
+import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.LOCATION;
+import static org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration.SEGMENTED;
+
+import org.infinispan.commons.configuration.Builder;
+import org.infinispan.configuration.cache.AbstractStoreConfigurationBuilder;
+import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+
+/**
+ * Builds a {@link RocksDBStoreConfiguration}.
+ *
+ * @since 9.0
+ */
+public class RocksDBStoreConfigurationBuilder extends AbstractStoreConfigurationBuilder<RocksDBStoreConfiguration, RocksDBStoreConfigurationBuilder> {
+
+   public RocksDBStoreConfigurationBuilder(PersistenceConfigurationBuilder builder) {
+      super(builder, RocksDBStoreConfiguration.attributeDefinitionSet());
+   }
+
+   public RocksDBStoreConfigurationBuilder location(String location) {
+      attributes.attribute(LOCATION).set(location);
+      return self();
+   }
+
+   public RocksDBStoreConfigurationBuilder blockSize(int blockSize) {
+      attributes.attribute(BLOCK_SIZE).set(blockSize);
+      return self();
+   }
+
+   public RocksDBStoreConfigurationBuilder cacheSize(long cacheSize) {
+      attributes.attribute(CACHE_SIZE).set(cacheSize);
+      return self();
+   }
+
+   public RocksDBStoreConfigurationBuilder compressionType(CompressionType compressionType) {
+      attributes.attribute(COMPRESSION_TYPE).set(compressionType);
+      return self();
+   }
+
+   /**
+    * Whether the entries of each segment are kept in their own column family, so that the entries of some segments
+    * can be iterated without reading the others. Enabled by default. The store cannot be reopened with a
+    * different setting or a different number of segments without clearing it first.
+    */
+   public RocksDBStoreConfigurationBuilder segmented(boolean segmented) {
+      attributes.attribute(SEGMENTED).set(segmented);
+      return self();
+   }
+
+   @Override
+   public RocksDBStoreConfiguration create() {
+      return new RocksDBStoreConfiguration(attributes.protect(), async.create(), singletonStore.create());
+   }
+
+   @Override
+   public Builder<?> read(RocksDBStoreConfiguration template) {
+      super.read(template);
+      return self();
+   }
+
+   @Override
+   public RocksDBStoreConfigurationBuilder self() {
+      return this;
+   }
+
+}
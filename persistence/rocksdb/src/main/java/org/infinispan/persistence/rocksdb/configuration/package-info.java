@@ -0,0 +1,6 @@
+/**
+ * Configuration for {@link org.infinispan.persistence.rocksdb.RocksDBStore}
+ *
+ * @public
+ */
+package org.infinispan.persistence.rocksdb.configuration;
@@ -0,0 +1,30 @@
+package org.infinispan.persistence.rocksdb.logging;
+
+import static org.jboss.logging.Logger.Level.WARN;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.jboss.logging.annotations.Cause;
+import org.jboss.logging.annotations.LogMessage;
+import org.jboss.logging.annotations.Message;
+import org.jboss.logging.annotations.MessageLogger;
+
+/**
+ * Log abstraction for the RocksDB cache store. For this module, message ids ranging from 24001 to
+ * 25000 inclusively have been reserved.
+ *
+ * @since 9.0
+ */
+@MessageLogger(projectCode = "ISPN")
+public interface Log extends org.infinispan.util.logging.Log {
+
+   @Message(value = "Unable to open the RocksDB store at %s", id = 24001)
+   CacheConfigurationException unableToOpenRocksDB(String location, @Cause Throwable cause);
+
+   @Message(value = "The RocksDB store at %s contains the column families %s, which do not match %d segments with segmented=%s. " +
+         "Clear the store or restore the previous configuration.", id = 24002)
+   CacheConfigurationException incompatibleColumnFamilies(String location, String columnFamilies, int numSegments, boolean segmented);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to close the RocksDB store", id = 24003)
+   void warnUnableToCloseDb(@Cause Throwable throwable);
+}
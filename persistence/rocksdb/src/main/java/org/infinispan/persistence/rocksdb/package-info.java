@@ -0,0 +1,6 @@
+/**
+ * RocksDB-based {@link org.infinispan.persistence.spi.AdvancedLoadWriteStore}
+ *
+ * @public
+ */
+package org.infinispan.persistence.rocksdb;
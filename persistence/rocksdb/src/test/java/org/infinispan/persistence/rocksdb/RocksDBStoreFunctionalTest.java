@@ -0,0 +1,28 @@
+package org.infinispan.persistence.rocksdb;
+
+import java.io.File;
+
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.persistence.BaseStoreFunctionalTest;
+import org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfigurationBuilder;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+@Test(groups = {"unit", "smoke"}, testName = "persistence.rocksdb.RocksDBStoreFunctionalTest")
+public class RocksDBStoreFunctionalTest extends BaseStoreFunctionalTest {
+   private String tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   @Override
+   protected PersistenceConfigurationBuilder createCacheStoreConfig(PersistenceConfigurationBuilder p, boolean preload) {
+      new File(tmpDirectory).mkdirs();
+      p.addStore(RocksDBStoreConfigurationBuilder.class).location(tmpDirectory + "/data").preload(preload);
+      return p;
+   }
+}
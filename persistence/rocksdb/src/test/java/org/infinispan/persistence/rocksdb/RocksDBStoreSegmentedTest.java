@@ -0,0 +1,78 @@
+package org.infinispan.persistence.rocksdb;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.HashConfiguration;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link RocksDBStore} with a column family per segment.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "persistence.rocksdb.RocksDBStoreSegmentedTest")
+public class RocksDBStoreSegmentedTest extends RocksDBStoreTest {
+
+   private HashConfiguration hashConfiguration;
+
+   @Override
+   protected ConfigurationBuilder createCacheConfig() {
+      ConfigurationBuilder cb = super.createCacheConfig();
+      cb.clustering().cacheMode(CacheMode.DIST_SYNC).hash().numSegments(16);
+      return cb;
+   }
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      hashConfiguration = createCacheConfig().build().clustering().hash();
+      return super.createStore();
+   }
+
+   public void testProcessSegments() {
+      KeyPartitioner partitioner = partitioner();
+      writeEntries(100);
+
+      Set<Integer> segments = new HashSet<>();
+      for (int i = 0; i < 5; i++) {
+         segments.add(partitioner.getSegment("k" + i));
+      }
+      Set<Object> expected = new HashSet<>();
+      for (int i = 0; i < 100; i++) {
+         if (segments.contains(partitioner.getSegment("k" + i))) {
+            expected.add("k" + i);
+         }
+      }
+
+      Set<Object> keys = ConcurrentHashMap.newKeySet();
+      cl.process(segments, null, (me, taskContext) -> keys.add(me.getKey()), new WithinThreadExecutor(), false, false);
+      assertEquals(expected, keys);
+      assertTrue(keys.size() < 100);
+   }
+
+   private KeyPartitioner partitioner() {
+      KeyPartitioner partitioner = hashConfiguration.keyPartitioner();
+      partitioner.init(hashConfiguration);
+      return partitioner;
+   }
+
+   private void writeEntries(int count) {
+      List<MarshalledEntry<?, ?>> entries = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+         entries.add(marshalledEntry("k" + i, "v" + i, null));
+      }
+      cl.writeBatch(entries);
+   }
+}
@@ -0,0 +1,58 @@
+package org.infinispan.persistence.rocksdb;
+
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.persistence.BaseStoreTest;
+import org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+@Test(groups = "unit", testName = "persistence.rocksdb.RocksDBStoreTest")
+public class RocksDBStoreTest extends BaseStoreTest {
+
+   protected String tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   protected ConfigurationBuilder createCacheConfig() {
+      ConfigurationBuilder cb = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      cb.persistence().addStore(RocksDBStoreConfigurationBuilder.class).location(tmpDirectory + "/data");
+      return cb;
+   }
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      clearTempDir();
+      RocksDBStore store = new RocksDBStore();
+      store.init(createContext(createCacheConfig().build()));
+      return store;
+   }
+
+   public void testPurgeKeepsEntriesWrittenAgain() {
+      cl.write(marshalledEntry(internalCacheEntry("k1", "v1", 1000)));
+      cl.write(marshalledEntry(internalCacheEntry("k2", "v2", 1000)));
+      timeService.advance(1001);
+      // the expiry record of k1 is left behind
+      cl.write(marshalledEntry("k1", "v1-again", null));
+
+      List<Object> purged = new ArrayList<>();
+      cl.purge(new WithinThreadExecutor(), purged::add);
+      assertEquals(1, purged.size());
+      assertEquals("k2", purged.get(0));
+      assertTrue(cl.contains("k1"));
+      assertEquals("v1-again", cl.load("k1").getValue());
+   }
+}
@@ -8,6 +8,7 @@
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.util.TimeService;
@@ -19,9 +20,13 @@
  * becomes cluttered with old records, the valid records are moved to another file and the old ones are dropped.
  * Expired records are moved as tombstones without values (records of entry removal).
  *
+ * Several files may be compacted in parallel, each compactor thread writes the moved records to its own file. The
+ * records are moved with compare-and-set requests to the index, so the threads do not need to coordinate. The amount
+ * of data read by all the threads together may be limited to a number of bytes per second.
+ *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
-class Compactor extends Thread {
+class Compactor {
    private static final Log log = LogFactory.getLog(Compactor.class);
    private static final boolean trace = log.isTraceEnabled();
 
@@ -34,6 +39,9 @@ class Compactor extends Thread {
    private final TimeService timeService;
    private final int maxFileSize;
    private final double compactionThreshold;
+   private final Thread[] threads;
+   private final Throttle throttle;
+   private final LongAdder writtenBytes = new LongAdder();
 
    private Index index;
    // as processing single scheduled compaction takes a lot of time, we don't use the queue to signalize
@@ -47,7 +55,14 @@ public Compactor(FileProvider fileProvider,
                     TemporaryTable temporaryTable,
                     BlockingQueue<IndexRequest> indexQueue,
                     Marshaller marshaller, TimeService timeService, int maxFileSize, double compactionThreshold) {
-      super("BCS-Compactor");
+      this(fileProvider, temporaryTable, indexQueue, marshaller, timeService, maxFileSize, compactionThreshold, 1, 0);
+   }
+
+   public Compactor(FileProvider fileProvider,
+                    TemporaryTable temporaryTable,
+                    BlockingQueue<IndexRequest> indexQueue,
+                    Marshaller marshaller, TimeService timeService, int maxFileSize, double compactionThreshold,
+                    int threadCount, long bytesPerSecond) {
       this.fileProvider = fileProvider;
       this.temporaryTable = temporaryTable;
       this.indexQueue = indexQueue;
@@ -55,7 +70,12 @@ public Compactor(FileProvider fileProvider,
       this.timeService = timeService;
       this.maxFileSize = maxFileSize;
       this.compactionThreshold = compactionThreshold;
-      this.start();
+      this.throttle = bytesPerSecond > 0 ? new Throttle(bytesPerSecond) : null;
+      this.threads = new Thread[threadCount];
+      for (int i = 0; i < threadCount; ++i) {
+         threads[i] = new Thread(this::compact, threadCount == 1 ? "BCS-Compactor" : "BCS-Compactor-" + i);
+         threads[i].start();
+      }
    }
 
    public void setIndex(Index index) {
@@ -122,8 +142,21 @@ private void schedule(int file, Stats stats) {
       }
    }
 
-   @Override
-   public void run() {
+   /**
+    * @return number of files waiting for a compactor thread
+    */
+   public int getScheduledFiles() {
+      return scheduledCompaction.size();
+   }
+
+   /**
+    * @return number of bytes written by the compactor threads since the store was started
+    */
+   public long getWrittenBytes() {
+      return writtenBytes.sum();
+   }
+
+   private void compact() {
       try {
          FileProvider.Log logFile = null;
          int currentOffset = 0;
@@ -153,6 +186,10 @@ public void run() {
                }
                continue;
             }
+            if (scheduledFile < 0) {
+               // the signal was already handled by this thread
+               continue;
+            }
 
             log.debugf("Compacting file %d", scheduledFile);
             int scheduledOffset = 0;
@@ -166,6 +203,9 @@ public void run() {
                   if (header == null) {
                      break;
                   }
+                  if (throttle != null) {
+                     throttle.acquire(header.totalLength());
+                  }
                   byte[] serializedKey = EntryRecord.readKey(handle, header, scheduledOffset);
                   Object key = marshaller.objectFromByteBuffer(serializedKey);
 
@@ -249,6 +289,7 @@ public void run() {
                         writtenLength = EntryHeader.HEADER_SIZE + header.keyLength();
                      }
                      EntryRecord.writeEntry(logFile.fileChannel, serializedKey, serializedMetadata, serializedValue, header.seqId(), header.expiryTime());
+                     writtenBytes.add(writtenLength);
                      TemporaryTable.LockedEntry lockedEntry = temporaryTable.replaceOrLock(key, logFile.fileId, entryOffset, scheduledFile, indexedOffset);
                      if (lockedEntry == null) {
                         if (trace) {
@@ -321,9 +362,9 @@ private void pauseCompactor(FileProvider.Log logFile) throws IOException, Interr
 
    public void clearAndPause() throws InterruptedException {
       compactorResume = new CountDownLatch(1);
-      compactorStop = new CountDownLatch(1);
+      compactorStop = new CountDownLatch(threads.length);
       clearSignal = true;
-      scheduledCompaction.put(-1);
+      signalThreads();
       compactorStop.await();
       scheduledCompaction.clear();
       fileStats.clear();
@@ -336,8 +377,46 @@ public void resumeAfterPause() {
 
    public void stopOperations() throws InterruptedException {
       terminateSignal = true;
-      scheduledCompaction.put(-1);
-      this.join();
+      signalThreads();
+      for (Thread thread : threads) {
+         thread.join();
+      }
+   }
+
+   private void signalThreads() throws InterruptedException {
+      // wake up the threads waiting for a scheduled file
+      for (int i = 0; i < threads.length; ++i) {
+         scheduledCompaction.put(-1);
+      }
+   }
+
+   /**
+    * Spaces out the reads of the compactor threads so that they don't read more than the given number of bytes per
+    * second together.
+    */
+   private static class Throttle {
+      private final double nanosPerByte;
+      private long nextFreeNanos = System.nanoTime();
+
+      private Throttle(long bytesPerSecond) {
+         this.nanosPerByte = TimeUnit.SECONDS.toNanos(1) / (double) bytesPerSecond;
+      }
+
+      void acquire(int bytes) throws InterruptedException {
+         long waitNanos;
+         synchronized (this) {
+            long now = System.nanoTime();
+            if (nextFreeNanos < now) {
+               // don't let the unused time accumulate into a burst
+               nextFreeNanos = now;
+            }
+            waitNanos = nextFreeNanos - now;
+            nextFreeNanos += (long) (bytes * nanosPerByte);
+         }
+         if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+         }
+      }
    }
 
    private static class Stats {
@@ -165,7 +165,28 @@ public static void writeEntry(FileChannel fileChannel, org.infinispan.commons.io
       }
    }
 
-   private static void write(FileChannel fileChannel, ByteBuffer buffer) throws IOException {
+   /**
+    * Serializes the entry into the buffer, which must have at least {@link LogRequest#length()} bytes remaining.
+    */
+   public static void writeEntry(ByteBuffer buffer, org.infinispan.commons.io.ByteBuffer serializedKey, org.infinispan.commons.io.ByteBuffer serializedMetadata, org.infinispan.commons.io.ByteBuffer serializedValue, long seqId, long expiration) {
+      if (EntryHeader.useMagic) {
+         buffer.putInt(EntryHeader.MAGIC);
+      }
+      buffer.putShort((short) serializedKey.getLength());
+      buffer.putShort(serializedMetadata == null ? (short) 0 : (short) serializedMetadata.getLength());
+      buffer.putInt(serializedValue == null ? 0 : serializedValue.getLength());
+      buffer.putLong(seqId);
+      buffer.putLong(expiration);
+      buffer.put(serializedKey.getBuf(), serializedKey.getOffset(), serializedKey.getLength());
+      if (serializedMetadata != null) {
+         buffer.put(serializedMetadata.getBuf(), serializedMetadata.getOffset(), serializedMetadata.getLength());
+      }
+      if (serializedValue != null) {
+         buffer.put(serializedValue.getBuf(), serializedValue.getOffset(), serializedValue.getLength());
+      }
+   }
+
+   static void write(FileChannel fileChannel, ByteBuffer buffer) throws IOException {
       while (buffer.hasRemaining()) fileChannel.write(buffer);
    }
 }
@@ -7,6 +7,7 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -25,6 +26,9 @@
  * Provides resource management for files - only limited amount of files may be opened in one moment, and opened file
  * should not be deleted. Also allows to generate file indexes.
  *
+ * Optionally the files that are not written anymore are mapped into memory when they are opened, and read through the
+ * mapping. The log files are always read through the channel, as they are still growing.
+ *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
 class FileProvider {
@@ -32,6 +36,7 @@ class FileProvider {
 
    private final File dataDir;
    private final int openFileLimit;
+   private final boolean memoryMapped;
    private final ArrayBlockingQueue<Record> recordQueue;
    private final ConcurrentMap<Integer, Record> openFiles = new ConcurrentHashMap<Integer, Record>();
    private final AtomicInteger currentOpenFiles = new AtomicInteger(0);
@@ -41,7 +46,12 @@ class FileProvider {
    private int nextFileId = 0;
 
    public FileProvider(String dataDir, int openFileLimit) {
+      this(dataDir, openFileLimit, false);
+   }
+
+   public FileProvider(String dataDir, int openFileLimit, boolean memoryMapped) {
       this.openFileLimit = openFileLimit;
+      this.memoryMapped = memoryMapped;
       this.recordQueue = new ArrayBlockingQueue<Record>(openFileLimit);
       this.dataDir = new File(dataDir);
       this.dataDir.mkdirs();
@@ -74,7 +84,14 @@ public Handle getFile(int fileId) throws IOException {
                      log.debug("File " + fileId + " was not found", e);
                      return null;
                   }
-                  Record newRecord = new Record(fileChannel, fileId);
+                  Record newRecord;
+                  try {
+                     newRecord = new Record(fileChannel, fileId, map(fileChannel, fileId));
+                  } catch (IOException e) {
+                     fileChannel.close();
+                     currentOpenFiles.decrementAndGet();
+                     throw e;
+                  }
                   Record other = openFiles.putIfAbsent(fileId, newRecord);
                   if (other != null) {
                      fileChannel.close();
@@ -153,6 +170,20 @@ private boolean tryCloseFile() throws IOException {
       return false;
    }
 
+   /**
+    * Called with the read lock held, so the set of log files cannot change.
+    */
+   private MappedByteBuffer map(FileChannel fileChannel, int fileId) throws IOException {
+      if (!memoryMapped || logFiles.contains(fileId)) {
+         return null;
+      }
+      long size = fileChannel.size();
+      if (size == 0 || size > Integer.MAX_VALUE) {
+         return null;
+      }
+      return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+   }
+
    protected FileChannel openChannel(int fileId) throws FileNotFoundException {
       return new RandomAccessFile(new File(dataDir, String.valueOf(fileId)), "r").getChannel();
    }
@@ -212,7 +243,7 @@ public void deleteFile(int fileId) {
       lock.readLock().lock();
       try {
          for (;;) {
-            Record newRecord = new Record(null, fileId);
+            Record newRecord = new Record(null, fileId, null);
             Record record = openFiles.putIfAbsent(fileId, newRecord);
             if (record == null) {
                newRecord.delete();
@@ -288,7 +319,22 @@ private Handle(Record record) {
 
       public int read(ByteBuffer buffer, long offset) throws IOException {
          if (!usable) throw new IllegalStateException();
-         return record.getFileChannel().read(buffer, offset);
+         MappedByteBuffer mapped = record.mappedBuffer;
+         if (mapped == null) {
+            return record.getFileChannel().read(buffer, offset);
+         }
+         if (offset >= mapped.limit()) {
+            return -1;
+         }
+         // the position of the shared mapping can't be used by concurrent readers
+         ByteBuffer source = mapped.duplicate();
+         source.position((int) offset);
+         if (source.remaining() > buffer.remaining()) {
+            source.limit((int) offset + buffer.remaining());
+         }
+         int read = source.remaining();
+         buffer.put(source);
+         return read;
       }
 
       @Override
@@ -311,12 +357,15 @@ public int getFileId() {
    private class Record {
       private final int fileId;
       private FileChannel fileChannel;
+      // the mapping is released by GC
+      private MappedByteBuffer mappedBuffer;
       private int handleCount;
       private boolean deleteOnClose = false;
 
-      private Record(FileChannel fileChannel, int fileId) {
+      private Record(FileChannel fileChannel, int fileId, MappedByteBuffer mappedBuffer) {
          this.fileChannel = fileChannel;
          this.fileId = fileId;
+         this.mappedBuffer = mappedBuffer;
       }
 
       FileChannel getFileChannel() {
@@ -334,6 +383,7 @@ void decreaseHandleCount() throws IOException {
             // but physically close and delete the file
             fileChannel.close();
             fileChannel = null;
+            mappedBuffer = null;
             openFiles.remove(fileId, this);
             delete();
          }
@@ -354,6 +404,7 @@ public int getFileId() {
       public void close() throws IOException {
          fileChannel.close();
          fileChannel = null;
+         mappedBuffer = null;
          if (deleteOnClose) {
             delete();
          }
@@ -369,6 +420,7 @@ public void deleteOnClose() throws IOException {
             if (fileChannel != null) {
                fileChannel.close();
                fileChannel = null;
+               mappedBuffer = null;
             }
             openFiles.remove(fileId, this);
             delete();
@@ -1,6 +1,10 @@
 package org.infinispan.persistence.sifs;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.util.logging.Log;
@@ -11,10 +15,20 @@
  * It writes the records to append-only log files, inserts the entry position into TemporaryTable and queues the position
  * to be persisted in Index.
  *
+ * The requests that arrive while the previous ones are written are processed as a batch: the records are serialized
+ * into a buffer and written with a single write, and if the writes should be synchronous, forced to disk once for
+ * the whole batch. The requestor threads are released after their batch was written, so with more concurrent writers
+ * the batches grow and the number of forces per write drops.
+ *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
 public class LogAppender extends Thread {
    private static final Log log = LogFactory.getLog(LogAppender.class);
+   /**
+    * Maximum number of requests written in a single batch, the requestor threads wait until the whole batch is written.
+    */
+   static final int MAX_BATCH_REQUESTS = 1024;
+   private static final int MAX_BUFFER_SIZE = 1024 * 1024;
 
    private final SyncProcessingQueue<LogRequest> queue;
    private final BlockingQueue<IndexRequest> indexQueue;
@@ -23,6 +37,12 @@ public class LogAppender extends Thread {
    private final int maxFileSize;
    private final Compactor compactor;
    private final FileProvider fileProvider;
+   private final LongAdder writtenBytes = new LongAdder();
+   private final java.nio.ByteBuffer buffer;
+   private final List<LogRequest> batch = new ArrayList<>();
+   private FileProvider.Log logFile;
+   // offset of the next record in the log file, including the records in the buffer
+   private int currentOffset = 0;
    private LogRequest pausedRequest;
    private long seqId = 0;
 
@@ -40,6 +60,7 @@ public class LogAppender extends Thread {
       this.fileProvider = fileProvider;
       this.syncWrites = syncWrites;
       this.maxFileSize = maxFileSize;
+      this.buffer = java.nio.ByteBuffer.allocateDirect(Math.min(maxFileSize, MAX_BUFFER_SIZE));
       start();
    }
 
@@ -47,6 +68,13 @@ public void setSeqId(long seqId) {
       this.seqId = seqId;
    }
 
+   /**
+    * @return number of bytes appended to the log files since the store was started
+    */
+   public long getWrittenBytes() {
+      return writtenBytes.sum();
+   }
+
    public void pause() throws InterruptedException {
       LogRequest pause = LogRequest.pauseRequest();
       queue.pushAndWait(pause);
@@ -67,12 +95,12 @@ public void resumeAfterPause() {
    @Override
    public void run() {
       try {
-         FileProvider.Log logFile = fileProvider.getFileForLog();
-         int currentOffset = 0;
+         logFile = fileProvider.getFileForLog();
          while (true) {
             LogRequest request = queue.pop();
             if (request != null) {
                if (request.isClear()) {
+                  writeBatch();
                   logFile.close();
                   queue.notifyNoWait();
                   request.pause();
@@ -81,34 +109,28 @@ public void run() {
                   log.debug("Appending records to " + logFile.fileId);
                   continue;
                } else if (request.isStop()) {
+                  writeBatch();
                   queue.notifyNoWait();
                   break;
                } else if (request.isPause()) {
+                  writeBatch();
                   queue.notifyNoWait();
                   request.pause();
                   continue;
                }
                if (currentOffset + request.length() > maxFileSize) {
                   // switch to next file
+                  writeBatch();
                   logFile.close();
                   compactor.completeFile(logFile.fileId);
                   currentOffset = 0;
                   logFile = fileProvider.getFileForLog();
                   log.debug("Appending records to " + logFile.fileId);
                }
-               long seqId = nextSeqId();
-               EntryRecord.writeEntry(logFile.fileChannel, request.getSerializedKey(), request.getSerializedMetadata(), request.getSerializedValue(), seqId, request.getExpiration());
-               int offset = request.getSerializedValue() == null ? ~currentOffset : currentOffset;
-               temporaryTable.set(request.getKey(), logFile.fileId, offset);
-               IndexRequest indexRequest = IndexRequest.update(request.getKey(), raw(request.getSerializedKey()),
-                     logFile.fileId, offset, request.length());
-               request.setIndexRequest(indexRequest);
-               indexQueue.put(indexRequest);
-               currentOffset += request.length();
+               append(request);
             } else {
-               if (syncWrites) {
-                  logFile.fileChannel.force(false);
-               }
+               // the queue is empty or the batch is complete
+               writeBatch();
                queue.notifyAndWait();
             }
          }
@@ -118,6 +140,52 @@ public void run() {
       }
    }
 
+   private void append(LogRequest request) throws IOException {
+      int length = request.length();
+      if (length > buffer.remaining()) {
+         flushBuffer();
+      }
+      long seqId = nextSeqId();
+      if (length > buffer.remaining()) {
+         // does not fit even into the empty buffer
+         EntryRecord.writeEntry(logFile.fileChannel, request.getSerializedKey(), request.getSerializedMetadata(), request.getSerializedValue(), seqId, request.getExpiration());
+      } else {
+         EntryRecord.writeEntry(buffer, request.getSerializedKey(), request.getSerializedMetadata(), request.getSerializedValue(), seqId, request.getExpiration());
+      }
+      int offset = request.getSerializedValue() == null ? ~currentOffset : currentOffset;
+      request.setIndexRequest(IndexRequest.update(request.getKey(), raw(request.getSerializedKey()),
+            logFile.fileId, offset, length));
+      batch.add(request);
+      currentOffset += length;
+      writtenBytes.add(length);
+   }
+
+   private void flushBuffer() throws IOException {
+      buffer.flip();
+      EntryRecord.write(logFile.fileChannel, buffer);
+      buffer.clear();
+   }
+
+   /**
+    * Writes the batched records with a single write, forces them to disk if the writes should be synchronous, and only
+    * then makes the records visible to readers and to the index.
+    */
+   private void writeBatch() throws IOException, InterruptedException {
+      if (batch.isEmpty()) {
+         return;
+      }
+      flushBuffer();
+      if (syncWrites) {
+         logFile.fileChannel.force(false);
+      }
+      for (LogRequest request : batch) {
+         IndexRequest indexRequest = request.getIndexRequest();
+         temporaryTable.set(request.getKey(), indexRequest.getFile(), indexRequest.getOffset());
+         indexQueue.put(indexRequest);
+      }
+      batch.clear();
+   }
+
    private byte[] raw(ByteBuffer buffer) {
       if (buffer.getBuf().length == buffer.getLength()) {
          return buffer.getBuf();
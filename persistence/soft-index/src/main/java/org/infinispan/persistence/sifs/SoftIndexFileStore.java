@@ -5,11 +5,19 @@
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.infinispan.Cache;
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.filter.KeyFilter;
+import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.jmx.CacheJmxRegistration;
+import org.infinispan.jmx.JmxUtil;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
 import org.infinispan.metadata.InternalMetadata;
@@ -95,14 +103,19 @@
  * Reader threads crawl the tree from top down, locking the parent node (for reading),
  * locking child node and unlocking parent node.
  *
+ * When the statistics of the cache are enabled, the store registers a {@link SoftIndexFileStoreMBean}
+ * with the compaction backlog and the write amplification next to the MBeans of the cache.
+ * The object name contains the data location, so several stores of one cache do not clash.
+ *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
-public class SoftIndexFileStore implements AdvancedLoadWriteStore {
+public class SoftIndexFileStore implements AdvancedLoadWriteStore, SoftIndexFileStoreMBean {
 
    private static final Log log = LogFactory.getLog(SoftIndexFileStore.class);
    private static final boolean trace = log.isTraceEnabled();
 
    private SoftIndexFileStoreConfiguration configuration;
+   private Cache cache;
    private boolean started = false;
    private TemporaryTable temporaryTable;
    private IndexQueue indexQueue;
@@ -117,10 +130,13 @@ public class SoftIndexFileStore implements AdvancedLoadWriteStore {
    private TimeService timeService;
    private Equivalence<Object> keyEquivalence;
    private int maxKeyLength;
+   private MBeanServer mbeanServer;
+   private ObjectName objectName;
 
    @Override
    public void init(InitializationContext ctx) {
       configuration = ctx.getConfiguration();
+      cache = ctx.getCache();
       marshaller = ctx.getMarshaller();
       marshalledEntryFactory = ctx.getMarshalledEntryFactory();
       byteBufferFactory = ctx.getByteBufferFactory();
@@ -136,10 +152,11 @@ public void start() {
       }
       started = true;
       temporaryTable = new TemporaryTable(configuration.indexQueueLength() * configuration.indexSegments(), keyEquivalence);
-      storeQueue = new SyncProcessingQueue<LogRequest>();
+      storeQueue = new SyncProcessingQueue<LogRequest>(LogAppender.MAX_BATCH_REQUESTS);
       indexQueue = new IndexQueue(configuration.indexSegments(), configuration.indexQueueLength(), keyEquivalence);
-      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit());
-      compactor = new Compactor(fileProvider, temporaryTable, indexQueue, marshaller, timeService, configuration.maxFileSize(), configuration.compactionThreshold());
+      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit(), configuration.memoryMappedReads());
+      compactor = new Compactor(fileProvider, temporaryTable, indexQueue, marshaller, timeService, configuration.maxFileSize(),
+            configuration.compactionThreshold(), configuration.compactionThreads(), configuration.compactionRate());
       logAppender = new LogAppender(storeQueue, indexQueue, temporaryTable, compactor, fileProvider, configuration.syncWrites(), configuration.maxFileSize());
       try {
          index = new Index(fileProvider, configuration.indexLocation(), configuration.indexSegments(),
@@ -188,6 +205,53 @@ public void afterFile(int file) {
          });
       }
       logAppender.setSeqId(maxSeqId.get() + 1);
+      if (cache.getCacheConfiguration().jmxStatistics().enabled()) {
+         registerMBean();
+      }
+   }
+
+   private void registerMBean() {
+      GlobalConfiguration globalConfig = cache.getCacheManager().getCacheManagerConfiguration();
+      try {
+         mbeanServer = JmxUtil.lookupMBeanServer(globalConfig);
+         objectName = new ObjectName(globalConfig.globalJmxStatistics().domain() + ":" + CacheJmxRegistration.CACHE_JMX_GROUP
+               + ",name=" + ObjectName.quote(cache.getName() + "(" + cache.getCacheConfiguration().clustering().cacheModeString().toLowerCase() + ")")
+               + ",manager=" + ObjectName.quote(globalConfig.globalJmxStatistics().cacheManagerName())
+               + ",component=SoftIndexFileStore,location=" + ObjectName.quote(configuration.dataLocation()));
+         JmxUtil.registerMBean(new StandardMBean(this, SoftIndexFileStoreMBean.class), objectName, mbeanServer);
+      } catch (Exception e) {
+         log.unableToRegisterMBeans(cache.getName());
+         log.debug("Cannot register the soft-index file store statistics", e);
+         objectName = null;
+      }
+   }
+
+   private void unregisterMBean() {
+      if (objectName == null) {
+         return;
+      }
+      try {
+         JmxUtil.unregisterMBean(objectName, mbeanServer);
+      } catch (Exception e) {
+         log.problemsUnregisteringMBeans(e);
+      } finally {
+         objectName = null;
+         mbeanServer = null;
+      }
+   }
+
+   @Override
+   public int getCompactionBacklog() {
+      return compactor.getScheduledFiles();
+   }
+
+   @Override
+   public double getWriteAmplification() {
+      long appended = logAppender.getWrittenBytes();
+      if (appended == 0) {
+         return 1;
+      }
+      return (double) (appended + compactor.getWrittenBytes()) / appended;
    }
 
    protected boolean isSeqIdOld(long seqId, Object key, byte[] serializedKey) throws IOException {
@@ -235,6 +299,7 @@ protected boolean isIndexLoaded() {
 
    @Override
    public void stop() {
+      unregisterMBean();
       try {
          logAppender.stopOperations();
          logAppender = null;
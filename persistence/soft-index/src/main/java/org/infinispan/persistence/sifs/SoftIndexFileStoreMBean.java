@@ -0,0 +1,20 @@
+package org.infinispan.persistence.sifs;
+
+/**
+ * Compaction statistics of a {@link SoftIndexFileStore}, registered by the store itself next to the MBeans of its cache.
+ *
+ * @since 9.0
+ */
+public interface SoftIndexFileStoreMBean {
+
+   /**
+    * @return number of data files waiting for compaction
+    */
+   int getCompactionBacklog();
+
+   /**
+    * @return ratio of the bytes written to the data files by both the writes and the compaction to the bytes
+    *         written by the writes alone
+    */
+   double getWriteAmplification();
+}
@@ -20,6 +20,9 @@
  * // terminate producers and process the rest of the queue
  * queue.notifyNoWait();
  *
+ * The elements are popped in the order they were pushed, so notifying the producers releases
+ * exactly those whose elements were popped so far.
+ *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
 public class SyncProcessingQueue<T> {
@@ -48,7 +51,7 @@ public void pushAndWait(T element) throws InterruptedException {
 
    public long push(T element) {
       synchronized (queue) {
-         queue.push(element);
+         queue.offer(element);
          queue.notify();
          pushIndex++;
          return pushIndex;
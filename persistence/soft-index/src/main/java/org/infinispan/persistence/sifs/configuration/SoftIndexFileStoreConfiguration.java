@@ -27,10 +27,14 @@ public class SoftIndexFileStoreConfiguration extends AbstractStoreConfiguration
    static final AttributeDefinition<Boolean> SYNC_WRITES = AttributeDefinition.builder("syncWrites", false).immutable().autoPersist(false).build();
    static final AttributeDefinition<Integer> OPEN_FILES_LIMIT = AttributeDefinition.builder("openFilesLimit", 1000).immutable().build();
    static final AttributeDefinition<Double> COMPACTION_THRESHOLD = AttributeDefinition.builder("compactionThreshold", 0.5d).immutable().build();
+   static final AttributeDefinition<Integer> COMPACTION_THREADS = AttributeDefinition.builder("compactionThreads", 1).immutable().build();
+   static final AttributeDefinition<Long> COMPACTION_RATE = AttributeDefinition.builder("compactionRate", 0L).immutable().build();
+   static final AttributeDefinition<Boolean> MEMORY_MAPPED_READS = AttributeDefinition.builder("memoryMappedReads", false).immutable().autoPersist(false).build();
 
    public static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), DATA_LOCATION, INDEX_LOCATION, INDEX_SEGMENTS, MAX_FILE_SIZE,
-            MIN_NODE_SIZE, MAX_NODE_SIZE, INDEX_QUEUE_LENGTH, SYNC_WRITES, OPEN_FILES_LIMIT, COMPACTION_THRESHOLD);
+            MIN_NODE_SIZE, MAX_NODE_SIZE, INDEX_QUEUE_LENGTH, SYNC_WRITES, OPEN_FILES_LIMIT, COMPACTION_THRESHOLD,
+            COMPACTION_THREADS, COMPACTION_RATE, MEMORY_MAPPED_READS);
    }
 
    public SoftIndexFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async, SingletonStoreConfiguration singletonStore) {
@@ -77,4 +81,16 @@ public double compactionThreshold() {
       return attributes.attribute(COMPACTION_THRESHOLD).get();
    }
 
+   public int compactionThreads() {
+      return attributes.attribute(COMPACTION_THREADS).get();
+   }
+
+   public long compactionRate() {
+      return attributes.attribute(COMPACTION_RATE).get();
+   }
+
+   public boolean memoryMappedReads() {
+      return attributes.attribute(MEMORY_MAPPED_READS).get();
+   }
+
 }
@@ -1,5 +1,6 @@
 package org.infinispan.persistence.sifs.configuration;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.configuration.cache.AbstractStoreConfigurationBuilder;
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
@@ -49,6 +50,11 @@ public SoftIndexFileStoreConfigurationBuilder indexQueueLength(int indexQueueLen
       attributes.attribute(INDEX_QUEUE_LENGTH).set(indexQueueLength);
       return this;
    }
+
+   /**
+    * Sets whether the writes should be confirmed only after they are forced to disk. The writes issued concurrently are
+    * appended and forced to disk together, so that the throughput grows with the number of writers.
+    */
    public SoftIndexFileStoreConfigurationBuilder syncWrites(boolean syncWrites) {
       attributes.attribute(SYNC_WRITES).set(syncWrites);
       return this;
@@ -64,6 +70,45 @@ public SoftIndexFileStoreConfigurationBuilder compactionThreshold(double compact
       return this;
    }
 
+   /**
+    * Number of threads compacting data files in parallel. Defaults to 1.
+    */
+   public SoftIndexFileStoreConfigurationBuilder compactionThreads(int compactionThreads) {
+      attributes.attribute(COMPACTION_THREADS).set(compactionThreads);
+      return this;
+   }
+
+   /**
+    * Maximum number of bytes per second read from the compacted files by all the compaction threads together, so that
+    * the compaction does not starve the regular reads and writes of disk bandwidth. Defaults to 0, which means
+    * unlimited.
+    */
+   public SoftIndexFileStoreConfigurationBuilder compactionRate(long compactionRate) {
+      attributes.attribute(COMPACTION_RATE).set(compactionRate);
+      return this;
+   }
+
+   /**
+    * If true, the data files that are not written anymore are mapped into memory and the entries are read from the
+    * mapping instead of with a system call for each read. The mapping of a file is released by the garbage collector,
+    * so the disk space of a compacted file may be reclaimed only some time after the file is deleted.
+    */
+   public SoftIndexFileStoreConfigurationBuilder memoryMappedReads(boolean memoryMappedReads) {
+      attributes.attribute(MEMORY_MAPPED_READS).set(memoryMappedReads);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      super.validate();
+      if (attributes.attribute(COMPACTION_THREADS).get() < 1) {
+         throw new CacheConfigurationException("compactionThreads must be at least 1");
+      }
+      if (attributes.attribute(COMPACTION_RATE).get() < 0) {
+         throw new CacheConfigurationException("compactionRate must not be negative");
+      }
+   }
+
    @Override
    public SoftIndexFileStoreConfiguration create() {
       return new SoftIndexFileStoreConfiguration(attributes.protect(),
@@ -74,6 +74,12 @@ private void parseSoftIndexFileStore(XMLExtendedStreamReader reader, SoftIndexFi
             case COMPACTION_THRESHOLD:
                builder.compactionThreshold(Double.parseDouble(value));
                break;
+            case COMPACTION_THREADS:
+               builder.compactionThreads(Integer.parseInt(value));
+               break;
+            case COMPACTION_RATE:
+               builder.compactionRate(Long.parseLong(value));
+               break;
             default:
                Parser.parseStoreAttribute(reader, i, builder);
                break;
@@ -112,6 +118,9 @@ private void parseData(XMLExtendedStreamReader reader, SoftIndexFileStoreConfigu
             case SYNC_WRITES:
                builder.syncWrites(Boolean.parseBoolean(value));
                break;
+            case MEMORY_MAPPED_READS:
+               builder.memoryMappedReads(Boolean.parseBoolean(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -0,0 +1,80 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.jmx.PerThreadMBeanServerLookup;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that every soft-index file store registers its own statistics MBean, and removes it when stopped.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.SoftIndexFileStoreMBeanTest")
+public class SoftIndexFileStoreMBeanTest extends SingleCacheManagerTest {
+   private static final String JMX_DOMAIN = SoftIndexFileStoreMBeanTest.class.getSimpleName();
+   private final String tmpDirectory = TestingUtil.tmpDirectory(getClass());
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManagerEnforceJmxDomain(JMX_DOMAIN);
+      ConfigurationBuilder builder = getDefaultStandaloneCacheConfig(false);
+      builder.jmxStatistics().enable();
+      builder.persistence()
+            .addStore(SoftIndexFileStoreConfigurationBuilder.class)
+               .indexLocation(tmpDirectory + "/index1").dataLocation(tmpDirectory + "/data1");
+      builder.persistence()
+            .addStore(SoftIndexFileStoreConfigurationBuilder.class)
+               .indexLocation(tmpDirectory + "/index2").dataLocation(tmpDirectory + "/data2");
+      cm.defineConfiguration("test", builder.build());
+      cache = cm.getCache("test");
+      return cm;
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+      new File(tmpDirectory).mkdirs();
+   }
+
+   public void testEachStoreRegistersItsStatistics() throws Exception {
+      MBeanServer mBeanServer = PerThreadMBeanServerLookup.getThreadMBeanServer();
+      ObjectName first = storeObjectName(tmpDirectory + "/data1");
+      ObjectName second = storeObjectName(tmpDirectory + "/data2");
+      assertTrue(mBeanServer.isRegistered(first));
+      assertTrue(mBeanServer.isRegistered(second));
+
+      cache.put("k", "v");
+      assertEquals(1.0, (Double) mBeanServer.getAttribute(first, "WriteAmplification"), 0.0);
+      assertEquals(0, mBeanServer.getAttribute(second, "CompactionBacklog"));
+
+      cache.stop();
+      assertFalse(mBeanServer.isRegistered(first));
+      assertFalse(mBeanServer.isRegistered(second));
+
+      cache.start();
+      assertTrue(mBeanServer.isRegistered(first));
+      assertTrue(mBeanServer.isRegistered(second));
+   }
+
+   private ObjectName storeObjectName(String dataLocation) throws Exception {
+      return new ObjectName(JMX_DOMAIN + ":type=Cache,name=" + ObjectName.quote("test(local)")
+            + ",manager=" + ObjectName.quote(cacheManager.getCacheManagerConfiguration().globalJmxStatistics().cacheManagerName())
+            + ",component=SoftIndexFileStore,location=" + ObjectName.quote(dataLocation));
+   }
+}
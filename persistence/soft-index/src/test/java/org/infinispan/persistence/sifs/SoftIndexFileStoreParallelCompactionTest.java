@@ -0,0 +1,44 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the {@link SoftIndexFileStoreTest} with memory-mapped reads and several compactor threads.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "persistence.SoftIndexFileStoreParallelCompactionTest")
+public class SoftIndexFileStoreParallelCompactionTest extends SoftIndexFileStoreTest {
+
+   @Override
+   protected void configureStore(SoftIndexFileStoreConfigurationBuilder storeBuilder) {
+      storeBuilder.memoryMappedReads(true).compactionThreads(3);
+   }
+
+   public void testCompactionMovesLiveEntries() {
+      int numEntries = 100;
+      for (int i = 0; i < numEntries; ++i) {
+         store.write(marshalledEntry(internalCacheEntry(key(i), "value" + i, -1)));
+      }
+      // overwrite most of the entries several times, so that the files with the rest get compacted
+      for (int round = 0; round < 5; ++round) {
+         for (int i = 0; i < numEntries; ++i) {
+            if (i % 4 == 0) {
+               continue;
+            }
+            store.write(marshalledEntry(internalCacheEntry(key(i), "value" + i + "-" + round, -1)));
+         }
+      }
+      eventually(() -> store.getWriteAmplification() > 1);
+      for (int i = 0; i < numEntries; ++i) {
+         MarshalledEntry entry = store.load(key(i));
+         assertNotNull(key(i), entry);
+         assertEquals(i % 4 == 0 ? "value" + i : "value" + i + "-4", entry.getValue());
+      }
+   }
+}
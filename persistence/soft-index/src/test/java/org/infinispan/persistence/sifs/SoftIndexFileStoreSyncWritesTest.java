@@ -0,0 +1,51 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the {@link SoftIndexFileStoreTest} with the writes forced to disk.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "persistence.SoftIndexFileStoreSyncWritesTest")
+public class SoftIndexFileStoreSyncWritesTest extends SoftIndexFileStoreTest {
+
+   @Override
+   protected void configureStore(SoftIndexFileStoreConfigurationBuilder storeBuilder) {
+      storeBuilder.syncWrites(true);
+   }
+
+   public void testConcurrentWrites() throws Exception {
+      int numThreads = 8;
+      int numEntries = 200;
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; ++t) {
+         int thread = t;
+         futures.add(fork(() -> {
+            for (int i = 0; i < numEntries; ++i) {
+               store.write(marshalledEntry(internalCacheEntry(key(thread * numEntries + i), "value" + i, -1)));
+            }
+         }));
+      }
+      for (Future<?> future : futures) {
+         future.get(30, TimeUnit.SECONDS);
+      }
+      for (int t = 0; t < numThreads; ++t) {
+         for (int i = 0; i < numEntries; ++i) {
+            MarshalledEntry entry = store.load(key(t * numEntries + i));
+            assertNotNull(entry);
+            assertEquals("value" + i, entry.getValue());
+         }
+      }
+   }
+}